@@ -204,6 +204,16 @@ public interface ConfigurationKeys {
      */
     String CLIENT_REPORT_SUCCESS_ENABLE = CLIENT_RM_PREFIX + "reportSuccessEnable";
 
+    /**
+     * The constant CLIENT_PIPELINE_COMMIT_ENABLE, send the AT branch register while the undo log is encoded.
+     */
+    String CLIENT_PIPELINE_COMMIT_ENABLE = CLIENT_RM_PREFIX + "pipelineCommitEnable";
+
+    /**
+     * The constant CLIENT_COMPACT_LOCK_KEY_ENABLE, send lock keys in binary form to TCs which support it.
+     */
+    String CLIENT_COMPACT_LOCK_KEY_ENABLE = CLIENT_RM_PREFIX + "compactLockKeyEnable";
+
     /**
      * The constant CLIENT_SAGA_BRANCH_REGISTER_ENABLE.
      */
@@ -365,6 +375,21 @@ public interface ConfigurationKeys {
      */
     String STORE_DB_LOG_QUERY_LIMIT = STORE_DB_PREFIX + "queryLimit";
 
+    /**
+     * The constant STORE_DB_GROUP_COMMIT_ENABLE.
+     */
+    String STORE_DB_GROUP_COMMIT_ENABLE = STORE_DB_PREFIX + "groupCommitEnable";
+
+    /**
+     * The constant STORE_DB_GROUP_COMMIT_MAX_BATCH_SIZE.
+     */
+    String STORE_DB_GROUP_COMMIT_MAX_BATCH_SIZE = STORE_DB_PREFIX + "groupCommitMaxBatchSize";
+
+    /**
+     * The constant STORE_DB_GROUP_COMMIT_WINDOW_MILLIS.
+     */
+    String STORE_DB_GROUP_COMMIT_WINDOW_MILLIS = STORE_DB_PREFIX + "groupCommitWindowMillis";
+
     /**
      * The constant STORE_DB_DRUID_TIME_BETWEEN_EVICTION_RUNS_MILLIS.
      */
@@ -485,6 +510,41 @@ public interface ConfigurationKeys {
      */
     String TIMEOUT_RETRY_PERIOD = RECOVERY_PREFIX + "timeoutRetryPeriod";
 
+    /**
+     * The constant RECOVERY_SHARD_ENABLED.
+     */
+    String RECOVERY_SHARD_ENABLED = RECOVERY_PREFIX + "shardEnabled";
+
+    /**
+     * The constant RECOVERY_SHARD_COUNT.
+     */
+    String RECOVERY_SHARD_COUNT = RECOVERY_PREFIX + "shardCount";
+
+    /**
+     * The constant RECOVERY_SHARD_QUEUE_SIZE.
+     */
+    String RECOVERY_SHARD_QUEUE_SIZE = RECOVERY_PREFIX + "shardQueueSize";
+
+    /**
+     * The constant RECOVERY_RESOURCE_MAX_CONCURRENCY.
+     */
+    String RECOVERY_RESOURCE_MAX_CONCURRENCY = RECOVERY_PREFIX + "resourceMaxConcurrency";
+
+    /**
+     * The constant RECOVERY_RESOURCE_MAX_BACKOFF.
+     */
+    String RECOVERY_RESOURCE_MAX_BACKOFF = RECOVERY_PREFIX + "resourceMaxBackoff";
+
+    /**
+     * The constant RECOVERY_TIMEOUT_WHEEL_ENABLED.
+     */
+    String RECOVERY_TIMEOUT_WHEEL_ENABLED = RECOVERY_PREFIX + "timeoutWheelEnabled";
+
+    /**
+     * The constant RECOVERY_TIMEOUT_FULL_SCAN_PERIOD.
+     */
+    String RECOVERY_TIMEOUT_FULL_SCAN_PERIOD = RECOVERY_PREFIX + "timeoutFullScanPeriod";
+
     /**
      * The constant CLIENT_UNDO_PREFIX.
      */
@@ -505,6 +565,28 @@ public interface ConfigurationKeys {
      */
     String TRANSACTION_UNDO_ONLY_CARE_UPDATE_COLUMNS = CLIENT_UNDO_PREFIX + "onlyCareUpdateColumns";
 
+    /**
+     * The constant TRANSACTION_UNDO_BATCH_SIZE, the undo rows sent in one jdbc batch, 1 executes them one by one.
+     */
+    String TRANSACTION_UNDO_BATCH_SIZE = CLIENT_UNDO_PREFIX + "batchSize";
+
+    /**
+     * The constant TRANSACTION_UNDO_PARALLELISM, the branches of one data source rolled back at the same time,
+     * 1 rolls them back on the calling thread.
+     */
+    String TRANSACTION_UNDO_PARALLELISM = CLIENT_UNDO_PREFIX + "parallelism";
+
+    /**
+     * The constant TRANSACTION_UNDO_FETCH_SIZE, the most branches whose undo logs are fetched in one query.
+     */
+    String TRANSACTION_UNDO_FETCH_SIZE = CLIENT_UNDO_PREFIX + "fetchSize";
+
+    /**
+     * The constant TRANSACTION_UNDO_STREAM_WRITE, whether the undo log is encoded and compressed into chunks
+     * and bound to its insert as a binary stream.
+     */
+    String TRANSACTION_UNDO_STREAM_WRITE = CLIENT_UNDO_PREFIX + "streamWrite";
+
     /**
      * the constant CLIENT_UNDO_COMPRESS_PREFIX
      */
@@ -777,6 +859,21 @@ public interface ConfigurationKeys {
      */
     String ENABLE_TC_SERVER_BATCH_SEND_RESPONSE = TRANSPORT_PREFIX + "enableTcServerBatchSendResponse";
 
+    /**
+     * The constant ENABLE_TC_SERVER_BATCH_SEND_REQUEST
+     */
+    String ENABLE_TC_SERVER_BATCH_SEND_REQUEST = TRANSPORT_PREFIX + "enableTcServerBatchSendRequest";
+
+    /**
+     * The constant TC_SERVER_BATCH_SEND_REQUEST_MAX_SIZE
+     */
+    String TC_SERVER_BATCH_SEND_REQUEST_MAX_SIZE = TRANSPORT_PREFIX + "tcServerBatchSendRequestMaxSize";
+
+    /**
+     * The constant TC_SERVER_BATCH_SEND_REQUEST_MAX_IN_FLIGHT
+     */
+    String TC_SERVER_BATCH_SEND_REQUEST_MAX_IN_FLIGHT = TRANSPORT_PREFIX + "tcServerBatchSendRequestMaxInFlight";
+
     /**
      * The constant DISABLE_GLOBAL_TRANSACTION.
      */
@@ -787,16 +884,31 @@ public interface ConfigurationKeys {
      */
     String SQL_PARSER_TYPE = CLIENT_RM_PREFIX + "sqlParserType";
 
+    /**
+     * The constant SQL_PARSER_CACHE_SIZE, the max parsed sql count cached per data source, 0 disables the cache.
+     */
+    String SQL_PARSER_CACHE_SIZE = CLIENT_RM_PREFIX + "sqlParserCacheSize";
+
+    /**
+     * The constant SQL_PARSER_CACHE_WEIGHT, the max total sql length cached per data source.
+     */
+    String SQL_PARSER_CACHE_WEIGHT = CLIENT_RM_PREFIX + "sqlParserCacheWeight";
+
     /**
      * The constant STORE_REDIS_MODE.
      */
     String STORE_REDIS_MODE = STORE_REDIS_PREFIX + "mode";
 
     /**
-     * The constant STORE_REDIS_TYPE. lua pipeline
+     * The constant STORE_REDIS_TYPE. lua pipeline compact
      */
     String STORE_REDIS_TYPE = STORE_REDIS_PREFIX + "type";
 
+    /**
+     * The constant STORE_FILE_LOCK_TYPE. bucket striped
+     */
+    String STORE_FILE_LOCK_TYPE = STORE_FILE_PREFIX + "lockType";
+
     /**
      * The constant STORE_REDIS_HOST.
      */
@@ -1135,6 +1247,26 @@ public interface ConfigurationKeys {
      */
     String SERVER_RAFT_COMPRESSOR = SERVER_RAFT + "compressor";
 
+    /**
+     * The constant SERVER_RAFT_SYNC_CODEC, binary or java.
+     */
+    String SERVER_RAFT_SYNC_CODEC = SERVER_RAFT + "syncCodec";
+
+    /**
+     * The constant SERVER_RAFT_SESSION_SNAPSHOT_MODE, full, stream or incremental.
+     */
+    String SERVER_RAFT_SESSION_SNAPSHOT_MODE = SERVER_RAFT + "sessionSnapshotMode";
+
+    /**
+     * The constant SERVER_RAFT_SESSION_SNAPSHOT_MAX_DELTAS.
+     */
+    String SERVER_RAFT_SESSION_SNAPSHOT_MAX_DELTAS = SERVER_RAFT + "sessionSnapshotMaxDeltas";
+
+    /**
+     * The constant SERVER_RAFT_FOLLOWER_READ.
+     */
+    String SERVER_RAFT_FOLLOWER_READ = SERVER_RAFT + "followerRead";
+
     /**
      * The constant SERVER_HTTP.
      */
@@ -1193,6 +1325,26 @@ public interface ConfigurationKeys {
      */
     String ENABLE_PARALLEL_HANDLE_BRANCH_KEY = SERVER_PREFIX + "enableParallelHandleBranch";
 
+    /**
+     * The constant PARALLEL_HANDLE_BRANCH_POOL_SIZE_KEY
+     */
+    String PARALLEL_HANDLE_BRANCH_POOL_SIZE_KEY = SERVER_PREFIX + "parallelHandleBranchPoolSize";
+
+    /**
+     * The constant PARALLEL_HANDLE_BRANCH_QUEUE_SIZE_KEY
+     */
+    String PARALLEL_HANDLE_BRANCH_QUEUE_SIZE_KEY = SERVER_PREFIX + "parallelHandleBranchQueueSize";
+
+    /**
+     * The constant LOCK_WAIT_TIMEOUT, how long a conflicting AT branch register waits for the rows, 0 disables it
+     */
+    String LOCK_WAIT_TIMEOUT = SERVER_PREFIX + "lockWaitTimeout";
+
+    /**
+     * The constant LOCK_WAIT_MAX_WAITERS, the most branch registers waiting for rows at the same time
+     */
+    String LOCK_WAIT_MAX_WAITERS = SERVER_PREFIX + "lockWaitMaxWaiters";
+
     /**
      * The constant RM_APPLICATION_DATA_SIZE_ERROR
      */
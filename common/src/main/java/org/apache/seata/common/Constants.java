@@ -209,6 +209,21 @@ public interface Constants {
      */
     String STORE_REDIS_TYPE_PIPELINE = "pipeline";
 
+    /**
+     * phase STORE_REDIS_TYPE_COMPACT
+     */
+    String STORE_REDIS_TYPE_COMPACT = "compact";
+
+    /**
+     * phase STORE_FILE_LOCK_TYPE_BUCKET
+     */
+    String STORE_FILE_LOCK_TYPE_BUCKET = "bucket";
+
+    /**
+     * phase STORE_FILE_LOCK_TYPE_STRIPED
+     */
+    String STORE_FILE_LOCK_TYPE_STRIPED = "striped";
+
     /**
      * The constant FASTJSON_JSON_PARSER_NAME
      */
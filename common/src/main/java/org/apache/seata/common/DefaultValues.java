@@ -60,6 +60,16 @@ public interface DefaultValues {
      * The constant DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE.
      */
     boolean DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE = false;
+
+    /**
+     * The constant DEFAULT_CLIENT_PIPELINE_COMMIT_ENABLE.
+     */
+    boolean DEFAULT_CLIENT_PIPELINE_COMMIT_ENABLE = false;
+
+    /**
+     * The constant DEFAULT_CLIENT_COMPACT_LOCK_KEY_ENABLE.
+     */
+    boolean DEFAULT_CLIENT_COMPACT_LOCK_KEY_ENABLE = false;
     /**
      * The constant DEFAULT_CLIENT_TABLE_META_CHECK_ENABLE.
      */
@@ -68,6 +78,14 @@ public interface DefaultValues {
      * The constant DEFAULT_TABLE_META_CHECKER_INTERVAL.
      */
     long DEFAULT_TABLE_META_CHECKER_INTERVAL = 60000L;
+    /**
+     * The constant DEFAULT_SQL_PARSER_CACHE_SIZE.
+     */
+    int DEFAULT_SQL_PARSER_CACHE_SIZE = 2048;
+    /**
+     * The constant DEFAULT_SQL_PARSER_CACHE_WEIGHT.
+     */
+    long DEFAULT_SQL_PARSER_CACHE_WEIGHT = 4 * 1024 * 1024L;
     /**
      * The constant DEFAULT_TM_DEGRADE_CHECK.
      */
@@ -97,6 +115,42 @@ public interface DefaultValues {
      * The constant DEFAULT_RAFT_COMPRESSOR.
      */
     String DEFAULT_RAFT_COMPRESSOR = "none";
+    /**
+     * The constant RAFT_SYNC_CODEC_BINARY.
+     */
+    String RAFT_SYNC_CODEC_BINARY = "binary";
+    /**
+     * The constant RAFT_SYNC_CODEC_JAVA.
+     */
+    String RAFT_SYNC_CODEC_JAVA = "java";
+    /**
+     * The constant DEFAULT_RAFT_SYNC_CODEC.
+     */
+    String DEFAULT_RAFT_SYNC_CODEC = RAFT_SYNC_CODEC_JAVA;
+    /**
+     * The constant RAFT_SESSION_SNAPSHOT_MODE_FULL.
+     */
+    String RAFT_SESSION_SNAPSHOT_MODE_FULL = "full";
+    /**
+     * The constant RAFT_SESSION_SNAPSHOT_MODE_STREAM.
+     */
+    String RAFT_SESSION_SNAPSHOT_MODE_STREAM = "stream";
+    /**
+     * The constant RAFT_SESSION_SNAPSHOT_MODE_INCREMENTAL.
+     */
+    String RAFT_SESSION_SNAPSHOT_MODE_INCREMENTAL = "incremental";
+    /**
+     * The constant DEFAULT_RAFT_SESSION_SNAPSHOT_MODE.
+     */
+    String DEFAULT_RAFT_SESSION_SNAPSHOT_MODE = RAFT_SESSION_SNAPSHOT_MODE_FULL;
+    /**
+     * The constant DEFAULT_RAFT_SESSION_SNAPSHOT_MAX_DELTAS.
+     */
+    int DEFAULT_RAFT_SESSION_SNAPSHOT_MAX_DELTAS = 10;
+    /**
+     * The constant DEFAULT_RAFT_FOLLOWER_READ.
+     */
+    boolean DEFAULT_RAFT_FOLLOWER_READ = true;
 
     /**
      * Shutdown timeout default 3s
@@ -140,6 +194,18 @@ public interface DefaultValues {
      * The constant DEFAULT_ENABLE_TC_SERVER_BATCH_SEND_RESPONSE.
      */
     boolean DEFAULT_ENABLE_TC_SERVER_BATCH_SEND_RESPONSE = false;
+    /**
+     * The constant DEFAULT_ENABLE_TC_SERVER_BATCH_SEND_REQUEST.
+     */
+    boolean DEFAULT_ENABLE_TC_SERVER_BATCH_SEND_REQUEST = false;
+    /**
+     * The constant DEFAULT_TC_SERVER_BATCH_SEND_REQUEST_MAX_SIZE.
+     */
+    int DEFAULT_TC_SERVER_BATCH_SEND_REQUEST_MAX_SIZE = 16;
+    /**
+     * The constant DEFAULT_TC_SERVER_BATCH_SEND_REQUEST_MAX_IN_FLIGHT.
+     */
+    int DEFAULT_TC_SERVER_BATCH_SEND_REQUEST_MAX_IN_FLIGHT = 4;
 
     /**
      * The constant DEFAULT_CLIENT_CHANNEL_CHECK_FAIL_FAST.
@@ -249,6 +315,22 @@ public interface DefaultValues {
      * The constant DEFAULT_ONLY_CARE_UPDATE_COLUMNS.
      */
     boolean DEFAULT_ONLY_CARE_UPDATE_COLUMNS = true;
+    /**
+     * The constant DEFAULT_TRANSACTION_UNDO_BATCH_SIZE.
+     */
+    int DEFAULT_TRANSACTION_UNDO_BATCH_SIZE = 500;
+    /**
+     * The constant DEFAULT_TRANSACTION_UNDO_PARALLELISM.
+     */
+    int DEFAULT_TRANSACTION_UNDO_PARALLELISM = 4;
+    /**
+     * The constant DEFAULT_TRANSACTION_UNDO_FETCH_SIZE.
+     */
+    int DEFAULT_TRANSACTION_UNDO_FETCH_SIZE = 32;
+    /**
+     * The constant DEFAULT_TRANSACTION_UNDO_STREAM_WRITE.
+     */
+    boolean DEFAULT_TRANSACTION_UNDO_STREAM_WRITE = false;
     /**
      * The constant  DEFAULT_TRANSACTION_UNDO_LOG_TABLE.
      */
@@ -488,6 +570,61 @@ public interface DefaultValues {
      */
     int DEFAULT_TIMEOUT_RETRY_PERIOD = 1000;
 
+    /**
+     * the constant DEFAULT_RECOVERY_SHARD_ENABLED
+     */
+    boolean DEFAULT_RECOVERY_SHARD_ENABLED = false;
+
+    /**
+     * the constant DEFAULT_RECOVERY_SHARD_COUNT, 0 means the available processors
+     */
+    int DEFAULT_RECOVERY_SHARD_COUNT = 0;
+
+    /**
+     * the constant DEFAULT_RECOVERY_SHARD_QUEUE_SIZE
+     */
+    int DEFAULT_RECOVERY_SHARD_QUEUE_SIZE = 10000;
+
+    /**
+     * the constant DEFAULT_RECOVERY_RESOURCE_MAX_CONCURRENCY
+     */
+    int DEFAULT_RECOVERY_RESOURCE_MAX_CONCURRENCY = 16;
+
+    /**
+     * the constant DEFAULT_RECOVERY_RESOURCE_MAX_BACKOFF
+     */
+    long DEFAULT_RECOVERY_RESOURCE_MAX_BACKOFF = 60 * 1000;
+
+    /**
+     * the constant DEFAULT_RECOVERY_TIMEOUT_WHEEL_ENABLED
+     */
+    boolean DEFAULT_RECOVERY_TIMEOUT_WHEEL_ENABLED = false;
+
+    /**
+     * the constant DEFAULT_RECOVERY_TIMEOUT_FULL_SCAN_PERIOD
+     */
+    long DEFAULT_RECOVERY_TIMEOUT_FULL_SCAN_PERIOD = 60 * 1000;
+
+    /**
+     * the constant DEFAULT_PARALLEL_HANDLE_BRANCH_POOL_SIZE, 0 means twice the available processors
+     */
+    int DEFAULT_PARALLEL_HANDLE_BRANCH_POOL_SIZE = 0;
+
+    /**
+     * the constant DEFAULT_PARALLEL_HANDLE_BRANCH_QUEUE_SIZE
+     */
+    int DEFAULT_PARALLEL_HANDLE_BRANCH_QUEUE_SIZE = 10000;
+
+    /**
+     * the constant DEFAULT_LOCK_WAIT_TIMEOUT, 0 means a lock conflict is returned at once
+     */
+    long DEFAULT_LOCK_WAIT_TIMEOUT = 0L;
+
+    /**
+     * the constant DEFAULT_LOCK_WAIT_MAX_WAITERS
+     */
+    int DEFAULT_LOCK_WAIT_MAX_WAITERS = 256;
+
     /**
      * the constant DEFAULT_UNDO_LOG_DELETE_PERIOD
      */
@@ -573,6 +710,21 @@ public interface DefaultValues {
      */
     int DEFAULT_QUERY_LIMIT = 1000;
 
+    /**
+     * The constant DEFAULT_STORE_DB_GROUP_COMMIT_ENABLE.
+     */
+    boolean DEFAULT_STORE_DB_GROUP_COMMIT_ENABLE = false;
+
+    /**
+     * The constant DEFAULT_STORE_DB_GROUP_COMMIT_MAX_BATCH_SIZE.
+     */
+    int DEFAULT_STORE_DB_GROUP_COMMIT_MAX_BATCH_SIZE = 64;
+
+    /**
+     * The constant DEFAULT_STORE_DB_GROUP_COMMIT_WINDOW_MILLIS.
+     */
+    long DEFAULT_STORE_DB_GROUP_COMMIT_WINDOW_MILLIS = 1L;
+
     /**
      * Default druid location in classpath
      */
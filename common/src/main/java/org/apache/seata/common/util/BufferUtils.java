@@ -16,7 +16,10 @@
  */
 package org.apache.seata.common.util;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.nio.Buffer;
+import java.nio.ByteBuffer;
 
 /**
  * Explicit cast to {@link Buffer} parent buffer type. It resolves issues with covariant return types in Java 9+ for
@@ -92,4 +95,40 @@ public class BufferUtils {
     public static void reset(Buffer buffer) {
         buffer.reset();
     }
+
+    /**
+     * Release the memory or the file mapping of a direct buffer now instead of when it is garbage collected.
+     * The buffer must not be accessed afterwards.
+     *
+     * @param buffer the direct or mapped buffer
+     * @return true if released
+     */
+    public static boolean unmap(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect()) {
+            return false;
+        }
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner;
+            try {
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            } catch (NoSuchMethodException e) {
+                // java 8
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner == null) {
+                    return false;
+                }
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+                return true;
+            }
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return false;
+        }
+    }
 }
@@ -72,4 +72,11 @@ public class BufferUtilsTest {
         BufferUtils.mark(byteBuffer);
         Assertions.assertDoesNotThrow(() -> BufferUtils.reset(byteBuffer));
     }
+
+    @Test
+    public void testUnmap() {
+        Assertions.assertFalse(BufferUtils.unmap(ByteBuffer.allocate(4)));
+        Assertions.assertFalse(BufferUtils.unmap(null));
+        Assertions.assertTrue(BufferUtils.unmap(ByteBuffer.allocateDirect(4)));
+    }
 }
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.compressor;
+
+import org.apache.seata.common.loader.EnhancedServiceNotFoundException;
+import org.apache.seata.core.compressor.Compressor;
+import org.apache.seata.core.compressor.CompressorFactory;
+import org.apache.seata.core.compressor.CompressorType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Throughput and ratio of every available compressor on undo log and rpc shaped payloads,
+ * to help pick the compressor type for client.undo.compress.type and transport.compressor.
+ * <p>
+ * Each compressor runs round trips for a fixed time after a warm up and the results are logged
+ * as a table; the numbers are indicative only, the assertions just guard the round trip.
+ * Run with -DbenchmarkCaseEnabled=true.
+ */
+@EnabledIfSystemProperty(named = "benchmarkCaseEnabled", matches = "true")
+public class CompressorBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompressorBenchmarkTest.class);
+
+    private static final long WARM_UP_MILLIS = 100;
+
+    private static final long MEASURE_MILLIS = 300;
+
+    @Test
+    public void benchmarkUndoLog() {
+        // a before/after image batch past the default 64k compress threshold
+        benchmark("undo log", undoLogPayload(400));
+    }
+
+    @Test
+    public void benchmarkRpc() {
+        // a branch commit/rollback sized body
+        benchmark("rpc", rpcPayload());
+    }
+
+    private static void benchmark(String workload, byte[] payload) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(
+                "%n%s payload: %d bytes%n%-10s %10s %10s %14s %14s%n",
+                workload, payload.length, "type", "size", "ratio", "compress MB/s", "decompress MB/s"));
+        for (CompressorType type : CompressorType.values()) {
+            if (type == CompressorType.NONE) {
+                continue;
+            }
+            Compressor compressor;
+            try {
+                compressor = CompressorFactory.getCompressor(type.getCode());
+            } catch (EnhancedServiceNotFoundException e) {
+                report.append(String.format("%-10s %10s%n", type.name(), "unavailable"));
+                continue;
+            }
+            byte[] compressed = compressor.compress(payload);
+            Assertions.assertArrayEquals(payload, compressor.decompress(compressed), type.name());
+
+            measure(WARM_UP_MILLIS, () -> compressor.compress(payload));
+            double compressRate = measure(MEASURE_MILLIS, () -> compressor.compress(payload)) * payload.length;
+            measure(WARM_UP_MILLIS, () -> compressor.decompress(compressed));
+            double decompressRate = measure(MEASURE_MILLIS, () -> compressor.decompress(compressed)) * payload.length;
+            report.append(String.format(
+                    "%-10s %10d %10.2f %14.1f %14.1f%n",
+                    type.name(),
+                    compressed.length,
+                    (double) payload.length / compressed.length,
+                    compressRate / (1024 * 1024),
+                    decompressRate / (1024 * 1024)));
+        }
+        LOGGER.info("{}", report);
+    }
+
+    /**
+     * @return operations per second
+     */
+    private static double measure(long millis, Runnable operation) {
+        long start = System.nanoTime();
+        long deadline = start + millis * 1_000_000L;
+        long ops = 0;
+        long now;
+        do {
+            operation.run();
+            ops++;
+        } while ((now = System.nanoTime()) < deadline);
+        return ops * 1_000_000_000D / (now - start);
+    }
+
+    private static byte[] undoLogPayload(int rows) {
+        Random random = new Random(7);
+        StringBuilder sb = new StringBuilder("{\"branchId\":641789253,\"xid\":\"192.168.0.1:8091:641789252\","
+                + "\"sqlUndoLogs\":[");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"sqlType\":\"UPDATE\",\"tableName\":\"stock_tbl\",\"beforeImage\":{\"rows\":[{\"fields\":[")
+                    .append("{\"name\":\"id\",\"keyType\":\"PRIMARY_KEY\",\"type\":4,\"value\":")
+                    .append(10000 + i)
+                    .append("},{\"name\":\"commodity_code\",\"keyType\":\"NULL\",\"type\":12,\"value\":\"C")
+                    .append(random.nextInt(100000))
+                    .append("\"},{\"name\":\"count\",\"keyType\":\"NULL\",\"type\":4,\"value\":")
+                    .append(random.nextInt(1000))
+                    .append("}]}]},\"afterImage\":{\"rows\":[{\"fields\":[{\"name\":\"count\",\"value\":")
+                    .append(random.nextInt(1000))
+                    .append("}]}]}}");
+        }
+        return sb.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] rpcPayload() {
+        return ("192.168.0.1:8091:641789252|641789253|jdbc:mysql://127.0.0.1:3306/seata|"
+                        + "{\"autoCommit\":false,\"skipCheckLock\":true}|AT")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+}
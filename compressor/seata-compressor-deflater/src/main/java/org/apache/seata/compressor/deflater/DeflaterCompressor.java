@@ -19,6 +19,9 @@ package org.apache.seata.compressor.deflater;
 import org.apache.seata.common.loader.LoadLevel;
 import org.apache.seata.core.compressor.Compressor;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 @LoadLevel(name = "DEFLATER")
 public class DeflaterCompressor implements Compressor {
 
@@ -27,6 +30,11 @@ public class DeflaterCompressor implements Compressor {
         return DeflaterUtil.compress(bytes);
     }
 
+    @Override
+    public OutputStream compressStream(OutputStream out) throws IOException {
+        return DeflaterUtil.compressStream(out);
+    }
+
     @Override
     public byte[] decompress(byte[] bytes) {
         return DeflaterUtil.decompress(bytes);
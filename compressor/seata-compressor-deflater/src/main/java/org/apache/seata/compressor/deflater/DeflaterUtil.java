@@ -18,7 +18,9 @@ package org.apache.seata.compressor.deflater;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.Inflater;
 
 public class DeflaterUtil {
@@ -27,36 +29,71 @@ public class DeflaterUtil {
 
     private static final int BUFFER_SIZE = 8192;
 
+    private static final byte[] EMPTY_BYTES = new byte[0];
+
+    /**
+     * Deflater and Inflater hold native zlib streams, so they are reset and reused per thread
+     * rather than allocated and ended by every call.
+     */
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(Deflater::new);
+
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
     public static byte[] compress(byte[] bytes) {
         if (bytes == null) {
             throw new NullPointerException("bytes is null");
         }
-        int lenght = 0;
-        Deflater deflater = new Deflater();
+        int length = 0;
+        Deflater deflater = DEFLATER.get();
+        deflater.reset();
         deflater.setInput(bytes);
         deflater.finish();
-        byte[] outputBytes = new byte[BUFFER_SIZE];
-        try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
+        byte[] outputBytes = BUFFER.get();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(Math.min(bytes.length, BUFFER_SIZE) + 32);
+        try {
             while (!deflater.finished()) {
-                lenght = deflater.deflate(outputBytes);
-                bos.write(outputBytes, 0, lenght);
+                length = deflater.deflate(outputBytes);
+                bos.write(outputBytes, 0, length);
             }
-            deflater.end();
             return bos.toByteArray();
-        } catch (IOException e) {
+        } catch (Exception e) {
             throw new RuntimeException("Deflater compress error", e);
+        } finally {
+            // drop the reference to the input held by the pooled deflater
+            deflater.reset();
+            deflater.setInput(EMPTY_BYTES);
         }
     }
 
+    /**
+     * A stream with its own deflater, ended when the stream is closed, so it is not bound to the calling thread.
+     */
+    public static OutputStream compressStream(OutputStream out) {
+        return new DeflaterOutputStream(out, new Deflater(), BUFFER_SIZE) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    def.end();
+                }
+            }
+        };
+    }
+
     public static byte[] decompress(byte[] bytes) {
         if (bytes == null) {
             throw new NullPointerException("bytes is null");
         }
         int length = 0;
-        Inflater inflater = new Inflater();
+        Inflater inflater = INFLATER.get();
+        inflater.reset();
         inflater.setInput(bytes);
-        byte[] outputBytes = new byte[BUFFER_SIZE];
-        try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
+        byte[] outputBytes = BUFFER.get();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(Math.max(bytes.length * 2, 32));
+        try {
             while (!inflater.finished()) {
                 length = inflater.inflate(outputBytes);
                 if (length == 0) {
@@ -64,10 +101,12 @@ public class DeflaterUtil {
                 }
                 bos.write(outputBytes, 0, length);
             }
-            inflater.end();
             return bos.toByteArray();
         } catch (Exception e) {
             throw new RuntimeException("Deflater decompress error", e);
+        } finally {
+            inflater.reset();
+            inflater.setInput(EMPTY_BYTES);
         }
     }
 }
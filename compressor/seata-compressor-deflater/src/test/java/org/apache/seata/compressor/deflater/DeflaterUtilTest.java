@@ -41,4 +41,18 @@ public class DeflaterUtilTest {
         byte[] decompress = DeflaterUtil.decompress(compress);
         Assertions.assertEquals("seata", new String(decompress));
     }
+
+    @Test
+    public void test_reuseAcrossCalls() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            sb.append("seata").append(i);
+        }
+        String large = sb.toString();
+        Assertions.assertEquals(large, new String(DeflaterUtil.decompress(DeflaterUtil.compress(large.getBytes()))));
+        // the pooled deflater and inflater start from a clean state on the next call
+        byte[] small = DeflaterUtil.compress("seata".getBytes());
+        Assertions.assertEquals("seata", new String(DeflaterUtil.decompress(small)));
+        Assertions.assertArrayEquals(small, DeflaterUtil.compress("seata".getBytes()));
+    }
 }
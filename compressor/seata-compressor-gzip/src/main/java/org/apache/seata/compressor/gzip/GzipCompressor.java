@@ -19,6 +19,9 @@ package org.apache.seata.compressor.gzip;
 import org.apache.seata.common.loader.LoadLevel;
 import org.apache.seata.core.compressor.Compressor;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 @LoadLevel(name = "GZIP")
 public class GzipCompressor implements Compressor {
 
@@ -27,6 +30,11 @@ public class GzipCompressor implements Compressor {
         return GzipUtil.compress(bytes);
     }
 
+    @Override
+    public OutputStream compressStream(OutputStream out) throws IOException {
+        return GzipUtil.compressStream(out);
+    }
+
     @Override
     public byte[] decompress(byte[] bytes) {
         return GzipUtil.decompress(bytes);
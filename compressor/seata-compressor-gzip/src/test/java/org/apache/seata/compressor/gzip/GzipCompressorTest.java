@@ -19,6 +19,10 @@ package org.apache.seata.compressor.gzip;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
 public class GzipCompressorTest {
 
     @Test
@@ -29,4 +33,19 @@ public class GzipCompressorTest {
         bytes = compressor.decompress(bytes);
         Assertions.assertEquals(new String(bytes), "aa");
     }
+
+    @Test
+    public void testCompressStream() throws IOException {
+        GzipCompressor compressor = new GzipCompressor();
+        byte[] bytes = new byte[100000];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i % 31);
+        }
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        try (OutputStream out = compressor.compressStream(sink)) {
+            out.write(bytes, 0, 1000);
+            out.write(bytes, 1000, bytes.length - 1000);
+        }
+        Assertions.assertArrayEquals(bytes, compressor.decompress(sink.toByteArray()));
+    }
 }
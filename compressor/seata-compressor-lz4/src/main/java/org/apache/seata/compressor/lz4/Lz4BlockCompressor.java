@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.compressor.lz4;
+
+import io.netty.buffer.ByteBuf;
+import org.apache.seata.common.loader.LoadLevel;
+import org.apache.seata.core.compressor.Compressor;
+
+/**
+ * the Lz4 raw block Compressor, one lz4 block behind a length header instead of the block stream
+ * framing of {@link Lz4Compressor}
+ *
+ */
+@LoadLevel(name = "LZ4_BLOCK")
+public class Lz4BlockCompressor implements Compressor {
+    @Override
+    public byte[] compress(byte[] bytes) {
+        return Lz4Util.compressBlock(bytes);
+    }
+
+    @Override
+    public byte[] decompress(byte[] bytes) {
+        return Lz4Util.decompressBlock(bytes);
+    }
+
+    @Override
+    public void compress(ByteBuf in, ByteBuf out) {
+        Lz4Util.compressBlock(in, out);
+    }
+
+    @Override
+    public void decompress(ByteBuf in, ByteBuf out) {
+        Lz4Util.decompressBlock(in, out);
+    }
+}
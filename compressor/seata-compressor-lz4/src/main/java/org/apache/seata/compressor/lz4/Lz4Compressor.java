@@ -16,6 +16,7 @@
  */
 package org.apache.seata.compressor.lz4;
 
+import io.netty.buffer.ByteBuf;
 import org.apache.seata.common.loader.LoadLevel;
 import org.apache.seata.core.compressor.Compressor;
 
@@ -34,4 +35,14 @@ public class Lz4Compressor implements Compressor {
     public byte[] decompress(byte[] bytes) {
         return Lz4Util.decompress(bytes);
     }
+
+    @Override
+    public void compress(ByteBuf in, ByteBuf out) {
+        Lz4Util.compress(in, out);
+    }
+
+    @Override
+    public void decompress(ByteBuf in, ByteBuf out) {
+        Lz4Util.decompress(in, out);
+    }
 }
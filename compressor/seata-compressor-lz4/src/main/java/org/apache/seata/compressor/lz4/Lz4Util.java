@@ -16,17 +16,24 @@
  */
 package org.apache.seata.compressor.lz4;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.ByteBufUtil;
 import net.jpountz.lz4.LZ4BlockInputStream;
 import net.jpountz.lz4.LZ4BlockOutputStream;
 import net.jpountz.lz4.LZ4Compressor;
 import net.jpountz.lz4.LZ4Factory;
 import net.jpountz.lz4.LZ4FastDecompressor;
+import net.jpountz.lz4.LZ4SafeDecompressor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * the Lz4 Util
@@ -36,14 +43,40 @@ public class Lz4Util {
     private static final Logger LOGGER = LoggerFactory.getLogger(Lz4Util.class);
     private static final int ARRAY_SIZE = 1024;
 
+    /**
+     * Stream blocks are sized to the input within these bounds, so a typical message is one block.
+     */
+    private static final int MIN_BLOCK_SIZE = 64;
+
+    private static final int MAX_BLOCK_SIZE = 64 * 1024;
+
+    /**
+     * The raw block format: original length (4B, big endian) followed by a single lz4 block.
+     */
+    private static final int LENGTH_HEADER_SIZE = 4;
+
+    /**
+     * The lz4 block format cannot expand data by more than this factor.
+     */
+    private static final int MAX_COMPRESSION_RATIO = 255;
+
+    /**
+     * Scratch buffers above this size are not kept by the thread after use.
+     */
+    private static final int MAX_RETAINED_SCRATCH_SIZE = 1024 * 1024;
+
+    private static final LZ4Factory FACTORY = LZ4Factory.fastestInstance();
+
+    private static final ThreadLocal<byte[]> SCRATCH = new ThreadLocal<>();
+
     public static byte[] compress(byte[] bytes) {
         if (bytes == null) {
             throw new NullPointerException("bytes is null");
         }
-        LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+        LZ4Compressor compressor = FACTORY.fastCompressor();
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         try (LZ4BlockOutputStream lz4BlockOutputStream =
-                new LZ4BlockOutputStream(outputStream, ARRAY_SIZE, compressor)) {
+                new LZ4BlockOutputStream(outputStream, blockSize(bytes.length), compressor)) {
             lz4BlockOutputStream.write(bytes);
         } catch (IOException e) {
             LOGGER.error("compress bytes error", e);
@@ -58,7 +91,7 @@ public class Lz4Util {
 
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream(ARRAY_SIZE);
 
-        LZ4FastDecompressor decompressor = LZ4Factory.fastestInstance().fastDecompressor();
+        LZ4FastDecompressor decompressor = FACTORY.fastDecompressor();
         ByteArrayInputStream inputStream = new ByteArrayInputStream(bytes);
         try (LZ4BlockInputStream decompressedInputStream = new LZ4BlockInputStream(inputStream, decompressor)) {
             int count;
@@ -71,4 +104,193 @@ public class Lz4Util {
         }
         return outputStream.toByteArray();
     }
+
+    /**
+     * Compress the readable bytes of in and append the blocks to out, streaming between the
+     * buffers instead of materializing the whole input and output as byte[].
+     *
+     * @param in  the buffer to compress
+     * @param out the buffer to write to
+     */
+    public static void compress(ByteBuf in, ByteBuf out) {
+        if (in == null) {
+            throw new NullPointerException("in is null");
+        }
+        LZ4Compressor compressor = FACTORY.fastCompressor();
+        try (LZ4BlockOutputStream lz4BlockOutputStream = new LZ4BlockOutputStream(
+                new ByteBufOutputStream(out), blockSize(in.readableBytes()), compressor)) {
+            in.readBytes(lz4BlockOutputStream, in.readableBytes());
+        } catch (IOException e) {
+            LOGGER.error("compress bytes error", e);
+        }
+    }
+
+    /**
+     * Decompress the readable bytes of in and append the content to out, streaming between the
+     * buffers instead of materializing the whole input and output as byte[].
+     *
+     * @param in  the buffer to decompress
+     * @param out the buffer to write to
+     */
+    public static void decompress(ByteBuf in, ByteBuf out) {
+        if (in == null) {
+            throw new NullPointerException("in is null");
+        }
+        LZ4FastDecompressor decompressor = FACTORY.fastDecompressor();
+        try (LZ4BlockInputStream decompressedInputStream =
+                new LZ4BlockInputStream(new ByteBufInputStream(in), decompressor)) {
+            int count;
+            do {
+                count = out.writeBytes(decompressedInputStream, ARRAY_SIZE);
+            } while (count != -1);
+        } catch (IOException e) {
+            LOGGER.error("decompress bytes error", e);
+        }
+    }
+
+    /**
+     * Compress bytes into the raw block format, staging the block in a per thread scratch buffer.
+     *
+     * @param bytes the bytes to compress
+     * @return the length header followed by the lz4 block
+     */
+    public static byte[] compressBlock(byte[] bytes) {
+        if (bytes == null) {
+            throw new NullPointerException("bytes is null");
+        }
+        LZ4Compressor compressor = FACTORY.fastCompressor();
+        int maxLength = compressor.maxCompressedLength(bytes.length);
+        byte[] scratch = scratch(LENGTH_HEADER_SIZE + maxLength);
+        writeLength(scratch, bytes.length);
+        int compressedLength = compressor.compress(bytes, 0, bytes.length, scratch, LENGTH_HEADER_SIZE, maxLength);
+        return Arrays.copyOf(scratch, LENGTH_HEADER_SIZE + compressedLength);
+    }
+
+    /**
+     * Decompress bytes in the raw block format.
+     *
+     * @param bytes the length header followed by the lz4 block
+     * @return the original bytes
+     */
+    public static byte[] decompressBlock(byte[] bytes) {
+        if (bytes == null) {
+            throw new NullPointerException("bytes is null");
+        }
+        if (bytes.length < LENGTH_HEADER_SIZE) {
+            throw new IllegalArgumentException("lz4 block is too short: " + bytes.length);
+        }
+        int compressedLength = bytes.length - LENGTH_HEADER_SIZE;
+        int length = checkLength(readLength(bytes), compressedLength);
+        byte[] result = new byte[length];
+        LZ4SafeDecompressor decompressor = FACTORY.safeDecompressor();
+        int decompressedLength =
+                decompressor.decompress(bytes, LENGTH_HEADER_SIZE, compressedLength, result, 0, length);
+        checkDecompressed(decompressedLength, length);
+        return result;
+    }
+
+    /**
+     * Compress the readable bytes of in into the raw block format appended to out.
+     *
+     * @param in  the buffer to compress
+     * @param out the buffer to write to
+     */
+    public static void compressBlock(ByteBuf in, ByteBuf out) {
+        if (in == null) {
+            throw new NullPointerException("in is null");
+        }
+        int length = in.readableBytes();
+        LZ4Compressor compressor = FACTORY.fastCompressor();
+        int maxLength = compressor.maxCompressedLength(length);
+        out.ensureWritable(LENGTH_HEADER_SIZE + maxLength);
+        if (in.nioBufferCount() != 1 || out.nioBufferCount() != 1) {
+            out.writeBytes(compressBlock(ByteBufUtil.getBytes(in)));
+            in.skipBytes(length);
+            return;
+        }
+        ByteBuffer src = in.nioBuffer(in.readerIndex(), length);
+        ByteBuffer dst = out.nioBuffer(out.writerIndex() + LENGTH_HEADER_SIZE, maxLength);
+        int compressedLength = compressor.compress(src, src.position(), length, dst, dst.position(), maxLength);
+        out.writeInt(length);
+        out.writerIndex(out.writerIndex() + compressedLength);
+        in.skipBytes(length);
+    }
+
+    /**
+     * Decompress the raw block format in the readable bytes of in and append the content to out.
+     *
+     * @param in  the buffer to decompress
+     * @param out the buffer to write to
+     */
+    public static void decompressBlock(ByteBuf in, ByteBuf out) {
+        if (in == null) {
+            throw new NullPointerException("in is null");
+        }
+        if (in.readableBytes() < LENGTH_HEADER_SIZE) {
+            throw new IllegalArgumentException("lz4 block is too short: " + in.readableBytes());
+        }
+        int compressedLength = in.readableBytes() - LENGTH_HEADER_SIZE;
+        int length = checkLength(in.readInt(), compressedLength);
+        out.ensureWritable(length);
+        if (in.nioBufferCount() != 1 || out.nioBufferCount() != 1) {
+            byte[] block = new byte[compressedLength];
+            in.readBytes(block);
+            byte[] result = new byte[length];
+            int decompressedLength =
+                    FACTORY.safeDecompressor().decompress(block, 0, compressedLength, result, 0, length);
+            checkDecompressed(decompressedLength, length);
+            out.writeBytes(result);
+            return;
+        }
+        ByteBuffer src = in.nioBuffer(in.readerIndex(), compressedLength);
+        ByteBuffer dst = out.nioBuffer(out.writerIndex(), length);
+        LZ4SafeDecompressor decompressor = FACTORY.safeDecompressor();
+        int decompressedLength =
+                decompressor.decompress(src, src.position(), compressedLength, dst, dst.position(), length);
+        checkDecompressed(decompressedLength, length);
+        in.skipBytes(compressedLength);
+        out.writerIndex(out.writerIndex() + length);
+    }
+
+    private static int blockSize(int length) {
+        return Math.max(MIN_BLOCK_SIZE, Math.min(length, MAX_BLOCK_SIZE));
+    }
+
+    private static byte[] scratch(int size) {
+        byte[] scratch = SCRATCH.get();
+        if (scratch != null && scratch.length >= size) {
+            return scratch;
+        }
+        scratch = new byte[size];
+        if (size <= MAX_RETAINED_SCRATCH_SIZE) {
+            SCRATCH.set(scratch);
+        }
+        return scratch;
+    }
+
+    private static void writeLength(byte[] bytes, int length) {
+        bytes[0] = (byte) (length >>> 24);
+        bytes[1] = (byte) (length >>> 16);
+        bytes[2] = (byte) (length >>> 8);
+        bytes[3] = (byte) length;
+    }
+
+    private static int readLength(byte[] bytes) {
+        return ((bytes[0] & 0xFF) << 24) | ((bytes[1] & 0xFF) << 16) | ((bytes[2] & 0xFF) << 8) | (bytes[3] & 0xFF);
+    }
+
+    private static int checkLength(int length, int compressedLength) {
+        if (length < 0 || length > (long) compressedLength * MAX_COMPRESSION_RATIO) {
+            throw new IllegalArgumentException(
+                    "invalid lz4 block length: " + length + ", compressed length: " + compressedLength);
+        }
+        return length;
+    }
+
+    private static void checkDecompressed(int decompressedLength, int length) {
+        if (decompressedLength != length) {
+            throw new IllegalArgumentException(
+                    "lz4 block decompressed to " + decompressedLength + " bytes, expected " + length);
+        }
+    }
 }
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.compressor.lz4;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+public class Lz4BlockCompressorTest {
+
+    @Test
+    public void testCompressAndDecompress() {
+        Lz4BlockCompressor compressor = new Lz4BlockCompressor();
+        byte[] content = payload(2000);
+        byte[] compressed = compressor.compress(content);
+        // original length header
+        Assertions.assertEquals(content.length, Unpooled.wrappedBuffer(compressed).readInt());
+        Assertions.assertTrue(compressed.length < content.length);
+        Assertions.assertArrayEquals(content, compressor.decompress(compressed));
+        // the scratch buffer is reused by the next call on this thread
+        byte[] small = "a0123456789".getBytes(StandardCharsets.UTF_8);
+        Assertions.assertArrayEquals(small, compressor.decompress(compressor.compress(small)));
+        Assertions.assertArrayEquals(new byte[0], compressor.decompress(compressor.compress(new byte[0])));
+    }
+
+    @Test
+    public void testCompressAndDecompressByteBuf() {
+        Lz4BlockCompressor compressor = new Lz4BlockCompressor();
+        byte[] content = payload(2000);
+        ByteBuf in = PooledByteBufAllocator.DEFAULT.directBuffer().writeBytes(content);
+        ByteBuf compressed = PooledByteBufAllocator.DEFAULT.directBuffer();
+        ByteBuf out = PooledByteBufAllocator.DEFAULT.heapBuffer();
+        try {
+            compressor.compress(in, compressed);
+            Assertions.assertFalse(in.isReadable());
+            Assertions.assertArrayEquals(compressor.compress(content), ByteBufUtil.getBytes(compressed));
+            compressor.decompress(compressed, out);
+            Assertions.assertFalse(compressed.isReadable());
+            Assertions.assertArrayEquals(content, ByteBufUtil.getBytes(out));
+        } finally {
+            in.release();
+            compressed.release();
+            out.release();
+        }
+    }
+
+    @Test
+    public void testDecompressIllegalLength() {
+        Lz4BlockCompressor compressor = new Lz4BlockCompressor();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> compressor.decompress(new byte[] {0, 0}));
+        byte[] compressed = compressor.compress(payload(100));
+        // claims far more content than the block can hold
+        compressed[0] = 0x7F;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> compressor.decompress(compressed));
+    }
+
+    private static byte[] payload(int uuids) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < uuids; i++) {
+            sb.append(i % 10 == 0 ? UUID.randomUUID().toString() : "seata-undo-log-row-" + (i % 10));
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
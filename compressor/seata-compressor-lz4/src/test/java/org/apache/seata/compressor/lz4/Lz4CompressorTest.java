@@ -16,6 +16,9 @@
  */
 package org.apache.seata.compressor.lz4;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -29,4 +32,26 @@ public class Lz4CompressorTest {
         byte[] result = compressor.decompress(bytes);
         Assertions.assertEquals(new String(result), content);
     }
+
+    @Test
+    public void testCompressAndDecompressByteBuf() {
+        Lz4Compressor compressor = new Lz4Compressor();
+        byte[] content = "a0123456789".getBytes();
+        ByteBuf in = PooledByteBufAllocator.DEFAULT.directBuffer().writeBytes(content);
+        ByteBuf compressed = PooledByteBufAllocator.DEFAULT.directBuffer();
+        ByteBuf out = PooledByteBufAllocator.DEFAULT.directBuffer();
+        try {
+            compressor.compress(in, compressed);
+            Assertions.assertFalse(in.isReadable());
+            // the ByteBuf path keeps the byte[] wire format
+            Assertions.assertArrayEquals(compressor.compress(content), ByteBufUtil.getBytes(compressed));
+            compressor.decompress(compressed, out);
+            Assertions.assertFalse(compressed.isReadable());
+            Assertions.assertArrayEquals(content, ByteBufUtil.getBytes(out));
+        } finally {
+            in.release();
+            compressed.release();
+            out.release();
+        }
+    }
 }
@@ -19,6 +19,9 @@ package org.apache.seata.compressor.zip;
 import org.apache.seata.common.loader.LoadLevel;
 import org.apache.seata.core.compressor.Compressor;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 /**
  * the Zip Compressor
  *
@@ -31,6 +34,11 @@ public class ZipCompressor implements Compressor {
         return ZipUtil.compress(bytes);
     }
 
+    @Override
+    public OutputStream compressStream(OutputStream out) throws IOException {
+        return ZipUtil.compressStream(out);
+    }
+
     @Override
     public byte[] decompress(byte[] bytes) {
         return ZipUtil.decompress(bytes);
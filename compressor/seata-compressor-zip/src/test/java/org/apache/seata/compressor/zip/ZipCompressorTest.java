@@ -19,6 +19,10 @@ package org.apache.seata.compressor.zip;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
 /**
  * the Zip Compressor test
  *
@@ -33,4 +37,19 @@ public class ZipCompressorTest {
         bytes = compressor.decompress(bytes);
         Assertions.assertEquals(new String(bytes), "aa");
     }
+
+    @Test
+    public void testCompressStream() throws IOException {
+        ZipCompressor compressor = new ZipCompressor();
+        byte[] bytes = new byte[100000];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i % 31);
+        }
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        try (OutputStream out = compressor.compressStream(sink)) {
+            out.write(bytes, 0, 1000);
+            out.write(bytes, 1000, bytes.length - 1000);
+        }
+        Assertions.assertArrayEquals(bytes, compressor.decompress(sink.toByteArray()));
+    }
 }
@@ -16,6 +16,7 @@
  */
 package org.apache.seata.compressor.zstd;
 
+import io.netty.buffer.ByteBuf;
 import org.apache.seata.common.loader.LoadLevel;
 import org.apache.seata.core.compressor.Compressor;
 
@@ -35,4 +36,14 @@ public class ZstdCompressor implements Compressor {
     public byte[] decompress(byte[] bytes) {
         return ZstdUtil.decompress(bytes);
     }
+
+    @Override
+    public void compress(ByteBuf in, ByteBuf out) {
+        ZstdUtil.compress(in, out);
+    }
+
+    @Override
+    public void decompress(ByteBuf in, ByteBuf out) {
+        ZstdUtil.decompress(in, out);
+    }
 }
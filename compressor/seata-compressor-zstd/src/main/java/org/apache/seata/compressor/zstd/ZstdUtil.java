@@ -17,6 +17,12 @@
 package org.apache.seata.compressor.zstd;
 
 import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdCompressCtx;
+import com.github.luben.zstd.ZstdDecompressCtx;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
+import java.nio.ByteBuffer;
 
 /**
  * the Zstd Util
@@ -24,11 +30,23 @@ import com.github.luben.zstd.Zstd;
  */
 public class ZstdUtil {
 
+    /**
+     * Native contexts are reused per thread instead of being created and freed by every call.
+     */
+    private static final ThreadLocal<ZstdCompressCtx> COMPRESS_CTX = ThreadLocal.withInitial(() -> {
+        ZstdCompressCtx ctx = new ZstdCompressCtx();
+        ctx.setLevel(Zstd.defaultCompressionLevel());
+        return ctx;
+    });
+
+    private static final ThreadLocal<ZstdDecompressCtx> DECOMPRESS_CTX =
+            ThreadLocal.withInitial(ZstdDecompressCtx::new);
+
     public static byte[] compress(byte[] bytes) {
         if (bytes == null) {
             throw new NullPointerException("bytes is null");
         }
-        return Zstd.compress(bytes);
+        return COMPRESS_CTX.get().compress(bytes);
     }
 
     public static byte[] decompress(byte[] bytes) {
@@ -36,8 +54,76 @@ public class ZstdUtil {
             throw new NullPointerException("bytes is null");
         }
         long size = Zstd.decompressedSize(bytes);
-        byte[] decompressBytes = new byte[(int) size];
-        Zstd.decompress(decompressBytes, bytes);
-        return decompressBytes;
+        return DECOMPRESS_CTX.get().decompress(bytes, (int) size);
+    }
+
+    /**
+     * Compress the readable bytes of in and append the frame to out, directly between the
+     * buffers' memory when both are direct.
+     *
+     * @param in  the buffer to compress
+     * @param out the buffer to write to
+     */
+    public static void compress(ByteBuf in, ByteBuf out) {
+        if (in == null) {
+            throw new NullPointerException("in is null");
+        }
+        int srcSize = in.readableBytes();
+        out.ensureWritable((int) Zstd.compressBound(srcSize));
+        if (!isDirect(in) || !isDirect(out)) {
+            out.writeBytes(compress(ByteBufUtil.getBytes(in)));
+            in.skipBytes(srcSize);
+            return;
+        }
+        ByteBuffer src = in.nioBuffer(in.readerIndex(), srcSize);
+        ByteBuffer dst = out.nioBuffer(out.writerIndex(), out.writableBytes());
+        long size = COMPRESS_CTX.get()
+                .compressDirectByteBuffer(dst, dst.position(), dst.remaining(), src, src.position(), srcSize);
+        checkError(size);
+        in.skipBytes(srcSize);
+        out.writerIndex(out.writerIndex() + (int) size);
+    }
+
+    /**
+     * Decompress the readable bytes of in and append the content to out, directly between the
+     * buffers' memory when both are direct.
+     *
+     * @param in  the buffer to decompress
+     * @param out the buffer to write to
+     */
+    public static void decompress(ByteBuf in, ByteBuf out) {
+        if (in == null) {
+            throw new NullPointerException("in is null");
+        }
+        int srcSize = in.readableBytes();
+        if (!isDirect(in)) {
+            out.writeBytes(decompress(ByteBufUtil.getBytes(in)));
+            in.skipBytes(srcSize);
+            return;
+        }
+        ByteBuffer src = in.nioBuffer(in.readerIndex(), srcSize);
+        int dstSize = (int) Zstd.decompressedDirectByteBufferSize(src, src.position(), srcSize);
+        out.ensureWritable(dstSize);
+        if (!isDirect(out)) {
+            out.writeBytes(decompress(ByteBufUtil.getBytes(in)));
+            in.skipBytes(srcSize);
+            return;
+        }
+        ByteBuffer dst = out.nioBuffer(out.writerIndex(), dstSize);
+        long size = DECOMPRESS_CTX.get()
+                .decompressDirectByteBuffer(dst, dst.position(), dstSize, src, src.position(), srcSize);
+        checkError(size);
+        in.skipBytes(srcSize);
+        out.writerIndex(out.writerIndex() + (int) size);
+    }
+
+    private static boolean isDirect(ByteBuf buf) {
+        return buf.isDirect() && buf.nioBufferCount() == 1;
+    }
+
+    private static void checkError(long code) {
+        if (Zstd.isError(code)) {
+            throw new IllegalStateException("zstd error: " + Zstd.getErrorName(code));
+        }
     }
 }
@@ -16,6 +16,11 @@
  */
 package org.apache.seata.compressor.zstd;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.nio.charset.StandardCharsets;
@@ -50,4 +55,35 @@ public class ZstdCompressorTest {
         bytes = compressor.compress(bytes);
         System.out.println("compressed size=" + bytes.length);
     }
+
+    @Test
+    public void testCompressAndDecompressByteBuf() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append(UUID.randomUUID().toString().replace("-", ""));
+        }
+        byte[] content = sb.toString().getBytes(StandardCharsets.UTF_8);
+
+        ZstdCompressor compressor = new ZstdCompressor();
+        ByteBuf in = PooledByteBufAllocator.DEFAULT.directBuffer().writeBytes(content);
+        ByteBuf compressed = PooledByteBufAllocator.DEFAULT.directBuffer();
+        ByteBuf out = PooledByteBufAllocator.DEFAULT.directBuffer();
+        try {
+            compressor.compress(in, compressed);
+            Assertions.assertFalse(in.isReadable());
+            // frames written from direct buffers decode on the byte[] path and vice versa
+            Assertions.assertArrayEquals(content, compressor.decompress(ByteBufUtil.getBytes(compressed)));
+            compressor.decompress(compressed, out);
+            Assertions.assertFalse(compressed.isReadable());
+            Assertions.assertArrayEquals(content, ByteBufUtil.getBytes(out));
+
+            out.clear();
+            compressor.decompress(Unpooled.wrappedBuffer(compressor.compress(content)), out);
+            Assertions.assertArrayEquals(content, ByteBufUtil.getBytes(out));
+        } finally {
+            in.release();
+            compressed.release();
+            out.release();
+        }
+    }
 }
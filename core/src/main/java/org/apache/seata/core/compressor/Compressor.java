@@ -16,6 +16,13 @@
  */
 package org.apache.seata.core.compressor;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
 public interface Compressor {
 
     /**
@@ -31,4 +38,61 @@ public interface Compressor {
      * @return the byte[]
      */
     byte[] decompress(byte[] bytes);
+
+    /**
+     * compress the readable bytes of in and append the result to out, consuming in.
+     * <p>
+     * The default implementation goes through {@link #compress(byte[])}, compressors able to
+     * work on {@link ByteBuf} directly should override it.
+     * @param in the buffer to compress
+     * @param out the buffer to write to
+     */
+    default void compress(ByteBuf in, ByteBuf out) {
+        byte[] bytes = ByteBufUtil.getBytes(in);
+        in.skipBytes(bytes.length);
+        out.writeBytes(compress(bytes));
+    }
+
+    /**
+     * wrap out into a stream compressing what is written to it, with the same result as {@link #compress(byte[])}
+     * once the returned stream is closed, which closes out.
+     * <p>
+     * The default implementation buffers everything written and goes through {@link #compress(byte[])}
+     * on close, compressors with a streaming form should override it.
+     * @param out the stream to write the compressed bytes to
+     * @return the compressing stream
+     * @throws IOException if the stream can not be created
+     */
+    default OutputStream compressStream(OutputStream out) throws IOException {
+        return new ByteArrayOutputStream() {
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                try {
+                    out.write(compress(toByteArray()));
+                } finally {
+                    out.close();
+                }
+            }
+        };
+    }
+
+    /**
+     * decompress the readable bytes of in and append the result to out, consuming in.
+     * <p>
+     * The default implementation goes through {@link #decompress(byte[])}, compressors able to
+     * work on {@link ByteBuf} directly should override it.
+     * @param in the buffer to decompress
+     * @param out the buffer to write to
+     */
+    default void decompress(ByteBuf in, ByteBuf out) {
+        byte[] bytes = ByteBufUtil.getBytes(in);
+        in.skipBytes(bytes.length);
+        out.writeBytes(decompress(bytes));
+    }
 }
@@ -16,6 +16,7 @@
  */
 package org.apache.seata.core.compressor;
 
+import io.netty.buffer.ByteBuf;
 import org.apache.seata.common.loader.EnhancedServiceLoader;
 import org.apache.seata.common.loader.LoadLevel;
 import org.apache.seata.common.util.CollectionUtils;
@@ -63,5 +64,15 @@ public class CompressorFactory {
         public byte[] decompress(byte[] bytes) {
             return bytes;
         }
+
+        @Override
+        public void compress(ByteBuf in, ByteBuf out) {
+            out.writeBytes(in);
+        }
+
+        @Override
+        public void decompress(ByteBuf in, ByteBuf out) {
+            out.writeBytes(in);
+        }
     }
 }
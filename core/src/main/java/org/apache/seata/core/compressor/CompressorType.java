@@ -56,7 +56,12 @@ public enum CompressorType {
     /**
      * The zstd.
      */
-    ZSTD((byte) 7);
+    ZSTD((byte) 7),
+
+    /**
+     * The lz4 raw block, prefixed with the original length instead of stream framing.
+     */
+    LZ4_BLOCK((byte) 8);
 
     private final byte code;
 
@@ -0,0 +1,318 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.core.lock;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary form of a lock key like {@code t_user:1_a,2_b;t_order:3}, sent by RMs to TCs which support it.
+ * <p>
+ * The table names of all groups are written once into a dictionary, and every pk is written as a tuple
+ * of the parts its composite key values were joined with {@code _}. Parts in canonical non-negative
+ * decimal form are written as varints, other parts as length-prefixed UTF-8:
+ * <pre>
+ * 0x00 | version | tableCount | (len | name)* | groupCount | (tableIndex | rowCount | (partCount | part*)*)*
+ * part := varint(value &lt;&lt; 1) | varint(len &lt;&lt; 1 | 1) utf8
+ * </pre>
+ * A text lock key never starts with {@code 0x00}, so both forms can share one field. Decoding gives back the
+ * exact text lock key, which stays the form stored in the session stores.
+ *
+ */
+public final class CompactLockKey {
+
+    /**
+     * The first byte of a compact lock key.
+     */
+    public static final byte MAGIC = 0x00;
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final long MAX_NUMERIC_PART = Long.MAX_VALUE >>> 1;
+
+    private static final int MAX_NUMERIC_DIGITS = 18;
+
+    private CompactLockKey() {}
+
+    /**
+     * Whether the bytes hold a compact lock key.
+     *
+     * @param bytes the lock key bytes
+     * @return true if the bytes are a compact lock key
+     */
+    public static boolean isCompact(byte[] bytes) {
+        return bytes != null && bytes.length > 1 && bytes[0] == MAGIC;
+    }
+
+    /**
+     * Encode a text lock key.
+     *
+     * @param lockKey the text lock key
+     * @return the compact lock key, or null if the lock key is empty or not made of {@code table:pks} groups
+     */
+    public static byte[] encode(String lockKey) {
+        if (lockKey == null || lockKey.isEmpty()) {
+            return null;
+        }
+        Map<String, Integer> tableIndexes = new HashMap<>(4);
+        List<String> tableNames = new ArrayList<>(4);
+        Writer rows = new Writer(lockKey.length());
+        int groupCount = 0;
+        int length = lockKey.length();
+        int groupStart = 0;
+        while (groupStart <= length) {
+            int groupEnd = lockKey.indexOf(';', groupStart);
+            if (groupEnd < 0) {
+                groupEnd = length;
+            }
+            int colon = lockKey.indexOf(':', groupStart);
+            if (colon < 0 || colon >= groupEnd) {
+                return null;
+            }
+            String tableName = lockKey.substring(groupStart, colon);
+            Integer tableIndex = tableIndexes.get(tableName);
+            if (tableIndex == null) {
+                tableIndex = tableNames.size();
+                tableIndexes.put(tableName, tableIndex);
+                tableNames.add(tableName);
+            }
+            rows.writeVarLong(tableIndex);
+            rows.writeVarLong(count(lockKey, ',', colon + 1, groupEnd) + 1);
+            int pkStart = colon + 1;
+            while (pkStart <= groupEnd) {
+                int pkEnd = lockKey.indexOf(',', pkStart);
+                if (pkEnd < 0 || pkEnd > groupEnd) {
+                    pkEnd = groupEnd;
+                }
+                writePk(rows, lockKey, pkStart, pkEnd);
+                pkStart = pkEnd + 1;
+            }
+            groupCount++;
+            groupStart = groupEnd + 1;
+        }
+        Writer out = new Writer(rows.size + tableNames.size() * 16 + 8);
+        out.writeByte(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        out.writeVarLong(tableNames.size());
+        for (String tableName : tableNames) {
+            out.writeString(tableName);
+        }
+        out.writeVarLong(groupCount);
+        out.writeBytes(rows.buf, rows.size);
+        return out.toByteArray();
+    }
+
+    /**
+     * Decode a compact lock key.
+     *
+     * @param bytes the compact lock key
+     * @return the text lock key
+     * @throws IllegalArgumentException if the bytes are not a compact lock key of a known version
+     */
+    public static String decode(byte[] bytes) {
+        if (!isCompact(bytes) || bytes[1] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("not a compact lock key of version " + FORMAT_VERSION);
+        }
+        Reader in = new Reader(bytes, 2);
+        String[] tableNames = new String[in.readCount()];
+        for (int i = 0; i < tableNames.length; i++) {
+            tableNames[i] = in.readString();
+        }
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        int groupCount = in.readCount();
+        for (int group = 0; group < groupCount; group++) {
+            if (group > 0) {
+                sb.append(';');
+            }
+            long tableIndex = in.readVarLong();
+            if (tableIndex < 0 || tableIndex >= tableNames.length) {
+                throw new IllegalArgumentException("table index out of range: " + tableIndex);
+            }
+            sb.append(tableNames[(int) tableIndex]).append(':');
+            int rowCount = in.readCount();
+            for (int row = 0; row < rowCount; row++) {
+                if (row > 0) {
+                    sb.append(',');
+                }
+                int partCount = in.readCount();
+                for (int part = 0; part < partCount; part++) {
+                    if (part > 0) {
+                        sb.append('_');
+                    }
+                    long header = in.readVarLong();
+                    if ((header & 1) == 0) {
+                        sb.append(header >>> 1);
+                    } else {
+                        sb.append(in.readString(header >>> 1));
+                    }
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void writePk(Writer out, String lockKey, int start, int end) {
+        out.writeVarLong(count(lockKey, '_', start, end) + 1);
+        int partStart = start;
+        while (partStart <= end) {
+            int partEnd = lockKey.indexOf('_', partStart);
+            if (partEnd < 0 || partEnd > end) {
+                partEnd = end;
+            }
+            long value = parseNumeric(lockKey, partStart, partEnd);
+            if (value >= 0) {
+                out.writeVarLong(value << 1);
+            } else {
+                byte[] bytes = lockKey.substring(partStart, partEnd).getBytes(StandardCharsets.UTF_8);
+                out.writeVarLong(((long) bytes.length << 1) | 1);
+                out.writeBytes(bytes, bytes.length);
+            }
+            partStart = partEnd + 1;
+        }
+    }
+
+    /**
+     * Parse a part written by {@code String.valueOf} of an integral pk, so that decoding gives the same text.
+     *
+     * @return the value, or -1 if the part is not a canonical non-negative number
+     */
+    private static long parseNumeric(String source, int start, int end) {
+        int digits = end - start;
+        if (digits == 0 || digits > MAX_NUMERIC_DIGITS || (digits > 1 && source.charAt(start) == '0')) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            char c = source.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value <= MAX_NUMERIC_PART ? value : -1;
+    }
+
+    private static int count(String source, char c, int start, int end) {
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            if (source.charAt(i) == c) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static final class Writer {
+        private byte[] buf;
+
+        private int size;
+
+        Writer(int capacity) {
+            this.buf = new byte[Math.max(capacity, 16)];
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            buf[size++] = (byte) b;
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buf[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[size++] = (byte) value;
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            writeBytes(bytes, bytes.length);
+        }
+
+        void writeBytes(byte[] bytes, int length) {
+            ensure(length);
+            System.arraycopy(bytes, 0, buf, size, length);
+            size += length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, size);
+        }
+
+        private void ensure(int more) {
+            if (size + more > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length << 1, size + more));
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buf;
+
+        private int pos;
+
+        Reader(byte[] buf, int pos) {
+            this.buf = buf;
+            this.pos = pos;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                if (pos >= buf.length) {
+                    throw new IllegalArgumentException("truncated compact lock key");
+                }
+                byte b = buf[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("malformed varint in compact lock key");
+        }
+
+        /**
+         * Read a count of items taking at least one byte each.
+         */
+        int readCount() {
+            long value = readVarLong();
+            if (value < 0 || value > buf.length - pos) {
+                throw new IllegalArgumentException("count out of range: " + value);
+            }
+            return (int) value;
+        }
+
+        String readString() {
+            return readString(readVarLong());
+        }
+
+        String readString(long length) {
+            if (length < 0 || length > buf.length - pos) {
+                throw new IllegalArgumentException("truncated compact lock key");
+            }
+            String value = new String(buf, pos, (int) length, StandardCharsets.UTF_8);
+            pos += (int) length;
+            return value;
+        }
+    }
+}
@@ -41,6 +41,7 @@ public class Version {
     private static final String VERSION_0_7_1 = "0.7.1";
     private static final String VERSION_1_5_0 = "1.5.0";
     private static final String VERSION_2_3_0 = "2.3.0";
+    private static final String VERSION_2_6_0 = "2.6.0";
     private static final int MAX_VERSION_DOT = 3;
 
     /**
@@ -93,6 +94,18 @@ public class Version {
         return isAboveOrEqualVersion(version, VERSION_2_3_0);
     }
 
+    /**
+     * Determine whether the client version is greater than or equal to version 2.6.0,
+     * the first version whose RM accepts merged branch commit/rollback requests from the TC
+     * and whose TC decodes compact lock keys from the RM
+     *
+     * @param version client version
+     * @return true: client version is above or equal version 2.6.0, false: on the contrary
+     */
+    public static boolean isAboveOrEqualVersion260(String version) {
+        return isAboveOrEqualVersion(version, VERSION_2_6_0);
+    }
+
     public static boolean isV0(String version) {
         return !isAboveOrEqualVersion(version, VERSION_0_7_1);
     }
@@ -36,6 +36,11 @@ public class BranchRegisterRequest extends AbstractTransactionRequestToTC {
 
     private String applicationData;
 
+    /**
+     * whether the seata codec may send the lock key in the compact binary form, decided per request by the RM
+     */
+    private transient boolean compactLockKey;
+
     /**
      * Gets xid.
      *
@@ -90,6 +95,25 @@ public class BranchRegisterRequest extends AbstractTransactionRequestToTC {
         this.lockKey = lockKey;
     }
 
+    /**
+     * Whether the lock key may be sent in the compact binary form.
+     *
+     * @return the boolean
+     * @see org.apache.seata.core.lock.CompactLockKey
+     */
+    public boolean isCompactLockKey() {
+        return compactLockKey;
+    }
+
+    /**
+     * Sets whether the lock key may be sent in the compact binary form.
+     *
+     * @param compactLockKey the compact lock key
+     */
+    public void setCompactLockKey(boolean compactLockKey) {
+        this.compactLockKey = compactLockKey;
+    }
+
     /**
      * Gets resource id.
      *
@@ -19,6 +19,8 @@ package org.apache.seata.core.rpc;
 import org.apache.seata.core.protocol.AbstractMessage;
 import org.apache.seata.core.protocol.AbstractResultMessage;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * To handle the received RPC message on upper level.
  *
@@ -34,6 +36,18 @@ public interface TransactionMessageHandler {
      */
     AbstractResultMessage onRequest(AbstractMessage request, RpcContext context);
 
+    /**
+     * On a request received, the response may be completed after the method returns,
+     * so the calling thread is not blocked while the request is being persisted.
+     *
+     * @param request received request message
+     * @param context context of the RPC
+     * @return future of the response to the request
+     */
+    default CompletableFuture<AbstractResultMessage> onRequestAsync(AbstractMessage request, RpcContext context) {
+        return CompletableFuture.completedFuture(onRequest(request, context));
+    }
+
     /**
      * On a response received.
      *
@@ -42,6 +42,8 @@ import org.apache.seata.core.protocol.transaction.AbstractGlobalEndRequest;
 import org.apache.seata.core.protocol.transaction.BranchRegisterRequest;
 import org.apache.seata.core.protocol.transaction.BranchReportRequest;
 import org.apache.seata.core.protocol.transaction.GlobalBeginRequest;
+import org.apache.seata.core.protocol.transaction.GlobalLockQueryRequest;
+import org.apache.seata.core.protocol.transaction.GlobalStatusRequest;
 import org.apache.seata.core.rpc.RemotingClient;
 import org.apache.seata.core.rpc.TransactionMessageHandler;
 import org.apache.seata.core.rpc.processor.Pair;
@@ -287,8 +289,9 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
         InetSocketAddress address = null;
         try {
             @SuppressWarnings("unchecked")
-            List<InetSocketAddress> inetSocketAddressList =
-                    RegistryFactory.getInstance().aliveLookup(transactionServiceGroup);
+            List<InetSocketAddress> inetSocketAddressList = isReadOnly(msg)
+                    ? RegistryFactory.getInstance().aliveReadLookup(transactionServiceGroup)
+                    : RegistryFactory.getInstance().aliveLookup(transactionServiceGroup);
             address = this.doSelect(inetSocketAddressList, msg);
         } catch (Exception ex) {
             LOGGER.error("Select the address failed: {}", ex.getMessage());
@@ -299,6 +302,13 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
         return NetUtil.toStringAddress(address);
     }
 
+    /**
+     * Global status and global lock queries do not change the TC state and may be served by read replicas.
+     */
+    protected boolean isReadOnly(Object msg) {
+        return msg instanceof GlobalStatusRequest || msg instanceof GlobalLockQueryRequest;
+    }
+
     protected InetSocketAddress doSelect(List<InetSocketAddress> list, Object msg) throws Exception {
         if (CollectionUtils.isNotEmpty(list)) {
             if (list.size() > 1) {
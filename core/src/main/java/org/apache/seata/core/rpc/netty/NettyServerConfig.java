@@ -62,6 +62,15 @@ public class NettyServerConfig extends NettyBaseConfig {
     private static boolean ENABLE_TC_SERVER_BATCH_SEND_RESPONSE = CONFIG.getBoolean(
             ConfigurationKeys.ENABLE_TC_SERVER_BATCH_SEND_RESPONSE,
             DefaultValues.DEFAULT_ENABLE_TC_SERVER_BATCH_SEND_RESPONSE);
+    private static boolean ENABLE_TC_SERVER_BATCH_SEND_REQUEST = CONFIG.getBoolean(
+            ConfigurationKeys.ENABLE_TC_SERVER_BATCH_SEND_REQUEST,
+            DefaultValues.DEFAULT_ENABLE_TC_SERVER_BATCH_SEND_REQUEST);
+    private static final int TC_SERVER_BATCH_SEND_REQUEST_MAX_SIZE = CONFIG.getInt(
+            ConfigurationKeys.TC_SERVER_BATCH_SEND_REQUEST_MAX_SIZE,
+            DefaultValues.DEFAULT_TC_SERVER_BATCH_SEND_REQUEST_MAX_SIZE);
+    private static final int TC_SERVER_BATCH_SEND_REQUEST_MAX_IN_FLIGHT = CONFIG.getInt(
+            ConfigurationKeys.TC_SERVER_BATCH_SEND_REQUEST_MAX_IN_FLIGHT,
+            DefaultValues.DEFAULT_TC_SERVER_BATCH_SEND_REQUEST_MAX_IN_FLIGHT);
 
     // Thread Pool Config
     private int serverSelectorThreads = Integer.parseInt(System.getProperty(
@@ -363,6 +372,33 @@ public class NettyServerConfig extends NettyBaseConfig {
         return ENABLE_TC_SERVER_BATCH_SEND_RESPONSE;
     }
 
+    /**
+     * Get the tc server batch send request enable
+     *
+     * @return true or false
+     */
+    public static boolean isEnableTcServerBatchSendRequest() {
+        return ENABLE_TC_SERVER_BATCH_SEND_REQUEST;
+    }
+
+    /**
+     * Get the max number of requests merged into one tc server batch request
+     *
+     * @return the int
+     */
+    public static int getTcServerBatchSendRequestMaxSize() {
+        return TC_SERVER_BATCH_SEND_REQUEST_MAX_SIZE;
+    }
+
+    /**
+     * Get the max number of tc server batch requests in flight on one channel
+     *
+     * @return the int
+     */
+    public static int getTcServerBatchSendRequestMaxInFlight() {
+        return TC_SERVER_BATCH_SEND_REQUEST_MAX_IN_FLIGHT;
+    }
+
     /**
      * Get the min size for branch result thread pool
      *
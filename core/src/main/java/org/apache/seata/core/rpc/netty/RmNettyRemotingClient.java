@@ -33,17 +33,20 @@ import org.apache.seata.core.protocol.AbstractMessage;
 import org.apache.seata.core.protocol.MessageType;
 import org.apache.seata.core.protocol.RegisterRMRequest;
 import org.apache.seata.core.protocol.RegisterRMResponse;
+import org.apache.seata.core.protocol.Version;
 import org.apache.seata.core.rpc.netty.NettyPoolKey.TransactionRole;
 import org.apache.seata.core.rpc.processor.client.ClientHeartbeatProcessor;
 import org.apache.seata.core.rpc.processor.client.ClientOnResponseProcessor;
 import org.apache.seata.core.rpc.processor.client.RmBranchCommitProcessor;
 import org.apache.seata.core.rpc.processor.client.RmBranchRollbackProcessor;
+import org.apache.seata.core.rpc.processor.client.RmMergedBranchRequestProcessor;
 import org.apache.seata.core.rpc.processor.client.RmUndoLogProcessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -66,6 +69,8 @@ public final class RmNettyRemotingClient extends AbstractNettyRemotingClient {
     private static final int MAX_QUEUE_SIZE = 20000;
     private String applicationId;
     private String transactionServiceGroup;
+    private final Map<String, String> serverVersions = new ConcurrentHashMap<>();
+    private volatile boolean compactLockKeySupported;
 
     @Override
     public void init() {
@@ -215,6 +220,11 @@ public final class RmNettyRemotingClient extends AbstractNettyRemotingClient {
                     registerRMResponse.getVersion(),
                     channel);
         }
+        // the server version is known before the channel is usable, a server without a version is an old one
+        String serverVersion = registerRMResponse.getVersion();
+        serverVersions.put(serverAddress, StringUtils.isBlank(serverVersion) ? "" : serverVersion);
+        compactLockKeySupported = serverVersions.values().stream()
+                .allMatch(version -> StringUtils.isNotBlank(version) && Version.isAboveOrEqualVersion260(version));
         getClientChannelManager().registerChannel(serverAddress, channel, registerRMRequest.getVersion());
         String dbKey = getMergedResourceKeys();
         if (registerRMRequest.getResourceIds() != null) {
@@ -224,6 +234,15 @@ public final class RmNettyRemotingClient extends AbstractNettyRemotingClient {
         }
     }
 
+    /**
+     * Whether every TC this RM registered with decodes compact lock keys, a request may go to any of them.
+     *
+     * @return true if branch register requests may carry compact lock keys
+     */
+    public boolean isCompactLockKeySupported() {
+        return compactLockKeySupported;
+    }
+
     @Override
     public void onRegisterMsgFail(
             String serverAddress, Channel channel, Object response, AbstractMessage requestMessage) {
@@ -362,7 +381,11 @@ public final class RmNettyRemotingClient extends AbstractNettyRemotingClient {
         // 3.registry rm handler undo log processor
         RmUndoLogProcessor rmUndoLogProcessor = new RmUndoLogProcessor(getTransactionMessageHandler());
         super.registerProcessor(MessageType.TYPE_RM_DELETE_UNDOLOG, rmUndoLogProcessor, messageExecutor);
-        // 4.registry TC response processor
+        // 4.registry rm client handle merged branch commit/rollback processor
+        RmMergedBranchRequestProcessor rmMergedBranchRequestProcessor =
+                new RmMergedBranchRequestProcessor(getTransactionMessageHandler(), this, messageExecutor);
+        super.registerProcessor(MessageType.TYPE_SEATA_MERGE, rmMergedBranchRequestProcessor, messageExecutor);
+        // 5.registry TC response processor
         ClientOnResponseProcessor onResponseProcessor = new ClientOnResponseProcessor(
                 mergeMsgMap, super.getFutures(), childToParentMap, getTransactionMessageHandler());
         super.registerProcessor(MessageType.TYPE_SEATA_MERGE_RESULT, onResponseProcessor, null);
@@ -371,7 +394,7 @@ public final class RmNettyRemotingClient extends AbstractNettyRemotingClient {
         super.registerProcessor(MessageType.TYPE_GLOBAL_LOCK_QUERY_RESULT, onResponseProcessor, null);
         super.registerProcessor(MessageType.TYPE_REG_RM_RESULT, onResponseProcessor, null);
         super.registerProcessor(MessageType.TYPE_BATCH_RESULT_MSG, onResponseProcessor, null);
-        // 5.registry heartbeat message processor
+        // 6.registry heartbeat message processor
         ClientHeartbeatProcessor clientHeartbeatProcessor = new ClientHeartbeatProcessor();
         super.registerProcessor(MessageType.TYPE_HEARTBEAT_MSG, clientHeartbeatProcessor, null);
     }
@@ -21,6 +21,7 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import org.apache.seata.core.compressor.Compressor;
 import org.apache.seata.core.compressor.CompressorFactory;
+import org.apache.seata.core.compressor.CompressorType;
 import org.apache.seata.core.exception.DecodeException;
 import org.apache.seata.core.protocol.HeartbeatMessage;
 import org.apache.seata.core.protocol.ProtocolConstants;
@@ -121,17 +122,25 @@ public class ProtocolDecoderV1 extends LengthFieldBasedFrameDecoder implements P
         } else {
             int bodyLength = fullLength - headLength;
             if (bodyLength > 0) {
-                byte[] bs = new byte[bodyLength];
-                frame.readBytes(bs);
-                Compressor compressor = CompressorFactory.getCompressor(compressorType);
-                bs = compressor.decompress(bs);
                 SerializerType protocolType = SerializerType.getByCode(rpcMessage.getCodec());
-                if (this.supportDeSerializerTypes.contains(protocolType)) {
-                    Serializer serializer = SerializerServiceLoader.load(protocolType, ProtocolConstants.VERSION_1);
-                    rpcMessage.setBody(serializer.deserialize(bs));
-                } else {
+                if (!this.supportDeSerializerTypes.contains(protocolType)) {
                     throw new IllegalArgumentException("SerializerType not match");
                 }
+                Serializer serializer = SerializerServiceLoader.load(protocolType, ProtocolConstants.VERSION_1);
+                // direct read body with zero-copy
+                ByteBuf body = frame.readSlice(bodyLength);
+                if (compressorType == CompressorType.NONE.getCode()) {
+                    rpcMessage.setBody(serializer.deserialize(body));
+                } else {
+                    ByteBuf raw = frame.alloc().buffer(bodyLength);
+                    try {
+                        Compressor compressor = CompressorFactory.getCompressor(compressorType);
+                        compressor.decompress(body, raw);
+                        rpcMessage.setBody(serializer.deserialize(raw));
+                    } finally {
+                        raw.release();
+                    }
+                }
             }
         }
 
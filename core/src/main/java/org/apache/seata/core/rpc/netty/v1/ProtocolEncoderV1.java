@@ -21,6 +21,7 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
 import org.apache.seata.core.compressor.Compressor;
 import org.apache.seata.core.compressor.CompressorFactory;
+import org.apache.seata.core.compressor.CompressorType;
 import org.apache.seata.core.protocol.ProtocolConstants;
 import org.apache.seata.core.protocol.RpcMessage;
 import org.apache.seata.core.rpc.netty.ProtocolEncoder;
@@ -89,20 +90,26 @@ public class ProtocolEncoderV1 extends MessageToByteEncoder implements ProtocolE
                 fullLength += headMapBytesLength;
             }
 
-            byte[] bodyBytes = null;
             if (messageType != ProtocolConstants.MSGTYPE_HEARTBEAT_REQUEST
                     && messageType != ProtocolConstants.MSGTYPE_HEARTBEAT_RESPONSE) {
                 // heartbeat has no body
                 Serializer serializer = SerializerServiceLoader.load(
                         SerializerType.getByCode(rpcMessage.getCodec()), ProtocolConstants.VERSION_1);
-                bodyBytes = serializer.serialize(rpcMessage.getBody());
-                Compressor compressor = CompressorFactory.getCompressor(rpcMessage.getCompressor());
-                bodyBytes = compressor.compress(bodyBytes);
-                fullLength += bodyBytes.length;
-            }
-
-            if (bodyBytes != null) {
-                out.writeBytes(bodyBytes);
+                int bodyStart = out.writerIndex();
+                if (rpcMessage.getCompressor() == CompressorType.NONE.getCode()) {
+                    // direct write body with zero-copy
+                    serializer.serialize(rpcMessage.getBody(), out);
+                } else {
+                    ByteBuf raw = out.alloc().buffer();
+                    try {
+                        serializer.serialize(rpcMessage.getBody(), raw);
+                        Compressor compressor = CompressorFactory.getCompressor(rpcMessage.getCompressor());
+                        compressor.compress(raw, out);
+                    } finally {
+                        raw.release();
+                    }
+                }
+                fullLength += out.writerIndex() - bodyStart;
             }
 
             // fix fullLength and headLength
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.core.rpc.processor.client;
+
+import io.netty.channel.ChannelHandlerContext;
+import org.apache.seata.common.util.NetUtil;
+import org.apache.seata.core.model.BranchStatus;
+import org.apache.seata.core.protocol.AbstractMessage;
+import org.apache.seata.core.protocol.AbstractResultMessage;
+import org.apache.seata.core.protocol.MergeResultMessage;
+import org.apache.seata.core.protocol.MergedWarpMessage;
+import org.apache.seata.core.protocol.ResultCode;
+import org.apache.seata.core.protocol.RpcMessage;
+import org.apache.seata.core.protocol.transaction.AbstractBranchEndResponse;
+import org.apache.seata.core.protocol.transaction.BranchCommitRequest;
+import org.apache.seata.core.protocol.transaction.BranchCommitResponse;
+import org.apache.seata.core.protocol.transaction.BranchRollbackRequest;
+import org.apache.seata.core.protocol.transaction.BranchRollbackResponse;
+import org.apache.seata.core.rpc.RemotingClient;
+import org.apache.seata.core.rpc.TransactionMessageHandler;
+import org.apache.seata.core.rpc.processor.RemotingProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * process TC merged phase two command.
+ * <p>
+ * Every branch commit/rollback request in the batch is dispatched to the branch handling executor, and once
+ * the last one finishes all results are acknowledged with a single {@link MergeResultMessage}, whose msgs
+ * line up with the request msgs. No thread waits for the others, so a batch can't stall the executor.
+ * <p>
+ * process message type:
+ * {@link MergedWarpMessage}
+ */
+public class RmMergedBranchRequestProcessor implements RemotingProcessor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RmMergedBranchRequestProcessor.class);
+
+    private final TransactionMessageHandler handler;
+
+    private final RemotingClient remotingClient;
+
+    private final Executor executor;
+
+    public RmMergedBranchRequestProcessor(TransactionMessageHandler handler, RemotingClient remotingClient) {
+        this(handler, remotingClient, null);
+    }
+
+    /**
+     * @param handler        the transaction message handler
+     * @param remotingClient the remoting client
+     * @param executor       the executor the requests of a batch are handled on, null to handle them in order
+     */
+    public RmMergedBranchRequestProcessor(
+            TransactionMessageHandler handler, RemotingClient remotingClient, Executor executor) {
+        this.handler = handler;
+        this.remotingClient = remotingClient;
+        this.executor = executor;
+    }
+
+    @Override
+    public void process(ChannelHandlerContext ctx, RpcMessage rpcMessage) throws Exception {
+        String remoteAddress = NetUtil.toStringAddress(ctx.channel().remoteAddress());
+        MergedWarpMessage mergedWarpMessage = (MergedWarpMessage) rpcMessage.getBody();
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("rm client handle merged branch request, size:{}", mergedWarpMessage.msgs.size());
+        }
+        List<AbstractMessage> msgs = mergedWarpMessage.msgs;
+        if (msgs.isEmpty()) {
+            sendResponse(remoteAddress, rpcMessage, new AbstractResultMessage[0]);
+            return;
+        }
+        AbstractResultMessage[] results = new AbstractResultMessage[msgs.size()];
+        // the decrement of the last finished request publishes the results of all the others
+        AtomicInteger remaining = new AtomicInteger(msgs.size());
+        for (int i = 0; i < msgs.size(); i++) {
+            int index = i;
+            Runnable task = () -> {
+                results[index] = handleRequest(msgs.get(index));
+                if (remaining.decrementAndGet() == 0) {
+                    sendResponse(remoteAddress, rpcMessage, results);
+                }
+            };
+            if (executor == null) {
+                task.run();
+                continue;
+            }
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+        }
+    }
+
+    private void sendResponse(String remoteAddress, RpcMessage rpcMessage, AbstractResultMessage[] results) {
+        MergeResultMessage resultMessage = new MergeResultMessage();
+        resultMessage.setMsgs(results);
+        try {
+            this.remotingClient.sendAsyncResponse(remoteAddress, rpcMessage, resultMessage);
+        } catch (Throwable throwable) {
+            LOGGER.error("merged branch request error: {}", throwable.getMessage(), throwable);
+        }
+    }
+
+    private AbstractResultMessage handleRequest(AbstractMessage msg) {
+        AbstractResultMessage result = null;
+        try {
+            if (msg instanceof BranchCommitRequest || msg instanceof BranchRollbackRequest) {
+                result = handler.onRequest(msg, null);
+            } else {
+                LOGGER.error("unsupported message in merged branch request: {}", msg);
+            }
+        } catch (Throwable throwable) {
+            LOGGER.error("handle merged branch request error: {}", throwable.getMessage(), throwable);
+        }
+        if (result == null) {
+            // every slot must be filled so the TC can still match each response to its request
+            result = retryableFailure(msg);
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("merged branch request result:" + result);
+        }
+        return result;
+    }
+
+    private AbstractResultMessage retryableFailure(AbstractMessage msg) {
+        AbstractBranchEndResponse response;
+        if (msg instanceof BranchRollbackRequest) {
+            BranchRollbackRequest request = (BranchRollbackRequest) msg;
+            response = new BranchRollbackResponse();
+            response.setXid(request.getXid());
+            response.setBranchId(request.getBranchId());
+            response.setBranchStatus(BranchStatus.PhaseTwo_RollbackFailed_Retryable);
+        } else {
+            response = new BranchCommitResponse();
+            if (msg instanceof BranchCommitRequest) {
+                response.setXid(((BranchCommitRequest) msg).getXid());
+                response.setBranchId(((BranchCommitRequest) msg).getBranchId());
+            }
+            response.setBranchStatus(BranchStatus.PhaseTwo_CommitFailed_Retryable);
+        }
+        response.setResultCode(ResultCode.Failed);
+        response.setMsg("unable to handle " + msg);
+        return response;
+    }
+}
@@ -24,21 +24,32 @@ import org.apache.seata.common.util.CollectionUtils;
 import org.apache.seata.common.util.NetUtil;
 import org.apache.seata.common.util.StringUtils;
 import org.apache.seata.config.ConfigurationFactory;
+import org.apache.seata.core.exception.TransactionException;
 import org.apache.seata.core.protocol.AbstractMessage;
 import org.apache.seata.core.protocol.AbstractResultMessage;
 import org.apache.seata.core.protocol.BatchResultMessage;
 import org.apache.seata.core.protocol.MergeResultMessage;
 import org.apache.seata.core.protocol.MergedWarpMessage;
+import org.apache.seata.core.protocol.ResultCode;
 import org.apache.seata.core.protocol.RpcMessage;
 import org.apache.seata.core.protocol.Version;
+import org.apache.seata.core.protocol.transaction.AbstractTransactionResponse;
 import org.apache.seata.core.protocol.transaction.BranchRegisterRequest;
+import org.apache.seata.core.protocol.transaction.BranchRegisterResponse;
 import org.apache.seata.core.protocol.transaction.BranchReportRequest;
+import org.apache.seata.core.protocol.transaction.BranchReportResponse;
 import org.apache.seata.core.protocol.transaction.GlobalBeginRequest;
+import org.apache.seata.core.protocol.transaction.GlobalBeginResponse;
 import org.apache.seata.core.protocol.transaction.GlobalCommitRequest;
+import org.apache.seata.core.protocol.transaction.GlobalCommitResponse;
 import org.apache.seata.core.protocol.transaction.GlobalLockQueryRequest;
+import org.apache.seata.core.protocol.transaction.GlobalLockQueryResponse;
 import org.apache.seata.core.protocol.transaction.GlobalReportRequest;
+import org.apache.seata.core.protocol.transaction.GlobalReportResponse;
 import org.apache.seata.core.protocol.transaction.GlobalRollbackRequest;
+import org.apache.seata.core.protocol.transaction.GlobalRollbackResponse;
 import org.apache.seata.core.protocol.transaction.GlobalStatusRequest;
+import org.apache.seata.core.protocol.transaction.GlobalStatusResponse;
 import org.apache.seata.core.rpc.Disposable;
 import org.apache.seata.core.rpc.RemotingServer;
 import org.apache.seata.core.rpc.RpcContext;
@@ -56,6 +67,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
@@ -63,6 +75,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * process RM/TM client request message.
@@ -172,35 +185,33 @@ public class ServerOnRequestProcessor implements RemotingProcessor, Disposable {
                     }
                 }
             } else {
-                List<AbstractResultMessage> results = new ArrayList<>();
-                List<CompletableFuture<AbstractResultMessage>> completableFutures = null;
-                for (int i = 0; i < ((MergedWarpMessage) message).msgs.size(); i++) {
+                List<AbstractMessage> msgs = ((MergedWarpMessage) message).msgs;
+                List<CompletableFuture<AbstractResultMessage>> completableFutures = new ArrayList<>(msgs.size());
+                for (AbstractMessage msg : msgs) {
                     if (PARALLEL_REQUEST_HANDLE) {
-                        if (completableFutures == null) {
-                            completableFutures = new ArrayList<>();
-                        }
-                        int finalI = i;
-                        completableFutures.add(CompletableFuture.supplyAsync(() -> handleRequestsByMergedWarpMessage(
-                                ((MergedWarpMessage) message).msgs.get(finalI), rpcContext)));
+                        completableFutures.add(
+                                CompletableFuture.supplyAsync(() -> handleRequestsByMergedWarpMessage(msg, rpcContext))
+                                        .thenCompose(Function.identity())
+                                        .exceptionally(throwable -> buildFailedResponse(msg, throwable)));
                     } else {
-                        results.add(
-                                i,
-                                handleRequestsByMergedWarpMessage(
-                                        ((MergedWarpMessage) message).msgs.get(i), rpcContext));
-                    }
-                }
-                if (CollectionUtils.isNotEmpty(completableFutures)) {
-                    try {
-                        for (CompletableFuture<AbstractResultMessage> completableFuture : completableFutures) {
-                            results.add(completableFuture.get());
-                        }
-                    } catch (InterruptedException | ExecutionException e) {
-                        LOGGER.error("handle request error: {}", e.getMessage(), e);
+                        completableFutures.add(handleRequestsByMergedWarpMessage(msg, rpcContext));
                     }
                 }
-                MergeResultMessage resultMessage = new MergeResultMessage();
-                resultMessage.setMsgs(results.toArray(new AbstractResultMessage[0]));
-                remotingServer.sendAsyncResponse(rpcMessage, ctx.channel(), resultMessage);
+                // respond once all the results are completed, without holding this thread
+                CompletableFuture.allOf(completableFutures.toArray(new CompletableFuture[0]))
+                        .whenComplete((v, throwable) -> {
+                            List<AbstractResultMessage> results = new ArrayList<>(completableFutures.size());
+                            try {
+                                for (CompletableFuture<AbstractResultMessage> completableFuture : completableFutures) {
+                                    results.add(completableFuture.get());
+                                }
+                            } catch (InterruptedException | ExecutionException e) {
+                                LOGGER.error("handle request error: {}", e.getMessage(), e);
+                            }
+                            MergeResultMessage resultMessage = new MergeResultMessage();
+                            resultMessage.setMsgs(results.toArray(new AbstractResultMessage[0]));
+                            remotingServer.sendAsyncResponse(rpcMessage, ctx.channel(), resultMessage);
+                        });
             }
         } else {
             // the single send request message
@@ -213,16 +224,20 @@ public class ServerOnRequestProcessor implements RemotingProcessor, Disposable {
                         rpcContext.getTransactionServiceGroup());
                 BatchLogHandler.INSTANCE.writeLog(receiveMsgLog);
             }
-            AbstractResultMessage result = transactionMessageHandler.onRequest(msg, rpcContext);
-            remotingServer.sendAsyncResponse(rpcMessage, ctx.channel(), result);
-            if (LOGGER.isInfoEnabled()) {
-                String resultMsgLog = String.format(
-                        "result msg[single]: %s, clientIp: %s, vgroup: %s",
-                        result,
-                        NetUtil.toIpAddress(ctx.channel().remoteAddress()),
-                        rpcContext.getTransactionServiceGroup());
-                BatchLogHandler.INSTANCE.writeLog(resultMsgLog);
-            }
+            onRequestAsync(msg, rpcContext).thenAccept(result -> {
+                if (result == null) {
+                    return;
+                }
+                remotingServer.sendAsyncResponse(rpcMessage, ctx.channel(), result);
+                if (LOGGER.isInfoEnabled()) {
+                    String resultMsgLog = String.format(
+                            "result msg[single]: %s, clientIp: %s, vgroup: %s",
+                            result,
+                            NetUtil.toIpAddress(ctx.channel().remoteAddress()),
+                            rpcContext.getTransactionServiceGroup());
+                    BatchLogHandler.INSTANCE.writeLog(resultMsgLog);
+                }
+            });
         }
     }
 
@@ -300,7 +315,8 @@ public class ServerOnRequestProcessor implements RemotingProcessor, Disposable {
      * handle rpc request message
      * @param rpcContext rpcContext
      */
-    private AbstractResultMessage handleRequestsByMergedWarpMessage(AbstractMessage subMessage, RpcContext rpcContext) {
+    private CompletableFuture<AbstractResultMessage> handleRequestsByMergedWarpMessage(
+            AbstractMessage subMessage, RpcContext rpcContext) {
         if (LOGGER.isInfoEnabled()) {
             String receiveMsgLog = String.format(
                     "receive msg[merged]: %s, clientIp: %s, vgroup: %s",
@@ -309,16 +325,17 @@ public class ServerOnRequestProcessor implements RemotingProcessor, Disposable {
                     rpcContext.getTransactionServiceGroup());
             BatchLogHandler.INSTANCE.writeLog(receiveMsgLog);
         }
-        AbstractResultMessage resultMessage = transactionMessageHandler.onRequest(subMessage, rpcContext);
-        if (LOGGER.isInfoEnabled()) {
-            String resultMsgLog = String.format(
-                    "result msg[merged]: %s, clientIp: %s, vgroup: %s",
-                    resultMessage,
-                    NetUtil.toIpAddress(rpcContext.getChannel().remoteAddress()),
-                    rpcContext.getTransactionServiceGroup());
-            BatchLogHandler.INSTANCE.writeLog(resultMsgLog);
-        }
-        return resultMessage;
+        return onRequestAsync(subMessage, rpcContext).thenApply(resultMessage -> {
+            if (LOGGER.isInfoEnabled()) {
+                String resultMsgLog = String.format(
+                        "result msg[merged]: %s, clientIp: %s, vgroup: %s",
+                        resultMessage,
+                        NetUtil.toIpAddress(rpcContext.getChannel().remoteAddress()),
+                        rpcContext.getTransactionServiceGroup());
+                BatchLogHandler.INSTANCE.writeLog(resultMsgLog);
+            }
+            return resultMessage;
+        });
     }
 
     /**
@@ -337,18 +354,84 @@ public class ServerOnRequestProcessor implements RemotingProcessor, Disposable {
                     msg, NetUtil.toIpAddress(ctx.channel().remoteAddress()), rpcContext.getTransactionServiceGroup());
             BatchLogHandler.INSTANCE.writeLog(receiveMsgLog);
         }
-        AbstractResultMessage resultMessage = transactionMessageHandler.onRequest(msg, rpcContext);
-        BlockingQueue<QueueItem> msgQueue = computeIfAbsentMsgQueue(ctx.channel());
-        offerMsg(msgQueue, rpcMessage, resultMessage, msgId, ctx.channel());
-        notifyBatchRespondingThread();
-        if (LOGGER.isInfoEnabled()) {
-            String resultMsgLog = String.format(
-                    "result msg[merged]: %s, clientIp: %s, vgroup: %s",
-                    resultMessage,
-                    NetUtil.toIpAddress(ctx.channel().remoteAddress()),
-                    rpcContext.getTransactionServiceGroup());
-            BatchLogHandler.INSTANCE.writeLog(resultMsgLog);
+        onRequestAsync(msg, rpcContext).thenAccept(resultMessage -> {
+            if (resultMessage == null) {
+                return;
+            }
+            BlockingQueue<QueueItem> msgQueue = computeIfAbsentMsgQueue(ctx.channel());
+            offerMsg(msgQueue, rpcMessage, resultMessage, msgId, ctx.channel());
+            notifyBatchRespondingThread();
+            if (LOGGER.isInfoEnabled()) {
+                String resultMsgLog = String.format(
+                        "result msg[merged]: %s, clientIp: %s, vgroup: %s",
+                        resultMessage,
+                        NetUtil.toIpAddress(ctx.channel().remoteAddress()),
+                        rpcContext.getTransactionServiceGroup());
+                BatchLogHandler.INSTANCE.writeLog(resultMsgLog);
+            }
+        });
+    }
+
+    /**
+     * Handle the request, a failure is turned into a failed response like the synchronous path does.
+     *
+     * @param msg        the request
+     * @param rpcContext the rpc context
+     * @return the future of the response, it completes with null if no response can be built for the request
+     */
+    private CompletableFuture<AbstractResultMessage> onRequestAsync(AbstractMessage msg, RpcContext rpcContext) {
+        CompletableFuture<AbstractResultMessage> future;
+        try {
+            future = transactionMessageHandler.onRequestAsync(msg, rpcContext);
+        } catch (RuntimeException e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        return future.exceptionally(throwable -> buildFailedResponse(msg, throwable));
+    }
+
+    /**
+     * Build the failed response of a request, like the exception handler of the coordinator does.
+     *
+     * @param msg       the request
+     * @param throwable the failure
+     * @return the response, null if the request is not a transaction request to the TC
+     */
+    private static AbstractResultMessage buildFailedResponse(AbstractMessage msg, Throwable throwable) {
+        Throwable cause = throwable;
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        LOGGER.error("handle request error: {}", cause.getMessage(), cause);
+        AbstractTransactionResponse response;
+        if (msg instanceof GlobalBeginRequest) {
+            response = new GlobalBeginResponse();
+        } else if (msg instanceof GlobalLockQueryRequest) {
+            // checked before its super class BranchRegisterRequest
+            response = new GlobalLockQueryResponse();
+        } else if (msg instanceof BranchRegisterRequest) {
+            response = new BranchRegisterResponse();
+        } else if (msg instanceof BranchReportRequest) {
+            response = new BranchReportResponse();
+        } else if (msg instanceof GlobalCommitRequest) {
+            response = new GlobalCommitResponse();
+        } else if (msg instanceof GlobalRollbackRequest) {
+            response = new GlobalRollbackResponse();
+        } else if (msg instanceof GlobalStatusRequest) {
+            response = new GlobalStatusResponse();
+        } else if (msg instanceof GlobalReportRequest) {
+            response = new GlobalReportResponse();
+        } else {
+            return null;
+        }
+        response.setResultCode(ResultCode.Failed);
+        if (cause instanceof TransactionException) {
+            response.setTransactionExceptionCode(((TransactionException) cause).getCode());
+            response.setMsg("TransactionException[" + cause.getMessage() + "]");
+        } else {
+            response.setMsg("RuntimeException[" + cause.getMessage() + "]");
         }
+        return response;
     }
 
     /**
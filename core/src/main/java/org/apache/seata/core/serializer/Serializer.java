@@ -16,6 +16,9 @@
  */
 package org.apache.seata.core.serializer;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
 /**
  * The interface Codec.
  *
@@ -39,4 +42,34 @@ public interface Serializer {
      * @return the t
      */
     <T> T deserialize(byte[] bytes);
+
+    /**
+     * Encode object straight into the buffer, starting at its writer index.
+     * <p>
+     * The default implementation copies the byte[] encoding, serializers able to write
+     * into a {@link ByteBuf} directly should override it.
+     *
+     * @param <T> the type parameter
+     * @param t   the t
+     * @param out the buffer to write to
+     */
+    default <T> void serialize(T t, ByteBuf out) {
+        out.writeBytes(serialize(t));
+    }
+
+    /**
+     * Decode t from the readable bytes of the buffer, consuming them.
+     * <p>
+     * The default implementation copies the readable bytes into a byte[] first, serializers
+     * able to read from a {@link ByteBuf} directly should override it.
+     *
+     * @param <T> the type parameter
+     * @param in  the buffer to read from
+     * @return the t
+     */
+    default <T> T deserialize(ByteBuf in) {
+        byte[] bytes = ByteBufUtil.getBytes(in);
+        in.skipBytes(bytes.length);
+        return deserialize(bytes);
+    }
 }
@@ -74,6 +74,11 @@ public class AbstractLockStoreSql implements LockStoreSql {
             + ServerTableColumnsName.LOCK_TABLE_ROW_KEY + ", " + ServerTableColumnsName.LOCK_TABLE_GMT_CREATE + ", "
             + ServerTableColumnsName.LOCK_TABLE_GMT_MODIFIED + "," + ServerTableColumnsName.LOCK_TABLE_STATUS;
 
+    /**
+     * The constant LOCK_VALUES, the values of one row in the insert lock sql.
+     */
+    protected static final String LOCK_VALUES = "(?, ?, ?, ?, ?, ?, ?, now(), now(), ?)";
+
     /**
      * The constant DELETE_LOCK_SQL.
      */
@@ -179,6 +184,29 @@ public class AbstractLockStoreSql implements LockStoreSql {
         return BATCH_UPDATE_STATUS_LOCK_BY_GLOBAL_SQL.replace(LOCK_TABLE_PLACE_HOLD, lockTable);
     }
 
+    @Override
+    public String getInsertIgnoreDuplicateLockSql(String lockTable, int rowSize) {
+        return null;
+    }
+
+    /**
+     * Build the values of a multi rows insert lock sql, the result will like
+     * "(?, ?, ?, ?, ?, ?, ?, now(), now(), ?),(?, ?, ?, ?, ?, ?, ?, now(), now(), ?)"
+     *
+     * @param rowSize the row size of records
+     * @return the values sql string
+     */
+    protected String buildLockValues(int rowSize) {
+        StringBuilder values = new StringBuilder(rowSize * (LOCK_VALUES.length() + 1));
+        for (int i = 0; i < rowSize; i++) {
+            if (i > 0) {
+                values.append(",");
+            }
+            values.append(LOCK_VALUES);
+        }
+        return values.toString();
+    }
+
     /**
      * each pk is a condition.the result will like :" (id,userCode) in ((?,?),(?,?)) or (id,userCode) in ((?,?),(?,?)
      * ) or (id,userCode) in ((?,?))"
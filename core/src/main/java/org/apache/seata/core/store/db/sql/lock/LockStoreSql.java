@@ -97,4 +97,14 @@ public interface LockStoreSql {
      * @return the string
      */
     String getBatchUpdateStatusLockByGlobalSql(String lockTable);
+
+    /**
+     * Get the sql inserting rowSize locks in one statement, rows whose row key already exists are skipped
+     * instead of failing the statement, its update count must be the number of rows inserted.
+     *
+     * @param lockTable      the lock table
+     * @param rowSize the size of rowkey
+     * @return the string, null if the db type has no such statement
+     */
+    String getInsertIgnoreDuplicateLockSql(String lockTable, int rowSize);
 }
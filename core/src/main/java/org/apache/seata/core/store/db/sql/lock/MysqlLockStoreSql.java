@@ -36,4 +36,12 @@ public class MysqlLockStoreSql extends AbstractLockStoreSql {
     public String getInsertLockSQL(String lockTable) {
         return INSERT_LOCK_SQL_MYSQL.replace(LOCK_TABLE_PLACE_HOLD, lockTable);
     }
+
+    @Override
+    public String getInsertIgnoreDuplicateLockSql(String lockTable, int rowSize) {
+        // insert ignore turns other errors into warnings, and with the found rows flag of Connector/J
+        // on duplicate key update counts a kept row like an inserted one, besides it locks the rows of
+        // other transactions before they are checked, so mysql keeps the check then insert path
+        return null;
+    }
 }
@@ -17,6 +17,7 @@
 package org.apache.seata.core.store.db.sql.lock;
 
 import org.apache.seata.common.loader.LoadLevel;
+import org.apache.seata.core.constants.ServerTableColumnsName;
 
 /**
  * the database lock store postgre sql
@@ -32,8 +33,27 @@ public class PostgresqlLockStoreSql extends AbstractLockStoreSql {
     private static final String INSERT_LOCK_SQL_POSTGRESQL = "insert into " + LOCK_TABLE_PLACE_HOLD + "(" + ALL_COLUMNS
             + ")" + " values (?, ?, ?, ?, ?, ?, ?, now(), now(), ?)";
 
+    /**
+     * The constant INSERT_IGNORE_LOCK_SQL_POSTGRESQL.
+     */
+    private static final String INSERT_IGNORE_LOCK_SQL_POSTGRESQL =
+            "insert into " + LOCK_TABLE_PLACE_HOLD + "(" + ALL_COLUMNS + ")" + " values ";
+
+    /**
+     * The constant ON_CONFLICT_DO_NOTHING.
+     */
+    private static final String ON_CONFLICT_DO_NOTHING =
+            " on conflict (" + ServerTableColumnsName.LOCK_TABLE_ROW_KEY + ") do nothing";
+
     @Override
     public String getInsertLockSQL(String lockTable) {
         return INSERT_LOCK_SQL_POSTGRESQL.replace(LOCK_TABLE_PLACE_HOLD, lockTable);
     }
+
+    @Override
+    public String getInsertIgnoreDuplicateLockSql(String lockTable, int rowSize) {
+        return INSERT_IGNORE_LOCK_SQL_POSTGRESQL.replace(LOCK_TABLE_PLACE_HOLD, lockTable)
+                + buildLockValues(rowSize)
+                + ON_CONFLICT_DO_NOTHING;
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.core.lock;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Test {@link CompactLockKey}.
+ *
+ */
+public class CompactLockKeyTest {
+
+    @Test
+    public void testRoundTrip() {
+        String[] lockKeys = {
+            "t_user:1",
+            "t_user:1,2,3;t_order:100",
+            "t_user:1_a,2_b;t_user:3_c",
+            "t_user:007,-1,a__b,,1.5,中文",
+            "t_user:9223372036854775807,4611686018427387903,4611686018427387904",
+            "t_user:",
+            "db.t_user: 1 , 2"
+        };
+        for (String lockKey : lockKeys) {
+            byte[] bytes = CompactLockKey.encode(lockKey);
+            Assertions.assertTrue(CompactLockKey.isCompact(bytes), lockKey);
+            Assertions.assertEquals(lockKey, CompactLockKey.decode(bytes));
+        }
+    }
+
+    @Test
+    public void testSmallerThanText() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            sb.append(i == 0 ? "t_order:" : ",").append(1000000000L + i).append('_').append(i % 16);
+        }
+        String lockKey = sb.toString();
+        byte[] bytes = CompactLockKey.encode(lockKey);
+        Assertions.assertTrue(bytes.length * 3 < lockKey.getBytes(StandardCharsets.UTF_8).length * 2);
+        Assertions.assertEquals(lockKey, CompactLockKey.decode(bytes));
+    }
+
+    @Test
+    public void testNotEncodable() {
+        Assertions.assertNull(CompactLockKey.encode(null));
+        Assertions.assertNull(CompactLockKey.encode(""));
+        Assertions.assertNull(CompactLockKey.encode("t_user"));
+        Assertions.assertNull(CompactLockKey.encode("t_user:1;"));
+        Assertions.assertFalse(CompactLockKey.isCompact("t_user:1".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testMalformed() {
+        byte[] bytes = CompactLockKey.encode("t_user:1,2");
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> CompactLockKey.decode(Arrays.copyOf(bytes, bytes.length - 1)));
+        bytes[1] = 2;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CompactLockKey.decode(bytes));
+    }
+}
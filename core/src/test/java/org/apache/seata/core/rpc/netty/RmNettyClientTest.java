@@ -16,12 +16,15 @@
  */
 package org.apache.seata.core.rpc.netty;
 
+import io.netty.channel.Channel;
 import org.apache.seata.common.ConfigurationKeys;
 import org.apache.seata.common.exception.FrameworkException;
 import org.apache.seata.config.ConfigurationCache;
 import org.apache.seata.core.model.Resource;
 import org.apache.seata.core.model.ResourceManager;
 import org.apache.seata.core.protocol.HeartbeatMessage;
+import org.apache.seata.core.protocol.RegisterRMRequest;
+import org.apache.seata.core.protocol.RegisterRMResponse;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
@@ -30,7 +33,10 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -87,6 +93,37 @@ class RmNettyClientTest {
         System.setProperty(ConfigurationKeys.ENABLE_RM_CLIENT_CHANNEL_CHECK_FAIL_FAST, "false");
     }
 
+    @Test
+    public void testServerVersionRecordedBeforeChannelRegistered() throws Exception {
+        RmNettyRemotingClient newClient = RmNettyRemotingClient.getInstance("compact", "default_tx_group");
+        newClient.setResourceManager(Mockito.mock(ResourceManager.class));
+        NettyClientChannelManager channelManager = Mockito.mock(NettyClientChannelManager.class);
+        List<Boolean> supportedOnRegister = new ArrayList<>();
+        Mockito.doAnswer(invocation -> supportedOnRegister.add(newClient.isCompactLockKeySupported()))
+                .when(channelManager)
+                .registerChannel(Mockito.anyString(), Mockito.any(), Mockito.any());
+        Field field = AbstractNettyRemotingClient.class.getDeclaredField("clientChannelManager");
+        field.setAccessible(true);
+        Object originalChannelManager = field.get(newClient);
+        field.set(newClient, channelManager);
+        try {
+            Channel channel = Mockito.mock(Channel.class);
+            RegisterRMRequest request = new RegisterRMRequest("compact", "default_tx_group");
+            RegisterRMResponse response = new RegisterRMResponse();
+            response.setVersion("2.6.0");
+            newClient.onRegisterMsgSuccess("127.0.0.1:8091", channel, response, request);
+            // a server that does not answer its version is treated as an old one
+            RegisterRMResponse blankVersionResponse = new RegisterRMResponse();
+            blankVersionResponse.setVersion("");
+            newClient.onRegisterMsgSuccess("127.0.0.1:8092", channel, blankVersionResponse, request);
+            Assertions.assertEquals(Arrays.asList(true, false), supportedOnRegister);
+            assertFalse(newClient.isCompactLockKeySupported());
+        } finally {
+            field.set(newClient, originalChannelManager);
+            newClient.destroy();
+        }
+    }
+
     private AtomicBoolean getInitializeStatus(final RmNettyRemotingClient rmNettyRemotingClient) {
         try {
             Field field = rmNettyRemotingClient.getClass().getDeclaredField("initialized");
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.core.rpc.processor.client;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import org.apache.seata.core.model.BranchStatus;
+import org.apache.seata.core.protocol.AbstractMessage;
+import org.apache.seata.core.protocol.AbstractResultMessage;
+import org.apache.seata.core.protocol.MergeResultMessage;
+import org.apache.seata.core.protocol.MergedWarpMessage;
+import org.apache.seata.core.protocol.ResultCode;
+import org.apache.seata.core.protocol.RpcMessage;
+import org.apache.seata.core.protocol.transaction.BranchCommitRequest;
+import org.apache.seata.core.protocol.transaction.BranchCommitResponse;
+import org.apache.seata.core.protocol.transaction.BranchRollbackRequest;
+import org.apache.seata.core.protocol.transaction.BranchRollbackResponse;
+import org.apache.seata.core.rpc.RemotingClient;
+import org.apache.seata.core.rpc.TransactionMessageHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The type Rm merged branch request processor test.
+ */
+public class RmMergedBranchRequestProcessorTest {
+
+    private ChannelHandlerContext mockCtx;
+    private TransactionMessageHandler mockHandler;
+    private RemotingClient mockRemotingClient;
+    private RmMergedBranchRequestProcessor processor;
+
+    /**
+     * Sets up.
+     */
+    @BeforeEach
+    void setUp() {
+        mockCtx = mock(ChannelHandlerContext.class);
+        Channel mockChannel = mock(Channel.class);
+        when(mockCtx.channel()).thenReturn(mockChannel);
+        when(mockChannel.remoteAddress()).thenReturn(new InetSocketAddress("127.0.0.1", 8091));
+        mockHandler = mock(TransactionMessageHandler.class);
+        mockRemotingClient = mock(RemotingClient.class);
+        processor = new RmMergedBranchRequestProcessor(mockHandler, mockRemotingClient);
+    }
+
+    /**
+     * Process should handle every request and acknowledge them in one response.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    void processShouldAcknowledgeAllRequestsInOneResponse() throws Exception {
+        BranchCommitRequest commitRequest = new BranchCommitRequest();
+        BranchRollbackRequest rollbackRequest = new BranchRollbackRequest();
+        BranchCommitResponse commitResponse = new BranchCommitResponse();
+        BranchRollbackResponse rollbackResponse = new BranchRollbackResponse();
+        when(mockHandler.onRequest(commitRequest, null)).thenReturn(commitResponse);
+        when(mockHandler.onRequest(rollbackRequest, null)).thenReturn(rollbackResponse);
+        RpcMessage rpcMessage = merged(commitRequest, rollbackRequest);
+
+        processor.process(mockCtx, rpcMessage);
+
+        AbstractResultMessage[] results = captureResults(rpcMessage);
+        assertEquals(2, results.length);
+        assertSame(commitResponse, results[0]);
+        assertSame(rollbackResponse, results[1]);
+    }
+
+    /**
+     * Process should fill a retryable failure for a request the handler fails on.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    void processShouldFillRetryableFailureWhenHandlerThrows() throws Exception {
+        BranchRollbackRequest rollbackRequest = new BranchRollbackRequest();
+        rollbackRequest.setXid("127.0.0.1:8091:1");
+        rollbackRequest.setBranchId(2L);
+        BranchCommitRequest commitRequest = new BranchCommitRequest();
+        BranchCommitResponse commitResponse = new BranchCommitResponse();
+        when(mockHandler.onRequest(rollbackRequest, null)).thenThrow(new RuntimeException("rollback failure"));
+        when(mockHandler.onRequest(commitRequest, null)).thenReturn(commitResponse);
+        RpcMessage rpcMessage = merged(rollbackRequest, commitRequest);
+
+        processor.process(mockCtx, rpcMessage);
+
+        AbstractResultMessage[] results = captureResults(rpcMessage);
+        assertEquals(2, results.length);
+        assertTrue(results[0] instanceof BranchRollbackResponse);
+        BranchRollbackResponse failure = (BranchRollbackResponse) results[0];
+        assertEquals(ResultCode.Failed, failure.getResultCode());
+        assertEquals(BranchStatus.PhaseTwo_RollbackFailed_Retryable, failure.getBranchStatus());
+        assertEquals(2L, failure.getBranchId());
+        assertSame(commitResponse, results[1]);
+    }
+
+    /**
+     * Process should handle the requests of a batch concurrently on the executor and reply once all finish.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    void processShouldHandleRequestsConcurrentlyOnExecutor() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            processor = new RmMergedBranchRequestProcessor(mockHandler, mockRemotingClient, executor);
+            BranchCommitRequest first = new BranchCommitRequest();
+            BranchCommitRequest second = new BranchCommitRequest();
+            BranchCommitResponse firstResponse = new BranchCommitResponse();
+            BranchCommitResponse secondResponse = new BranchCommitResponse();
+            CountDownLatch secondStarted = new CountDownLatch(1);
+            when(mockHandler.onRequest(first, null)).thenAnswer(invocation -> {
+                // only returns if the second request runs while the first one is still being handled
+                assertTrue(secondStarted.await(10, TimeUnit.SECONDS));
+                return firstResponse;
+            });
+            when(mockHandler.onRequest(second, null)).thenAnswer(invocation -> {
+                secondStarted.countDown();
+                return secondResponse;
+            });
+            RpcMessage rpcMessage = merged(first, second);
+
+            processor.process(mockCtx, rpcMessage);
+
+            ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+            verify(mockRemotingClient, timeout(10000)).sendAsyncResponse(any(), eq(rpcMessage), captor.capture());
+            AbstractResultMessage[] results = ((MergeResultMessage) captor.getValue()).getMsgs();
+            assertEquals(2, results.length);
+            assertSame(firstResponse, results[0]);
+            assertSame(secondResponse, results[1]);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private AbstractResultMessage[] captureResults(RpcMessage rpcMessage) {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(mockRemotingClient).sendAsyncResponse(any(), eq(rpcMessage), captor.capture());
+        return ((MergeResultMessage) captor.getValue()).getMsgs();
+    }
+
+    private static RpcMessage merged(AbstractMessage... requests) {
+        MergedWarpMessage mergedWarpMessage = new MergedWarpMessage();
+        int id = 0;
+        for (AbstractMessage request : requests) {
+            mergedWarpMessage.msgs.add(request);
+            mergedWarpMessage.msgIds.add(++id);
+        }
+        RpcMessage rpcMessage = new RpcMessage();
+        rpcMessage.setId(100);
+        rpcMessage.setBody(mergedWarpMessage);
+        return rpcMessage;
+    }
+}
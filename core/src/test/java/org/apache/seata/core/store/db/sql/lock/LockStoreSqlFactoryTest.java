@@ -66,6 +66,21 @@ public class LockStoreSqlFactoryTest {
     private static String EXPECT_BATCH_BRANCH_DELETE_LOCK_BY_BRANCHS_SQL =
             "delete from " + BRANCH_TABLE + " where xid = ? ";
 
+    @Test
+    public void insertIgnoreDuplicateLockTest() {
+        Assertions.assertEquals(
+                "insert into " + GLOBAL_TABLE
+                        + "(xid, transaction_id, branch_id, resource_id, table_name, pk, row_key, gmt_create, "
+                        + "gmt_modified,status) values (?, ?, ?, ?, ?, ?, ?, now(), now(), ?)"
+                        + " on conflict (row_key) do nothing",
+                POSTGRESQL_LOCK_STORE.getInsertIgnoreDuplicateLockSql(GLOBAL_TABLE, 1));
+        Assertions.assertNull(MYSQL_LOCK_STORE.getInsertIgnoreDuplicateLockSql(GLOBAL_TABLE, 2));
+        Assertions.assertNull(MARIADB_LOCK_STORE.getInsertIgnoreDuplicateLockSql(GLOBAL_TABLE, 2));
+        Assertions.assertNull(DM_LOCK_STORE.getInsertIgnoreDuplicateLockSql(GLOBAL_TABLE, 1));
+        Assertions.assertNull(H2_LOCK_STORE.getInsertIgnoreDuplicateLockSql(GLOBAL_TABLE, 1));
+        Assertions.assertNull(ORACLE_LOCK_STORE.getInsertIgnoreDuplicateLockSql(GLOBAL_TABLE, 1));
+    }
+
     @Test
     public void mysqlLockTest() {
         String sql;
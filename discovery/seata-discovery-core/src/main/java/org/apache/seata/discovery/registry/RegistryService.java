@@ -162,6 +162,17 @@ public interface RegistryService<T> {
                 .orElse(Collections.emptyList());
     }
 
+    /**
+     * The alive addresses able to serve read-only requests such as global status and global lock queries,
+     * the same as {@link #aliveLookup(String)} unless the registry knows the read replicas of the cluster.
+     *
+     * @param transactionServiceGroup the transaction service group
+     * @return the alive addresses
+     */
+    default List<InetSocketAddress> aliveReadLookup(String transactionServiceGroup) {
+        return aliveLookup(transactionServiceGroup);
+    }
+
     default List<InetSocketAddress> refreshAliveLookup(
             String transactionServiceGroup, List<InetSocketAddress> aliveAddress) {
 
@@ -30,6 +30,7 @@ import org.apache.seata.common.exception.AuthenticationFailedException;
 import org.apache.seata.common.exception.NotSupportYetException;
 import org.apache.seata.common.exception.ParseEndpointException;
 import org.apache.seata.common.exception.RetryableException;
+import org.apache.seata.common.metadata.ClusterRole;
 import org.apache.seata.common.metadata.Metadata;
 import org.apache.seata.common.metadata.MetadataResponse;
 import org.apache.seata.common.metadata.Node;
@@ -87,6 +88,8 @@ public class RaftRegistryServiceImpl implements RegistryService<ConfigChangeList
 
     private static final String META_DATA_MAX_AGE_MS = "metadataMaxAgeMs";
 
+    private static final String FOLLOWER_READ_KEY = "followerRead";
+
     private static final long TOKEN_EXPIRE_TIME_IN_MILLISECONDS;
 
     private static final String USERNAME;
@@ -124,11 +127,14 @@ public class RaftRegistryServiceImpl implements RegistryService<ConfigChangeList
 
     private static final String PREFERRED_NETWORKS;
 
+    private static final boolean FOLLOWER_READ;
+
     static {
         TOKEN_EXPIRE_TIME_IN_MILLISECONDS = CONFIG.getLong(getTokenExpireTimeInMillisecondsKey(), 29 * 60 * 1000L);
         USERNAME = CONFIG.getConfig(getRaftUserNameKey());
         PASSWORD = CONFIG.getConfig(getRaftPassWordKey());
         PREFERRED_NETWORKS = CONFIG.getConfig(getPreferredNetworks());
+        FOLLOWER_READ = CONFIG.getBoolean(getFollowerReadKey(), false);
     }
 
     private RaftRegistryServiceImpl() {}
@@ -410,6 +416,27 @@ public class RaftRegistryServiceImpl implements RegistryService<ConfigChangeList
         return RegistryService.super.aliveLookup(transactionServiceGroup);
     }
 
+    /**
+     * With follower read enabled the read-only requests are spread over the leader and the followers,
+     * the TC followers answer them after a read index check.
+     */
+    @Override
+    public List<InetSocketAddress> aliveReadLookup(String transactionServiceGroup) {
+        if (FOLLOWER_READ && METADATA.isRaftMode()) {
+            List<Node> nodes = METADATA.getNodes(getServiceGroup(transactionServiceGroup));
+            if (CollectionUtils.isNotEmpty(nodes)) {
+                List<InetSocketAddress> addresses = nodes.stream()
+                        .filter(node -> node.getRole() != ClusterRole.LEARNER)
+                        .map(RaftRegistryServiceImpl::selectTransactionEndpoint)
+                        .collect(Collectors.toList());
+                if (!addresses.isEmpty()) {
+                    return addresses;
+                }
+            }
+        }
+        return aliveLookup(transactionServiceGroup);
+    }
+
     private static boolean watch() throws RetryableException {
         Map<String, String> header = new HashMap<>();
         header.put(HTTP.CONTENT_TYPE, ContentType.APPLICATION_FORM_URLENCODED.getMimeType());
@@ -612,6 +639,14 @@ public class RaftRegistryServiceImpl implements RegistryService<ConfigChangeList
         return Collections.emptyList();
     }
 
+    private static String getFollowerReadKey() {
+        return String.join(
+                ConfigurationKeys.FILE_CONFIG_SPLIT_CHAR,
+                ConfigurationKeys.FILE_ROOT_REGISTRY,
+                REGISTRY_TYPE,
+                FOLLOWER_READ_KEY);
+    }
+
     private static String getMetadataMaxAgeMs() {
         return String.join(
                 ConfigurationKeys.FILE_CONFIG_SPLIT_CHAR,
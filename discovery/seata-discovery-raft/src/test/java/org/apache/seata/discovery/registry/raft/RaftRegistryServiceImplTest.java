@@ -22,6 +22,7 @@ import org.apache.http.HttpStatus;
 import org.apache.http.StatusLine;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.entity.StringEntity;
+import org.apache.seata.common.metadata.Metadata;
 import org.apache.seata.common.metadata.MetadataResponse;
 import org.apache.seata.common.metadata.Node;
 import org.apache.seata.common.util.*;
@@ -37,6 +38,7 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -55,12 +57,14 @@ class RaftRegistryServiceImplTest {
         System.setProperty("registry.raft.serverAddr", "127.0.0.1:8092");
         System.setProperty("registry.raft.tokenValidityInMilliseconds", "10000");
         System.setProperty("registry.preferredNetworks", "10.10.*");
+        System.setProperty("registry.raft.followerRead", "true");
         ConfigurationFactory.getInstance();
     }
 
     @AfterAll
     public static void adAfterClass() throws Exception {
         System.clearProperty("service.vgroupMapping.tx");
+        System.clearProperty("registry.raft.followerRead");
     }
 
     /**
@@ -176,4 +180,35 @@ class RaftRegistryServiceImplTest {
             Assertions.assertTrue(transactionEndpointStr.contains("10.10.105.7:3009"));
         }
     }
+
+    /**
+     * test the read-only requests are spread over the leader and the followers but not the learners
+     * RaftRegistryServiceImpl#aliveReadLookup()
+     */
+    @Test
+    public void testAliveReadLookup() throws Exception {
+        String jsonString = "{\"nodes\":[" + node("LEADER", 30091) + "," + node("FOLLOWER", 30092) + ","
+                + node("LEARNER", 30093) + "],\"storeMode\":\"raft\",\"term\":1}";
+        MetadataResponse metadataResponse = new ObjectMapper().readValue(jsonString, MetadataResponse.class);
+        Field metadataField = RaftRegistryServiceImpl.class.getDeclaredField("METADATA");
+        metadataField.setAccessible(true);
+        Metadata metadata = (Metadata) metadataField.get(null);
+        metadata.refreshMetadata("default", metadataResponse);
+
+        RaftRegistryServiceImpl registryService = RaftRegistryServiceImpl.getInstance();
+        List<InetSocketAddress> readAddresses = registryService.aliveReadLookup("tx");
+        Assertions.assertEquals(2, readAddresses.size());
+        Assertions.assertTrue(readAddresses.contains(new InetSocketAddress("10.10.105.7", 30091)));
+        Assertions.assertTrue(readAddresses.contains(new InetSocketAddress("10.10.105.7", 30092)));
+        Assertions.assertEquals(
+                Collections.singletonList(new InetSocketAddress("10.10.105.7", 30091)),
+                registryService.aliveLookup("tx"));
+    }
+
+    private static String node(String role, int transactionPort) {
+        return "{\"control\":{\"host\":\"v.svc\",\"port\":7091},\"transaction\":{\"host\":\"v.svc\",\"port\":8091},"
+                + "\"internal\":{\"host\":\"v.svc\",\"port\":9091},\"group\":\"default\",\"role\":\"" + role + "\","
+                + "\"metadata\":{\"external\":[{\"host\":\"10.10.105.7\",\"controlPort\":" + (transactionPort - 20)
+                + ",\"transactionPort\":" + transactionPort + "}]}}";
+    }
 }
@@ -27,6 +27,10 @@ public interface IdConstants {
 
     String SEATA_RATE_LIMIT = "seata.rate.limit";
 
+    String SEATA_FILE_STORE_GROUP_COMMIT = "seata.store.file.group.commit";
+
+    String SEATA_BRANCH_PHASE_TWO = "seata.branch.phase.two";
+
     String APP_ID_KEY = "applicationId";
 
     String TRANSACTION_NAME_KEY = "transactionName";
@@ -0,0 +1,330 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.rm.datasource;
+
+import org.apache.seata.common.thread.NamedThreadFactory;
+import org.apache.seata.common.util.CollectionUtils;
+import org.apache.seata.config.ConfigurationFactory;
+import org.apache.seata.core.exception.BranchTransactionException;
+import org.apache.seata.core.exception.TransactionException;
+import org.apache.seata.core.rpc.Disposable;
+import org.apache.seata.rm.datasource.sql.struct.Field;
+import org.apache.seata.rm.datasource.sql.struct.Row;
+import org.apache.seata.rm.datasource.sql.struct.TableRecords;
+import org.apache.seata.rm.datasource.undo.BranchUndoLog;
+import org.apache.seata.rm.datasource.undo.SQLUndoLog;
+import org.apache.seata.rm.datasource.undo.UndoLogManager;
+import org.apache.seata.rm.datasource.undo.UndoLogManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.apache.seata.common.DefaultValues.DEFAULT_TRANSACTION_UNDO_FETCH_SIZE;
+import static org.apache.seata.common.DefaultValues.DEFAULT_TRANSACTION_UNDO_PARALLELISM;
+import static org.apache.seata.core.constants.ConfigurationKeys.TRANSACTION_UNDO_FETCH_SIZE;
+import static org.apache.seata.core.constants.ConfigurationKeys.TRANSACTION_UNDO_PARALLELISM;
+import static org.apache.seata.core.exception.TransactionExceptionCode.BranchRollbackFailed_Retriable;
+
+/**
+ * Rolls back the AT branches of one data source on a bounded pool.
+ * <p>
+ * Rollbacks that queue up while another one is being dispatched are taken together: their undo logs are
+ * fetched with one query, and a branch only waits for the earlier branches whose undo images touch the
+ * same rows. A branch whose undo log was not fetched may touch any row, so it waits for every earlier branch
+ * and the later ones wait for it. Every branch is still undone in its own local transaction by the
+ * {@link UndoLogManager}.
+ */
+public class BranchRollbackExecutor implements Disposable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BranchRollbackExecutor.class);
+
+    private static final int PARALLELISM = ConfigurationFactory.getInstance()
+            .getInt(TRANSACTION_UNDO_PARALLELISM, DEFAULT_TRANSACTION_UNDO_PARALLELISM);
+
+    private static final int FETCH_SIZE = ConfigurationFactory.getInstance()
+            .getInt(TRANSACTION_UNDO_FETCH_SIZE, DEFAULT_TRANSACTION_UNDO_FETCH_SIZE);
+
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    private static final char ROW_KEY_SPLIT = ':';
+
+    private final DataSourceProxy dataSourceProxy;
+
+    private final UndoLogManager undoLogManager;
+
+    private final int fetchSize;
+
+    /**
+     * null when the branches are rolled back on the calling thread
+     */
+    private final ThreadPoolExecutor executor;
+
+    private final Queue<RollbackTask> pendingTasks = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean dispatching = new AtomicBoolean(false);
+
+    /**
+     * the last scheduled rollback of every row, by row key
+     */
+    private final Map<String, CompletableFuture<Void>> rowOwners = new ConcurrentHashMap<>();
+
+    /**
+     * the last scheduled rollback whose rows are unknown, only touched by the dispatching thread
+     */
+    private volatile CompletableFuture<Void> unknownRowsOwner;
+
+    public BranchRollbackExecutor(DataSourceProxy dataSourceProxy) {
+        this(
+                dataSourceProxy,
+                UndoLogManagerFactory.getUndoLogManager(dataSourceProxy.getDbType()),
+                PARALLELISM,
+                FETCH_SIZE);
+    }
+
+    BranchRollbackExecutor(
+            DataSourceProxy dataSourceProxy, UndoLogManager undoLogManager, int parallelism, int fetchSize) {
+        this.dataSourceProxy = dataSourceProxy;
+        this.undoLogManager = undoLogManager;
+        this.fetchSize = Math.max(1, fetchSize);
+        if (parallelism > 1) {
+            this.executor = new ThreadPoolExecutor(
+                    parallelism,
+                    parallelism,
+                    KEEP_ALIVE_SECONDS,
+                    TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(),
+                    new NamedThreadFactory("BranchRollback", parallelism, true));
+            this.executor.allowCoreThreadTimeOut(true);
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /**
+     * Roll back a branch and wait for it.
+     *
+     * @param xid      the xid
+     * @param branchId the branch id
+     * @throws TransactionException the transaction exception
+     */
+    public void rollback(String xid, long branchId) throws TransactionException {
+        if (executor == null) {
+            undoLogManager.undo(dataSourceProxy, xid, branchId);
+            return;
+        }
+        RollbackTask task = new RollbackTask(xid, branchId);
+        pendingTasks.offer(task);
+        dispatch();
+        try {
+            task.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BranchTransactionException(
+                    BranchRollbackFailed_Retriable,
+                    String.format("Branch session rollback interrupted xid = %s branchId = %s", xid, branchId),
+                    e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TransactionException) {
+                throw (TransactionException) cause;
+            }
+            throw new BranchTransactionException(
+                    BranchRollbackFailed_Retriable,
+                    String.format(
+                            "Branch session rollback failed and try again later xid = %s branchId = %s %s",
+                            xid, branchId, cause.getMessage()),
+                    cause);
+        }
+    }
+
+    /**
+     * The first caller to find no dispatch in progress schedules everything pending, the others only queue up.
+     * The pending queue is checked again after the flag is released, so no task is left behind.
+     */
+    private void dispatch() {
+        while (!pendingTasks.isEmpty() && dispatching.compareAndSet(false, true)) {
+            try {
+                List<RollbackTask> tasks = new ArrayList<>(fetchSize);
+                RollbackTask task;
+                while (tasks.size() < fetchSize && (task = pendingTasks.poll()) != null) {
+                    tasks.add(task);
+                }
+                schedule(tasks);
+            } finally {
+                dispatching.set(false);
+            }
+        }
+    }
+
+    private void schedule(List<RollbackTask> tasks) {
+        Map<Long, String> branches = new LinkedHashMap<>(tasks.size());
+        for (RollbackTask task : tasks) {
+            branches.put(task.branchId, task.xid);
+        }
+        Map<Long, BranchUndoLog> undoLogs;
+        try {
+            undoLogs = undoLogManager.fetchUndoLogs(dataSourceProxy, branches);
+        } catch (Exception e) {
+            // every branch reads its own undo log again in its local transaction
+            LOGGER.warn("fetch undo logs of {} branches failed: {}", branches.size(), e.getMessage());
+            undoLogs = Collections.emptyMap();
+        }
+        Set<Long> handedOut = new HashSet<>(tasks.size());
+        for (RollbackTask task : tasks) {
+            Set<String> rowKeys = rowKeys(undoLogs.get(task.branchId));
+            // a repeated rollback of the same branch reads the undo log itself, the first one reverses it in place
+            BranchUndoLog undoLog = handedOut.add(task.branchId) ? undoLogs.get(task.branchId) : null;
+            List<CompletableFuture<Void>> predecessors = new ArrayList<>();
+            CompletableFuture<Void> barrier = unknownRowsOwner;
+            if (barrier != null && !barrier.isDone()) {
+                predecessors.add(barrier);
+            }
+            if (undoLogs.containsKey(task.branchId)) {
+                for (String rowKey : rowKeys) {
+                    CompletableFuture<Void> owner = rowOwners.put(rowKey, task.future);
+                    if (owner != null && !owner.isDone()) {
+                        predecessors.add(owner);
+                    }
+                }
+            } else {
+                for (CompletableFuture<Void> owner : rowOwners.values()) {
+                    if (!owner.isDone()) {
+                        predecessors.add(owner);
+                    }
+                }
+                unknownRowsOwner = task.future;
+            }
+            Runnable runnable = () -> execute(task, undoLog, rowKeys);
+            if (predecessors.isEmpty()) {
+                submit(task, runnable);
+            } else {
+                // a failed predecessor does not hold back the branches behind it
+                CompletableFuture.allOf(predecessors.toArray(new CompletableFuture[0]))
+                        .whenComplete((result, throwable) -> submit(task, runnable));
+            }
+        }
+    }
+
+    private void submit(RollbackTask task, Runnable runnable) {
+        try {
+            executor.execute(runnable);
+        } catch (RejectedExecutionException e) {
+            task.future.completeExceptionally(new BranchTransactionException(
+                    BranchRollbackFailed_Retriable,
+                    String.format(
+                            "Branch session rollback rejected xid = %s branchId = %s, the executor is shut down",
+                            task.xid, task.branchId),
+                    e));
+        }
+    }
+
+    /**
+     * Shut the pool down, the rollbacks already handed to it still run.
+     */
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private void execute(RollbackTask task, BranchUndoLog undoLog, Set<String> rowKeys) {
+        try {
+            undoLogManager.undo(dataSourceProxy, task.xid, task.branchId, undoLog);
+            release(task, rowKeys);
+            task.future.complete(null);
+        } catch (Throwable e) {
+            release(task, rowKeys);
+            task.future.completeExceptionally(e);
+        }
+    }
+
+    private void release(RollbackTask task, Set<String> rowKeys) {
+        for (String rowKey : rowKeys) {
+            rowOwners.remove(rowKey, task.future);
+        }
+    }
+
+    /**
+     * The rows an undo log rolls back, as table name and primary key values.
+     * A row without primary key values in the image is keyed by all of its values.
+     *
+     * @param undoLog the undo log, null when it was not fetched
+     * @return the row keys, empty when the undo log was not fetched
+     */
+    static Set<String> rowKeys(BranchUndoLog undoLog) {
+        if (undoLog == null || CollectionUtils.isEmpty(undoLog.getSqlUndoLogs())) {
+            return Collections.emptySet();
+        }
+        Set<String> rowKeys = new HashSet<>();
+        for (SQLUndoLog sqlUndoLog : undoLog.getSqlUndoLogs()) {
+            String tableName = String.valueOf(sqlUndoLog.getTableName()).toLowerCase(Locale.ROOT);
+            addRowKeys(rowKeys, tableName, sqlUndoLog.getBeforeImage());
+            addRowKeys(rowKeys, tableName, sqlUndoLog.getAfterImage());
+        }
+        return rowKeys;
+    }
+
+    private static void addRowKeys(Set<String> rowKeys, String tableName, TableRecords records) {
+        if (records == null || CollectionUtils.isEmpty(records.getRows())) {
+            return;
+        }
+        for (Row row : records.getRows()) {
+            List<Field> fields = row.primaryKeys();
+            if (fields.isEmpty()) {
+                fields = row.getFields();
+            }
+            StringBuilder rowKey = new StringBuilder(tableName);
+            for (Field field : fields) {
+                rowKey.append(ROW_KEY_SPLIT).append(field.getValue());
+            }
+            rowKeys.add(rowKey.toString());
+        }
+    }
+
+    private static class RollbackTask {
+
+        private final String xid;
+
+        private final long branchId;
+
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        RollbackTask(String xid, long branchId) {
+            this.xid = xid;
+            this.branchId = branchId;
+        }
+    }
+}
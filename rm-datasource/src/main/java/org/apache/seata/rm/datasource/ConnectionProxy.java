@@ -16,9 +16,11 @@
  */
 package org.apache.seata.rm.datasource;
 
+import org.apache.seata.common.thread.NamedThreadFactory;
 import org.apache.seata.common.util.StringUtils;
 import org.apache.seata.config.ConfigurationFactory;
 import org.apache.seata.core.constants.ConfigurationKeys;
+import org.apache.seata.core.exception.RmTransactionException;
 import org.apache.seata.core.exception.TransactionException;
 import org.apache.seata.core.exception.TransactionExceptionCode;
 import org.apache.seata.core.model.BranchStatus;
@@ -26,7 +28,9 @@ import org.apache.seata.core.model.BranchType;
 import org.apache.seata.rm.DefaultResourceManager;
 import org.apache.seata.rm.datasource.exec.LockConflictException;
 import org.apache.seata.rm.datasource.exec.LockRetryController;
+import org.apache.seata.rm.datasource.undo.EncodedUndoLog;
 import org.apache.seata.rm.datasource.undo.SQLUndoLog;
+import org.apache.seata.rm.datasource.undo.UndoLogManager;
 import org.apache.seata.rm.datasource.undo.UndoLogManagerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,8 +39,16 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Savepoint;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static org.apache.seata.common.DefaultValues.DEFAULT_CLIENT_LOCK_RETRY_POLICY_BRANCH_ROLLBACK_ON_CONFLICT;
+import static org.apache.seata.common.DefaultValues.DEFAULT_CLIENT_PIPELINE_COMMIT_ENABLE;
 import static org.apache.seata.common.DefaultValues.DEFAULT_CLIENT_REPORT_RETRY_COUNT;
 import static org.apache.seata.common.DefaultValues.DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE;
 
@@ -58,6 +70,9 @@ public class ConnectionProxy extends AbstractConnectionProxy {
     public static final boolean IS_REPORT_SUCCESS_ENABLE = ConfigurationFactory.getInstance()
             .getBoolean(ConfigurationKeys.CLIENT_REPORT_SUCCESS_ENABLE, DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE);
 
+    public static final boolean IS_PIPELINE_COMMIT_ENABLE = ConfigurationFactory.getInstance()
+            .getBoolean(ConfigurationKeys.CLIENT_PIPELINE_COMMIT_ENABLE, DEFAULT_CLIENT_PIPELINE_COMMIT_ENABLE);
+
     /**
      * Instantiates a new Connection proxy.
      *
@@ -245,13 +260,23 @@ public class ConnectionProxy extends AbstractConnectionProxy {
     }
 
     private void processGlobalTransactionCommit() throws SQLException {
+        UndoLogManager undoLogManager = UndoLogManagerFactory.getUndoLogManager(this.getDbType());
+        EncodedUndoLog encodedUndoLog = null;
         try {
-            register();
+            if (IS_PIPELINE_COMMIT_ENABLE) {
+                encodedUndoLog = registerWhileEncoding(undoLogManager);
+            } else {
+                register();
+            }
         } catch (TransactionException e) {
             recognizeLockKeyConflictException(e, context.buildLockKeys());
         }
         try {
-            UndoLogManagerFactory.getUndoLogManager(this.getDbType()).flushUndoLogs(this);
+            if (encodedUndoLog != null) {
+                undoLogManager.flushUndoLogs(this, encodedUndoLog);
+            } else {
+                undoLogManager.flushUndoLogs(this);
+            }
             targetConnection.commit();
         } catch (Throwable ex) {
             LOGGER.error("process connectionProxy commit error: {}", ex.getMessage(), ex);
@@ -280,6 +305,57 @@ public class ConnectionProxy extends AbstractConnectionProxy {
         context.setBranchId(branchId);
     }
 
+    /**
+     * Send the branch register on another thread and encode the undo logs meanwhile.
+     * The undo log row is keyed by the branch id, so it is inserted only after the register returns.
+     *
+     * @param undoLogManager the undo log manager
+     * @return the encoded undo logs, null when the flush has to encode them
+     * @throws TransactionException the transaction exception
+     */
+    private EncodedUndoLog registerWhileEncoding(UndoLogManager undoLogManager) throws TransactionException {
+        if (!context.hasUndoLog() || !context.hasLockKey()) {
+            return null;
+        }
+        String resourceId = getDataSourceProxy().getResourceId();
+        String xid = context.getXid();
+        String applicationData = context.getApplicationData();
+        String lockKeys = context.buildLockKeys();
+        CompletableFuture<Long> registerFuture = CompletableFuture.supplyAsync(
+                () -> {
+                    try {
+                        return DefaultResourceManager.get()
+                                .branchRegister(BranchType.AT, resourceId, null, xid, applicationData, lockKeys);
+                    } catch (TransactionException e) {
+                        throw new CompletionException(e);
+                    }
+                },
+                RegisterExecutorHolder.INSTANCE);
+
+        EncodedUndoLog encodedUndoLog = null;
+        try {
+            encodedUndoLog = undoLogManager.encodeUndoLogs(this);
+        } catch (Throwable e) {
+            // the flush encodes again and reports the branch as failed
+            LOGGER.warn("encode undo log while registering branch failed, xid:{}: {}", xid, e.getMessage());
+        }
+        try {
+            context.setBranchId(registerFuture.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RmTransactionException(
+                    TransactionExceptionCode.BranchRegisterFailed, "branch register interrupted, xid:" + xid, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TransactionException) {
+                throw (TransactionException) cause;
+            }
+            throw new RmTransactionException(
+                    TransactionExceptionCode.BranchRegisterFailed, "branch register exception, xid:" + xid, cause);
+        }
+        return encodedUndoLog;
+    }
+
     @Override
     public void rollback() throws SQLException {
         targetConnection.rollback();
@@ -335,6 +411,31 @@ public class ConnectionProxy extends AbstractConnectionProxy {
         }
     }
 
+    /**
+     * Runs the branch registers of pipelined commits. A full queue runs the register on the committing thread.
+     */
+    private static class RegisterExecutorHolder {
+
+        private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+
+        private static final int QUEUE_SIZE = 1024;
+
+        private static final ExecutorService INSTANCE = createExecutor();
+
+        private static ExecutorService createExecutor() {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                    POOL_SIZE,
+                    POOL_SIZE,
+                    60L,
+                    TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(QUEUE_SIZE),
+                    new NamedThreadFactory("PipelineBranchRegister", POOL_SIZE, true),
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+
     public static class LockRetryPolicy {
         protected static final boolean LOCK_RETRY_POLICY_BRANCH_ROLLBACK_ON_CONFLICT =
                 ConfigurationFactory.getInstance()
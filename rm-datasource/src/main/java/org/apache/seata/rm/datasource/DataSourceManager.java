@@ -16,8 +16,8 @@
  */
 package org.apache.seata.rm.datasource;
 
-import org.apache.seata.common.exception.NotSupportYetException;
 import org.apache.seata.common.exception.ShouldNeverHappenException;
+import org.apache.seata.common.util.CollectionUtils;
 import org.apache.seata.core.context.RootContext;
 import org.apache.seata.core.exception.RmTransactionException;
 import org.apache.seata.core.exception.TransactionException;
@@ -29,9 +29,10 @@ import org.apache.seata.core.model.Resource;
 import org.apache.seata.core.protocol.ResultCode;
 import org.apache.seata.core.protocol.transaction.GlobalLockQueryRequest;
 import org.apache.seata.core.protocol.transaction.GlobalLockQueryResponse;
+import org.apache.seata.core.rpc.Disposable;
+import org.apache.seata.core.rpc.ShutdownHook;
 import org.apache.seata.core.rpc.netty.RmNettyRemotingClient;
 import org.apache.seata.rm.AbstractResourceManager;
-import org.apache.seata.rm.datasource.undo.UndoLogManagerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,7 +44,7 @@ import java.util.concurrent.TimeoutException;
  * The type Data source manager.
  *
  */
-public class DataSourceManager extends AbstractResourceManager {
+public class DataSourceManager extends AbstractResourceManager implements Disposable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DataSourceManager.class);
 
@@ -51,12 +52,15 @@ public class DataSourceManager extends AbstractResourceManager {
 
     private final Map<String, Resource> dataSourceCache = new ConcurrentHashMap<>();
 
+    private final Map<String, BranchRollbackExecutor> rollbackExecutors = new ConcurrentHashMap<>();
+
     @Override
     public boolean lockQuery(BranchType branchType, String resourceId, String xid, String lockKeys)
             throws TransactionException {
         GlobalLockQueryRequest request = new GlobalLockQueryRequest();
         request.setXid(xid);
         request.setLockKey(lockKeys);
+        request.setCompactLockKey(isCompactLockKeyEnabled());
         request.setResourceId(resourceId);
         try {
             GlobalLockQueryResponse response;
@@ -82,18 +86,35 @@ public class DataSourceManager extends AbstractResourceManager {
     /**
      * Instantiates a new Data source manager.
      */
-    public DataSourceManager() {}
+    public DataSourceManager() {
+        ShutdownHook.getInstance().addDisposable(this);
+    }
 
     @Override
     public void registerResource(Resource resource) {
         DataSourceProxy dataSourceProxy = (DataSourceProxy) resource;
         dataSourceCache.put(dataSourceProxy.getResourceId(), dataSourceProxy);
+        // a data source registered again gets a new rollback pool bound to the new proxy
+        destroyRollbackExecutor(dataSourceProxy.getResourceId());
         super.registerResource(dataSourceProxy);
     }
 
     @Override
     public void unregisterResource(Resource resource) {
-        throw new NotSupportYetException("unregister a resource");
+        dataSourceCache.remove(resource.getResourceId());
+        destroyRollbackExecutor(resource.getResourceId());
+    }
+
+    private void destroyRollbackExecutor(String resourceId) {
+        BranchRollbackExecutor rollbackExecutor = rollbackExecutors.remove(resourceId);
+        if (rollbackExecutor != null) {
+            rollbackExecutor.destroy();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        rollbackExecutors.keySet().forEach(this::destroyRollbackExecutor);
     }
 
     /**
@@ -122,7 +143,9 @@ public class DataSourceManager extends AbstractResourceManager {
             throw new ShouldNeverHappenException(String.format("resource: %s not found", resourceId));
         }
         try {
-            UndoLogManagerFactory.getUndoLogManager(dataSourceProxy.getDbType()).undo(dataSourceProxy, xid, branchId);
+            CollectionUtils.computeIfAbsent(
+                            rollbackExecutors, resourceId, key -> new BranchRollbackExecutor(dataSourceProxy))
+                    .rollback(xid, branchId);
             if (LOGGER.isInfoEnabled()) {
                 LOGGER.info("branch rollback success, xid:{}, branchId:{}", xid, branchId);
             }
@@ -25,6 +25,7 @@ import org.apache.seata.core.context.RootContext;
 import org.apache.seata.core.model.BranchType;
 import org.apache.seata.core.model.Resource;
 import org.apache.seata.rm.DefaultResourceManager;
+import org.apache.seata.rm.datasource.sql.SQLRecognizerCache;
 import org.apache.seata.rm.datasource.sql.struct.TableMetaCacheFactory;
 import org.apache.seata.rm.datasource.undo.UndoLogManager;
 import org.apache.seata.rm.datasource.undo.UndoLogManagerFactory;
@@ -69,6 +70,8 @@ public class DataSourceProxy extends AbstractDataSourceProxy implements Resource
 
     private final Map<String, String> variables = new HashMap<>();
 
+    private final SQLRecognizerCache sqlRecognizerCache = new SQLRecognizerCache();
+
     /**
      * POLARDB-X 1.X -> TDDL
      * POLARDB-X 2.X & MySQL 5.6 -> PXC
@@ -208,6 +211,10 @@ public class DataSourceProxy extends AbstractDataSourceProxy implements Resource
         return dbType;
     }
 
+    public SQLRecognizerCache getSqlRecognizerCache() {
+        return sqlRecognizerCache;
+    }
+
     @Override
     public ConnectionProxy getConnection() throws SQLException {
         Connection targetConnection = targetDataSource.getConnection();
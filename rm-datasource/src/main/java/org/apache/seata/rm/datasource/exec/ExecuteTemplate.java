@@ -88,7 +88,10 @@ public class ExecuteTemplate {
 
         String dbType = statementProxy.getConnectionProxy().getDbType();
         if (CollectionUtils.isEmpty(sqlRecognizers)) {
-            sqlRecognizers = SQLVisitorFactory.get(statementProxy.getTargetSQL(), dbType);
+            sqlRecognizers = SQLVisitorFactory.get(
+                    statementProxy.getTargetSQL(),
+                    dbType,
+                    statementProxy.getConnectionProxy().getDataSourceProxy());
         }
         Executor<T> executor;
         if (CollectionUtils.isEmpty(sqlRecognizers)) {
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.rm.datasource.sql;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.seata.config.ConfigurationFactory;
+import org.apache.seata.sqlparser.SQLRecognizer;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.apache.seata.common.ConfigurationKeys.SQL_PARSER_CACHE_SIZE;
+import static org.apache.seata.common.ConfigurationKeys.SQL_PARSER_CACHE_WEIGHT;
+import static org.apache.seata.common.DefaultValues.DEFAULT_SQL_PARSER_CACHE_SIZE;
+import static org.apache.seata.common.DefaultValues.DEFAULT_SQL_PARSER_CACHE_WEIGHT;
+
+/**
+ * The parsed sql recognizers of a data source, keyed by the sql text and the db type,
+ * so a prepared statement executed again skips the sql parsing.
+ * <p>
+ * The recognizers only read their parsed statement, so the cached ones are shared by every execution.
+ * The cache is bounded by the total sql length (the weight) and by the entry count:
+ * every entry weighs at least weight / size, so the entry count never exceeds the size.
+ */
+public class SQLRecognizerCache {
+
+    private final Cache<Key, List<SQLRecognizer>> cache;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    public SQLRecognizerCache() {
+        this(
+                ConfigurationFactory.getInstance().getInt(SQL_PARSER_CACHE_SIZE, DEFAULT_SQL_PARSER_CACHE_SIZE),
+                ConfigurationFactory.getInstance().getLong(SQL_PARSER_CACHE_WEIGHT, DEFAULT_SQL_PARSER_CACHE_WEIGHT));
+    }
+
+    public SQLRecognizerCache(int size, long weight) {
+        if (size <= 0 || weight <= 0) {
+            this.cache = null;
+            return;
+        }
+        int minWeight = (int) Math.max(1L, Math.min(Integer.MAX_VALUE, weight / size));
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(weight)
+                .weigher((Key key, List<SQLRecognizer> value) -> Math.max(key.sql.length(), minWeight))
+                // evict on the caller thread, an eviction is cheap and the bound holds right after the put
+                .executor(Runnable::run)
+                .build();
+    }
+
+    /**
+     * Get the sql recognizers, parse the sql if it is not cached.
+     *
+     * @param sql    the sql
+     * @param dbType the db type
+     * @return the sql recognizers, null if the sql is not recognized
+     */
+    public List<SQLRecognizer> get(String sql, String dbType) {
+        if (cache == null) {
+            return SQLVisitorFactory.get(sql, dbType);
+        }
+        Key key = new Key(sql, dbType);
+        List<SQLRecognizer> sqlRecognizers = cache.getIfPresent(key);
+        if (sqlRecognizers != null) {
+            hitCount.increment();
+        } else {
+            missCount.increment();
+            sqlRecognizers = SQLVisitorFactory.get(sql, dbType);
+            // an unrecognized sql is cached as an empty list, the caffeine cache does not hold null
+            sqlRecognizers =
+                    sqlRecognizers == null ? Collections.emptyList() : Collections.unmodifiableList(sqlRecognizers);
+            cache.put(key, sqlRecognizers);
+        }
+        return sqlRecognizers.isEmpty() ? null : sqlRecognizers;
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * @return the ratio of the lookups served from the cache, 0 if there was no lookup
+     */
+    public double getHitRate() {
+        long hits = getHitCount();
+        long total = hits + getMissCount();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public long getSize() {
+        return cache == null ? 0 : cache.estimatedSize();
+    }
+
+    @Override
+    public String toString() {
+        return "SQLRecognizerCache{" + "size=" + getSize() + ", hitCount=" + getHitCount() + ", missCount="
+                + getMissCount() + '}';
+    }
+
+    private static final class Key {
+
+        private final String sql;
+
+        private final String dbType;
+
+        private Key(String sql, String dbType) {
+            this.sql = sql;
+            this.dbType = dbType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return sql.equals(key.sql) && Objects.equals(dbType, key.dbType);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * sql.hashCode() + Objects.hashCode(dbType);
+        }
+    }
+}
@@ -19,6 +19,7 @@ package org.apache.seata.rm.datasource.sql;
 import org.apache.seata.common.loader.EnhancedServiceLoader;
 import org.apache.seata.config.ConfigurationFactory;
 import org.apache.seata.core.constants.ConfigurationKeys;
+import org.apache.seata.rm.datasource.DataSourceProxy;
 import org.apache.seata.sqlparser.SQLRecognizer;
 import org.apache.seata.sqlparser.SQLRecognizerFactory;
 import org.apache.seata.sqlparser.SqlParserType;
@@ -47,4 +48,21 @@ public class SQLVisitorFactory {
     public static List<SQLRecognizer> get(String sql, String dbType) {
         return SQL_RECOGNIZER_FACTORY.create(sql, dbType);
     }
+
+    /**
+     * Get sql recognizer, from the parse cache of the data source if it has one.
+     *
+     * @param sql             the sql
+     * @param dbType          the db type
+     * @param dataSourceProxy the data source proxy, may be null
+     * @return the sql recognizer
+     */
+    public static List<SQLRecognizer> get(String sql, String dbType, DataSourceProxy dataSourceProxy) {
+        SQLRecognizerCache sqlRecognizerCache =
+                dataSourceProxy == null ? null : dataSourceProxy.getSqlRecognizerCache();
+        if (sqlRecognizerCache == null) {
+            return get(sql, dbType);
+        }
+        return sqlRecognizerCache.get(sql, dbType);
+    }
 }
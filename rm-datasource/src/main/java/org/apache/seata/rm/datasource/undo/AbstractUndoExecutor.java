@@ -50,6 +50,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import static org.apache.seata.common.DefaultValues.DEFAULT_TRANSACTION_UNDO_BATCH_SIZE;
 import static org.apache.seata.common.DefaultValues.DEFAULT_TRANSACTION_UNDO_DATA_VALIDATION;
 
 /**
@@ -75,6 +76,12 @@ public abstract class AbstractUndoExecutor {
     public static final boolean IS_UNDO_DATA_VALIDATION_ENABLE = ConfigurationFactory.getInstance()
             .getBoolean(ConfigurationKeys.TRANSACTION_UNDO_DATA_VALIDATION, DEFAULT_TRANSACTION_UNDO_DATA_VALIDATION);
 
+    /**
+     * The undo rows sent in one jdbc batch, 1 executes them one by one
+     */
+    public static final int UNDO_BATCH_SIZE = ConfigurationFactory.getInstance()
+            .getInt(ConfigurationKeys.TRANSACTION_UNDO_BATCH_SIZE, DEFAULT_TRANSACTION_UNDO_BATCH_SIZE);
+
     /**
      * The Sql undo log.
      */
@@ -121,6 +128,12 @@ public abstract class AbstractUndoExecutor {
             String undoSQL = buildUndoSQL();
             undoPST = conn.prepareStatement(undoSQL);
             TableRecords undoRows = getUndoRows();
+            int batchSize = getUndoBatchSize();
+            // the undo sql of a table is the same for every row, so the rows are sent in jdbc batches
+            boolean batch = batchSize > 1
+                    && undoRows.size() > 1
+                    && conn.getMetaData().supportsBatchUpdates();
+            int batchedRows = 0;
             for (Row undoRow : undoRows.getRows()) {
                 ArrayList<Field> undoValues = new ArrayList<>();
                 List<Field> pkValueList = getOrderedPkList(undoRows, undoRow, connectionProxy.getDbType());
@@ -132,7 +145,17 @@ public abstract class AbstractUndoExecutor {
 
                 undoPrepare(undoPST, undoValues, pkValueList);
 
-                undoPST.executeUpdate();
+                if (batch) {
+                    undoPST.addBatch();
+                    if (++batchedRows % batchSize == 0) {
+                        undoPST.executeBatch();
+                    }
+                } else {
+                    undoPST.executeUpdate();
+                }
+            }
+            if (batch && batchedRows % batchSize != 0) {
+                undoPST.executeBatch();
             }
 
         } catch (Exception ex) {
@@ -147,6 +170,15 @@ public abstract class AbstractUndoExecutor {
         }
     }
 
+    /**
+     * Gets the undo rows sent in one jdbc batch.
+     *
+     * @return the batch size, 1 executes the undo rows one by one
+     */
+    protected int getUndoBatchSize() {
+        return UNDO_BATCH_SIZE;
+    }
+
     /**
      * Undo prepare.
      *
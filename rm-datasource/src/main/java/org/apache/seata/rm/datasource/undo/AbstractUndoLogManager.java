@@ -21,6 +21,7 @@ import org.apache.seata.common.util.CollectionUtils;
 import org.apache.seata.common.util.SizeUtil;
 import org.apache.seata.common.util.StringUtils;
 import org.apache.seata.config.ConfigurationFactory;
+import org.apache.seata.core.compressor.Compressor;
 import org.apache.seata.core.compressor.CompressorFactory;
 import org.apache.seata.core.compressor.CompressorType;
 import org.apache.seata.core.constants.ClientTableColumnsName;
@@ -36,6 +37,7 @@ import org.apache.seata.sqlparser.struct.TableMeta;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -52,6 +54,7 @@ import static org.apache.seata.common.DefaultValues.DEFAULT_CLIENT_UNDO_COMPRESS
 import static org.apache.seata.common.DefaultValues.DEFAULT_CLIENT_UNDO_COMPRESS_THRESHOLD;
 import static org.apache.seata.common.DefaultValues.DEFAULT_CLIENT_UNDO_COMPRESS_TYPE;
 import static org.apache.seata.common.DefaultValues.DEFAULT_TRANSACTION_UNDO_LOG_TABLE;
+import static org.apache.seata.common.DefaultValues.DEFAULT_TRANSACTION_UNDO_STREAM_WRITE;
 import static org.apache.seata.core.exception.TransactionExceptionCode.BranchRollbackFailed_Retriable;
 import static org.apache.seata.core.exception.TransactionExceptionCode.BranchRollbackFailed_Unretriable;
 
@@ -106,6 +109,9 @@ public abstract class AbstractUndoLogManager implements UndoLogManager {
     protected static final long ROLLBACK_INFO_COMPRESS_THRESHOLD = SizeUtil.size2Long(ConfigurationFactory.getInstance()
             .getConfig(ConfigurationKeys.CLIENT_UNDO_COMPRESS_THRESHOLD, DEFAULT_CLIENT_UNDO_COMPRESS_THRESHOLD));
 
+    protected static final boolean UNDO_STREAM_WRITE = ConfigurationFactory.getInstance()
+            .getBoolean(ConfigurationKeys.TRANSACTION_UNDO_STREAM_WRITE, DEFAULT_TRANSACTION_UNDO_STREAM_WRITE);
+
     private static final ThreadLocal<String> SERIALIZER_LOCAL = new ThreadLocal<>();
 
     public static String getCurrentSerializer() {
@@ -221,6 +227,18 @@ public abstract class AbstractUndoLogManager implements UndoLogManager {
         return sqlBuilder.toString();
     }
 
+    protected static String toBatchSelectUndoLogSql(int branchIdSize) {
+        StringBuilder sqlBuilder = new StringBuilder(64);
+        sqlBuilder
+                .append("SELECT * FROM ")
+                .append(UNDO_LOG_TABLE_NAME)
+                .append(" WHERE ")
+                .append(ClientTableColumnsName.UNDO_LOG_BRANCH_XID)
+                .append(" IN ");
+        appendInParam(branchIdSize, sqlBuilder);
+        return sqlBuilder.toString();
+    }
+
     protected static void appendInParam(int size, StringBuilder sqlBuilder) {
         sqlBuilder.append(" (");
         for (int i = 0; i < size; i++) {
@@ -264,31 +282,86 @@ public abstract class AbstractUndoLogManager implements UndoLogManager {
      */
     @Override
     public void flushUndoLogs(ConnectionProxy cp) throws SQLException {
+        flushUndoLogs(cp, null);
+    }
+
+    /**
+     * Flush undo logs encoded beforehand.
+     *
+     * @param cp             the cp
+     * @param encodedUndoLog the encoded undo logs, null to encode them now
+     * @throws SQLException the sql exception
+     */
+    @Override
+    public void flushUndoLogs(ConnectionProxy cp, EncodedUndoLog encodedUndoLog) throws SQLException {
         ConnectionContext connectionContext = cp.getContext();
         if (!connectionContext.hasUndoLog()) {
             return;
         }
+        if (encodedUndoLog == null) {
+            encodedUndoLog = encodeUndoLogs(cp);
+        }
+        if (encodedUndoLog.getContent() != null) {
+            insertUndoLogWithNormal(
+                    connectionContext.getXid(),
+                    connectionContext.getBranchId(),
+                    encodedUndoLog.getRollbackCtx(),
+                    encodedUndoLog.getContent(),
+                    cp.getTargetConnection());
+            return;
+        }
+        insertUndoLogWithNormal(
+                connectionContext.getXid(),
+                connectionContext.getBranchId(),
+                encodedUndoLog.getRollbackCtx(),
+                encodedUndoLog.getUndoLogContent(),
+                cp.getTargetConnection());
+    }
 
-        String xid = connectionContext.getXid();
-        long branchId = connectionContext.getBranchId();
+    /**
+     * Encode undo logs.
+     * The branch id is left out of the encoded content when the branch is not registered yet,
+     * the branch_id column of the undo log row is what the undo looks it up by.
+     *
+     * @param cp the cp
+     * @return the encoded undo logs, null when the connection has none
+     * @throws SQLException the sql exception
+     */
+    @Override
+    public EncodedUndoLog encodeUndoLogs(ConnectionProxy cp) throws SQLException {
+        ConnectionContext connectionContext = cp.getContext();
+        if (!connectionContext.hasUndoLog()) {
+            return null;
+        }
 
         BranchUndoLog branchUndoLog = new BranchUndoLog();
-        branchUndoLog.setXid(xid);
-        branchUndoLog.setBranchId(branchId);
+        branchUndoLog.setXid(connectionContext.getXid());
+        if (connectionContext.getBranchId() != null) {
+            branchUndoLog.setBranchId(connectionContext.getBranchId());
+        }
         branchUndoLog.setSqlUndoLogs(connectionContext.getUndoItems());
 
         UndoLogParser parser = UndoLogParserFactory.getInstance();
-        byte[] undoLogContent = parser.encode(branchUndoLog);
+        byte[] undoLogContent = null;
+        UndoLogContent content = null;
+        CompressorType compressorType = CompressorType.NONE;
+        if (UNDO_STREAM_WRITE) {
+            content = new UndoLogContent();
+            if (streamUndoLogs(parser, branchUndoLog, content)) {
+                compressorType = ROLLBACK_INFO_COMPRESS_TYPE;
+            }
+        } else {
+            undoLogContent = parser.encode(branchUndoLog);
 
-        if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("Flushing UNDO LOG: {}", new String(undoLogContent, Constants.DEFAULT_CHARSET));
-        }
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Flushing UNDO LOG: {}", new String(undoLogContent, Constants.DEFAULT_CHARSET));
+            }
 
-        CompressorType compressorType = CompressorType.NONE;
-        if (needCompress(undoLogContent)) {
-            compressorType = ROLLBACK_INFO_COMPRESS_TYPE;
-            undoLogContent =
-                    CompressorFactory.getCompressor(compressorType.getCode()).compress(undoLogContent);
+            if (needCompress(undoLogContent)) {
+                compressorType = ROLLBACK_INFO_COMPRESS_TYPE;
+                undoLogContent =
+                        CompressorFactory.getCompressor(compressorType.getCode()).compress(undoLogContent);
+            }
         }
         String maxAllowedPacket = getMaxAllowedPacket(cp.getDataSourceProxy());
         if (LOGGER.isDebugEnabled()) {
@@ -299,7 +372,38 @@ public abstract class AbstractUndoLogManager implements UndoLogManager {
         }
         String rollbackCtx =
                 buildContext(parser.getName(), compressorType, UndoLogConstants.MAX_ALLOWED_PACKET, maxAllowedPacket);
-        insertUndoLogWithNormal(xid, branchId, rollbackCtx, undoLogContent, cp.getTargetConnection());
+        return content != null
+                ? new EncodedUndoLog(rollbackCtx, content)
+                : new EncodedUndoLog(rollbackCtx, undoLogContent);
+    }
+
+    /**
+     * Encode the undo logs into the content chunk by chunk, compressing them on the way
+     * once they pass the compress threshold.
+     *
+     * @param parser        the parser
+     * @param branchUndoLog the branch undo log
+     * @param content       the content to write into
+     * @return whether the content was compressed
+     * @throws SQLException the sql exception
+     */
+    private boolean streamUndoLogs(UndoLogParser parser, BranchUndoLog branchUndoLog, UndoLogContent content)
+            throws SQLException {
+        Compressor compressor = ROLLBACK_INFO_COMPRESS_ENABLE
+                ? CompressorFactory.getCompressor(ROLLBACK_INFO_COMPRESS_TYPE.getCode())
+                : null;
+        UndoLogContentOutputStream out =
+                new UndoLogContentOutputStream(content, compressor, ROLLBACK_INFO_COMPRESS_THRESHOLD);
+        try {
+            parser.encode(branchUndoLog, out);
+            out.close();
+        } catch (IOException e) {
+            throw new SQLException("encode undo log failed", e);
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Flushing UNDO LOG: {} bytes, compressed: {}", content.size(), out.isCompressed());
+        }
+        return out.isCompressed();
     }
 
     /**
@@ -313,11 +417,73 @@ public abstract class AbstractUndoLogManager implements UndoLogManager {
      */
     @Override
     public void undo(DataSourceProxy dataSourceProxy, String xid, long branchId) throws TransactionException {
+        undo(dataSourceProxy, xid, branchId, null);
+    }
+
+    /**
+     * Fetch the undo logs of several branches in one query.
+     * The rows are not locked, {@link #undo(DataSourceProxy, String, long, BranchUndoLog)} locks and checks
+     * each of them again before using the fetched undo log.
+     *
+     * @param dataSourceProxy the data source proxy
+     * @param branches        the xid of every branch, by branch id
+     * @return the decoded undo logs by branch id
+     * @throws SQLException the sql exception
+     */
+    @Override
+    public Map<Long, BranchUndoLog> fetchUndoLogs(DataSourceProxy dataSourceProxy, Map<Long, String> branches)
+            throws SQLException {
+        if (CollectionUtils.isEmpty(branches)) {
+            return Collections.emptyMap();
+        }
+        Map<Long, BranchUndoLog> undoLogs = new HashMap<>(branches.size());
+        try (Connection conn = dataSourceProxy.getPlainConnection();
+                PreparedStatement selectPST = conn.prepareStatement(toBatchSelectUndoLogSql(branches.size()))) {
+            int paramsIndex = 1;
+            for (Long branchId : branches.keySet()) {
+                selectPST.setLong(paramsIndex++, branchId);
+            }
+            try (ResultSet rs = selectPST.executeQuery()) {
+                while (rs.next()) {
+                    long branchId = rs.getLong(ClientTableColumnsName.UNDO_LOG_BRANCH_XID);
+                    String xid = rs.getString(ClientTableColumnsName.UNDO_LOG_XID);
+                    if (!StringUtils.equals(xid, branches.get(branchId))
+                            || !canUndo(rs.getInt(ClientTableColumnsName.UNDO_LOG_LOG_STATUS))) {
+                        continue;
+                    }
+                    try {
+                        String contextString = rs.getString(ClientTableColumnsName.UNDO_LOG_CONTEXT);
+                        Map<String, String> context = parseContext(contextString);
+                        undoLogs.put(branchId, getUndoLogParser(context).decode(getRollbackInfo(rs)));
+                    } catch (RuntimeException e) {
+                        // leave it to the undo, which reports the failure for this branch only
+                        LOGGER.warn("xid {} branch {}, fetch undo_log failed: {}", xid, branchId, e.getMessage());
+                    }
+                }
+            }
+        }
+        return undoLogs;
+    }
+
+    /**
+     * Undo with an undo log fetched beforehand.
+     *
+     * @param dataSourceProxy the data source proxy
+     * @param xid             the xid
+     * @param branchId        the branch id
+     * @param branchUndoLog   the fetched undo log, null to read it in the local transaction
+     * @throws TransactionException the transaction exception
+     * @throws BranchTransactionException the branch transaction exception
+     */
+    @Override
+    public void undo(DataSourceProxy dataSourceProxy, String xid, long branchId, BranchUndoLog branchUndoLog)
+            throws TransactionException {
         ConnectionProxy connectionProxy = null;
         Connection conn = null;
         ResultSet rs = null;
         PreparedStatement selectPST = null;
         boolean originalAutoCommit = true;
+        BranchUndoLog fetchedUndoLog = branchUndoLog;
 
         for (; ; ) {
             try {
@@ -353,18 +519,17 @@ public abstract class AbstractUndoLogManager implements UndoLogManager {
 
                     String contextString = rs.getString(ClientTableColumnsName.UNDO_LOG_CONTEXT);
                     Map<String, String> context = parseContext(contextString);
-                    byte[] rollbackInfo = getRollbackInfo(rs);
-
-                    String serializer = context == null ? null : context.get(UndoLogConstants.SERIALIZER_KEY);
-                    UndoLogParser parser = serializer == null
-                            ? UndoLogParserFactory.getInstance()
-                            : UndoLogParserFactory.getInstance(serializer);
-                    BranchUndoLog branchUndoLog = parser.decode(rollbackInfo);
+                    UndoLogParser parser = getUndoLogParser(context);
+                    // undo log rows are never updated, so a fetched normal one still holds the same content.
+                    // it is used once only, the undo below reverses its sql undo logs in place
+                    BranchUndoLog undoLog =
+                            fetchedUndoLog != null ? fetchedUndoLog : parser.decode(getRollbackInfo(rs));
+                    fetchedUndoLog = null;
 
                     try {
                         // put serializer name to local
                         setCurrentSerializer(parser.getName());
-                        List<SQLUndoLog> sqlUndoLogs = branchUndoLog.getSqlUndoLogs();
+                        List<SQLUndoLog> sqlUndoLogs = undoLog.getSqlUndoLogs();
                         if (sqlUndoLogs.size() > 1) {
                             Collections.reverse(sqlUndoLogs);
                         }
@@ -465,6 +630,11 @@ public abstract class AbstractUndoLogManager implements UndoLogManager {
         }
     }
 
+    private UndoLogParser getUndoLogParser(Map<String, String> context) {
+        String serializer = context == null ? null : context.get(UndoLogConstants.SERIALIZER_KEY);
+        return serializer == null ? UndoLogParserFactory.getInstance() : UndoLogParserFactory.getInstance(serializer);
+    }
+
     /**
      * Construct a lock query sql
      *
@@ -499,6 +669,23 @@ public abstract class AbstractUndoLogManager implements UndoLogManager {
     protected abstract void insertUndoLogWithNormal(
             String xid, long branchId, String rollbackCtx, byte[] undoLogContent, Connection conn) throws SQLException;
 
+    /**
+     * insert undo log when normal from the content written chunk by chunk,
+     * databases able to bind it as a binary stream override it, the others get it copied into one array
+     *
+     * @param xid         the xid
+     * @param branchId    the branchId
+     * @param rollbackCtx the rollbackContext
+     * @param content     the undoLogContent
+     * @param conn        sql connection
+     * @throws SQLException SQLException
+     */
+    protected void insertUndoLogWithNormal(
+            String xid, long branchId, String rollbackCtx, UndoLogContent content, Connection conn)
+            throws SQLException {
+        insertUndoLogWithNormal(xid, branchId, rollbackCtx, content.toByteArray(), conn);
+    }
+
     /**
      * get database server max allowed packet
      *
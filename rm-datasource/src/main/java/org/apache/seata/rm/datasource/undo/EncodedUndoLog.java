@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.rm.datasource.undo;
+
+/**
+ * The undo logs of a connection encoded and compressed, ready to be inserted once the branch id is known.
+ */
+public class EncodedUndoLog {
+
+    private final String rollbackCtx;
+
+    private final byte[] undoLogContent;
+
+    private final UndoLogContent content;
+
+    public EncodedUndoLog(String rollbackCtx, byte[] undoLogContent) {
+        this.rollbackCtx = rollbackCtx;
+        this.undoLogContent = undoLogContent;
+        this.content = null;
+    }
+
+    public EncodedUndoLog(String rollbackCtx, UndoLogContent content) {
+        this.rollbackCtx = rollbackCtx;
+        this.undoLogContent = null;
+        this.content = content;
+    }
+
+    public String getRollbackCtx() {
+        return rollbackCtx;
+    }
+
+    public byte[] getUndoLogContent() {
+        return undoLogContent;
+    }
+
+    /**
+     * Gets the content written as a stream, null when it was encoded into an array.
+     *
+     * @return the content
+     */
+    public UndoLogContent getContent() {
+        return content;
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.rm.datasource.undo;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The encoded content of an undo log held in fixed size chunks, written by the parser and the compressor
+ * and read back by the insert statement as a binary stream, so it is never copied into one large array.
+ */
+public class UndoLogContent extends OutputStream {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * the first chunk grows up to the chunk size, most undo logs are small
+     */
+    private static final int FIRST_CHUNK_SIZE = 1024;
+
+    private final List<byte[]> chunks = new ArrayList<>();
+
+    private long size;
+
+    @Override
+    public void write(int b) {
+        chunkToWrite(1)[(int) (size % CHUNK_SIZE)] = (byte) b;
+        size++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        while (len > 0) {
+            int offset = (int) (size % CHUNK_SIZE);
+            int n = Math.min(len, CHUNK_SIZE - offset);
+            System.arraycopy(b, off, chunkToWrite(n), offset, n);
+            off += n;
+            len -= n;
+            size += n;
+        }
+    }
+
+    private byte[] chunkToWrite(int length) {
+        int offset = (int) (size % CHUNK_SIZE);
+        if (offset == 0 && chunks.size() == size / CHUNK_SIZE) {
+            chunks.add(new byte[chunks.isEmpty() ? FIRST_CHUNK_SIZE : CHUNK_SIZE]);
+        }
+        int last = chunks.size() - 1;
+        byte[] chunk = chunks.get(last);
+        if (offset + length > chunk.length) {
+            chunk = Arrays.copyOf(chunk, Math.min(CHUNK_SIZE, Math.max(chunk.length << 1, offset + length)));
+            chunks.set(last, chunk);
+        }
+        return chunk;
+    }
+
+    /**
+     * Gets the number of bytes written.
+     *
+     * @return the size
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Drop what was written.
+     */
+    public void reset() {
+        chunks.clear();
+        size = 0;
+    }
+
+    /**
+     * Read the whole content.
+     *
+     * @return the input stream
+     */
+    public InputStream newInputStream() {
+        return newInputStream(0, size);
+    }
+
+    /**
+     * Read a part of the content.
+     *
+     * @param from   the offset of the first byte
+     * @param length the number of bytes
+     * @return the input stream
+     */
+    public InputStream newInputStream(long from, long length) {
+        return slice(from, length);
+    }
+
+    private ChunkInputStream slice(long from, long length) {
+        if (from < 0 || length < 0 || from + length > size) {
+            throw new IndexOutOfBoundsException("from: " + from + ", length: " + length + ", size: " + size);
+        }
+        return new ChunkInputStream(from, from + length);
+    }
+
+    /**
+     * Copy a part of the content into one array.
+     *
+     * @param from   the offset of the first byte
+     * @param length the number of bytes
+     * @return the bytes
+     */
+    public byte[] toByteArray(long from, int length) {
+        byte[] bytes = new byte[length];
+        int read = slice(from, length).read(bytes, 0, length);
+        if (read != length && length > 0) {
+            throw new IllegalStateException("short read of undo log content: " + read + " of " + length);
+        }
+        return bytes;
+    }
+
+    /**
+     * Copy the content into one array, for the databases which can not bind a stream.
+     *
+     * @return the bytes
+     */
+    public byte[] toByteArray() {
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("undo log content too large for an array: " + size);
+        }
+        return toByteArray(0, (int) size);
+    }
+
+    private final class ChunkInputStream extends InputStream {
+
+        private long position;
+
+        private final long end;
+
+        ChunkInputStream(long position, long end) {
+            this.position = position;
+            this.end = end;
+        }
+
+        @Override
+        public int read() {
+            if (position >= end) {
+                return -1;
+            }
+            int b = chunks.get((int) (position / CHUNK_SIZE))[(int) (position % CHUNK_SIZE)] & 0xFF;
+            position++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= end) {
+                return -1;
+            }
+            int total = 0;
+            while (len > 0 && position < end) {
+                int offset = (int) (position % CHUNK_SIZE);
+                int n = (int) Math.min(Math.min(len, CHUNK_SIZE - offset), end - position);
+                System.arraycopy(chunks.get((int) (position / CHUNK_SIZE)), offset, b, off, n);
+                position += n;
+                off += n;
+                len -= n;
+                total += n;
+            }
+            return total;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(end - position, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(0, Math.min(n, end - position));
+            position += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.rm.datasource.undo;
+
+import org.apache.seata.core.compressor.Compressor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes an encoded undo log into its content, switching to the compressor once the bytes written pass
+ * the threshold, the same outcome as compressing a whole content larger than the threshold.
+ */
+final class UndoLogContentOutputStream extends OutputStream {
+
+    private final UndoLogContent content;
+
+    /**
+     * the compressor, null when the content is never compressed
+     */
+    private final Compressor compressor;
+
+    private final long threshold;
+
+    private OutputStream out;
+
+    private long written;
+
+    private boolean compressed;
+
+    UndoLogContentOutputStream(UndoLogContent content, Compressor compressor, long threshold) {
+        this.content = content;
+        this.compressor = compressor;
+        this.threshold = threshold;
+        this.out = content;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        beforeWrite(1);
+        out.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        beforeWrite(len);
+        out.write(b, off, len);
+    }
+
+    private void beforeWrite(int len) throws IOException {
+        written += len;
+        if (compressed || compressor == null || written <= threshold) {
+            return;
+        }
+        // the head written so far is at most the threshold, replay it through the compressor
+        byte[] head = content.toByteArray();
+        content.reset();
+        out = compressor.compressStream(content);
+        out.write(head);
+        compressed = true;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Finish the compressed stream, the content stays readable.
+     */
+    @Override
+    public void close() throws IOException {
+        if (compressed) {
+            out.close();
+        }
+    }
+
+    /**
+     * Whether the content was compressed.
+     *
+     * @return true if compressed
+     */
+    boolean isCompressed() {
+        return compressed;
+    }
+}
@@ -22,7 +22,9 @@ import org.apache.seata.rm.datasource.DataSourceProxy;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -38,6 +40,28 @@ public interface UndoLogManager {
      */
     void flushUndoLogs(ConnectionProxy cp) throws SQLException;
 
+    /**
+     * Encode the undo logs of the connection before its branch is registered.
+     *
+     * @param cp the cp
+     * @return the encoded undo logs, null when they are encoded by the flush
+     * @throws SQLException the sql exception
+     */
+    default EncodedUndoLog encodeUndoLogs(ConnectionProxy cp) throws SQLException {
+        return null;
+    }
+
+    /**
+     * Flush undo logs encoded by {@link #encodeUndoLogs(ConnectionProxy)}.
+     *
+     * @param cp             the cp
+     * @param encodedUndoLog the encoded undo logs, null to encode them now
+     * @throws SQLException the sql exception
+     */
+    default void flushUndoLogs(ConnectionProxy cp, EncodedUndoLog encodedUndoLog) throws SQLException {
+        flushUndoLogs(cp);
+    }
+
     /**
      * Undo.
      *
@@ -48,6 +72,34 @@ public interface UndoLogManager {
      */
     void undo(DataSourceProxy dataSourceProxy, String xid, long branchId) throws TransactionException;
 
+    /**
+     * Undo with an undo log fetched beforehand by {@link #fetchUndoLogs(DataSourceProxy, Map)}.
+     * The undo log row is still locked and checked in the local transaction of the undo.
+     *
+     * @param dataSourceProxy the data source proxy
+     * @param xid             the xid
+     * @param branchId        the branch id
+     * @param branchUndoLog   the fetched undo log, null to read it in the local transaction
+     * @throws TransactionException the transaction exception
+     */
+    default void undo(DataSourceProxy dataSourceProxy, String xid, long branchId, BranchUndoLog branchUndoLog)
+            throws TransactionException {
+        undo(dataSourceProxy, xid, branchId);
+    }
+
+    /**
+     * Fetch the undo logs of several branches in one query, without locking them.
+     *
+     * @param dataSourceProxy the data source proxy
+     * @param branches        the xid of every branch, by branch id
+     * @return the decoded undo logs by branch id, branches without a normal undo log are left out
+     * @throws SQLException the sql exception
+     */
+    default Map<Long, BranchUndoLog> fetchUndoLogs(DataSourceProxy dataSourceProxy, Map<Long, String> branches)
+            throws SQLException {
+        return Collections.emptyMap();
+    }
+
     /**
      * Delete undo log.
      *
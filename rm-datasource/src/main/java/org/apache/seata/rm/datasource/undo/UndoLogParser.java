@@ -16,6 +16,9 @@
  */
 package org.apache.seata.rm.datasource.undo;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 /**
  * The interface Undo log parser.
  *
@@ -44,6 +47,18 @@ public interface UndoLogParser {
      */
     byte[] encode(BranchUndoLog branchUndoLog);
 
+    /**
+     * Encode branch undo log into a stream, the stream is left open.
+     * Parsers able to write as they go override it, so the encoded undo log is never held in one array.
+     *
+     * @param branchUndoLog the branch undo log
+     * @param out           the output stream
+     * @throws IOException if the stream can not be written
+     */
+    default void encode(BranchUndoLog branchUndoLog, OutputStream out) throws IOException {
+        out.write(encode(branchUndoLog));
+    }
+
     /**
      * Decode byte array to branch undo log.
      *
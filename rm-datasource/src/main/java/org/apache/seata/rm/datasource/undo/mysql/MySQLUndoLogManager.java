@@ -27,12 +27,14 @@ import org.apache.seata.core.rpc.processor.Pair;
 import org.apache.seata.rm.datasource.DataSourceProxy;
 import org.apache.seata.rm.datasource.undo.AbstractUndoLogManager;
 import org.apache.seata.rm.datasource.undo.UndoLogConstants;
+import org.apache.seata.rm.datasource.undo.UndoLogContent;
 import org.apache.seata.rm.datasource.undo.UndoLogParser;
 import org.apache.seata.sqlparser.util.JdbcConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -133,13 +135,7 @@ public class MySQLUndoLogManager extends AbstractUndoLogManager {
     protected void insertUndoLogWithNormal(
             String xid, long branchId, String rollbackCtx, byte[] undoLogContent, Connection conn) throws SQLException {
         Map<String, String> decodeMap = CollectionUtils.decodeMap(rollbackCtx);
-        String maxAllowedPacketStr = decodeMap.get(UndoLogConstants.MAX_ALLOWED_PACKET);
-        long maxAllowedPacket = 1024 * 1024; // 1MB -> mysql5.6 default value
-        if (StringUtils.isNotBlank(maxAllowedPacketStr)) {
-            maxAllowedPacket = Long.parseLong(maxAllowedPacketStr);
-        }
-
-        int limit = (int) (maxAllowedPacket * 0.8);
+        int limit = undoLogRowLimit(decodeMap);
         if (logger.isDebugEnabled()) {
             logger.debug("undo log length : [{}] limit : [{}]", undoLogContent.length, limit);
         }
@@ -169,6 +165,45 @@ public class MySQLUndoLogManager extends AbstractUndoLogManager {
         }
     }
 
+    @Override
+    protected void insertUndoLogWithNormal(
+            String xid, long branchId, String rollbackCtx, UndoLogContent content, Connection conn)
+            throws SQLException {
+        Map<String, String> decodeMap = CollectionUtils.decodeMap(rollbackCtx);
+        int limit = undoLogRowLimit(decodeMap);
+        if (logger.isDebugEnabled()) {
+            logger.debug("undo log length : [{}] limit : [{}]", content.size(), limit);
+        }
+        if (content.size() > limit) {
+            final String subRollbackCtx = UndoLogConstants.BRANCH_ID_KEY + CollectionUtils.KV_SPLIT + branchId;
+            long pos = limit;
+            StringBuilder subIdBuilder = new StringBuilder(36);
+            while (pos < content.size()) {
+                int length = (int) Math.min(content.size() - pos, limit);
+                long subId = UUIDGenerator.generateUUID();
+                subIdBuilder.append(subId).append(UndoLogConstants.SUB_SPLIT_KEY);
+                insertUndoLog(
+                        xid, subId, subRollbackCtx, content.newInputStream(pos, length), length, State.Normal, conn);
+                pos += length;
+            }
+            decodeMap.put(UndoLogConstants.SUB_ID_KEY, subIdBuilder.toString());
+            String finalRollbackCtx = CollectionUtils.encodeMap(decodeMap);
+            insertUndoLog(xid, branchId, finalRollbackCtx, content.newInputStream(0, limit), limit, State.Normal, conn);
+        } else {
+            insertUndoLog(
+                    xid, branchId, rollbackCtx, content.newInputStream(), (int) content.size(), State.Normal, conn);
+        }
+    }
+
+    private int undoLogRowLimit(Map<String, String> rollbackCtx) {
+        String maxAllowedPacketStr = rollbackCtx.get(UndoLogConstants.MAX_ALLOWED_PACKET);
+        long maxAllowedPacket = 1024 * 1024; // 1MB -> mysql5.6 default value
+        if (StringUtils.isNotBlank(maxAllowedPacketStr)) {
+            maxAllowedPacket = Long.parseLong(maxAllowedPacketStr);
+        }
+        return (int) (maxAllowedPacket * 0.8);
+    }
+
     @Override
     protected void insertUndoLogWithGlobalFinished(String xid, long branchId, UndoLogParser parser, Connection conn)
             throws SQLException {
@@ -198,4 +233,28 @@ public class MySQLUndoLogManager extends AbstractUndoLogManager {
             throw (SQLException) e;
         }
     }
+
+    private void insertUndoLog(
+            String xid,
+            long branchId,
+            String rollbackCtx,
+            InputStream undoLogContent,
+            int length,
+            State state,
+            Connection conn)
+            throws SQLException {
+        try (PreparedStatement pst = conn.prepareStatement(INSERT_UNDO_LOG_SQL)) {
+            pst.setLong(1, branchId);
+            pst.setString(2, xid);
+            pst.setString(3, rollbackCtx);
+            pst.setBinaryStream(4, undoLogContent, length);
+            pst.setInt(5, state.getValue());
+            pst.executeUpdate();
+        } catch (Exception e) {
+            if (!(e instanceof SQLException)) {
+                e = new SQLException(e);
+            }
+            throw (SQLException) e;
+        }
+    }
 }
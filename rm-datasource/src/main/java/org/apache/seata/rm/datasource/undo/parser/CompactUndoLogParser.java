@@ -0,0 +1,893 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.rm.datasource.undo.parser;
+
+import org.apache.seata.common.loader.LoadLevel;
+import org.apache.seata.rm.datasource.sql.serial.SerialArray;
+import org.apache.seata.rm.datasource.sql.struct.Field;
+import org.apache.seata.rm.datasource.sql.struct.KeyType;
+import org.apache.seata.rm.datasource.sql.struct.Row;
+import org.apache.seata.rm.datasource.sql.struct.TableRecords;
+import org.apache.seata.rm.datasource.undo.BranchUndoLog;
+import org.apache.seata.rm.datasource.undo.SQLUndoLog;
+import org.apache.seata.rm.datasource.undo.UndoLogParser;
+import org.apache.seata.sqlparser.SQLType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.rowset.serial.SerialBlob;
+import javax.sql.rowset.serial.SerialClob;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A binary undo log parser which packs the rows of an image column by column.
+ * <p>
+ * The columns of an image (name, key type and sql type) are written once for all its rows, then every column
+ * is written as one block: a value tag, a null bitmap if the column has nulls, and the non-null values with a
+ * type specialized encoding, varints for integral and temporal values and a dictionary shared by the whole
+ * undo log for strings, so that table names, column names and repeated values are written once.
+ * Consecutive rows with a different column layout start a new block of columns.
+ * <p>
+ * Arrays are written as their base type, base type name and tagged elements. The timestamps of the DM driver
+ * are written as their instant and read back through {@code DmdbTimestamp.valueOf}, like the jackson parser does.
+ * <p>
+ * Values of types without a specialized encoding are written with java serialization, restricted to
+ * {@code java.*} and {@code javax.sql.rowset.serial.*} classes.
+ *
+ */
+@LoadLevel(name = CompactUndoLogParser.NAME)
+public class CompactUndoLogParser implements UndoLogParser {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompactUndoLogParser.class);
+
+    public static final String NAME = "compact";
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final byte RECORDS_NULL = 0;
+    private static final byte RECORDS_EMPTY = 1;
+    private static final byte RECORDS_ROWS = 2;
+
+    private static final int HAS_NULLS = 0x80;
+
+    private static final int PRESIZE_LIMIT = 1024;
+
+    private static final int ALL_NULL = 0;
+    private static final int STRING = 1;
+    private static final int INTEGER = 2;
+    private static final int LONG = 3;
+    private static final int SHORT = 4;
+    private static final int BYTE = 5;
+    private static final int BOOLEAN = 6;
+    private static final int DOUBLE = 7;
+    private static final int FLOAT = 8;
+    private static final int BIG_DECIMAL = 9;
+    private static final int BIG_INTEGER = 10;
+    private static final int TIMESTAMP = 11;
+    private static final int SQL_DATE = 12;
+    private static final int SQL_TIME = 13;
+    private static final int DATE = 14;
+    private static final int BYTES = 15;
+    private static final int BLOB = 16;
+    private static final int CLOB = 17;
+    private static final int LOCAL_DATE_TIME = 18;
+    private static final int LOCAL_DATE = 19;
+    private static final int LOCAL_TIME = 20;
+    private static final int SERIALIZED = 21;
+    private static final int MIXED = 22;
+    private static final int ARRAY = 23;
+    private static final int DMDB_TIMESTAMP = 24;
+
+    private static final String DM_JDBC_DRIVER_DMDB_TIMESTAMP = "dm.jdbc.driver.DmdbTimestamp";
+
+    private static final Map<Class<?>, Integer> VALUE_TAGS = new HashMap<>();
+
+    static {
+        VALUE_TAGS.put(String.class, STRING);
+        VALUE_TAGS.put(Integer.class, INTEGER);
+        VALUE_TAGS.put(Long.class, LONG);
+        VALUE_TAGS.put(Short.class, SHORT);
+        VALUE_TAGS.put(Byte.class, BYTE);
+        VALUE_TAGS.put(Boolean.class, BOOLEAN);
+        VALUE_TAGS.put(Double.class, DOUBLE);
+        VALUE_TAGS.put(Float.class, FLOAT);
+        VALUE_TAGS.put(BigDecimal.class, BIG_DECIMAL);
+        VALUE_TAGS.put(BigInteger.class, BIG_INTEGER);
+        VALUE_TAGS.put(Timestamp.class, TIMESTAMP);
+        VALUE_TAGS.put(java.sql.Date.class, SQL_DATE);
+        VALUE_TAGS.put(Time.class, SQL_TIME);
+        VALUE_TAGS.put(Date.class, DATE);
+        VALUE_TAGS.put(byte[].class, BYTES);
+        VALUE_TAGS.put(SerialBlob.class, BLOB);
+        VALUE_TAGS.put(SerialClob.class, CLOB);
+        VALUE_TAGS.put(LocalDateTime.class, LOCAL_DATE_TIME);
+        VALUE_TAGS.put(LocalDate.class, LOCAL_DATE);
+        VALUE_TAGS.put(LocalTime.class, LOCAL_TIME);
+        VALUE_TAGS.put(SerialArray.class, ARRAY);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] getDefaultContent() {
+        return encode(new BranchUndoLog());
+    }
+
+    @Override
+    public byte[] encode(BranchUndoLog branchUndoLog) {
+        try {
+            Encoder encoder = new Encoder();
+            encoder.writeBranchUndoLog(branchUndoLog);
+            return encoder.toByteArray();
+        } catch (IOException | SQLException e) {
+            LOGGER.error("compact encode exception, {}", e.getMessage(), e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void encode(BranchUndoLog branchUndoLog, OutputStream out) throws IOException {
+        try {
+            Encoder encoder = new Encoder(out);
+            encoder.writeBranchUndoLog(branchUndoLog);
+            encoder.flush();
+        } catch (SQLException e) {
+            LOGGER.error("compact encode exception, {}", e.getMessage(), e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public BranchUndoLog decode(byte[] bytes) {
+        try {
+            return new Decoder(bytes).readBranchUndoLog();
+        } catch (IOException | SQLException | ClassNotFoundException e) {
+            LOGGER.error("compact decode exception, {}", e.getMessage(), e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static int valueTag(Object value) {
+        Integer tag = VALUE_TAGS.get(value.getClass());
+        if (tag != null) {
+            return tag;
+        }
+        if (DM_JDBC_DRIVER_DMDB_TIMESTAMP.equals(value.getClass().getName())) {
+            return DMDB_TIMESTAMP;
+        }
+        // vendor temporal types of the jdbc drivers are kept as their standard super types
+        if (value instanceof Timestamp) {
+            return TIMESTAMP;
+        } else if (value instanceof java.sql.Date) {
+            return SQL_DATE;
+        } else if (value instanceof Time) {
+            return SQL_TIME;
+        } else if (value instanceof Date) {
+            return DATE;
+        }
+        return SERIALIZED;
+    }
+
+    private static List<Field> fields(Row row) {
+        List<Field> fields = row.getFields();
+        return fields != null ? fields : Collections.emptyList();
+    }
+
+    private static boolean isSameLayout(List<Field> fields, List<Field> other) {
+        if (fields.size() != other.size()) {
+            return false;
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            Field field = fields.get(i);
+            Field otherField = other.get(i);
+            if (!Objects.equals(field.getName(), otherField.getName())
+                    || field.getKeyType() != otherField.getKeyType()
+                    || field.getType() != otherField.getType()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static boolean isAllowedClass(String className) {
+        int start = 0;
+        while (start < className.length() && className.charAt(start) == '[') {
+            start++;
+        }
+        if (start > 0) {
+            // primitive array, or an array of classes like [Ljava.lang.Object;
+            if (className.length() == start + 1) {
+                return true;
+            }
+            start++;
+        }
+        return className.startsWith("java.", start) || className.startsWith("javax.sql.rowset.serial.", start);
+    }
+
+    private static final class Encoder {
+
+        /**
+         * the buffer size from which an encoder with a stream hands its bytes on instead of growing
+         */
+        private static final int FLUSH_SIZE = 8 * 1024;
+
+        private final Map<String, Integer> dictionary = new HashMap<>();
+
+        /**
+         * the stream the bytes are handed on to, null to keep them all in the buffer
+         */
+        private final OutputStream out;
+
+        private byte[] buf = new byte[256];
+
+        private int size;
+
+        Encoder() {
+            this(null);
+        }
+
+        Encoder(OutputStream out) {
+            this.out = out;
+        }
+
+        void writeBranchUndoLog(BranchUndoLog branchUndoLog) throws IOException, SQLException {
+            writeByte(FORMAT_VERSION);
+            writeString(branchUndoLog.getXid());
+            writeVarLong(zigzag(branchUndoLog.getBranchId()));
+            List<SQLUndoLog> sqlUndoLogs = branchUndoLog.getSqlUndoLogs();
+            if (sqlUndoLogs == null) {
+                writeVarLong(0);
+                return;
+            }
+            writeVarLong(sqlUndoLogs.size() + 1L);
+            for (SQLUndoLog sqlUndoLog : sqlUndoLogs) {
+                SQLType sqlType = sqlUndoLog.getSqlType();
+                writeString(sqlType != null ? sqlType.name() : null);
+                writeString(sqlUndoLog.getTableName());
+                writeRecords(sqlUndoLog.getBeforeImage());
+                writeRecords(sqlUndoLog.getAfterImage());
+            }
+        }
+
+        private void writeRecords(TableRecords records) throws IOException, SQLException {
+            if (records == null) {
+                writeByte(RECORDS_NULL);
+                return;
+            }
+            if (records instanceof TableRecords.EmptyTableRecords) {
+                writeByte(RECORDS_EMPTY);
+                writeString(records.getTableName());
+                return;
+            }
+            writeByte(RECORDS_ROWS);
+            writeString(records.getTableName());
+            List<Row> rows = records.getRows();
+            if (rows == null) {
+                writeVarLong(0);
+                return;
+            }
+            writeVarLong(rows.size() + 1L);
+            int from = 0;
+            while (from < rows.size()) {
+                int to = from + 1;
+                while (to < rows.size() && isSameLayout(fields(rows.get(from)), fields(rows.get(to)))) {
+                    to++;
+                }
+                writeColumns(rows, from, to);
+                from = to;
+            }
+        }
+
+        private void writeColumns(List<Row> rows, int from, int to) throws IOException, SQLException {
+            List<Field> header = fields(rows.get(from));
+            writeVarLong(header.size());
+            writeVarLong(to - from);
+            for (Field field : header) {
+                writeString(field.getName());
+                writeString(field.getKeyType() != null ? field.getKeyType().name() : null);
+                writeVarLong(zigzag(field.getType()));
+            }
+            for (int column = 0; column < header.size(); column++) {
+                writeColumn(rows, from, to, column);
+            }
+        }
+
+        private void writeColumn(List<Row> rows, int from, int to, int column) throws IOException, SQLException {
+            int tag = ALL_NULL;
+            boolean hasNulls = false;
+            for (int i = from; i < to; i++) {
+                Object value = fields(rows.get(i)).get(column).getValue();
+                if (value == null) {
+                    hasNulls = true;
+                    continue;
+                }
+                int valueTag = valueTag(value);
+                if (tag == ALL_NULL) {
+                    tag = valueTag;
+                } else if (tag != valueTag) {
+                    tag = MIXED;
+                }
+            }
+            if (tag == ALL_NULL) {
+                writeByte(ALL_NULL);
+                return;
+            }
+            if (hasNulls) {
+                writeByte(tag | HAS_NULLS);
+                int count = to - from;
+                ensure((count + 7) >>> 3);
+                Arrays.fill(buf, size, size + ((count + 7) >>> 3), (byte) 0);
+                for (int i = 0; i < count; i++) {
+                    if (fields(rows.get(from + i)).get(column).getValue() == null) {
+                        buf[size + (i >>> 3)] |= (byte) (1 << (i & 7));
+                    }
+                }
+                size += (count + 7) >>> 3;
+            } else {
+                writeByte(tag);
+            }
+            for (int i = from; i < to; i++) {
+                Object value = fields(rows.get(i)).get(column).getValue();
+                if (value == null) {
+                    continue;
+                }
+                if (tag == MIXED) {
+                    int valueTag = valueTag(value);
+                    writeByte(valueTag);
+                    writeValue(valueTag, value);
+                } else {
+                    writeValue(tag, value);
+                }
+            }
+        }
+
+        private void writeValue(int tag, Object value) throws IOException, SQLException {
+            switch (tag) {
+                case STRING:
+                    writeString((String) value);
+                    break;
+                case INTEGER:
+                case LONG:
+                case SHORT:
+                case BYTE:
+                    writeVarLong(zigzag(((Number) value).longValue()));
+                    break;
+                case BOOLEAN:
+                    writeByte((Boolean) value ? 1 : 0);
+                    break;
+                case DOUBLE:
+                    writeFixedLong(Double.doubleToRawLongBits((Double) value));
+                    break;
+                case FLOAT:
+                    writeFixedLong(Float.floatToRawIntBits((Float) value));
+                    break;
+                case BIG_DECIMAL:
+                    BigDecimal decimal = (BigDecimal) value;
+                    writeVarLong(zigzag(decimal.scale()));
+                    writeBytes(decimal.unscaledValue().toByteArray());
+                    break;
+                case BIG_INTEGER:
+                    writeBytes(((BigInteger) value).toByteArray());
+                    break;
+                case TIMESTAMP:
+                    Timestamp timestamp = (Timestamp) value;
+                    writeVarLong(zigzag(timestamp.getTime()));
+                    writeVarLong(timestamp.getNanos());
+                    break;
+                case SQL_DATE:
+                case SQL_TIME:
+                case DATE:
+                    writeVarLong(zigzag(((Date) value).getTime()));
+                    break;
+                case BYTES:
+                    writeBytes((byte[]) value);
+                    break;
+                case BLOB:
+                    SerialBlob blob = (SerialBlob) value;
+                    writeBytes(blob.getBytes(1, (int) blob.length()));
+                    break;
+                case CLOB:
+                    SerialClob clob = (SerialClob) value;
+                    writeBytes(clob.getSubString(1, (int) clob.length()).getBytes(StandardCharsets.UTF_8));
+                    break;
+                case LOCAL_DATE_TIME:
+                    LocalDateTime dateTime = (LocalDateTime) value;
+                    writeVarLong(zigzag(dateTime.toLocalDate().toEpochDay()));
+                    writeVarLong(dateTime.toLocalTime().toNanoOfDay());
+                    break;
+                case LOCAL_DATE:
+                    writeVarLong(zigzag(((LocalDate) value).toEpochDay()));
+                    break;
+                case LOCAL_TIME:
+                    writeVarLong(((LocalTime) value).toNanoOfDay());
+                    break;
+                case ARRAY:
+                    writeArray((SerialArray) value);
+                    break;
+                case DMDB_TIMESTAMP:
+                    Instant instant = toInstant(value);
+                    writeVarLong(zigzag(instant.getEpochSecond()));
+                    writeVarLong(instant.getNano());
+                    break;
+                default:
+                    writeBytes(serialize(value));
+                    break;
+            }
+        }
+
+        private void writeArray(SerialArray array) throws IOException, SQLException {
+            writeVarLong(zigzag(array.getBaseType()));
+            writeString(array.getBaseTypeName());
+            Object[] elements = array.getElements();
+            if (elements == null) {
+                writeVarLong(0);
+                return;
+            }
+            writeVarLong(elements.length + 1L);
+            for (Object element : elements) {
+                if (element == null) {
+                    writeByte(ALL_NULL);
+                } else {
+                    int elementTag = valueTag(element);
+                    writeByte(elementTag);
+                    writeValue(elementTag, element);
+                }
+            }
+        }
+
+        private static Instant toInstant(Object dmdbTimestamp) throws IOException {
+            try {
+                return (Instant) dmdbTimestamp.getClass().getMethod("toInstant").invoke(dmdbTimestamp);
+            } catch (ReflectiveOperationException e) {
+                throw new IOException("Error getting instant from DmdbTimestamp", e);
+            }
+        }
+
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            Integer index = dictionary.get(value);
+            if (index != null) {
+                writeVarLong((index + 1L) << 1);
+                return;
+            }
+            dictionary.put(value, dictionary.size());
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(((long) bytes.length << 1) | 1);
+            writeRaw(bytes);
+        }
+
+        private void writeBytes(byte[] bytes) throws IOException {
+            writeVarLong(bytes.length);
+            writeRaw(bytes);
+        }
+
+        private void writeRaw(byte[] bytes) throws IOException {
+            if (out != null && bytes.length > FLUSH_SIZE) {
+                flush();
+                out.write(bytes);
+                return;
+            }
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, size, bytes.length);
+            size += bytes.length;
+        }
+
+        private void writeByte(int b) throws IOException {
+            ensure(1);
+            buf[size++] = (byte) b;
+        }
+
+        private void writeFixedLong(long value) throws IOException {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buf[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void writeVarLong(long value) throws IOException {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buf[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[size++] = (byte) value;
+        }
+
+        private void ensure(int more) throws IOException {
+            if (size + more <= buf.length) {
+                return;
+            }
+            if (out != null && buf.length >= FLUSH_SIZE) {
+                flush();
+                if (more <= buf.length) {
+                    return;
+                }
+            }
+            buf = Arrays.copyOf(buf, Math.max(buf.length << 1, size + more));
+        }
+
+        void flush() throws IOException {
+            if (size > 0) {
+                out.write(buf, 0, size);
+                size = 0;
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, size);
+        }
+
+        private static byte[] serialize(Object value) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new RestrictedObjectOutputStream(bytes)) {
+                out.writeObject(value);
+            }
+            return bytes.toByteArray();
+        }
+    }
+
+    private static final class Decoder {
+
+        private final List<String> dictionary = new ArrayList<>();
+
+        private final byte[] buf;
+
+        private int pos;
+
+        Decoder(byte[] buf) {
+            this.buf = buf;
+        }
+
+        BranchUndoLog readBranchUndoLog() throws IOException, SQLException, ClassNotFoundException {
+            byte version = readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("unknown compact undo log version: " + version);
+            }
+            BranchUndoLog branchUndoLog = new BranchUndoLog();
+            branchUndoLog.setXid(readString());
+            branchUndoLog.setBranchId(unzigzag(readVarLong()));
+            int count = readCount();
+            if (count == 0) {
+                return branchUndoLog;
+            }
+            List<SQLUndoLog> sqlUndoLogs = new ArrayList<>(Math.min(count - 1, PRESIZE_LIMIT));
+            for (int i = 1; i < count; i++) {
+                SQLUndoLog sqlUndoLog = new SQLUndoLog();
+                String sqlType = readString();
+                if (sqlType != null) {
+                    sqlUndoLog.setSqlType(SQLType.valueOf(sqlType));
+                }
+                sqlUndoLog.setTableName(readString());
+                sqlUndoLog.setBeforeImage(readRecords());
+                sqlUndoLog.setAfterImage(readRecords());
+                sqlUndoLogs.add(sqlUndoLog);
+            }
+            branchUndoLog.setSqlUndoLogs(sqlUndoLogs);
+            return branchUndoLog;
+        }
+
+        private TableRecords readRecords() throws IOException, SQLException, ClassNotFoundException {
+            byte kind = readByte();
+            if (kind == RECORDS_NULL) {
+                return null;
+            }
+            TableRecords records = kind == RECORDS_EMPTY ? new TableRecords.EmptyTableRecords() : new TableRecords();
+            records.setTableName(readString());
+            if (kind == RECORDS_EMPTY) {
+                return records;
+            }
+            int count = readCount();
+            if (count == 0) {
+                records.setRows(null);
+                return records;
+            }
+            List<Row> rows = new ArrayList<>(Math.min(count - 1, PRESIZE_LIMIT));
+            while (rows.size() < count - 1) {
+                readColumns(rows);
+            }
+            if (rows.size() != count - 1) {
+                throw new IllegalArgumentException("row count mismatch in compact undo log");
+            }
+            records.setRows(rows);
+            return records;
+        }
+
+        private void readColumns(List<Row> rows) throws IOException, SQLException, ClassNotFoundException {
+            int columnCount = readCount();
+            int rowCount = readCount();
+            if (rowCount == 0) {
+                throw new IllegalArgumentException("empty column block in compact undo log");
+            }
+            String[] names = new String[columnCount];
+            KeyType[] keyTypes = new KeyType[columnCount];
+            int[] types = new int[columnCount];
+            for (int column = 0; column < columnCount; column++) {
+                names[column] = readString();
+                String keyType = readString();
+                keyTypes[column] = keyType != null ? KeyType.valueOf(keyType) : null;
+                types[column] = (int) unzigzag(readVarLong());
+            }
+            int first = rows.size();
+            for (int i = 0; i < rowCount; i++) {
+                Row row = new Row();
+                row.setFields(new ArrayList<>(columnCount));
+                rows.add(row);
+            }
+            for (int column = 0; column < columnCount; column++) {
+                int tag = readByte() & 0xFF;
+                int bitmap = -1;
+                if ((tag & HAS_NULLS) != 0) {
+                    tag &= ~HAS_NULLS;
+                    bitmap = pos;
+                    skip((rowCount + 7) >>> 3);
+                }
+                for (int i = 0; i < rowCount; i++) {
+                    Object value = null;
+                    boolean isNull = tag == ALL_NULL
+                            || (bitmap >= 0 && (buf[bitmap + (i >>> 3)] & (1 << (i & 7))) != 0);
+                    if (!isNull) {
+                        value = readValue(tag == MIXED ? readByte() & 0xFF : tag);
+                    }
+                    Field field = new Field(names[column], types[column], value);
+                    field.setKeyType(keyTypes[column]);
+                    rows.get(first + i).getFields().add(field);
+                }
+            }
+        }
+
+        private Object readValue(int tag) throws IOException, SQLException, ClassNotFoundException {
+            switch (tag) {
+                case STRING:
+                    return readString();
+                case INTEGER:
+                    return (int) unzigzag(readVarLong());
+                case LONG:
+                    return unzigzag(readVarLong());
+                case SHORT:
+                    return (short) unzigzag(readVarLong());
+                case BYTE:
+                    return (byte) unzigzag(readVarLong());
+                case BOOLEAN:
+                    return readByte() != 0;
+                case DOUBLE:
+                    return Double.longBitsToDouble(readFixedLong());
+                case FLOAT:
+                    return Float.intBitsToFloat((int) readFixedLong());
+                case BIG_DECIMAL:
+                    int scale = (int) unzigzag(readVarLong());
+                    return new BigDecimal(new BigInteger(readBytes()), scale);
+                case BIG_INTEGER:
+                    return new BigInteger(readBytes());
+                case TIMESTAMP:
+                    Timestamp timestamp = new Timestamp(unzigzag(readVarLong()));
+                    timestamp.setNanos((int) readVarLong());
+                    return timestamp;
+                case SQL_DATE:
+                    return new java.sql.Date(unzigzag(readVarLong()));
+                case SQL_TIME:
+                    return new Time(unzigzag(readVarLong()));
+                case DATE:
+                    return new Date(unzigzag(readVarLong()));
+                case BYTES:
+                    return readBytes();
+                case BLOB:
+                    return new SerialBlob(readBytes());
+                case CLOB:
+                    return new SerialClob(new String(readBytes(), StandardCharsets.UTF_8).toCharArray());
+                case LOCAL_DATE_TIME:
+                    LocalDate date = LocalDate.ofEpochDay(unzigzag(readVarLong()));
+                    return LocalDateTime.of(date, LocalTime.ofNanoOfDay(readVarLong()));
+                case LOCAL_DATE:
+                    return LocalDate.ofEpochDay(unzigzag(readVarLong()));
+                case LOCAL_TIME:
+                    return LocalTime.ofNanoOfDay(readVarLong());
+                case ARRAY:
+                    return readArray();
+                case DMDB_TIMESTAMP:
+                    Instant instant = Instant.ofEpochSecond(unzigzag(readVarLong()), readVarLong());
+                    return newDmdbTimestamp(instant);
+                case SERIALIZED:
+                    ByteArrayInputStream bytes = new ByteArrayInputStream(readBytes());
+                    try (ObjectInputStream in = new RestrictedObjectInputStream(bytes)) {
+                        return in.readObject();
+                    }
+                default:
+                    throw new IllegalArgumentException("unknown value tag in compact undo log: " + tag);
+            }
+        }
+
+        private SerialArray readArray() throws IOException, SQLException, ClassNotFoundException {
+            SerialArray array = new SerialArray();
+            array.setBaseType((int) unzigzag(readVarLong()));
+            array.setBaseTypeName(readString());
+            int count = readCount();
+            if (count == 0) {
+                return array;
+            }
+            // every element takes at least its tag byte
+            Object[] elements = new Object[checkLength(count - 1)];
+            for (int i = 0; i < elements.length; i++) {
+                int tag = readByte() & 0xFF;
+                elements[i] = tag == ALL_NULL ? null : readValue(tag);
+            }
+            array.setElements(elements);
+            return array;
+        }
+
+        private static Object newDmdbTimestamp(Instant instant) throws IOException, ClassNotFoundException {
+            Class<?> dmdbTimestampClass = Class.forName(DM_JDBC_DRIVER_DMDB_TIMESTAMP);
+            try {
+                return dmdbTimestampClass
+                        .getMethod("valueOf", ZonedDateTime.class)
+                        .invoke(null, instant.atZone(ZoneId.systemDefault()));
+            } catch (ReflectiveOperationException e) {
+                throw new IOException("Error creating DmdbTimestamp", e);
+            }
+        }
+
+        private String readString() {
+            long header = readVarLong();
+            if (header == 0) {
+                return null;
+            }
+            if ((header & 1) == 0) {
+                long index = (header >>> 1) - 1;
+                if (index >= dictionary.size()) {
+                    throw new IllegalArgumentException("string index out of range in compact undo log: " + index);
+                }
+                return dictionary.get((int) index);
+            }
+            int length = checkLength(header >>> 1);
+            String value = new String(buf, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            dictionary.add(value);
+            return value;
+        }
+
+        private byte[] readBytes() {
+            int length = checkLength(readVarLong());
+            byte[] bytes = Arrays.copyOfRange(buf, pos, pos + length);
+            pos += length;
+            return bytes;
+        }
+
+        private byte readByte() {
+            checkLength(1);
+            return buf[pos++];
+        }
+
+        private long readFixedLong() {
+            checkLength(8);
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (buf[pos++] & 0xFF);
+            }
+            return value;
+        }
+
+        /**
+         * Read a count, rows of all-null columns take no bytes so it is not bounded by the remaining bytes.
+         */
+        private int readCount() {
+            long count = readVarLong();
+            if (count < 0 || count > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("count out of range in compact undo log: " + count);
+            }
+            return (int) count;
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("malformed varint in compact undo log");
+        }
+
+        private void skip(int length) {
+            pos += checkLength(length);
+        }
+
+        private int checkLength(long length) {
+            if (length < 0 || length > buf.length - pos) {
+                throw new IllegalArgumentException("truncated compact undo log");
+            }
+            return (int) length;
+        }
+    }
+
+    private static final class RestrictedObjectOutputStream extends ObjectOutputStream {
+
+        RestrictedObjectOutputStream(OutputStream out) throws IOException {
+            super(out);
+        }
+
+        @Override
+        protected void annotateClass(Class<?> cl) throws IOException {
+            if (!isAllowedClass(cl.getName())) {
+                throw new NotSerializableException(cl.getName() + " is not supported by the compact undo log parser");
+            }
+        }
+
+        @Override
+        protected void annotateProxyClass(Class<?> cl) throws IOException {
+            throw new NotSerializableException(cl.getName() + " is not supported by the compact undo log parser");
+        }
+    }
+
+    private static final class RestrictedObjectInputStream extends ObjectInputStream {
+
+        RestrictedObjectInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            if (!isAllowedClass(desc.getName())) {
+                throw new InvalidClassException(desc.getName(), "not allowed in a compact undo log");
+            }
+            return super.resolveClass(desc);
+        }
+    }
+}
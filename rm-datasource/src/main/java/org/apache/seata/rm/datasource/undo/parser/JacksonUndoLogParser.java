@@ -50,6 +50,7 @@ import javax.sql.rowset.serial.SerialBlob;
 import javax.sql.rowset.serial.SerialClob;
 import javax.sql.rowset.serial.SerialException;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.lang.reflect.Method;
 import java.sql.SQLException;
@@ -209,6 +210,11 @@ public class JacksonUndoLogParser implements UndoLogParser, Initialize {
         }
     }
 
+    @Override
+    public void encode(BranchUndoLog branchUndoLog, OutputStream out) throws IOException {
+        mapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(out, branchUndoLog);
+    }
+
     @Override
     public BranchUndoLog decode(byte[] bytes) {
         try {
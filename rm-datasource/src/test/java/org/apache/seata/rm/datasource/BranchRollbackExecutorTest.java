@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.rm.datasource;
+
+import org.apache.seata.core.exception.BranchTransactionException;
+import org.apache.seata.core.exception.TransactionExceptionCode;
+import org.apache.seata.rm.datasource.sql.struct.Field;
+import org.apache.seata.rm.datasource.sql.struct.KeyType;
+import org.apache.seata.rm.datasource.sql.struct.Row;
+import org.apache.seata.rm.datasource.sql.struct.TableRecords;
+import org.apache.seata.rm.datasource.undo.BranchUndoLog;
+import org.apache.seata.rm.datasource.undo.SQLUndoLog;
+import org.apache.seata.rm.datasource.undo.UndoLogManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BranchRollbackExecutorTest {
+
+    private final DataSourceProxy dataSourceProxy = mock(DataSourceProxy.class);
+
+    @Test
+    public void testRollbackOnCallingThread() throws Exception {
+        UndoLogManager undoLogManager = mock(UndoLogManager.class);
+        BranchRollbackExecutor executor = new BranchRollbackExecutor(dataSourceProxy, undoLogManager, 1, 8);
+
+        executor.rollback("xid", 1L);
+
+        verify(undoLogManager).undo(dataSourceProxy, "xid", 1L);
+        verify(undoLogManager, never()).fetchUndoLogs(any(), anyMap());
+    }
+
+    @Test
+    public void testIndependentBranchesRunConcurrently() throws Exception {
+        UndoLogManager undoLogManager = mock(UndoLogManager.class);
+        Map<Long, BranchUndoLog> undoLogs = new HashMap<>();
+        undoLogs.put(1L, undoLog(1L, 1));
+        undoLogs.put(2L, undoLog(2L, 2));
+        when(undoLogManager.fetchUndoLogs(eq(dataSourceProxy), anyMap())).thenReturn(undoLogs);
+        // each undo waits for the other one, so they only finish when both run at the same time
+        CountDownLatch running = new CountDownLatch(2);
+        doAnswer(invocation -> {
+                    running.countDown();
+                    Assertions.assertTrue(running.await(5, TimeUnit.SECONDS));
+                    return null;
+                })
+                .when(undoLogManager)
+                .undo(eq(dataSourceProxy), anyString(), anyLong(), any());
+        BranchRollbackExecutor executor = new BranchRollbackExecutor(dataSourceProxy, undoLogManager, 2, 8);
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = callers.submit(() -> rollback(executor, 1L));
+            Future<?> second = callers.submit(() -> rollback(executor, 2L));
+            first.get(10, TimeUnit.SECONDS);
+            second.get(10, TimeUnit.SECONDS);
+        } finally {
+            callers.shutdownNow();
+        }
+        verify(undoLogManager).undo(dataSourceProxy, "xid-1", 1L, undoLogs.get(1L));
+        verify(undoLogManager).undo(dataSourceProxy, "xid-2", 2L, undoLogs.get(2L));
+    }
+
+    @Test
+    public void testBranchesOnSameRowRunInOrder() throws Exception {
+        UndoLogManager undoLogManager = mock(UndoLogManager.class);
+        Map<Long, BranchUndoLog> undoLogs = new HashMap<>();
+        undoLogs.put(1L, undoLog(1L, 7));
+        undoLogs.put(2L, undoLog(2L, 7));
+        undoLogs.put(3L, undoLog(3L, 7));
+        when(undoLogManager.fetchUndoLogs(eq(dataSourceProxy), anyMap())).thenReturn(undoLogs);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        doAnswer(invocation -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(20);
+                    running.decrementAndGet();
+                    return null;
+                })
+                .when(undoLogManager)
+                .undo(eq(dataSourceProxy), anyString(), anyLong(), any());
+        BranchRollbackExecutor executor = new BranchRollbackExecutor(dataSourceProxy, undoLogManager, 4, 8);
+
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+        try {
+            Future<?> first = callers.submit(() -> rollback(executor, 1L));
+            Future<?> second = callers.submit(() -> rollback(executor, 2L));
+            Future<?> third = callers.submit(() -> rollback(executor, 3L));
+            first.get(10, TimeUnit.SECONDS);
+            second.get(10, TimeUnit.SECONDS);
+            third.get(10, TimeUnit.SECONDS);
+        } finally {
+            callers.shutdownNow();
+        }
+        Assertions.assertEquals(1, maxRunning.get());
+        verify(undoLogManager).undo(dataSourceProxy, "xid-3", 3L, undoLogs.get(3L));
+    }
+
+    @Test
+    public void testBranchWithoutFetchedUndoLogIsOrdered() throws Exception {
+        UndoLogManager undoLogManager = mock(UndoLogManager.class);
+        Map<Long, BranchUndoLog> undoLogs = new HashMap<>();
+        undoLogs.put(1L, undoLog(1L, 7));
+        undoLogs.put(3L, undoLog(3L, 8));
+        when(undoLogManager.fetchUndoLogs(eq(dataSourceProxy), anyMap())).thenReturn(undoLogs);
+        CountDownLatch firstRunning = new CountDownLatch(1);
+        CountDownLatch firstReleased = new CountDownLatch(1);
+        List<Long> undone = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+                    long branchId = invocation.getArgument(2);
+                    undone.add(branchId);
+                    if (branchId == 1L) {
+                        firstRunning.countDown();
+                        Assertions.assertTrue(firstReleased.await(5, TimeUnit.SECONDS));
+                    }
+                    return null;
+                })
+                .when(undoLogManager)
+                .undo(eq(dataSourceProxy), anyString(), anyLong(), any());
+        BranchRollbackExecutor executor = new BranchRollbackExecutor(dataSourceProxy, undoLogManager, 4, 8);
+
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+        try {
+            Future<?> first = callers.submit(() -> rollback(executor, 1L));
+            Assertions.assertTrue(firstRunning.await(5, TimeUnit.SECONDS));
+            // branch 2 has no fetched undo log, it waits for branch 1 and branch 3 on another row waits for it
+            Future<?> second = callers.submit(() -> rollback(executor, 2L));
+            verify(undoLogManager, timeout(5000).times(2)).fetchUndoLogs(eq(dataSourceProxy), anyMap());
+            Future<?> third = callers.submit(() -> rollback(executor, 3L));
+            Thread.sleep(100);
+            Assertions.assertEquals(Collections.singletonList(1L), undone);
+            firstReleased.countDown();
+            first.get(10, TimeUnit.SECONDS);
+            second.get(10, TimeUnit.SECONDS);
+            third.get(10, TimeUnit.SECONDS);
+        } finally {
+            callers.shutdownNow();
+            executor.destroy();
+        }
+        Assertions.assertEquals(Arrays.asList(1L, 2L, 3L), undone);
+    }
+
+    @Test
+    public void testRollbackAfterDestroy() throws Exception {
+        UndoLogManager undoLogManager = mock(UndoLogManager.class);
+        when(undoLogManager.fetchUndoLogs(eq(dataSourceProxy), anyMap())).thenReturn(Collections.emptyMap());
+        BranchRollbackExecutor executor = new BranchRollbackExecutor(dataSourceProxy, undoLogManager, 2, 8);
+        executor.destroy();
+
+        BranchTransactionException exception =
+                Assertions.assertThrows(BranchTransactionException.class, () -> executor.rollback("xid", 1L));
+        Assertions.assertEquals(TransactionExceptionCode.BranchRollbackFailed_Retriable, exception.getCode());
+        verify(undoLogManager, never()).undo(any(), anyString(), anyLong(), any());
+    }
+
+    @Test
+    public void testRollbackFailure() throws Exception {
+        UndoLogManager undoLogManager = mock(UndoLogManager.class);
+        when(undoLogManager.fetchUndoLogs(eq(dataSourceProxy), anyMap())).thenReturn(Collections.emptyMap());
+        doThrow(new BranchTransactionException(TransactionExceptionCode.BranchRollbackFailed_Unretriable, "dirty"))
+                .when(undoLogManager)
+                .undo(dataSourceProxy, "xid", 1L, null);
+        BranchRollbackExecutor executor = new BranchRollbackExecutor(dataSourceProxy, undoLogManager, 2, 8);
+
+        BranchTransactionException exception =
+                Assertions.assertThrows(BranchTransactionException.class, () -> executor.rollback("xid", 1L));
+        Assertions.assertEquals(TransactionExceptionCode.BranchRollbackFailed_Unretriable, exception.getCode());
+    }
+
+    @Test
+    public void testRowKeys() {
+        Assertions.assertTrue(BranchRollbackExecutor.rowKeys(null).isEmpty());
+        Assertions.assertEquals(
+                Collections.singleton("t_user:7"), BranchRollbackExecutor.rowKeys(undoLog(1L, 7)));
+        Assertions.assertNotEquals(
+                BranchRollbackExecutor.rowKeys(undoLog(1L, 7)), BranchRollbackExecutor.rowKeys(undoLog(2L, 8)));
+    }
+
+    private void rollback(BranchRollbackExecutor executor, long branchId) {
+        try {
+            executor.rollback("xid-" + branchId, branchId);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static BranchUndoLog undoLog(long branchId, int id) {
+        Field pk = new Field("id", Types.INTEGER, id);
+        pk.setKeyType(KeyType.PRIMARY_KEY);
+        Row row = new Row();
+        row.add(pk);
+        row.add(new Field("name", Types.VARCHAR, "name" + branchId));
+        TableRecords beforeImage = new TableRecords();
+        beforeImage.setTableName("T_USER");
+        beforeImage.setRows(Collections.singletonList(row));
+        SQLUndoLog sqlUndoLog = new SQLUndoLog();
+        sqlUndoLog.setTableName("T_USER");
+        sqlUndoLog.setBeforeImage(beforeImage);
+        BranchUndoLog undoLog = new BranchUndoLog();
+        undoLog.setXid("xid-" + branchId);
+        undoLog.setBranchId(branchId);
+        undoLog.setSqlUndoLogs(Collections.singletonList(sqlUndoLog));
+        return undoLog;
+    }
+}
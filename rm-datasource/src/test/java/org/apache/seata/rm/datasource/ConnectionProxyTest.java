@@ -132,4 +132,36 @@ public class ConnectionProxyTest {
         Assertions.assertThrows(LockWaitTimeoutException.class, connectionProxy::commit);
         branchRollbackFlagField.set(null, oldBranchRollbackFlag);
     }
+
+    @Test
+    public void testPipelineCommitOnConflict() throws Exception {
+        Field pipelineCommitField = ConnectionProxy.class.getDeclaredField("IS_PIPELINE_COMMIT_ENABLE");
+        Field modifiersField = Field.class.getDeclaredField("modifiers");
+        modifiersField.setAccessible(true);
+        modifiersField.setInt(pipelineCommitField, pipelineCommitField.getModifiers() & ~Modifier.FINAL);
+        pipelineCommitField.setAccessible(true);
+        boolean oldPipelineCommit = (boolean) pipelineCommitField.get(null);
+        pipelineCommitField.set(null, true);
+        GlobalLockConfig preGlobalLockConfig = new GlobalLockConfig();
+        preGlobalLockConfig.setLockRetryTimes(0);
+        preGlobalLockConfig.setLockRetryInterval(10);
+        preGlobalLockConfig.setLockStrategyMode(LockStrategyMode.PESSIMISTIC);
+        GlobalLockConfigHolder.setAndReturnPrevious(preGlobalLockConfig);
+        ConnectionProxy connectionProxy =
+                new ConnectionProxy(dataSourceProxy, new MockConnection(new MockDriver(), "", null));
+        connectionProxy.bind(TEST_XID);
+        SQLUndoLog sqlUndoLog = new SQLUndoLog();
+        TableRecords beforeImage = new TableRecords();
+        beforeImage.add(new Row());
+        sqlUndoLog.setBeforeImage(beforeImage);
+        connectionProxy.getContext().appendUndoItem(sqlUndoLog);
+        connectionProxy.appendLockKey(lockKey);
+        try {
+            // the conflict of the register sent on another thread still reaches the lock retry policy
+            Assertions.assertThrows(LockWaitTimeoutException.class, connectionProxy::commit);
+            Assertions.assertNull(connectionProxy.getContext().getBranchId());
+        } finally {
+            pipelineCommitField.set(null, oldPipelineCommit);
+        }
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.rm.datasource.sql;
+
+import org.apache.seata.sqlparser.SQLRecognizer;
+import org.apache.seata.sqlparser.SQLType;
+import org.apache.seata.sqlparser.util.JdbcConstants;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * The type Sql recognizer cache test.
+ */
+public class SQLRecognizerCacheTest {
+
+    @Test
+    public void testHitAndMiss() {
+        SQLRecognizerCache cache = new SQLRecognizerCache(16, 1024 * 1024);
+        String sql = "update t set a = ? where id = ?";
+        List<SQLRecognizer> first = cache.get(sql, JdbcConstants.MYSQL);
+        List<SQLRecognizer> second = cache.get(sql, JdbcConstants.MYSQL);
+        Assertions.assertEquals(1, first.size());
+        Assertions.assertEquals(SQLType.UPDATE, first.get(0).getSQLType());
+        Assertions.assertSame(first.get(0), second.get(0));
+        Assertions.assertEquals(1, cache.getHitCount());
+        Assertions.assertEquals(1, cache.getMissCount());
+        Assertions.assertEquals(0.5, cache.getHitRate());
+
+        // the db type is part of the key
+        List<SQLRecognizer> oracle = cache.get(sql, JdbcConstants.ORACLE);
+        Assertions.assertNotSame(first.get(0), oracle.get(0));
+        Assertions.assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testUnrecognizedSql() {
+        SQLRecognizerCache cache = new SQLRecognizerCache(16, 1024 * 1024);
+        String sql = "select * from t where id = ?";
+        Assertions.assertNull(cache.get(sql, JdbcConstants.MYSQL));
+        Assertions.assertNull(cache.get(sql, JdbcConstants.MYSQL));
+        Assertions.assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testBounded() {
+        SQLRecognizerCache cache = new SQLRecognizerCache(10, 1024 * 1024);
+        for (int i = 0; i < 100; i++) {
+            cache.get("delete from t where id = " + i, JdbcConstants.MYSQL);
+        }
+        Assertions.assertTrue(cache.getSize() <= 10, "size: " + cache.getSize());
+    }
+
+    @Test
+    public void testDisabled() {
+        SQLRecognizerCache cache = new SQLRecognizerCache(0, 1024 * 1024);
+        Assertions.assertFalse(cache.isEnabled());
+        String sql = "delete from t where id = ?";
+        Assertions.assertNotSame(
+                cache.get(sql, JdbcConstants.MYSQL).get(0),
+                cache.get(sql, JdbcConstants.MYSQL).get(0));
+        Assertions.assertEquals(0, cache.getMissCount());
+    }
+}
@@ -156,6 +156,45 @@ public class AbstractUndoExecutorTest extends BaseH2Test {
         Assertions.assertFalse(spy.dataValidationAndGoOn(connection));
     }
 
+    @Test
+    public void testBatchUndo() throws SQLException {
+        TableMeta batchTableMeta = mockTableMeta();
+        Mockito.when(batchTableMeta.getCaseInsensitivePKs()).thenReturn(Collections.singleton("ID"));
+        for (int id = 1; id <= 5; id++) {
+            execSQL("INSERT INTO table_name(id, name) VALUES (" + id + ",'aaa');");
+        }
+        TableRecords beforeImage = execQuery(batchTableMeta, "SELECT * FROM table_name WHERE id <= 5;");
+        execSQL("update table_name set name = 'xxx' where id <= 5;");
+        TableRecords afterImage = execQuery(batchTableMeta, "SELECT * FROM table_name WHERE id <= 5;");
+
+        SQLUndoLog sqlUndoLog = new SQLUndoLog();
+        sqlUndoLog.setSqlType(SQLType.UPDATE);
+        sqlUndoLog.setTableMeta(batchTableMeta);
+        sqlUndoLog.setTableName("table_name");
+        sqlUndoLog.setBeforeImage(beforeImage);
+        sqlUndoLog.setAfterImage(afterImage);
+
+        // 5 rows in batches of 2, the last batch is not full
+        AbstractUndoExecutor executor = new TestUndoExecutor(sqlUndoLog, true) {
+            @Override
+            protected String buildUndoSQL() {
+                return "UPDATE table_name SET name = ? WHERE id = ?";
+            }
+
+            @Override
+            protected int getUndoBatchSize() {
+                return 2;
+            }
+        };
+        executor.executeOn(connection);
+
+        TableRecords currentImage = execQuery(batchTableMeta, "SELECT * FROM table_name WHERE id <= 5;");
+        Assertions.assertEquals(5, currentImage.size());
+        for (Row row : currentImage.getRows()) {
+            Assertions.assertEquals("aaa", row.getFields().get(1).getValue());
+        }
+    }
+
     @Test
     public void testParsePK() {
         TableMeta tableMeta = Mockito.mock(TableMeta.class);
@@ -28,6 +28,8 @@ import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.sql.JDBCType;
 import java.sql.SQLException;
 import java.sql.Timestamp;
@@ -159,6 +161,37 @@ public abstract class BaseUndoLogParserTest extends BaseH2Test {
         LOGGER.info("elapsed time {} ms.", (end - start));
     }
 
+    @Test
+    void testEncodeIntoStream() throws IOException {
+        BranchUndoLog originLog = new BranchUndoLog();
+        originLog.setBranchId(123456L);
+        originLog.setXid("192.168.0.1:8091:123456");
+        SQLUndoLog sqlUndoLog = new SQLUndoLog();
+        sqlUndoLog.setSqlType(SQLType.INSERT);
+        sqlUndoLog.setTableName("test");
+        sqlUndoLog.setBeforeImage(TableRecords.empty(new TableMeta()));
+        Row row = new Row();
+        row.add(new Field("id", JDBCType.INTEGER.getVendorTypeNumber(), 1));
+        row.add(new Field("name", JDBCType.VARCHAR.getVendorTypeNumber(), "seata"));
+        TableRecords afterImage = new TableRecords();
+        afterImage.setTableMeta(new TableMeta());
+        afterImage.setTableName("test");
+        afterImage.add(row);
+        sqlUndoLog.setAfterImage(afterImage);
+        List<SQLUndoLog> logList = new ArrayList<>();
+        logList.add(sqlUndoLog);
+        originLog.setSqlUndoLogs(logList);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        getParser().encode(originLog, out);
+        Assertions.assertArrayEquals(getParser().encode(originLog), out.toByteArray());
+
+        BranchUndoLog dstLog = getParser().decode(out.toByteArray());
+        Assertions.assertEquals(originLog.getXid(), dstLog.getXid());
+        Assertions.assertEquals(originLog.getBranchId(), dstLog.getBranchId());
+        Assertions.assertEquals(1, dstLog.getSqlUndoLogs().size());
+    }
+
     @Test
     void testDecodeDefaultContent() {
         byte[] defaultContent = getParser().getDefaultContent();
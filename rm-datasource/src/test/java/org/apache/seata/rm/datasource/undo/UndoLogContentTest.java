@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.rm.datasource.undo;
+
+import org.apache.seata.compressor.gzip.GzipCompressor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+public class UndoLogContentTest {
+
+    private static byte[] bytes(int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (i % 251);
+        }
+        return bytes;
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        byte[] bytes = bytes(200000);
+        UndoLogContent content = new UndoLogContent();
+        content.write(bytes[0]);
+        content.write(bytes, 1, 999);
+        content.write(bytes, 1000, bytes.length - 1000);
+        Assertions.assertEquals(bytes.length, content.size());
+        Assertions.assertArrayEquals(bytes, content.toByteArray());
+
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        try (InputStream in = content.newInputStream()) {
+            byte[] buffer = new byte[7000];
+            int n;
+            while ((n = in.read(buffer)) > -1) {
+                read.write(buffer, 0, n);
+            }
+        }
+        Assertions.assertArrayEquals(bytes, read.toByteArray());
+    }
+
+    @Test
+    public void testSlice() throws IOException {
+        byte[] bytes = bytes(150000);
+        UndoLogContent content = new UndoLogContent();
+        content.write(bytes);
+
+        byte[] slice = content.toByteArray(65000, 70000);
+        for (int i = 0; i < slice.length; i++) {
+            Assertions.assertEquals(bytes[65000 + i], slice[i]);
+        }
+
+        InputStream in = content.newInputStream(149998, 2);
+        Assertions.assertEquals(2, in.available());
+        Assertions.assertEquals(bytes[149998] & 0xFF, in.read());
+        Assertions.assertEquals(1, in.skip(10));
+        Assertions.assertEquals(-1, in.read());
+
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> content.newInputStream(149998, 3));
+    }
+
+    @Test
+    public void testReset() throws IOException {
+        UndoLogContent content = new UndoLogContent();
+        content.write(bytes(100000));
+        content.reset();
+        Assertions.assertEquals(0, content.size());
+        content.write(bytes(10));
+        Assertions.assertArrayEquals(bytes(10), content.toByteArray());
+    }
+
+    @Test
+    public void testCompressPastThreshold() throws IOException {
+        GzipCompressor compressor = new GzipCompressor();
+        byte[] bytes = bytes(100000);
+
+        UndoLogContent small = new UndoLogContent();
+        UndoLogContentOutputStream out = new UndoLogContentOutputStream(small, compressor, 64 * 1024);
+        out.write(bytes, 0, 64 * 1024);
+        out.close();
+        Assertions.assertFalse(out.isCompressed());
+        Assertions.assertEquals(64 * 1024, small.size());
+
+        UndoLogContent large = new UndoLogContent();
+        out = new UndoLogContentOutputStream(large, compressor, 64 * 1024);
+        out.write(bytes, 0, 60000);
+        out.write(bytes, 60000, bytes.length - 60000);
+        out.close();
+        Assertions.assertTrue(out.isCompressed());
+        Assertions.assertTrue(large.size() < bytes.length);
+        Assertions.assertArrayEquals(bytes, compressor.decompress(large.toByteArray()));
+    }
+
+    @Test
+    public void testNoCompressor() throws IOException {
+        UndoLogContent content = new UndoLogContent();
+        UndoLogContentOutputStream out = new UndoLogContentOutputStream(content, null, 0);
+        out.write(bytes(1000));
+        out.close();
+        Assertions.assertFalse(out.isCompressed());
+        Assertions.assertArrayEquals(bytes(1000), content.toByteArray());
+    }
+}
@@ -79,6 +79,13 @@ public class UndoLogManagerTest {
         assertThat(batchDeleteUndoLogSql).isEqualTo(expectedSqlString);
     }
 
+    @Test
+    public void testToBatchSelectUndoLogSql() {
+        String batchSelectUndoLogSql = AbstractUndoLogManager.toBatchSelectUndoLogSql(APPEND_IN_SIZE);
+        assertThat(batchSelectUndoLogSql)
+                .isEqualTo("SELECT * FROM undo_log WHERE branch_id IN " + THE_APPEND_IN_SIZE_PARAM_STRING);
+    }
+
     @Test
     public void testAppendInParam() {
         StringBuilder sqlBuilder = new StringBuilder();
@@ -20,6 +20,8 @@ import com.alibaba.druid.pool.DruidDataSource;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import org.apache.seata.common.loader.EnhancedServiceLoader;
+import org.apache.seata.common.util.CollectionUtils;
+import org.apache.seata.core.constants.ClientTableColumnsName;
 import org.apache.seata.rm.datasource.ConnectionContext;
 import org.apache.seata.rm.datasource.ConnectionProxy;
 import org.apache.seata.rm.datasource.DataSourceProxy;
@@ -44,15 +46,35 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class MySQLUndoLogManagerTest {
 
@@ -162,6 +184,42 @@ public class MySQLUndoLogManagerTest {
                 () -> undoLogManager.deleteUndoLogByLogCreated(new Date(), 3000, connectionProxy));
     }
 
+    @Test
+    public void testInsertStreamedUndoLogOverMaxAllowedPacket() throws Exception {
+        Map<Long, byte[]> rollbackInfos = new LinkedHashMap<>();
+        Map<Long, String> contexts = new HashMap<>();
+        Connection conn = mock(Connection.class);
+        when(conn.prepareStatement(startsWith("INSERT")))
+                .thenAnswer(invocation -> insertStatement(rollbackInfos, contexts));
+        when(conn.prepareStatement(startsWith("SELECT"))).thenAnswer(invocation -> subQueryStatement(rollbackInfos));
+
+        // the rows are limited to 80% of max_allowed_packet, the content spans two rows and two content chunks
+        Map<String, String> rollbackCtx = new HashMap<>();
+        rollbackCtx.put(UndoLogConstants.MAX_ALLOWED_PACKET, "100000");
+        byte[] bytes = new byte[150000];
+        new Random(7).nextBytes(bytes);
+        UndoLogContent content = new UndoLogContent();
+        content.write(bytes, 0, bytes.length);
+        undoLogManager.insertUndoLogWithNormal("xid", 1L, CollectionUtils.encodeMap(rollbackCtx), content, conn);
+
+        Assertions.assertEquals(2, rollbackInfos.size());
+        Assertions.assertEquals(80000, rollbackInfos.get(1L).length);
+        Assertions.assertTrue(
+                contexts.get(1L).contains(UndoLogConstants.SUB_ID_KEY), "the branch row lists the sub rows");
+
+        ResultSet rs = mock(ResultSet.class);
+        Statement statement = mock(Statement.class);
+        when(statement.getConnection()).thenReturn(conn);
+        when(rs.getStatement()).thenReturn(statement);
+        when(rs.getBytes(ClientTableColumnsName.UNDO_LOG_ROLLBACK_INFO)).thenReturn(rollbackInfos.get(1L));
+        when(rs.getString(ClientTableColumnsName.UNDO_LOG_CONTEXT)).thenReturn(contexts.get(1L));
+        when(rs.getLong(ClientTableColumnsName.UNDO_LOG_BRANCH_XID)).thenReturn(1L);
+        when(rs.getString(ClientTableColumnsName.UNDO_LOG_XID)).thenReturn("xid");
+        Method method = AbstractUndoLogManager.class.getDeclaredMethod("getRollbackInfo", ResultSet.class);
+        method.setAccessible(true);
+        Assertions.assertArrayEquals(bytes, (byte[]) method.invoke(undoLogManager, rs));
+    }
+
     @Test
     public void testSerializer() {
         MySQLUndoLogManager.setCurrentSerializer("jackson");
@@ -233,6 +291,51 @@ public class MySQLUndoLogManagerTest {
         Assertions.assertDoesNotThrow(() -> undoLogManager.undo(dataSourceProxy, "xid", 1L));
     }
 
+    private static PreparedStatement insertStatement(Map<Long, byte[]> rollbackInfos, Map<Long, String> contexts)
+            throws SQLException {
+        PreparedStatement pst = mock(PreparedStatement.class);
+        long[] branchId = new long[1];
+        String[] context = new String[1];
+        byte[][] rollbackInfo = new byte[1][];
+        doAnswer(invocation -> branchId[0] = invocation.getArgument(1)).when(pst).setLong(eq(1), anyLong());
+        doAnswer(invocation -> context[0] = invocation.getArgument(1)).when(pst).setString(eq(3), anyString());
+        doAnswer(invocation -> rollbackInfo[0] = readFully(invocation.getArgument(1), invocation.getArgument(2)))
+                .when(pst)
+                .setBinaryStream(eq(4), any(InputStream.class), anyInt());
+        when(pst.executeUpdate()).thenAnswer(invocation -> {
+            rollbackInfos.put(branchId[0], rollbackInfo[0]);
+            contexts.put(branchId[0], context[0]);
+            return 1;
+        });
+        return pst;
+    }
+
+    private static PreparedStatement subQueryStatement(Map<Long, byte[]> rollbackInfos) throws SQLException {
+        PreparedStatement pst = mock(PreparedStatement.class);
+        List<Long> subIds = new ArrayList<>();
+        doAnswer(invocation -> subIds.add(invocation.getArgument(1))).when(pst).setLong(anyInt(), anyLong());
+        when(pst.executeQuery()).thenAnswer(invocation -> {
+            ResultSet rs = mock(ResultSet.class);
+            int[] row = {-1};
+            when(rs.next()).thenAnswer(next -> ++row[0] < subIds.size());
+            when(rs.getBytes(ClientTableColumnsName.UNDO_LOG_ROLLBACK_INFO))
+                    .thenAnswer(getBytes -> rollbackInfos.get(subIds.get(row[0])));
+            return rs;
+        });
+        return pst;
+    }
+
+    private static byte[] readFully(InputStream in, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        int pos = 0;
+        int n;
+        while (pos < length && (n = in.read(bytes, pos, length - pos)) > 0) {
+            pos += n;
+        }
+        Assertions.assertEquals(length, pos);
+        return bytes;
+    }
+
     private SQLUndoLog getUndoLogItem(int size) throws NoSuchFieldException, IllegalAccessException {
         SQLUndoLog sqlUndoLog = new SQLUndoLog();
         sqlUndoLog.setTableName("table_plain_executor_test");
@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.rm.datasource.undo.parser;
+
+import org.apache.seata.common.loader.EnhancedServiceLoader;
+import org.apache.seata.rm.datasource.DataCompareUtils;
+import org.apache.seata.rm.datasource.sql.serial.SerialArray;
+import org.apache.seata.rm.datasource.sql.struct.Field;
+import org.apache.seata.rm.datasource.sql.struct.KeyType;
+import org.apache.seata.rm.datasource.sql.struct.Row;
+import org.apache.seata.rm.datasource.sql.struct.TableRecords;
+import org.apache.seata.rm.datasource.undo.BaseUndoLogParserTest;
+import org.apache.seata.rm.datasource.undo.BranchUndoLog;
+import org.apache.seata.rm.datasource.undo.SQLUndoLog;
+import org.apache.seata.rm.datasource.undo.UndoLogParser;
+import org.apache.seata.sqlparser.SQLType;
+import org.apache.seata.sqlparser.struct.TableMeta;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.rowset.serial.SerialBlob;
+import javax.sql.rowset.serial.SerialClob;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.JDBCType;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+public class CompactUndoLogParserTest extends BaseUndoLogParserTest {
+
+    CompactUndoLogParser parser =
+            (CompactUndoLogParser) EnhancedServiceLoader.load(UndoLogParser.class, CompactUndoLogParser.NAME);
+
+    @Override
+    public UndoLogParser getParser() {
+        return parser;
+    }
+
+    @Test
+    public void testValueTypes() throws SQLException {
+        Object[] values = {
+            "hello",
+            Integer.MIN_VALUE,
+            Long.MAX_VALUE,
+            (short) -7,
+            (byte) 3,
+            true,
+            999999.999999999,
+            1.5f,
+            new BigDecimal("-55555555555555555555.55555555555555555555"),
+            new BigInteger("123456789012345678901234567890"),
+            Timestamp.valueOf("2019-08-10 10:49:26.926554"),
+            new Timestamp(-1L),
+            java.sql.Date.valueOf("2021-05-18"),
+            Time.valueOf("17:23:22"),
+            new Date(1621329802111L),
+            new byte[] {1, 2, 3},
+            new SerialBlob("hello".getBytes()),
+            new SerialClob("hello".toCharArray()),
+            LocalDateTime.of(2021, 5, 18, 17, 23, 22, 222333000),
+            LocalDate.of(1969, 12, 31),
+            LocalTime.of(23, 59, 59, 999999999),
+            UUID.fromString("123e4567-e89b-12d3-a456-426614174000")
+        };
+        for (Object value : values) {
+            Field field = new Field("col", JDBCType.OTHER.getVendorTypeNumber(), value);
+            Field decoded = roundTrip(Collections.singletonList(row(field))).get(0).getFields().get(0);
+            Assertions.assertTrue(DataCompareUtils.isFieldEquals(field, decoded).getResult(), value.toString());
+            Assertions.assertEquals(value.getClass(), decoded.getValue().getClass());
+        }
+    }
+
+    @Test
+    public void testArray() throws SQLException {
+        SerialArray array = new SerialArray();
+        array.setBaseType(JDBCType.VARCHAR.getVendorTypeNumber());
+        array.setBaseTypeName("varchar");
+        array.setElements(new Object[] {"a", null, "b", 7L});
+        SerialArray empty = new SerialArray();
+        empty.setBaseType(JDBCType.INTEGER.getVendorTypeNumber());
+        empty.setBaseTypeName("int4");
+        empty.setElements(new Object[0]);
+        for (SerialArray value : Arrays.asList(array, empty)) {
+            Field field = new Field("col", JDBCType.ARRAY.getVendorTypeNumber(), value);
+            Field decoded = roundTrip(Collections.singletonList(row(field))).get(0).getFields().get(0);
+            Assertions.assertEquals(SerialArray.class, decoded.getValue().getClass());
+            SerialArray decodedArray = (SerialArray) decoded.getValue();
+            Assertions.assertEquals(value.getBaseType(), decodedArray.getBaseType());
+            Assertions.assertEquals(value.getBaseTypeName(), decodedArray.getBaseTypeName());
+            Assertions.assertArrayEquals(value.getElements(), decodedArray.getElements());
+            Assertions.assertEquals(value, decodedArray);
+        }
+    }
+
+    @Test
+    public void testDmdbTimestamp() throws Exception {
+        Class<?> dmdbTimestampClass = Class.forName("dm.jdbc.driver.DmdbTimestamp");
+        Method valueOfMethod = dmdbTimestampClass.getMethod("valueOf", ZonedDateTime.class);
+        Method toInstantMethod = dmdbTimestampClass.getMethod("toInstant");
+        Instant[] instants = {
+            Instant.ofEpochMilli(1721985847000L), Instant.ofEpochMilli(1721985847000L).plusNanos(12345L)
+        };
+        for (Instant instant : instants) {
+            Object dmdbTimestamp = valueOfMethod.invoke(null, instant.atZone(ZoneId.systemDefault()));
+            Field field = new Field("col", JDBCType.TIMESTAMP.getVendorTypeNumber(), dmdbTimestamp);
+            Field decoded = roundTrip(Collections.singletonList(row(field))).get(0).getFields().get(0);
+            Assertions.assertEquals(dmdbTimestampClass, decoded.getValue().getClass());
+            Assertions.assertEquals(toInstantMethod.invoke(dmdbTimestamp), toInstantMethod.invoke(decoded.getValue()));
+        }
+    }
+
+    @Test
+    public void testNullsMixedTypesAndLayouts() {
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Field id = new Field("id", JDBCType.BIGINT.getVendorTypeNumber(), (long) i);
+            id.setKeyType(KeyType.PRIMARY_KEY);
+            Field name = new Field("name", JDBCType.VARCHAR.getVendorTypeNumber(), i % 3 == 0 ? null : "n" + (i % 2));
+            Field mixed = new Field("mixed", JDBCType.OTHER.getVendorTypeNumber(), i % 2 == 0 ? i : "s" + i);
+            Field nothing = new Field("nothing", JDBCType.VARCHAR.getVendorTypeNumber(), null);
+            rows.add(i < 15 ? row(id, name, mixed, nothing) : row(id, name));
+        }
+        List<Row> decoded = roundTrip(rows);
+        Assertions.assertEquals(rows.size(), decoded.size());
+        for (int i = 0; i < rows.size(); i++) {
+            List<Field> fields = rows.get(i).getFields();
+            List<Field> decodedFields = decoded.get(i).getFields();
+            Assertions.assertEquals(fields.size(), decodedFields.size());
+            for (int j = 0; j < fields.size(); j++) {
+                Assertions.assertEquals(fields.get(j).getName(), decodedFields.get(j).getName());
+                Assertions.assertEquals(fields.get(j).getKeyType(), decodedFields.get(j).getKeyType());
+                Assertions.assertEquals(fields.get(j).getType(), decodedFields.get(j).getType());
+                Assertions.assertEquals(fields.get(j).getValue(), decodedFields.get(j).getValue());
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyAndNullImages() {
+        BranchUndoLog branchUndoLog = new BranchUndoLog();
+        SQLUndoLog sqlUndoLog = new SQLUndoLog();
+        sqlUndoLog.setSqlType(SQLType.INSERT);
+        sqlUndoLog.setTableName("t");
+        sqlUndoLog.setBeforeImage(TableRecords.empty(new TableMeta()));
+        branchUndoLog.setSqlUndoLogs(Collections.singletonList(sqlUndoLog));
+
+        SQLUndoLog decoded = parser.decode(parser.encode(branchUndoLog)).getSqlUndoLogs().get(0);
+        Assertions.assertEquals(SQLType.INSERT, decoded.getSqlType());
+        Assertions.assertTrue(decoded.getBeforeImage() instanceof TableRecords.EmptyTableRecords);
+        Assertions.assertNull(decoded.getAfterImage());
+    }
+
+    @Test
+    public void testRejectUnknownClasses() {
+        Field field = new Field("col", JDBCType.JAVA_OBJECT.getVendorTypeNumber(), new Custom());
+        Assertions.assertThrows(RuntimeException.class, () -> roundTrip(Collections.singletonList(row(field))));
+    }
+
+    @Test
+    public void testRejectMalformed() {
+        byte[] bytes = parser.encode(log(Collections.singletonList(
+                row(new Field("id", JDBCType.VARCHAR.getVendorTypeNumber(), "abc")))));
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> parser.decode(Arrays.copyOf(bytes, bytes.length - 2)));
+        bytes[0] = 2;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> parser.decode(bytes));
+    }
+
+    private List<Row> roundTrip(List<Row> rows) {
+        BranchUndoLog decoded = parser.decode(parser.encode(log(rows)));
+        return decoded.getSqlUndoLogs().get(0).getAfterImage().getRows();
+    }
+
+    private static BranchUndoLog log(List<Row> rows) {
+        TableRecords afterImage = new TableRecords();
+        afterImage.setTableName("t");
+        afterImage.setRows(rows);
+        SQLUndoLog sqlUndoLog = new SQLUndoLog();
+        sqlUndoLog.setSqlType(SQLType.UPDATE);
+        sqlUndoLog.setTableName("t");
+        sqlUndoLog.setAfterImage(afterImage);
+        BranchUndoLog branchUndoLog = new BranchUndoLog();
+        branchUndoLog.setXid("192.168.0.1:8091:123456");
+        branchUndoLog.setBranchId(123457);
+        branchUndoLog.setSqlUndoLogs(Collections.singletonList(sqlUndoLog));
+        return branchUndoLog;
+    }
+
+    private static Row row(Field... fields) {
+        Row row = new Row();
+        for (Field field : fields) {
+            row.add(field);
+        }
+        return row;
+    }
+
+    private static class Custom implements java.io.Serializable {
+        private static final long serialVersionUID = 1L;
+    }
+}
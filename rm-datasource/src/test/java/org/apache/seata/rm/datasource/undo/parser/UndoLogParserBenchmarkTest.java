@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.rm.datasource.undo.parser;
+
+import org.apache.seata.common.loader.EnhancedServiceLoader;
+import org.apache.seata.rm.datasource.sql.struct.Field;
+import org.apache.seata.rm.datasource.sql.struct.KeyType;
+import org.apache.seata.rm.datasource.sql.struct.Row;
+import org.apache.seata.rm.datasource.sql.struct.TableRecords;
+import org.apache.seata.rm.datasource.undo.BranchUndoLog;
+import org.apache.seata.rm.datasource.undo.SQLUndoLog;
+import org.apache.seata.rm.datasource.undo.UndoLogParser;
+import org.apache.seata.sqlparser.SQLType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.sql.JDBCType;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Throughput and size of every available undo log parser on before/after images shaped like an order table,
+ * to help pick client.undo.logSerialization.
+ * <p>
+ * Each parser runs encodes and decodes for a fixed time after a warm up and the results are logged
+ * as a table; the numbers are indicative only, the assertions just guard the round trip.
+ * Run with -DbenchmarkCaseEnabled=true.
+ */
+@EnabledIfSystemProperty(named = "benchmarkCaseEnabled", matches = "true")
+public class UndoLogParserBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UndoLogParserBenchmarkTest.class);
+
+    private static final long WARM_UP_MILLIS = 100;
+
+    private static final long MEASURE_MILLIS = 300;
+
+    private static final String[] PARSERS = {
+        JacksonUndoLogParser.NAME,
+        FastjsonUndoLogParser.NAME,
+        Fastjson2UndoLogParser.NAME,
+        KryoUndoLogParser.NAME,
+        ProtostuffUndoLogParser.NAME,
+        FuryUndoLogParser.NAME,
+        CompactUndoLogParser.NAME
+    };
+
+    @Test
+    public void benchmarkSingleRow() {
+        benchmark("single row update", undoLog(1));
+    }
+
+    @Test
+    public void benchmarkBatch() {
+        benchmark("500 rows update", undoLog(500));
+    }
+
+    private static void benchmark(String workload, BranchUndoLog branchUndoLog) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(
+                "%n%s%n%-12s %10s %14s %14s%n", workload, "parser", "size", "encode ops/s", "decode ops/s"));
+        int rows = branchUndoLog.getSqlUndoLogs().get(0).getAfterImage().size();
+        for (String name : PARSERS) {
+            UndoLogParser parser;
+            try {
+                parser = EnhancedServiceLoader.load(UndoLogParser.class, name);
+            } catch (Throwable e) {
+                report.append(String.format("%-12s %10s%n", name, "unavailable"));
+                continue;
+            }
+            byte[] encoded = parser.encode(branchUndoLog);
+            BranchUndoLog decoded = parser.decode(encoded);
+            Assertions.assertEquals(
+                    rows, decoded.getSqlUndoLogs().get(0).getAfterImage().getRows().size(), name);
+
+            measure(WARM_UP_MILLIS, () -> parser.encode(branchUndoLog));
+            double encodeRate = measure(MEASURE_MILLIS, () -> parser.encode(branchUndoLog));
+            measure(WARM_UP_MILLIS, () -> parser.decode(encoded));
+            double decodeRate = measure(MEASURE_MILLIS, () -> parser.decode(encoded));
+            report.append(String.format("%-12s %10d %14.0f %14.0f%n", name, encoded.length, encodeRate, decodeRate));
+        }
+        LOGGER.info("{}", report);
+    }
+
+    /**
+     * @return operations per second
+     */
+    private static double measure(long millis, Runnable operation) {
+        long start = System.nanoTime();
+        long deadline = start + millis * 1_000_000L;
+        long ops = 0;
+        long now;
+        do {
+            operation.run();
+            ops++;
+        } while ((now = System.nanoTime()) < deadline);
+        return ops * 1_000_000_000D / (now - start);
+    }
+
+    private static BranchUndoLog undoLog(int rows) {
+        Random random = new Random(7);
+        TableRecords beforeImage = new TableRecords();
+        beforeImage.setTableName("order_tbl");
+        TableRecords afterImage = new TableRecords();
+        afterImage.setTableName("order_tbl");
+        long now = Timestamp.valueOf("2024-06-01 10:00:00").getTime();
+        for (int i = 0; i < rows; i++) {
+            long id = 100000000L + i;
+            String userId = "U" + random.nextInt(1000);
+            String commodityCode = "C" + random.nextInt(20);
+            int count = random.nextInt(100);
+            BigDecimal money = BigDecimal.valueOf(random.nextInt(100000), 2);
+            Timestamp created = new Timestamp(now + random.nextInt(3600_000));
+            String remark = random.nextInt(4) == 0 ? "gift wrap" : null;
+            beforeImage.add(orderRow(id, userId, commodityCode, count, money, 0, created, remark));
+            afterImage.add(orderRow(id, userId, commodityCode, count, money, 1, created, remark));
+        }
+        SQLUndoLog sqlUndoLog = new SQLUndoLog();
+        sqlUndoLog.setSqlType(SQLType.UPDATE);
+        sqlUndoLog.setTableName("order_tbl");
+        sqlUndoLog.setBeforeImage(beforeImage);
+        sqlUndoLog.setAfterImage(afterImage);
+        BranchUndoLog branchUndoLog = new BranchUndoLog();
+        branchUndoLog.setXid("192.168.0.1:8091:641789252");
+        branchUndoLog.setBranchId(641789253L);
+        branchUndoLog.setSqlUndoLogs(new ArrayList<>(Collections.singletonList(sqlUndoLog)));
+        return branchUndoLog;
+    }
+
+    private static Row orderRow(
+            long id,
+            String userId,
+            String commodityCode,
+            int count,
+            BigDecimal money,
+            int status,
+            Timestamp created,
+            String remark) {
+        Row row = new Row();
+        Field pk = new Field("id", JDBCType.BIGINT.getVendorTypeNumber(), id);
+        pk.setKeyType(KeyType.PRIMARY_KEY);
+        row.add(pk);
+        row.add(new Field("user_id", JDBCType.VARCHAR.getVendorTypeNumber(), userId));
+        row.add(new Field("commodity_code", JDBCType.VARCHAR.getVendorTypeNumber(), commodityCode));
+        row.add(new Field("count", JDBCType.INTEGER.getVendorTypeNumber(), count));
+        row.add(new Field("money", JDBCType.DECIMAL.getVendorTypeNumber(), money));
+        row.add(new Field("status", JDBCType.TINYINT.getVendorTypeNumber(), status));
+        row.add(new Field("gmt_create", JDBCType.TIMESTAMP.getVendorTypeNumber(), created));
+        row.add(new Field("remark", JDBCType.VARCHAR.getVendorTypeNumber(), remark));
+        return row;
+    }
+}
@@ -58,6 +58,18 @@ public abstract class AbstractResourceManager implements ResourceManager {
 
     private static boolean throwDataSizeExp =
             CONFIG.getBoolean(ConfigurationKeys.RM_APPLICATION_DATA_SIZE_CHECK, false);
+
+    private static final boolean COMPACT_LOCK_KEY_ENABLE = CONFIG.getBoolean(
+            ConfigurationKeys.CLIENT_COMPACT_LOCK_KEY_ENABLE, DefaultValues.DEFAULT_CLIENT_COMPACT_LOCK_KEY_ENABLE);
+
+    /**
+     * Whether lock keys may be sent in the compact binary form, only after every TC registered with supports it.
+     *
+     * @return the boolean
+     */
+    protected static boolean isCompactLockKeyEnabled() {
+        return COMPACT_LOCK_KEY_ENABLE && RmNettyRemotingClient.getInstance().isCompactLockKeySupported();
+    }
     /**
      * registry branch record
      *
@@ -84,6 +96,7 @@ public abstract class AbstractResourceManager implements ResourceManager {
             BranchRegisterRequest request = new BranchRegisterRequest();
             request.setXid(xid);
             request.setLockKey(lockKeys);
+            request.setCompactLockKey(isCompactLockKeyEnabled());
             request.setResourceId(resourceId);
             request.setBranchType(branchType);
             request.setApplicationData(applicationData);
@@ -22,6 +22,8 @@ import org.springframework.stereotype.Component;
 
 import static org.apache.seata.common.DefaultValues.DEFAULT_APPLICATION_DATA_SIZE_LIMIT;
 import static org.apache.seata.common.DefaultValues.DEFAULT_CLIENT_ASYNC_COMMIT_BUFFER_LIMIT;
+import static org.apache.seata.common.DefaultValues.DEFAULT_CLIENT_COMPACT_LOCK_KEY_ENABLE;
+import static org.apache.seata.common.DefaultValues.DEFAULT_CLIENT_PIPELINE_COMMIT_ENABLE;
 import static org.apache.seata.common.DefaultValues.DEFAULT_CLIENT_REPORT_RETRY_COUNT;
 import static org.apache.seata.common.DefaultValues.DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE;
 import static org.apache.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_BRANCH_REGISTER_ENABLE;
@@ -29,6 +31,8 @@ import static org.apache.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_COMPENSA
 import static org.apache.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_RETRY_PERSIST_MODE_UPDATE;
 import static org.apache.seata.common.DefaultValues.DEFAULT_CLIENT_TABLE_META_CHECK_ENABLE;
 import static org.apache.seata.common.DefaultValues.DEFAULT_SAGA_JSON_PARSER;
+import static org.apache.seata.common.DefaultValues.DEFAULT_SQL_PARSER_CACHE_SIZE;
+import static org.apache.seata.common.DefaultValues.DEFAULT_SQL_PARSER_CACHE_WEIGHT;
 import static org.apache.seata.common.DefaultValues.DEFAULT_TABLE_META_CHECKER_INTERVAL;
 import static org.apache.seata.common.DefaultValues.DEFAULT_XA_BRANCH_EXECUTION_TIMEOUT;
 import static org.apache.seata.common.DefaultValues.DEFAULT_XA_CONNECTION_TWO_PHASE_HOLD_TIMEOUT;
@@ -43,6 +47,8 @@ public class RmProperties {
     private boolean tableMetaCheckEnable = DEFAULT_CLIENT_TABLE_META_CHECK_ENABLE;
     private long tableMetaCheckerInterval = DEFAULT_TABLE_META_CHECKER_INTERVAL;
     private boolean reportSuccessEnable = DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE;
+    private boolean pipelineCommitEnable = DEFAULT_CLIENT_PIPELINE_COMMIT_ENABLE;
+    private boolean compactLockKeyEnable = DEFAULT_CLIENT_COMPACT_LOCK_KEY_ENABLE;
     private boolean sagaBranchRegisterEnable = DEFAULT_CLIENT_SAGA_BRANCH_REGISTER_ENABLE;
     private String sagaJsonParser = DEFAULT_SAGA_JSON_PARSER;
     private boolean sagaRetryPersistModeUpdate = DEFAULT_CLIENT_SAGA_RETRY_PERSIST_MODE_UPDATE;
@@ -51,6 +57,8 @@ public class RmProperties {
     private int branchExecutionTimeoutXA = DEFAULT_XA_BRANCH_EXECUTION_TIMEOUT;
     private int connectionTwoPhaseHoldTimeoutXA = DEFAULT_XA_CONNECTION_TWO_PHASE_HOLD_TIMEOUT;
     private String sqlParserType = SqlParserType.SQL_PARSER_TYPE_DRUID;
+    private int sqlParserCacheSize = DEFAULT_SQL_PARSER_CACHE_SIZE;
+    private long sqlParserCacheWeight = DEFAULT_SQL_PARSER_CACHE_WEIGHT;
 
     private Boolean applicationDataLimitCheck = false;
     private Integer applicationDataLimit = DEFAULT_APPLICATION_DATA_SIZE_LIMIT;
@@ -91,6 +99,24 @@ public class RmProperties {
         return this;
     }
 
+    public boolean isPipelineCommitEnable() {
+        return pipelineCommitEnable;
+    }
+
+    public RmProperties setPipelineCommitEnable(boolean pipelineCommitEnable) {
+        this.pipelineCommitEnable = pipelineCommitEnable;
+        return this;
+    }
+
+    public boolean isCompactLockKeyEnable() {
+        return compactLockKeyEnable;
+    }
+
+    public RmProperties setCompactLockKeyEnable(boolean compactLockKeyEnable) {
+        this.compactLockKeyEnable = compactLockKeyEnable;
+        return this;
+    }
+
     public boolean isSagaBranchRegisterEnable() {
         return sagaBranchRegisterEnable;
     }
@@ -149,6 +175,24 @@ public class RmProperties {
         return this;
     }
 
+    public int getSqlParserCacheSize() {
+        return sqlParserCacheSize;
+    }
+
+    public RmProperties setSqlParserCacheSize(int sqlParserCacheSize) {
+        this.sqlParserCacheSize = sqlParserCacheSize;
+        return this;
+    }
+
+    public long getSqlParserCacheWeight() {
+        return sqlParserCacheWeight;
+    }
+
+    public RmProperties setSqlParserCacheWeight(long sqlParserCacheWeight) {
+        this.sqlParserCacheWeight = sqlParserCacheWeight;
+        return this;
+    }
+
     public int getBranchExecutionTimeoutXA() {
         return branchExecutionTimeoutXA;
     }
@@ -22,6 +22,10 @@ import org.springframework.stereotype.Component;
 import static org.apache.seata.common.DefaultValues.DEFAULT_ONLY_CARE_UPDATE_COLUMNS;
 import static org.apache.seata.common.DefaultValues.DEFAULT_TRANSACTION_UNDO_DATA_VALIDATION;
 import static org.apache.seata.common.DefaultValues.DEFAULT_TRANSACTION_UNDO_LOG_SERIALIZATION;
+import static org.apache.seata.common.DefaultValues.DEFAULT_TRANSACTION_UNDO_BATCH_SIZE;
+import static org.apache.seata.common.DefaultValues.DEFAULT_TRANSACTION_UNDO_FETCH_SIZE;
+import static org.apache.seata.common.DefaultValues.DEFAULT_TRANSACTION_UNDO_PARALLELISM;
+import static org.apache.seata.common.DefaultValues.DEFAULT_TRANSACTION_UNDO_STREAM_WRITE;
 import static org.apache.seata.common.DefaultValues.DEFAULT_TRANSACTION_UNDO_LOG_TABLE;
 import static org.apache.seata.spring.boot.autoconfigure.StarterConstants.UNDO_PREFIX;
 
@@ -32,6 +36,10 @@ public class UndoProperties {
     private String logSerialization = DEFAULT_TRANSACTION_UNDO_LOG_SERIALIZATION;
     private String logTable = DEFAULT_TRANSACTION_UNDO_LOG_TABLE;
     private boolean onlyCareUpdateColumns = DEFAULT_ONLY_CARE_UPDATE_COLUMNS;
+    private int batchSize = DEFAULT_TRANSACTION_UNDO_BATCH_SIZE;
+    private int parallelism = DEFAULT_TRANSACTION_UNDO_PARALLELISM;
+    private int fetchSize = DEFAULT_TRANSACTION_UNDO_FETCH_SIZE;
+    private boolean streamWrite = DEFAULT_TRANSACTION_UNDO_STREAM_WRITE;
 
     public boolean isDataValidation() {
         return dataValidation;
@@ -68,4 +76,40 @@ public class UndoProperties {
         this.onlyCareUpdateColumns = onlyCareUpdateColumns;
         return this;
     }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public UndoProperties setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public UndoProperties setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public UndoProperties setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    public boolean isStreamWrite() {
+        return streamWrite;
+    }
+
+    public UndoProperties setStreamWrite(boolean streamWrite) {
+        this.streamWrite = streamWrite;
+        return this;
+    }
 }
@@ -36,6 +36,12 @@ public class RmPropertiesTest {
         rmProperties.setReportSuccessEnable(true);
         Assertions.assertTrue(rmProperties.isReportSuccessEnable());
 
+        rmProperties.setPipelineCommitEnable(true);
+        Assertions.assertTrue(rmProperties.isPipelineCommitEnable());
+
+        rmProperties.setCompactLockKeyEnable(true);
+        Assertions.assertTrue(rmProperties.isCompactLockKeyEnable());
+
         rmProperties.setSagaBranchRegisterEnable(true);
         Assertions.assertTrue(rmProperties.isSagaBranchRegisterEnable());
 
@@ -57,6 +63,12 @@ public class RmPropertiesTest {
         rmProperties.setSqlParserType("type");
         Assertions.assertEquals("type", rmProperties.getSqlParserType());
 
+        rmProperties.setSqlParserCacheSize(1);
+        Assertions.assertEquals(1, rmProperties.getSqlParserCacheSize());
+
+        rmProperties.setSqlParserCacheWeight(1L);
+        Assertions.assertEquals(1L, rmProperties.getSqlParserCacheWeight());
+
         rmProperties.setBranchExecutionTimeoutXA(1);
         Assertions.assertEquals(1, rmProperties.getBranchExecutionTimeoutXA());
 
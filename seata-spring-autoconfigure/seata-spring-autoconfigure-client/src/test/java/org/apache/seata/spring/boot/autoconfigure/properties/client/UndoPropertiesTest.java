@@ -35,5 +35,17 @@ public class UndoPropertiesTest {
 
         undoProperties.setOnlyCareUpdateColumns(true);
         Assertions.assertTrue(undoProperties.isOnlyCareUpdateColumns());
+
+        undoProperties.setBatchSize(1);
+        Assertions.assertEquals(1, undoProperties.getBatchSize());
+
+        undoProperties.setParallelism(8);
+        Assertions.assertEquals(8, undoProperties.getParallelism());
+
+        undoProperties.setFetchSize(16);
+        Assertions.assertEquals(16, undoProperties.getFetchSize());
+
+        undoProperties.setStreamWrite(true);
+        Assertions.assertTrue(undoProperties.isStreamWrite());
     }
 }
@@ -22,6 +22,7 @@ import org.springframework.stereotype.Component;
 import static org.apache.seata.common.DefaultValues.DEFAULT_ENABLE_CLIENT_BATCH_SEND_REQUEST;
 import static org.apache.seata.common.DefaultValues.DEFAULT_ENABLE_CLIENT_USE_SHARED_EVENT_LOOP;
 import static org.apache.seata.common.DefaultValues.DEFAULT_ENABLE_RM_CLIENT_BATCH_SEND_REQUEST;
+import static org.apache.seata.common.DefaultValues.DEFAULT_ENABLE_TC_SERVER_BATCH_SEND_REQUEST;
 import static org.apache.seata.common.DefaultValues.DEFAULT_ENABLE_TC_SERVER_BATCH_SEND_RESPONSE;
 import static org.apache.seata.common.DefaultValues.DEFAULT_ENABLE_TM_CLIENT_BATCH_SEND_REQUEST;
 import static org.apache.seata.common.DefaultValues.DEFAULT_HTTP_POOL_KEEP_ALIVE_TIME;
@@ -40,6 +41,8 @@ import static org.apache.seata.common.DefaultValues.DEFAULT_SERVER_CHANNEL_MAX_I
 import static org.apache.seata.common.DefaultValues.DEFAULT_SERVER_SOCKET_RESV_BUF_SIZE;
 import static org.apache.seata.common.DefaultValues.DEFAULT_SERVER_SOCKET_SEND_BUF_SIZE;
 import static org.apache.seata.common.DefaultValues.DEFAULT_SO_BACK_LOG_SIZE;
+import static org.apache.seata.common.DefaultValues.DEFAULT_TC_SERVER_BATCH_SEND_REQUEST_MAX_IN_FLIGHT;
+import static org.apache.seata.common.DefaultValues.DEFAULT_TC_SERVER_BATCH_SEND_REQUEST_MAX_SIZE;
 import static org.apache.seata.common.DefaultValues.DEFAULT_TRANSPORT_HEARTBEAT;
 import static org.apache.seata.common.DefaultValues.DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK;
 import static org.apache.seata.common.DefaultValues.DEFAULT_WRITE_BUFFER_LOW_WATER_MARK;
@@ -91,6 +94,21 @@ public class TransportProperties {
      */
     private boolean enableTcServerBatchSendResponse = DEFAULT_ENABLE_TC_SERVER_BATCH_SEND_RESPONSE;
 
+    /**
+     * enable TC server batch send request
+     */
+    private boolean enableTcServerBatchSendRequest = DEFAULT_ENABLE_TC_SERVER_BATCH_SEND_REQUEST;
+
+    /**
+     * max number of requests merged into one TC server batch request
+     */
+    private int tcServerBatchSendRequestMaxSize = DEFAULT_TC_SERVER_BATCH_SEND_REQUEST_MAX_SIZE;
+
+    /**
+     * max number of TC server batch requests in flight on one channel
+     */
+    private int tcServerBatchSendRequestMaxInFlight = DEFAULT_TC_SERVER_BATCH_SEND_REQUEST_MAX_IN_FLIGHT;
+
     /**
      * rpcRmRequestTimeout
      */
@@ -224,6 +242,30 @@ public class TransportProperties {
         this.enableTcServerBatchSendResponse = enableTcServerBatchSendResponse;
     }
 
+    public boolean isEnableTcServerBatchSendRequest() {
+        return enableTcServerBatchSendRequest;
+    }
+
+    public void setEnableTcServerBatchSendRequest(boolean enableTcServerBatchSendRequest) {
+        this.enableTcServerBatchSendRequest = enableTcServerBatchSendRequest;
+    }
+
+    public int getTcServerBatchSendRequestMaxSize() {
+        return tcServerBatchSendRequestMaxSize;
+    }
+
+    public void setTcServerBatchSendRequestMaxSize(int tcServerBatchSendRequestMaxSize) {
+        this.tcServerBatchSendRequestMaxSize = tcServerBatchSendRequestMaxSize;
+    }
+
+    public int getTcServerBatchSendRequestMaxInFlight() {
+        return tcServerBatchSendRequestMaxInFlight;
+    }
+
+    public void setTcServerBatchSendRequestMaxInFlight(int tcServerBatchSendRequestMaxInFlight) {
+        this.tcServerBatchSendRequestMaxInFlight = tcServerBatchSendRequestMaxInFlight;
+    }
+
     public long getRpcRmRequestTimeout() {
         return rpcRmRequestTimeout;
     }
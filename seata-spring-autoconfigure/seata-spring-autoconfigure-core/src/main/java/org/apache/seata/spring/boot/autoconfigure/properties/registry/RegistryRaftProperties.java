@@ -34,6 +34,8 @@ public class RegistryRaftProperties {
 
     private Long tokenValidityInMilliseconds = 29 * 60 * 1000L;
 
+    private boolean followerRead = false;
+
     public Long getMetadataMaxAgeMs() {
         return metadataMaxAgeMs;
     }
@@ -66,6 +68,14 @@ public class RegistryRaftProperties {
         this.tokenValidityInMilliseconds = tokenValidityInMilliseconds;
     }
 
+    public boolean isFollowerRead() {
+        return followerRead;
+    }
+
+    public void setFollowerRead(boolean followerRead) {
+        this.followerRead = followerRead;
+    }
+
     public String getServerAddr() {
         return serverAddr;
     }
@@ -29,11 +29,13 @@ public class RegistryRaftPropertiesTest {
         registryRaftProperties.setPassword("pwd");
         registryRaftProperties.setMetadataMaxAgeMs(1L);
         registryRaftProperties.setTokenValidityInMilliseconds(1L);
+        registryRaftProperties.setFollowerRead(true);
 
         Assertions.assertEquals("server", registryRaftProperties.getServerAddr());
         Assertions.assertEquals("username", registryRaftProperties.getUsername());
         Assertions.assertEquals("pwd", registryRaftProperties.getPassword());
         Assertions.assertEquals(1L, registryRaftProperties.getMetadataMaxAgeMs());
         Assertions.assertEquals(1L, registryRaftProperties.getTokenValidityInMilliseconds());
+        Assertions.assertTrue(registryRaftProperties.isFollowerRead());
     }
 }
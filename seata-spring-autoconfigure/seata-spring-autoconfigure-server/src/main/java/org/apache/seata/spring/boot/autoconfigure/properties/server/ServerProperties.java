@@ -31,6 +31,10 @@ public class ServerProperties {
     private Boolean enableCheckAuth = true;
     private Boolean enableParallelRequestHandle = true;
     private Boolean enableParallelHandleBranch = false;
+    private Integer parallelHandleBranchPoolSize = 0;
+    private Integer parallelHandleBranchQueueSize = 10000;
+    private Long lockWaitTimeout = 0L;
+    private Integer lockWaitMaxWaiters = 256;
     private Integer retryDeadThreshold = 70000;
     private Integer servicePort;
     private Integer xaerNotaRetryTimeout = 60000;
@@ -125,6 +129,38 @@ public class ServerProperties {
         this.enableParallelHandleBranch = enableParallelHandleBranch;
     }
 
+    public Integer getParallelHandleBranchPoolSize() {
+        return parallelHandleBranchPoolSize;
+    }
+
+    public void setParallelHandleBranchPoolSize(Integer parallelHandleBranchPoolSize) {
+        this.parallelHandleBranchPoolSize = parallelHandleBranchPoolSize;
+    }
+
+    public Integer getParallelHandleBranchQueueSize() {
+        return parallelHandleBranchQueueSize;
+    }
+
+    public void setParallelHandleBranchQueueSize(Integer parallelHandleBranchQueueSize) {
+        this.parallelHandleBranchQueueSize = parallelHandleBranchQueueSize;
+    }
+
+    public Long getLockWaitTimeout() {
+        return lockWaitTimeout;
+    }
+
+    public void setLockWaitTimeout(Long lockWaitTimeout) {
+        this.lockWaitTimeout = lockWaitTimeout;
+    }
+
+    public Integer getLockWaitMaxWaiters() {
+        return lockWaitMaxWaiters;
+    }
+
+    public void setLockWaitMaxWaiters(Integer lockWaitMaxWaiters) {
+        this.lockWaitMaxWaiters = lockWaitMaxWaiters;
+    }
+
     public Boolean getApplicationDataLimitCheck() {
         return applicationDataLimitCheck;
     }
@@ -21,6 +21,13 @@ import org.springframework.stereotype.Component;
 
 import static org.apache.seata.common.DefaultValues.DEFAULT_ASYNC_COMMITTING_RETRY_PERIOD;
 import static org.apache.seata.common.DefaultValues.DEFAULT_COMMITING_RETRY_PERIOD;
+import static org.apache.seata.common.DefaultValues.DEFAULT_RECOVERY_RESOURCE_MAX_BACKOFF;
+import static org.apache.seata.common.DefaultValues.DEFAULT_RECOVERY_RESOURCE_MAX_CONCURRENCY;
+import static org.apache.seata.common.DefaultValues.DEFAULT_RECOVERY_SHARD_COUNT;
+import static org.apache.seata.common.DefaultValues.DEFAULT_RECOVERY_SHARD_ENABLED;
+import static org.apache.seata.common.DefaultValues.DEFAULT_RECOVERY_SHARD_QUEUE_SIZE;
+import static org.apache.seata.common.DefaultValues.DEFAULT_RECOVERY_TIMEOUT_FULL_SCAN_PERIOD;
+import static org.apache.seata.common.DefaultValues.DEFAULT_RECOVERY_TIMEOUT_WHEEL_ENABLED;
 import static org.apache.seata.common.DefaultValues.DEFAULT_ROLLBACKING_RETRY_PERIOD;
 import static org.apache.seata.common.DefaultValues.DEFAULT_TIMEOUT_RETRY_PERIOD;
 import static org.apache.seata.spring.boot.autoconfigure.StarterConstants.SERVER_RECOVERY_PREFIX;
@@ -33,6 +40,13 @@ public class ServerRecoveryProperties {
     private long asyncCommittingRetryPeriod = DEFAULT_ASYNC_COMMITTING_RETRY_PERIOD;
     private long rollbackingRetryPeriod = DEFAULT_ROLLBACKING_RETRY_PERIOD;
     private long timeoutRetryPeriod = DEFAULT_TIMEOUT_RETRY_PERIOD;
+    private boolean shardEnabled = DEFAULT_RECOVERY_SHARD_ENABLED;
+    private int shardCount = DEFAULT_RECOVERY_SHARD_COUNT;
+    private int shardQueueSize = DEFAULT_RECOVERY_SHARD_QUEUE_SIZE;
+    private int resourceMaxConcurrency = DEFAULT_RECOVERY_RESOURCE_MAX_CONCURRENCY;
+    private long resourceMaxBackoff = DEFAULT_RECOVERY_RESOURCE_MAX_BACKOFF;
+    private boolean timeoutWheelEnabled = DEFAULT_RECOVERY_TIMEOUT_WHEEL_ENABLED;
+    private long timeoutFullScanPeriod = DEFAULT_RECOVERY_TIMEOUT_FULL_SCAN_PERIOD;
 
     public long getCommittingRetryPeriod() {
         return committingRetryPeriod;
@@ -69,4 +83,67 @@ public class ServerRecoveryProperties {
         this.timeoutRetryPeriod = timeoutRetryPeriod;
         return this;
     }
+
+    public boolean isShardEnabled() {
+        return shardEnabled;
+    }
+
+    public ServerRecoveryProperties setShardEnabled(boolean shardEnabled) {
+        this.shardEnabled = shardEnabled;
+        return this;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public ServerRecoveryProperties setShardCount(int shardCount) {
+        this.shardCount = shardCount;
+        return this;
+    }
+
+    public int getShardQueueSize() {
+        return shardQueueSize;
+    }
+
+    public ServerRecoveryProperties setShardQueueSize(int shardQueueSize) {
+        this.shardQueueSize = shardQueueSize;
+        return this;
+    }
+
+    public int getResourceMaxConcurrency() {
+        return resourceMaxConcurrency;
+    }
+
+    public ServerRecoveryProperties setResourceMaxConcurrency(int resourceMaxConcurrency) {
+        this.resourceMaxConcurrency = resourceMaxConcurrency;
+        return this;
+    }
+
+    public long getResourceMaxBackoff() {
+        return resourceMaxBackoff;
+    }
+
+    public ServerRecoveryProperties setResourceMaxBackoff(long resourceMaxBackoff) {
+        this.resourceMaxBackoff = resourceMaxBackoff;
+        return this;
+    }
+
+    public boolean isTimeoutWheelEnabled() {
+        return timeoutWheelEnabled;
+    }
+
+    public ServerRecoveryProperties setTimeoutWheelEnabled(boolean timeoutWheelEnabled) {
+        this.timeoutWheelEnabled = timeoutWheelEnabled;
+        return this;
+    }
+
+    public long getTimeoutFullScanPeriod() {
+        return timeoutFullScanPeriod;
+    }
+
+    public ServerRecoveryProperties setTimeoutFullScanPeriod(long timeoutFullScanPeriod) {
+        this.timeoutFullScanPeriod = timeoutFullScanPeriod;
+        return this;
+    }
 }
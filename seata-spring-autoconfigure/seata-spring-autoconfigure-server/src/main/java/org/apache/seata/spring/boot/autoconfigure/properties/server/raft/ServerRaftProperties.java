@@ -51,6 +51,14 @@ public class ServerRaftProperties {
 
     private String compressor = "none";
 
+    private String syncCodec = "java";
+
+    private String sessionSnapshotMode = "full";
+
+    private Integer sessionSnapshotMaxDeltas = 10;
+
+    private boolean followerRead = true;
+
     private boolean sync = true;
 
     public String getServerAddr() {
@@ -159,6 +167,38 @@ public class ServerRaftProperties {
         this.compressor = compressor;
     }
 
+    public String getSyncCodec() {
+        return syncCodec;
+    }
+
+    public void setSyncCodec(String syncCodec) {
+        this.syncCodec = syncCodec;
+    }
+
+    public String getSessionSnapshotMode() {
+        return sessionSnapshotMode;
+    }
+
+    public void setSessionSnapshotMode(String sessionSnapshotMode) {
+        this.sessionSnapshotMode = sessionSnapshotMode;
+    }
+
+    public Integer getSessionSnapshotMaxDeltas() {
+        return sessionSnapshotMaxDeltas;
+    }
+
+    public void setSessionSnapshotMaxDeltas(Integer sessionSnapshotMaxDeltas) {
+        this.sessionSnapshotMaxDeltas = sessionSnapshotMaxDeltas;
+    }
+
+    public boolean isFollowerRead() {
+        return followerRead;
+    }
+
+    public void setFollowerRead(boolean followerRead) {
+        this.followerRead = followerRead;
+    }
+
     public String getGroup() {
         return group;
     }
@@ -22,6 +22,9 @@ import org.springframework.stereotype.Component;
 import static org.apache.seata.common.DefaultValues.DEFAULT_DB_MAX_CONN;
 import static org.apache.seata.common.DefaultValues.DEFAULT_DB_MIN_CONN;
 import static org.apache.seata.common.DefaultValues.DEFAULT_QUERY_LIMIT;
+import static org.apache.seata.common.DefaultValues.DEFAULT_STORE_DB_GROUP_COMMIT_ENABLE;
+import static org.apache.seata.common.DefaultValues.DEFAULT_STORE_DB_GROUP_COMMIT_MAX_BATCH_SIZE;
+import static org.apache.seata.common.DefaultValues.DEFAULT_STORE_DB_GROUP_COMMIT_WINDOW_MILLIS;
 import static org.apache.seata.spring.boot.autoconfigure.StarterConstants.STORE_DB_PREFIX;
 
 @Component
@@ -42,6 +45,9 @@ public class StoreDBProperties {
     private String vgroupTable = "vgroup_table";
     private Integer queryLimit = DEFAULT_QUERY_LIMIT;
     private Long maxWait = 5000L;
+    private Boolean groupCommitEnable = DEFAULT_STORE_DB_GROUP_COMMIT_ENABLE;
+    private Integer groupCommitMaxBatchSize = DEFAULT_STORE_DB_GROUP_COMMIT_MAX_BATCH_SIZE;
+    private Long groupCommitWindowMillis = DEFAULT_STORE_DB_GROUP_COMMIT_WINDOW_MILLIS;
 
     public String getDatasource() {
         return datasource;
@@ -176,4 +182,31 @@ public class StoreDBProperties {
         this.vgroupTable = vgroupTable;
         return this;
     }
+
+    public Boolean getGroupCommitEnable() {
+        return groupCommitEnable;
+    }
+
+    public StoreDBProperties setGroupCommitEnable(Boolean groupCommitEnable) {
+        this.groupCommitEnable = groupCommitEnable;
+        return this;
+    }
+
+    public Integer getGroupCommitMaxBatchSize() {
+        return groupCommitMaxBatchSize;
+    }
+
+    public StoreDBProperties setGroupCommitMaxBatchSize(Integer groupCommitMaxBatchSize) {
+        this.groupCommitMaxBatchSize = groupCommitMaxBatchSize;
+        return this;
+    }
+
+    public Long getGroupCommitWindowMillis() {
+        return groupCommitWindowMillis;
+    }
+
+    public StoreDBProperties setGroupCommitWindowMillis(Long groupCommitWindowMillis) {
+        this.groupCommitWindowMillis = groupCommitWindowMillis;
+        return this;
+    }
 }
@@ -31,6 +31,12 @@ public class StoreFileProperties {
     private Integer fileWriteBufferCacheSize = 16384;
     private Integer sessionReloadReadSize = DEFAULT_SERVICE_SESSION_RELOAD_READ_SIZE;
     private String flushDiskMode = "async";
+    private Boolean groupCommitEnabled = false;
+    private Integer groupCommitBufferSize = 4096;
+    private Integer groupCommitMaxBatchSize = 256;
+    private Boolean segmentEnabled = false;
+    private Integer segmentSize = 67108864;
+    private String lockType = "bucket";
 
     public String getDir() {
         return dir;
@@ -85,4 +91,58 @@ public class StoreFileProperties {
         this.flushDiskMode = flushDiskMode;
         return this;
     }
+
+    public Boolean getGroupCommitEnabled() {
+        return groupCommitEnabled;
+    }
+
+    public StoreFileProperties setGroupCommitEnabled(Boolean groupCommitEnabled) {
+        this.groupCommitEnabled = groupCommitEnabled;
+        return this;
+    }
+
+    public Integer getGroupCommitBufferSize() {
+        return groupCommitBufferSize;
+    }
+
+    public StoreFileProperties setGroupCommitBufferSize(Integer groupCommitBufferSize) {
+        this.groupCommitBufferSize = groupCommitBufferSize;
+        return this;
+    }
+
+    public Integer getGroupCommitMaxBatchSize() {
+        return groupCommitMaxBatchSize;
+    }
+
+    public StoreFileProperties setGroupCommitMaxBatchSize(Integer groupCommitMaxBatchSize) {
+        this.groupCommitMaxBatchSize = groupCommitMaxBatchSize;
+        return this;
+    }
+
+    public Boolean getSegmentEnabled() {
+        return segmentEnabled;
+    }
+
+    public StoreFileProperties setSegmentEnabled(Boolean segmentEnabled) {
+        this.segmentEnabled = segmentEnabled;
+        return this;
+    }
+
+    public Integer getSegmentSize() {
+        return segmentSize;
+    }
+
+    public StoreFileProperties setSegmentSize(Integer segmentSize) {
+        this.segmentSize = segmentSize;
+        return this;
+    }
+
+    public String getLockType() {
+        return lockType;
+    }
+
+    public StoreFileProperties setLockType(String lockType) {
+        this.lockType = lockType;
+        return this;
+    }
 }
@@ -36,6 +36,8 @@ public class ServerPropertiesTest {
         serverProperties.setMaxCommitRetryTimeout(1L);
         serverProperties.setMaxRollbackRetryTimeout(1L);
         serverProperties.setMaxEndStatusRetryTimeout(1L);
+        serverProperties.setLockWaitTimeout(1L);
+        serverProperties.setLockWaitMaxWaiters(1);
 
         Assertions.assertEquals(1, serverProperties.getXaerNotaRetryTimeout());
         Assertions.assertEquals(1, serverProperties.getRetryDeadThreshold());
@@ -49,5 +51,7 @@ public class ServerPropertiesTest {
         Assertions.assertEquals(1L, serverProperties.getMaxCommitRetryTimeout());
         Assertions.assertEquals(1L, serverProperties.getMaxRollbackRetryTimeout());
         Assertions.assertEquals(1L, serverProperties.getMaxEndStatusRetryTimeout());
+        Assertions.assertEquals(1L, serverProperties.getLockWaitTimeout());
+        Assertions.assertEquals(1, serverProperties.getLockWaitMaxWaiters());
     }
 }
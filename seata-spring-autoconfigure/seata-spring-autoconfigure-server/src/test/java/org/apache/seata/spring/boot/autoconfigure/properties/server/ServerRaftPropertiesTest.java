@@ -29,6 +29,10 @@ public class ServerRaftPropertiesTest {
         serverRaftProperties.setGroup("group");
         serverRaftProperties.setCompressor("compressor");
         serverRaftProperties.setSerialization("serialization");
+        serverRaftProperties.setSyncCodec("binary");
+        serverRaftProperties.setSessionSnapshotMode("incremental");
+        serverRaftProperties.setSessionSnapshotMaxDeltas(1);
+        serverRaftProperties.setFollowerRead(false);
         serverRaftProperties.setApplyBatch(1);
         serverRaftProperties.setDisruptorBufferSize(1);
         serverRaftProperties.setElectionTimeoutMs(1);
@@ -44,6 +48,10 @@ public class ServerRaftPropertiesTest {
         Assertions.assertEquals("group", serverRaftProperties.getGroup());
         Assertions.assertEquals("compressor", serverRaftProperties.getCompressor());
         Assertions.assertEquals("serialization", serverRaftProperties.getSerialization());
+        Assertions.assertEquals("binary", serverRaftProperties.getSyncCodec());
+        Assertions.assertEquals("incremental", serverRaftProperties.getSessionSnapshotMode());
+        Assertions.assertEquals(1, serverRaftProperties.getSessionSnapshotMaxDeltas());
+        Assertions.assertFalse(serverRaftProperties.isFollowerRead());
         Assertions.assertEquals(1, serverRaftProperties.getApplyBatch());
         Assertions.assertEquals(1, serverRaftProperties.getDisruptorBufferSize());
         Assertions.assertEquals(1, serverRaftProperties.getElectionTimeoutMs());
@@ -38,6 +38,9 @@ public class StoreDBPropertiesTest {
         storeDBProperties.setMaxConn(1);
         storeDBProperties.setQueryLimit(1);
         storeDBProperties.setMaxWait(1L);
+        storeDBProperties.setGroupCommitEnable(true);
+        storeDBProperties.setGroupCommitMaxBatchSize(1);
+        storeDBProperties.setGroupCommitWindowMillis(1L);
 
         Assertions.assertEquals("url", storeDBProperties.getUrl());
         Assertions.assertEquals("user", storeDBProperties.getUser());
@@ -53,5 +56,8 @@ public class StoreDBPropertiesTest {
         Assertions.assertEquals(1, storeDBProperties.getMaxConn());
         Assertions.assertEquals(1, storeDBProperties.getQueryLimit());
         Assertions.assertEquals(1L, storeDBProperties.getMaxWait());
+        Assertions.assertTrue(storeDBProperties.getGroupCommitEnable());
+        Assertions.assertEquals(1, storeDBProperties.getGroupCommitMaxBatchSize());
+        Assertions.assertEquals(1L, storeDBProperties.getGroupCommitWindowMillis());
     }
 }
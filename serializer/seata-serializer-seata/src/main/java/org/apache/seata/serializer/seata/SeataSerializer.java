@@ -20,7 +20,6 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import org.apache.seata.common.loader.LoadLevel;
 import org.apache.seata.common.loader.Scope;
-import org.apache.seata.common.util.BufferUtils;
 import org.apache.seata.core.protocol.AbstractMessage;
 import org.apache.seata.core.protocol.ProtocolConstants;
 import org.apache.seata.core.serializer.Serializer;
@@ -55,6 +54,16 @@ public class SeataSerializer implements Serializer {
         return versionSeataSerializer.deserialize(bytes);
     }
 
+    @Override
+    public <T> void serialize(T t, ByteBuf out) {
+        versionSeataSerializer.serialize(t, out);
+    }
+
+    @Override
+    public <T> T deserialize(ByteBuf in) {
+        return versionSeataSerializer.deserialize(in);
+    }
+
     static class SeataSerializerV1 implements Serializer {
 
         private static volatile SeataSerializerV1 instance;
@@ -74,38 +83,30 @@ public class SeataSerializer implements Serializer {
 
         @Override
         public <T> byte[] serialize(T t) {
-            if (!(t instanceof AbstractMessage)) {
-                throw new IllegalArgumentException("AbstractMessage isn't available.");
-            }
-            AbstractMessage abstractMessage = (AbstractMessage) t;
+            return toBytes(this, t);
+        }
+
+        @Override
+        public <T> void serialize(T t, ByteBuf out) {
+            AbstractMessage abstractMessage = checkMessage(t);
             // type code
             short typecode = abstractMessage.getTypeCode();
             // msg codec
             MessageSeataCodec messageCodec = MessageCodecFactory.getMessageCodec(typecode, ProtocolConstants.VERSION_1);
-            // get empty ByteBuffer
-            ByteBuf out = Unpooled.buffer(1024);
-            // msg encode
-            messageCodec.encode(t, out);
-            byte[] body = new byte[out.readableBytes()];
-            out.readBytes(body);
-
-            ByteBuffer byteBuffer;
-
             // typecode + body
-            byteBuffer = ByteBuffer.allocate(2 + body.length);
-            byteBuffer.putShort(typecode);
-            byteBuffer.put(body);
-
-            BufferUtils.flip(byteBuffer);
-            byte[] content = new byte[byteBuffer.limit()];
-            byteBuffer.get(content);
-            return content;
+            out.writeShort(typecode);
+            messageCodec.encode(t, out);
         }
 
         @Override
         public <T> T deserialize(byte[] bytes) {
             return deserializeByVersion(bytes, ProtocolConstants.VERSION_1);
         }
+
+        @Override
+        public <T> T deserialize(ByteBuf in) {
+            return deserializeByVersion(in, ProtocolConstants.VERSION_1);
+        }
     }
 
     static class SeataSerializerV0 implements Serializer {
@@ -127,36 +128,65 @@ public class SeataSerializer implements Serializer {
 
         @Override
         public <T> byte[] serialize(T t) {
-            if (!(t instanceof AbstractMessage)) {
-                throw new IllegalArgumentException("AbstractMessage isn't available.");
-            }
-            AbstractMessage abstractMessage = (AbstractMessage) t;
+            return toBytes(this, t);
+        }
+
+        @Override
+        public <T> void serialize(T t, ByteBuf out) {
+            AbstractMessage abstractMessage = checkMessage(t);
             // type code
             short typecode = abstractMessage.getTypeCode();
             // msg codec
             MessageSeataCodec messageCodec = MessageCodecFactory.getMessageCodec(typecode, ProtocolConstants.VERSION_0);
-            // get empty ByteBuffer
-            ByteBuf out = Unpooled.buffer(1024);
             // msg encode
             messageCodec.encode(t, out);
-            byte[] body = new byte[out.readableBytes()];
-            out.readBytes(body);
-
-            ByteBuffer byteBuffer;
-            byteBuffer = ByteBuffer.allocate(body.length);
-
-            byteBuffer.put(body);
-
-            BufferUtils.flip(byteBuffer);
-            byte[] content = new byte[byteBuffer.limit()];
-            byteBuffer.get(content);
-            return content;
         }
 
         @Override
         public <T> T deserialize(byte[] bytes) {
             return deserializeByVersion(bytes, ProtocolConstants.VERSION_0);
         }
+
+        @Override
+        public <T> T deserialize(ByteBuf in) {
+            return deserializeByVersion(in, ProtocolConstants.VERSION_0);
+        }
+    }
+
+    private static AbstractMessage checkMessage(Object t) {
+        if (!(t instanceof AbstractMessage)) {
+            throw new IllegalArgumentException("AbstractMessage isn't available.");
+        }
+        return (AbstractMessage) t;
+    }
+
+    private static <T> byte[] toBytes(Serializer serializer, T t) {
+        // get empty ByteBuf
+        ByteBuf out = Unpooled.buffer(1024);
+        serializer.serialize(t, out);
+        byte[] content = new byte[out.readableBytes()];
+        out.readBytes(content);
+        return content;
+    }
+
+    private static <T> T deserializeByVersion(ByteBuf in, byte version) {
+        if (in.readableBytes() < 2) {
+            throw new IllegalArgumentException(
+                    in.isReadable() ? "The ByteBuf isn't available for decode." : "Nothing to decode.");
+        }
+        // typecode
+        short typecode = in.readShort();
+        // view the rest of the buffer without copying it
+        ByteBuffer body = in.nioBuffer();
+        int start = body.position();
+        // new message
+        AbstractMessage abstractMessage = MessageCodecFactory.getMessage(typecode);
+        // get messageCodec
+        MessageSeataCodec messageCodec = MessageCodecFactory.getMessageCodec(typecode, version);
+        // decode
+        messageCodec.decode(abstractMessage, body);
+        in.skipBytes(body.position() - start);
+        return (T) abstractMessage;
     }
 
     private static <T> T deserializeByVersion(byte[] bytes, byte version) {
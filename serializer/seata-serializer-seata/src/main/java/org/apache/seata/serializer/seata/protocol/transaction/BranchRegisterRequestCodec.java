@@ -17,6 +17,7 @@
 package org.apache.seata.serializer.seata.protocol.transaction;
 
 import io.netty.buffer.ByteBuf;
+import org.apache.seata.core.lock.CompactLockKey;
 import org.apache.seata.core.model.BranchType;
 import org.apache.seata.core.protocol.transaction.BranchRegisterRequest;
 
@@ -67,9 +68,12 @@ public class BranchRegisterRequestCodec extends AbstractTransactionRequestToTCCo
             out.writeShort((short) 0);
         }
 
-        // 4. Lock Key
+        // 4. Lock Key, compact only if the RM negotiated it with the TC and it is shorter than the text
         if (lockKey != null) {
-            byte[] lockKeyBytes = lockKey.getBytes(UTF8);
+            byte[] lockKeyBytes = branchRegisterRequest.isCompactLockKey() ? CompactLockKey.encode(lockKey) : null;
+            if (lockKeyBytes == null || lockKeyBytes.length >= lockKey.length()) {
+                lockKeyBytes = lockKey.getBytes(UTF8);
+            }
             out.writeInt(lockKeyBytes.length);
             if (lockKeyBytes.length > 0) {
                 out.writeBytes(lockKeyBytes);
@@ -112,7 +116,8 @@ public class BranchRegisterRequestCodec extends AbstractTransactionRequestToTCCo
         if (iLen > 0) {
             byte[] bs = new byte[iLen];
             in.get(bs);
-            branchRegisterRequest.setLockKey(new String(bs, UTF8));
+            branchRegisterRequest.setLockKey(
+                    CompactLockKey.isCompact(bs) ? CompactLockKey.decode(bs) : new String(bs, UTF8));
         }
 
         int applicationDataLen = in.getInt();
@@ -16,6 +16,9 @@
  */
 package org.apache.seata.serializer.seata.protocol;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
 import org.apache.seata.core.protocol.AbstractMessage;
 import org.apache.seata.core.protocol.MergedWarpMessage;
 import org.apache.seata.core.protocol.ProtocolConstants;
@@ -74,6 +77,32 @@ public class MergedWarpMessageSerializerTest {
         assertThat(globalBeginRequest22.getTransactionName()).isEqualTo(globalBeginRequest2.getTransactionName());
     }
 
+    /**
+     * Test codec through a direct ByteBuf, which must match the byte[] encoding.
+     */
+    @Test
+    public void test_byteBufCodec() {
+        MergedWarpMessage mergedWarpMessage = new MergedWarpMessage();
+        mergedWarpMessage.msgs.add(buildGlobalBeginRequest("x1"));
+        mergedWarpMessage.msgIds.add(1);
+        mergedWarpMessage.msgs.add(buildGlobalBeginRequest("x2"));
+        mergedWarpMessage.msgIds.add(2);
+
+        ByteBuf buf = PooledByteBufAllocator.DEFAULT.directBuffer();
+        try {
+            seataSerializer.serialize(mergedWarpMessage, buf);
+            assertThat(ByteBufUtil.getBytes(buf)).isEqualTo(seataSerializer.serialize(mergedWarpMessage));
+
+            MergedWarpMessage mergedWarpMessage2 = seataSerializer.deserialize(buf);
+            assertThat(buf.isReadable()).isFalse();
+            assertThat(mergedWarpMessage2.msgIds).containsExactly(1, 2);
+            assertThat(((GlobalBeginRequest) mergedWarpMessage2.msgs.get(1)).getTransactionName())
+                    .isEqualTo("x2");
+        } finally {
+            buf.release();
+        }
+    }
+
     private GlobalBeginRequest buildGlobalBeginRequest(String name) {
         final GlobalBeginRequest globalBeginRequest = new GlobalBeginRequest();
         globalBeginRequest.setTransactionName(name);
@@ -57,4 +57,36 @@ public class BranchRegisterRequestSerializerTest {
         assertThat(branchRegisterRequest2.getResourceId()).isEqualTo(branchRegisterRequest.getResourceId());
         assertThat(branchRegisterRequest2.getXid()).isEqualTo(branchRegisterRequest.getXid());
     }
+
+    /**
+     * Test codec with a compact lock key.
+     */
+    @Test
+    public void test_codec_compactLockKey() {
+        StringBuilder lockKey = new StringBuilder("t_user:");
+        for (int i = 0; i < 1000; i++) {
+            lockKey.append(i == 0 ? "" : ",").append(100000000 + i).append('_').append(i);
+        }
+        BranchRegisterRequest branchRegisterRequest = new BranchRegisterRequest();
+        branchRegisterRequest.setBranchType(BranchType.AT);
+        branchRegisterRequest.setApplicationData("abc");
+        branchRegisterRequest.setLockKey(lockKey.toString());
+        branchRegisterRequest.setResourceId("124");
+        branchRegisterRequest.setXid("abc134");
+
+        byte[] textBytes = seataSerializer.serialize(branchRegisterRequest);
+        branchRegisterRequest.setCompactLockKey(true);
+        byte[] compactBytes = seataSerializer.serialize(branchRegisterRequest);
+        assertThat(compactBytes.length).isLessThan(textBytes.length);
+
+        BranchRegisterRequest branchRegisterRequest2 = seataSerializer.deserialize(compactBytes);
+        assertThat(branchRegisterRequest2.getLockKey()).isEqualTo(branchRegisterRequest.getLockKey());
+        assertThat(branchRegisterRequest2.getApplicationData()).isEqualTo(branchRegisterRequest.getApplicationData());
+        assertThat(branchRegisterRequest2.isCompactLockKey()).isFalse();
+
+        // a short lock key stays text, a TC may decode it without the compact form
+        branchRegisterRequest.setLockKey("a:1");
+        branchRegisterRequest2 = seataSerializer.deserialize(seataSerializer.serialize(branchRegisterRequest));
+        assertThat(branchRegisterRequest2.getLockKey()).isEqualTo("a:1");
+    }
 }
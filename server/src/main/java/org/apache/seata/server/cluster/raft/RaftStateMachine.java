@@ -114,6 +114,8 @@ public class RaftStateMachine extends StateMachineAdapter {
 
     private final List<StoreSnapshotFile> snapshotFiles = new ArrayList<>();
 
+    private SessionSnapshotFile sessionSnapshotFile;
+
     private static final Map<RaftSyncMsgType, RaftMsgExecute<?>> EXECUTES = new HashMap<>();
 
     private volatile RaftClusterMetadata raftClusterMetadata = new RaftClusterMetadata();
@@ -150,7 +152,8 @@ public class RaftStateMachine extends StateMachineAdapter {
         });
         registryStoreSnapshotFile(new LeaderMetadataSnapshotFile(group));
         if (StoreMode.RAFT.getName().equalsIgnoreCase(mode)) {
-            registryStoreSnapshotFile(new SessionSnapshotFile(group));
+            sessionSnapshotFile = new SessionSnapshotFile(group);
+            registryStoreSnapshotFile(sessionSnapshotFile);
             registryStoreSnapshotFile(new VGroupSnapshotFile(group));
             EXECUTES.put(ADD_GLOBAL_SESSION, new AddGlobalSessionExecute());
             EXECUTES.put(ADD_BRANCH_SESSION, new AddBranchSessionExecute());
@@ -174,6 +177,14 @@ public class RaftStateMachine extends StateMachineAdapter {
             if (done != null) {
                 // leader does not need to be serialized, just execute the task directly
                 done.run(Status.OK());
+                // the incremental snapshot still needs to know which session the task changed
+                if (sessionSnapshotFile != null && sessionSnapshotFile.isIncremental()) {
+                    ByteBuffer byteBuffer = iterator.getData();
+                    if (byteBuffer != null && byteBuffer.hasRemaining()) {
+                        sessionSnapshotFile.onApplied((RaftBaseMsg)
+                                RaftSyncMessageSerializer.decode(byteBuffer.array()).getBody());
+                    }
+                }
             } else {
                 ByteBuffer byteBuffer = iterator.getData();
                 // if data is empty, it is only a heartbeat event and can be ignored
@@ -185,6 +196,9 @@ public class RaftStateMachine extends StateMachineAdapter {
                         LOGGER.debug("sync msg: {}", msg);
                     }
                     onExecuteRaft(msg);
+                    if (sessionSnapshotFile != null) {
+                        sessionSnapshotFile.onApplied(msg);
+                    }
                 }
             }
             iterator.next();
@@ -24,6 +24,8 @@ import org.apache.seata.core.context.ContextCoreLoader;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import java.util.concurrent.CompletableFuture;
+
 import static org.apache.seata.common.DefaultValues.DEFAULT_SEATA_GROUP;
 
 /**
@@ -40,6 +42,16 @@ public class SeataClusterContext {
      */
     public static final String KEY_GROUP = "TX_GROUP";
 
+    /**
+     * The constant KEY_TASK_DEFERRABLE, set while the request being handled sends its response asynchronously.
+     */
+    public static final String KEY_TASK_DEFERRABLE = "TX_TASK_DEFERRABLE";
+
+    /**
+     * The constant KEY_DEFERRED_TASK, the raft task the response of the request waits for.
+     */
+    public static final String KEY_DEFERRED_TASK = "TX_DEFERRED_TASK";
+
     private static ContextCore CONTEXT_HOLDER = ContextCoreLoader.load();
 
     /**
@@ -71,4 +83,40 @@ public class SeataClusterContext {
     public static String getGroup() {
         return (String) CONTEXT_HOLDER.get(KEY_GROUP);
     }
+
+    /**
+     * Let the raft task of the current request complete after the request returns.
+     */
+    public static void enableTaskDeferral() {
+        CONTEXT_HOLDER.put(KEY_TASK_DEFERRABLE, Boolean.TRUE);
+    }
+
+    public static boolean isTaskDeferrable() {
+        return Boolean.TRUE.equals(CONTEXT_HOLDER.get(KEY_TASK_DEFERRABLE));
+    }
+
+    /**
+     * Bind the task the response waits for.
+     *
+     * @param deferredTask the future of the task
+     */
+    public static void bindDeferredTask(@Nonnull CompletableFuture<?> deferredTask) {
+        CONTEXT_HOLDER.put(KEY_DEFERRED_TASK, deferredTask);
+    }
+
+    @Nullable
+    public static CompletableFuture<?> getDeferredTask() {
+        return (CompletableFuture<?>) CONTEXT_HOLDER.get(KEY_DEFERRED_TASK);
+    }
+
+    /**
+     * Disable the task deferral.
+     *
+     * @return the task the response waits for, null if there is none
+     */
+    @Nullable
+    public static CompletableFuture<?> disableTaskDeferral() {
+        CONTEXT_HOLDER.remove(KEY_TASK_DEFERRABLE);
+        return (CompletableFuture<?>) CONTEXT_HOLDER.remove(KEY_DEFERRED_TASK);
+    }
 }
@@ -47,6 +47,10 @@ public class AddBranchSessionExecute extends AbstractRaftMsgExecute {
             }
             return false;
         }
+        if (globalSession.getBranch(branchTransactionDTO.getBranchId()) != null) {
+            // the leader adds the branch before the task is applied, a snapshot taken meanwhile already holds it
+            return true;
+        }
         BranchSession branchSession = SessionConverter.convertBranchSession(branchTransactionDTO);
         branchSession.lock();
         globalSession.add(branchSession);
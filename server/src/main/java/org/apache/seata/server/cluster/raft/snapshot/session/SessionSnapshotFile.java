@@ -20,8 +20,13 @@ import com.alipay.sofa.jraft.Status;
 import com.alipay.sofa.jraft.error.RaftError;
 import com.alipay.sofa.jraft.storage.snapshot.SnapshotReader;
 import com.alipay.sofa.jraft.storage.snapshot.SnapshotWriter;
+import org.apache.seata.config.ConfigurationFactory;
+import org.apache.seata.core.compressor.CompressorType;
 import org.apache.seata.server.cluster.raft.snapshot.RaftSnapshot;
 import org.apache.seata.server.cluster.raft.snapshot.StoreSnapshotFile;
+import org.apache.seata.server.cluster.raft.sync.msg.RaftBaseMsg;
+import org.apache.seata.server.cluster.raft.sync.msg.RaftBranchSessionSyncMsg;
+import org.apache.seata.server.cluster.raft.sync.msg.RaftGlobalSessionSyncMsg;
 import org.apache.seata.server.lock.LockerManagerFactory;
 import org.apache.seata.server.session.GlobalSession;
 import org.apache.seata.server.session.SessionHolder;
@@ -29,12 +34,45 @@ import org.apache.seata.server.storage.raft.session.RaftSessionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.seata.common.ConfigurationKeys.SERVER_RAFT_COMPRESSOR;
+import static org.apache.seata.common.ConfigurationKeys.SERVER_RAFT_SESSION_SNAPSHOT_MAX_DELTAS;
+import static org.apache.seata.common.ConfigurationKeys.SERVER_RAFT_SESSION_SNAPSHOT_MODE;
+import static org.apache.seata.common.DefaultValues.DEFAULT_RAFT_COMPRESSOR;
+import static org.apache.seata.common.DefaultValues.DEFAULT_RAFT_SESSION_SNAPSHOT_MAX_DELTAS;
+import static org.apache.seata.common.DefaultValues.DEFAULT_RAFT_SESSION_SNAPSHOT_MODE;
+import static org.apache.seata.common.DefaultValues.RAFT_SESSION_SNAPSHOT_MODE_FULL;
+import static org.apache.seata.common.DefaultValues.RAFT_SESSION_SNAPSHOT_MODE_INCREMENTAL;
 
 /**
+ * The session snapshot, saved in one of three modes:
+ * <ul>
+ *     <li>full: the sessions are serialized as a whole into the file "session"</li>
+ *     <li>stream: the sessions are written chunk by chunk into one {@link SessionSnapshotSegment}</li>
+ *     <li>incremental: the first snapshot writes a base segment, the next ones only a delta segment of the sessions
+ *     changed since the previous snapshot plus the tombstones of the removed ones. The segments are kept in the
+ *     directory "session_segments" next to the snapshots and linked into every snapshot, so each snapshot is
+ *     complete on its own. A new base is written once there are more deltas than sessionSnapshotMaxDeltas.</li>
+ * </ul>
+ * The stream and incremental snapshots list their segments in the file "session.manifest",
+ * a snapshot without it is loaded as a full one.
  */
 public class SessionSnapshotFile implements Serializable, StoreSnapshotFile {
 
@@ -42,18 +80,176 @@ public class SessionSnapshotFile implements Serializable, StoreSnapshotFile {
 
     private static final long serialVersionUID = 7942307427240595916L;
 
+    private static final String MANIFEST_FILE_NAME = "session.manifest";
+
+    private static final String SEGMENT_DIR_NAME = "session_segments";
+
+    private static final String BASE_SEGMENT_PREFIX = "session.base.";
+
+    private static final String DELTA_SEGMENT_PREFIX = "session.delta.";
+
     String group;
 
     String fileName = "session";
 
+    private final transient String mode = ConfigurationFactory.getInstance()
+            .getConfig(SERVER_RAFT_SESSION_SNAPSHOT_MODE, DEFAULT_RAFT_SESSION_SNAPSHOT_MODE);
+
+    private final transient int maxDeltas = ConfigurationFactory.getInstance()
+            .getInt(SERVER_RAFT_SESSION_SNAPSHOT_MAX_DELTAS, DEFAULT_RAFT_SESSION_SNAPSHOT_MAX_DELTAS);
+
+    private final transient byte compressor = CompressorType.getByName(ConfigurationFactory.getInstance()
+                    .getConfig(SERVER_RAFT_COMPRESSOR, DEFAULT_RAFT_COMPRESSOR))
+            .getCode();
+
+    /**
+     * the xids changed since the last snapshot, only touched by the state machine thread like save and load
+     */
+    private final transient Set<String> dirtyXids = new HashSet<>();
+
+    /**
+     * the base and delta segments of the incremental snapshot, empty until the first base is written.
+     * The list is not persisted, after a restart or a snapshot load the next snapshot writes a new base,
+     * which sweeps the segments left in the directory "session_segments" by the previous chain.
+     */
+    private transient List<File> segments = new ArrayList<>();
+
+    private final transient AtomicLong segmentSequence = new AtomicLong(System.currentTimeMillis());
+
     public SessionSnapshotFile(String group) {
         this.group = group;
     }
 
+    public boolean isIncremental() {
+        return RAFT_SESSION_SNAPSHOT_MODE_INCREMENTAL.equalsIgnoreCase(mode);
+    }
+
+    /**
+     * Record the session changed by an applied raft log for the next incremental snapshot.
+     *
+     * @param msg the applied message
+     */
+    public void onApplied(RaftBaseMsg msg) {
+        String xid = null;
+        if (msg instanceof RaftGlobalSessionSyncMsg) {
+            RaftGlobalSessionSyncMsg globalMsg = (RaftGlobalSessionSyncMsg) msg;
+            xid = globalMsg.getGlobalSession() == null ? null : globalMsg.getGlobalSession().getXid();
+        } else if (msg instanceof RaftBranchSessionSyncMsg) {
+            RaftBranchSessionSyncMsg branchMsg = (RaftBranchSessionSyncMsg) msg;
+            xid = branchMsg.getBranchSession() == null ? null : branchMsg.getBranchSession().getXid();
+        }
+        if (xid != null) {
+            dirtyXids.add(xid);
+        }
+    }
+
     @Override
     public Status save(SnapshotWriter writer) {
-        RaftSessionManager raftSessionManager = (RaftSessionManager) SessionHolder.getRootSessionManager(group);
-        Map<String, GlobalSession> sessionMap = raftSessionManager.getSessionMap();
+        if (RAFT_SESSION_SNAPSHOT_MODE_FULL.equalsIgnoreCase(mode)) {
+            return saveFull(writer);
+        }
+        try {
+            List<String> segmentNames = isIncremental() ? saveIncremental(writer) : saveStream(writer);
+            File manifest = new File(writer.getPath(), MANIFEST_FILE_NAME);
+            try (DataOutputStream out =
+                    new DataOutputStream(new BufferedOutputStream(new FileOutputStream(manifest)))) {
+                out.writeInt(SessionSnapshotSegment.MAGIC);
+                out.writeByte(SessionSnapshotSegment.VERSION);
+                out.writeInt(segmentNames.size());
+                for (String segmentName : segmentNames) {
+                    out.writeUTF(segmentName);
+                }
+            }
+            for (String segmentName : segmentNames) {
+                if (!writer.addFile(segmentName)) {
+                    return new Status(RaftError.EIO, "Fail to add file to writer");
+                }
+            }
+            if (writer.addFile(MANIFEST_FILE_NAME)) {
+                return Status.OK();
+            }
+            return new Status(RaftError.EIO, "Fail to add file to writer");
+        } catch (IOException e) {
+            LOGGER.error("Fail to save groupId: {} snapshot {}", group, writer.getPath(), e);
+            return new Status(RaftError.EIO, "Fail to save groupId: " + group + " snapshot %s", writer.getPath());
+        }
+    }
+
+    private List<String> saveStream(SnapshotWriter writer) throws IOException {
+        String segmentName = BASE_SEGMENT_PREFIX + segmentSequence.incrementAndGet();
+        int size = writeBase(new File(writer.getPath(), segmentName));
+        LOGGER.info("groupId: {}, global session size: {}", group, size);
+        List<String> segmentNames = new ArrayList<>(1);
+        segmentNames.add(segmentName);
+        return segmentNames;
+    }
+
+    private List<String> saveIncremental(SnapshotWriter writer) throws IOException {
+        // writer path is {group}/snapshot/temp, the segments are kept in {group}/session_segments
+        File segmentDir = new File(new File(writer.getPath()).getParentFile().getParentFile(), SEGMENT_DIR_NAME);
+        if (!segmentDir.exists() && !segmentDir.mkdirs()) {
+            throw new IOException("Fail to create " + segmentDir);
+        }
+        List<File> chain = new ArrayList<>(segments);
+        boolean base = chain.isEmpty() || chain.size() > maxDeltas;
+        if (base) {
+            File segment = new File(segmentDir, BASE_SEGMENT_PREFIX + segmentSequence.incrementAndGet());
+            int size = writeBase(segment);
+            LOGGER.info("groupId: {}, base snapshot global session size: {}", group, size);
+            chain.clear();
+            chain.add(segment);
+        } else {
+            File segment = new File(segmentDir, DELTA_SEGMENT_PREFIX + segmentSequence.incrementAndGet());
+            int size = writeDelta(segment);
+            LOGGER.info("groupId: {}, delta snapshot changed global session size: {}", group, size);
+            chain.add(segment);
+        }
+        List<String> segmentNames = new ArrayList<>(chain.size());
+        for (File segment : chain) {
+            File target = new File(writer.getPath(), segment.getName());
+            Files.deleteIfExists(target.toPath());
+            try {
+                Files.createLink(target.toPath(), segment.toPath());
+            } catch (IOException | UnsupportedOperationException e) {
+                Files.copy(segment.toPath(), target.toPath());
+            }
+            segmentNames.add(segment.getName());
+        }
+        if (base) {
+            sweepSegments(segmentDir, chain.get(0));
+        }
+        segments = chain;
+        dirtyXids.clear();
+        return segmentNames;
+    }
+
+    private int writeBase(File segment) throws IOException {
+        Map<String, GlobalSession> sessionMap = getSessionMap();
+        try (SessionSnapshotSegment.Writer segmentWriter = new SessionSnapshotSegment.Writer(segment, compressor)) {
+            for (GlobalSession globalSession : sessionMap.values()) {
+                segmentWriter.writeSession(globalSession);
+            }
+            return segmentWriter.getRecords();
+        }
+    }
+
+    private int writeDelta(File segment) throws IOException {
+        Map<String, GlobalSession> sessionMap = getSessionMap();
+        try (SessionSnapshotSegment.Writer segmentWriter = new SessionSnapshotSegment.Writer(segment, compressor)) {
+            for (String xid : dirtyXids) {
+                GlobalSession globalSession = sessionMap.get(xid);
+                if (globalSession == null) {
+                    segmentWriter.writeTombstone(xid);
+                } else {
+                    segmentWriter.writeSession(globalSession);
+                }
+            }
+            return segmentWriter.getRecords();
+        }
+    }
+
+    private Status saveFull(SnapshotWriter writer) {
+        Map<String, GlobalSession> sessionMap = getSessionMap();
         RaftSessionSnapshot sessionSnapshot = new RaftSessionSnapshot();
         sessionMap.forEach((xid, session) -> sessionSnapshot.convert2GlobalSessionByte(session));
         RaftSnapshot raftSnapshot = new RaftSnapshot();
@@ -83,23 +279,28 @@ public class SessionSnapshotFile implements Serializable, StoreSnapshotFile {
 
     @Override
     public boolean load(SnapshotReader reader) {
-        if (reader.getFileMeta(fileName) == null) {
+        boolean segmented = reader.getFileMeta(MANIFEST_FILE_NAME) != null;
+        if (!segmented && reader.getFileMeta(fileName) == null) {
             LOGGER.error("Fail to find data file in {}", reader.getPath());
             return false;
         }
         String path = new StringBuilder(reader.getPath())
                 .append(File.separator)
-                .append(fileName)
+                .append(segmented ? MANIFEST_FILE_NAME : fileName)
                 .toString();
         try {
             LOGGER.info("on snapshot load start index: {}", reader.load().getLastIncludedIndex());
-            RaftSessionSnapshot sessionSnapshot = (RaftSessionSnapshot) load(path);
-            RaftSessionManager raftSessionManager = (RaftSessionManager) SessionHolder.getRootSessionManager(group);
-            Map<String, GlobalSession> rootSessionMap = raftSessionManager.getSessionMap();
+            RaftSessionSnapshot sessionSnapshot =
+                    segmented ? loadSegments(reader.getPath(), path) : (RaftSessionSnapshot) load(path);
+            Map<String, GlobalSession> rootSessionMap = getSessionMap();
             // be sure to clear the data before loading it, because this is a full overwrite update
             LockerManagerFactory.getLockManager().cleanAllLocks();
             rootSessionMap.clear();
             rootSessionMap.putAll(sessionSnapshot.convert2GlobalSession());
+            // the sessions are replaced, the next incremental snapshot starts with a new base
+            dirtyXids.clear();
+            deleteSegments(segments);
+            segments = new ArrayList<>();
             if (LOGGER.isInfoEnabled()) {
                 LOGGER.info("on snapshot load end index: {}", reader.load().getLastIncludedIndex());
             }
@@ -109,4 +310,65 @@ public class SessionSnapshotFile implements Serializable, StoreSnapshotFile {
             return false;
         }
     }
+
+    private RaftSessionSnapshot loadSegments(String snapshotPath, String manifestPath) throws IOException {
+        List<String> segmentNames = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(manifestPath)))) {
+            if (in.readInt() != SessionSnapshotSegment.MAGIC) {
+                throw new IOException("not a session snapshot manifest: " + manifestPath);
+            }
+            byte version = in.readByte();
+            if (version != SessionSnapshotSegment.VERSION) {
+                throw new IOException("unsupported session snapshot manifest version: " + version);
+            }
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                segmentNames.add(in.readUTF());
+            }
+        }
+        Map<String, SessionSnapshotSegment.EncodedSession> sessions = new HashMap<>();
+        for (String segmentName : segmentNames) {
+            SessionSnapshotSegment.read(new File(snapshotPath, segmentName), sessions);
+        }
+        RaftSessionSnapshot sessionSnapshot = new RaftSessionSnapshot();
+        sessions.values()
+                .forEach(session -> sessionSnapshot
+                        .getGlobalsessions()
+                        .put(session.getGlobalSession(), session.getBranchSessions()));
+        return sessionSnapshot;
+    }
+
+    /**
+     * Delete every segment of the directory but the new base, the segments of the previous chain may be
+     * unknown to this instance after a restart. The snapshots keep their own links or copies of them.
+     */
+    private void sweepSegments(File segmentDir, File newBase) {
+        File[] segmentFiles = segmentDir.listFiles((dir, name) ->
+                name.startsWith(BASE_SEGMENT_PREFIX) || name.startsWith(DELTA_SEGMENT_PREFIX));
+        if (segmentFiles == null) {
+            return;
+        }
+        List<File> staleSegments = new ArrayList<>(segmentFiles.length);
+        for (File segment : segmentFiles) {
+            if (!segment.getName().equals(newBase.getName())) {
+                staleSegments.add(segment);
+            }
+        }
+        deleteSegments(staleSegments);
+    }
+
+    private void deleteSegments(List<File> segmentFiles) {
+        for (File segment : segmentFiles) {
+            try {
+                Files.deleteIfExists(segment.toPath());
+            } catch (IOException e) {
+                LOGGER.warn("Fail to delete session snapshot segment {}", segment, e);
+            }
+        }
+    }
+
+    private Map<String, GlobalSession> getSessionMap() {
+        RaftSessionManager raftSessionManager = (RaftSessionManager) SessionHolder.getRootSessionManager(group);
+        return raftSessionManager.getSessionMap();
+    }
 }
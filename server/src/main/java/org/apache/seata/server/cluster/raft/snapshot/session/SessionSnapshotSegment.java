@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.cluster.raft.snapshot.session;
+
+import org.apache.seata.core.compressor.Compressor;
+import org.apache.seata.core.compressor.CompressorFactory;
+import org.apache.seata.server.session.BranchSession;
+import org.apache.seata.server.session.GlobalSession;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A segment file of the session snapshot, written and read as a stream of chunks.
+ * <p>
+ * Layout: magic(4) + version(1) + compressor(1), then the chunks, each one is its compressed length(4) and bytes,
+ * a length of 0 ends the segment. A chunk holds up to {@link #CHUNK_SIZE} bytes of records,
+ * a record is either a session: type(1) + xid + global session bytes + branch count(4) + branch session bytes,
+ * or a tombstone of a removed session: type(1) + xid. Byte arrays and strings are written as length(4) and bytes.
+ * <p>
+ * A base segment holds every session, a delta segment the sessions changed after the previous segment,
+ * the segments are applied in order and the last record of a xid wins.
+ */
+public class SessionSnapshotSegment {
+
+    static final int MAGIC = 0x53455353;
+
+    static final byte VERSION = 1;
+
+    /**
+     * the uncompressed size of a chunk, only one chunk is held in memory while saving
+     */
+    static final int CHUNK_SIZE = 1024 * 1024;
+
+    private static final byte RECORD_SESSION = 1;
+
+    private static final byte RECORD_TOMBSTONE = 2;
+
+    private SessionSnapshotSegment() {}
+
+    /**
+     * The writer of a segment file.
+     */
+    public static class Writer implements Closeable {
+
+        private final DataOutputStream out;
+
+        private final Compressor compressor;
+
+        private final ByteArrayOutputStream chunk = new ByteArrayOutputStream(CHUNK_SIZE + 64 * 1024);
+
+        private final DataOutputStream chunkOut = new DataOutputStream(chunk);
+
+        private int records;
+
+        public Writer(File file, byte compressor) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+            this.compressor = CompressorFactory.getCompressor(compressor);
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(compressor);
+        }
+
+        public void writeSession(GlobalSession globalSession) throws IOException {
+            chunkOut.writeByte(RECORD_SESSION);
+            writeBytes(chunkOut, globalSession.getXid().getBytes(StandardCharsets.UTF_8));
+            writeBytes(chunkOut, globalSession.encode());
+            List<BranchSession> branchSessions = globalSession.getBranchSessions();
+            chunkOut.writeInt(branchSessions.size());
+            for (BranchSession branchSession : branchSessions) {
+                writeBytes(chunkOut, branchSession.encode());
+            }
+            afterRecord();
+        }
+
+        public void writeTombstone(String xid) throws IOException {
+            chunkOut.writeByte(RECORD_TOMBSTONE);
+            writeBytes(chunkOut, xid.getBytes(StandardCharsets.UTF_8));
+            afterRecord();
+        }
+
+        public int getRecords() {
+            return records;
+        }
+
+        private void afterRecord() throws IOException {
+            records++;
+            if (chunk.size() >= CHUNK_SIZE) {
+                flushChunk();
+            }
+        }
+
+        private void flushChunk() throws IOException {
+            if (chunk.size() == 0) {
+                return;
+            }
+            byte[] compressed = compressor.compress(chunk.toByteArray());
+            out.writeInt(compressed.length);
+            out.write(compressed);
+            chunk.reset();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flushChunk();
+                out.writeInt(0);
+            } finally {
+                out.close();
+            }
+        }
+    }
+
+    /**
+     * Apply the records of the segment file to the sessions.
+     *
+     * @param file the segment file
+     * @param sessions the encoded sessions by xid
+     * @throws IOException the file is broken
+     */
+    public static void read(File file, Map<String, EncodedSession> sessions) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("not a session snapshot segment: " + file);
+            }
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IOException("unsupported session snapshot segment version: " + version);
+            }
+            Compressor compressor = CompressorFactory.getCompressor(in.readByte());
+            int length;
+            while ((length = in.readInt()) > 0) {
+                byte[] compressed = new byte[length];
+                in.readFully(compressed);
+                readChunk(compressor.decompress(compressed), sessions);
+            }
+        }
+    }
+
+    private static void readChunk(byte[] chunk, Map<String, EncodedSession> sessions) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(chunk))) {
+            while (in.available() > 0) {
+                byte type = in.readByte();
+                String xid = new String(readBytes(in), StandardCharsets.UTF_8);
+                if (type == RECORD_TOMBSTONE) {
+                    sessions.remove(xid);
+                } else if (type == RECORD_SESSION) {
+                    byte[] globalSession = readBytes(in);
+                    int branchSize = in.readInt();
+                    List<byte[]> branchSessions = new ArrayList<>(branchSize);
+                    for (int i = 0; i < branchSize; i++) {
+                        branchSessions.add(readBytes(in));
+                    }
+                    sessions.put(xid, new EncodedSession(globalSession, branchSessions));
+                } else {
+                    throw new IOException("unknown session snapshot record type: " + type);
+                }
+            }
+        }
+    }
+
+    /**
+     * A session as stored in the segment, decoded once every segment is applied.
+     */
+    public static class EncodedSession {
+
+        private final byte[] globalSession;
+
+        private final List<byte[]> branchSessions;
+
+        EncodedSession(byte[] globalSession, List<byte[]> branchSessions) {
+            this.globalSession = globalSession;
+            this.branchSessions = branchSessions;
+        }
+
+        public byte[] getGlobalSession() {
+            return globalSession;
+        }
+
+        public List<byte[]> getBranchSessions() {
+            return branchSessions;
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.cluster.raft.sync;
+
+import org.apache.seata.core.compressor.CompressorFactory;
+import org.apache.seata.server.cluster.raft.sync.msg.RaftBranchSessionSyncMsg;
+import org.apache.seata.server.cluster.raft.sync.msg.RaftGlobalSessionSyncMsg;
+import org.apache.seata.server.cluster.raft.sync.msg.RaftSyncMessage;
+import org.apache.seata.server.cluster.raft.sync.msg.RaftSyncMsgType;
+import org.apache.seata.server.cluster.raft.sync.msg.dto.BranchTransactionDTO;
+import org.apache.seata.server.cluster.raft.sync.msg.dto.GlobalTransactionDTO;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/**
+ * The binary codec of the global and branch session sync messages, including the lock release messages.
+ * <p>
+ * Layout: magic(2) + codec version(1) + compressor(1) + compressed payload,
+ * the payload is kind(1) + msgType(1) + version + group followed by the fields of the transaction.
+ * A string is written as its utf-8 length and bytes, -1 for null, a nullable number is a presence flag and the value.
+ * The magic differs from the java serialization stream magic 0xACED, so the logs written before are still decoded.
+ * New fields are only appended with a new codec version, the msgType is its ordinal,
+ * so the constants of {@link RaftSyncMsgType} must only be appended too.
+ */
+public final class RaftSyncMessageBinaryCodec {
+
+    /**
+     * the magic of the binary codec
+     */
+    static final short MAGIC = (short) 0x5EA7;
+
+    static final byte CODEC_VERSION_1 = 1;
+
+    private static final byte KIND_GLOBAL_SESSION = 1;
+
+    private static final byte KIND_BRANCH_SESSION = 2;
+
+    private static final int NULL_LENGTH = -1;
+
+    private static final byte NULL_MSG_TYPE = -1;
+
+    private RaftSyncMessageBinaryCodec() {}
+
+    /**
+     * Whether the body of the message is supported by the binary codec
+     *
+     * @param body the body of the raft sync message
+     * @return true if supported
+     */
+    public static boolean isSupported(Object body) {
+        return body instanceof RaftGlobalSessionSyncMsg || body instanceof RaftBranchSessionSyncMsg;
+    }
+
+    /**
+     * Whether the bytes are written by the binary codec
+     *
+     * @param bytes the encoded message
+     * @return true if they start with the magic
+     */
+    public static boolean isBinary(byte[] bytes) {
+        return bytes.length > 4 && (short) (((bytes[0] & 0xFF) << 8) | (bytes[1] & 0xFF)) == MAGIC;
+    }
+
+    public static byte[] encode(RaftSyncMessage raftSyncMessage) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(payload)) {
+            Object body = raftSyncMessage.getBody();
+            if (body instanceof RaftGlobalSessionSyncMsg) {
+                RaftGlobalSessionSyncMsg msg = (RaftGlobalSessionSyncMsg) body;
+                writeHead(out, KIND_GLOBAL_SESSION, msg.getMsgType(), raftSyncMessage.getVersion(), msg.getGroup());
+                writeGlobalSession(out, msg.getGlobalSession());
+            } else if (body instanceof RaftBranchSessionSyncMsg) {
+                RaftBranchSessionSyncMsg msg = (RaftBranchSessionSyncMsg) body;
+                writeHead(out, KIND_BRANCH_SESSION, msg.getMsgType(), raftSyncMessage.getVersion(), msg.getGroup());
+                writeBranchSession(out, msg.getBranchSession());
+            } else {
+                throw new IllegalArgumentException("unsupported raft sync message: " + body);
+            }
+        }
+        byte[] compressed =
+                CompressorFactory.getCompressor(raftSyncMessage.getCompressor()).compress(payload.toByteArray());
+        byte[] bytes = new byte[compressed.length + 4];
+        bytes[0] = (byte) (MAGIC >> 8);
+        bytes[1] = (byte) MAGIC;
+        bytes[2] = CODEC_VERSION_1;
+        bytes[3] = raftSyncMessage.getCompressor();
+        System.arraycopy(compressed, 0, bytes, 4, compressed.length);
+        return bytes;
+    }
+
+    public static RaftSyncMessage decode(byte[] bytes) throws IOException {
+        if (!isBinary(bytes)) {
+            throw new IOException("not a binary raft sync message");
+        }
+        byte codecVersion = bytes[2];
+        if (codecVersion != CODEC_VERSION_1) {
+            throw new IOException("unsupported raft sync message codec version: " + codecVersion);
+        }
+        byte compressor = bytes[3];
+        byte[] compressed = new byte[bytes.length - 4];
+        System.arraycopy(bytes, 4, compressed, 0, compressed.length);
+        byte[] payload = CompressorFactory.getCompressor(compressor).decompress(compressed);
+        RaftSyncMessage raftSyncMessage = new RaftSyncMessage();
+        raftSyncMessage.setCompressor(compressor);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            byte kind = in.readByte();
+            byte msgTypeOrdinal = in.readByte();
+            RaftSyncMsgType msgType = msgTypeOrdinal == NULL_MSG_TYPE ? null : RaftSyncMsgType.values()[msgTypeOrdinal];
+            raftSyncMessage.setVersion(readString(in));
+            String group = readString(in);
+            if (kind == KIND_GLOBAL_SESSION) {
+                RaftGlobalSessionSyncMsg msg = new RaftGlobalSessionSyncMsg(msgType, readGlobalSession(in));
+                msg.setGroup(group);
+                raftSyncMessage.setBody(msg);
+            } else if (kind == KIND_BRANCH_SESSION) {
+                RaftBranchSessionSyncMsg msg = new RaftBranchSessionSyncMsg(msgType, readBranchSession(in));
+                msg.setGroup(group);
+                raftSyncMessage.setBody(msg);
+            } else {
+                throw new IOException("unknown raft sync message kind: " + kind);
+            }
+        }
+        return raftSyncMessage;
+    }
+
+    private static void writeHead(
+            DataOutputStream out, byte kind, RaftSyncMsgType msgType, String version, String group)
+            throws IOException {
+        out.writeByte(kind);
+        out.writeByte(msgType == null ? NULL_MSG_TYPE : msgType.ordinal());
+        writeString(out, version);
+        writeString(out, group);
+    }
+
+    private static void writeGlobalSession(DataOutputStream out, GlobalTransactionDTO globalSession)
+            throws IOException {
+        out.writeBoolean(globalSession != null);
+        if (globalSession == null) {
+            return;
+        }
+        writeString(out, globalSession.getXid());
+        writeLong(out, globalSession.getTransactionId());
+        writeInteger(out, globalSession.getStatus());
+        writeString(out, globalSession.getApplicationId());
+        writeString(out, globalSession.getTransactionServiceGroup());
+        writeString(out, globalSession.getTransactionName());
+        writeInteger(out, globalSession.getTimeout());
+        writeLong(out, globalSession.getBeginTime());
+        writeString(out, globalSession.getApplicationData());
+        writeDate(out, globalSession.getGmtCreate());
+        writeDate(out, globalSession.getGmtModified());
+    }
+
+    private static GlobalTransactionDTO readGlobalSession(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        GlobalTransactionDTO globalSession = new GlobalTransactionDTO();
+        globalSession.setXid(readString(in));
+        globalSession.setTransactionId(readLong(in));
+        globalSession.setStatus(readInteger(in));
+        globalSession.setApplicationId(readString(in));
+        globalSession.setTransactionServiceGroup(readString(in));
+        globalSession.setTransactionName(readString(in));
+        globalSession.setTimeout(readInteger(in));
+        globalSession.setBeginTime(readLong(in));
+        globalSession.setApplicationData(readString(in));
+        globalSession.setGmtCreate(readDate(in));
+        globalSession.setGmtModified(readDate(in));
+        return globalSession;
+    }
+
+    private static void writeBranchSession(DataOutputStream out, BranchTransactionDTO branchSession)
+            throws IOException {
+        out.writeBoolean(branchSession != null);
+        if (branchSession == null) {
+            return;
+        }
+        writeString(out, branchSession.getXid());
+        writeLong(out, branchSession.getTransactionId());
+        writeLong(out, branchSession.getBranchId());
+        writeString(out, branchSession.getResourceGroupId());
+        writeString(out, branchSession.getResourceId());
+        writeString(out, branchSession.getBranchType());
+        writeInteger(out, branchSession.getStatus());
+        writeString(out, branchSession.getClientId());
+        writeString(out, branchSession.getApplicationData());
+        writeDate(out, branchSession.getGmtCreate());
+        writeDate(out, branchSession.getGmtModified());
+        writeString(out, branchSession.getLockKey());
+    }
+
+    private static BranchTransactionDTO readBranchSession(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        BranchTransactionDTO branchSession = new BranchTransactionDTO();
+        branchSession.setXid(readString(in));
+        // the setters of the branch take primitives, a null keeps the default of the field
+        Long transactionId = readLong(in);
+        if (transactionId != null) {
+            branchSession.setTransactionId(transactionId);
+        }
+        Long branchId = readLong(in);
+        if (branchId != null) {
+            branchSession.setBranchId(branchId);
+        }
+        branchSession.setResourceGroupId(readString(in));
+        branchSession.setResourceId(readString(in));
+        branchSession.setBranchType(readString(in));
+        Integer status = readInteger(in);
+        if (status != null) {
+            branchSession.setStatus(status);
+        }
+        branchSession.setClientId(readString(in));
+        branchSession.setApplicationData(readString(in));
+        branchSession.setGmtCreate(readDate(in));
+        branchSession.setGmtModified(readDate(in));
+        branchSession.setLockKey(readString(in));
+        return branchSession;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readInteger(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    private static void writeDate(DataOutputStream out, Date value) throws IOException {
+        writeLong(out, value == null ? null : value.getTime());
+    }
+
+    private static Date readDate(DataInputStream in) throws IOException {
+        Long time = readLong(in);
+        return time == null ? null : new Date(time);
+    }
+}
@@ -20,6 +20,7 @@ import com.fasterxml.jackson.databind.JsonMappingException;
 import org.apache.seata.common.exception.ErrorCode;
 import org.apache.seata.common.exception.SeataRuntimeException;
 import org.apache.seata.common.loader.EnhancedServiceLoader;
+import org.apache.seata.config.ConfigurationFactory;
 import org.apache.seata.core.compressor.CompressorFactory;
 import org.apache.seata.core.serializer.Serializer;
 import org.apache.seata.core.serializer.SerializerType;
@@ -37,6 +38,10 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static org.apache.seata.common.ConfigurationKeys.SERVER_RAFT_SYNC_CODEC;
+import static org.apache.seata.common.DefaultValues.DEFAULT_RAFT_SYNC_CODEC;
+import static org.apache.seata.common.DefaultValues.RAFT_SYNC_CODEC_BINARY;
+
 /**
  */
 public class RaftSyncMessageSerializer {
@@ -51,7 +56,21 @@ public class RaftSyncMessageSerializer {
         PERMITS.add("[B");
     }
 
+    /**
+     * the sync messages keep the java serialization by default, "binary" writes the session and lock
+     * sync messages by {@link RaftSyncMessageBinaryCodec} once every node of the cluster is upgraded
+     */
+    private static final boolean BINARY_SYNC_CODEC = RAFT_SYNC_CODEC_BINARY.equalsIgnoreCase(
+            ConfigurationFactory.getInstance().getConfig(SERVER_RAFT_SYNC_CODEC, DEFAULT_RAFT_SYNC_CODEC));
+
     public static byte[] encode(RaftSyncMessage raftSyncMessage) throws IOException {
+        if (BINARY_SYNC_CODEC && RaftSyncMessageBinaryCodec.isSupported(raftSyncMessage.getBody())) {
+            return RaftSyncMessageBinaryCodec.encode(raftSyncMessage);
+        }
+        return encodeWithJavaSerialization(raftSyncMessage);
+    }
+
+    static byte[] encodeWithJavaSerialization(RaftSyncMessage raftSyncMessage) throws IOException {
         try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
                 ObjectOutputStream oos = new ObjectOutputStream(bos)) {
             Serializer serializer = EnhancedServiceLoader.load(
@@ -83,6 +102,15 @@ public class RaftSyncMessageSerializer {
     }
 
     public static RaftSyncMessage decode(byte[] raftSyncMsgByte) {
+        if (RaftSyncMessageBinaryCodec.isBinary(raftSyncMsgByte)) {
+            try {
+                return RaftSyncMessageBinaryCodec.decode(raftSyncMsgByte);
+            } catch (IOException e) {
+                LOGGER.error("Failed to read raft synchronization log: {}", e.getMessage(), e);
+                throw new RuntimeException(e);
+            }
+        }
+        // the logs written by java serialization
         try (ByteArrayInputStream bin = new ByteArrayInputStream(raftSyncMsgByte);
                 ObjectInputStream ois = new ObjectInputStream(bin) {
                     @Override
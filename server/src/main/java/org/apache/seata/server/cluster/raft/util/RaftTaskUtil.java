@@ -17,7 +17,11 @@
 package org.apache.seata.server.cluster.raft.util;
 
 import com.alipay.sofa.jraft.Closure;
+import com.alipay.sofa.jraft.Node;
+import com.alipay.sofa.jraft.Status;
+import com.alipay.sofa.jraft.closure.ReadIndexClosure;
 import com.alipay.sofa.jraft.entity.Task;
+import com.alipay.sofa.jraft.util.BytesUtil;
 import org.apache.seata.core.exception.GlobalTransactionException;
 import org.apache.seata.core.exception.TransactionException;
 import org.apache.seata.core.exception.TransactionExceptionCode;
@@ -29,7 +33,10 @@ import org.apache.seata.server.cluster.raft.sync.msg.RaftSyncMessage;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  */
@@ -37,6 +44,29 @@ public class RaftTaskUtil {
 
     public static boolean createTask(Closure done, Object data, CompletableFuture<Boolean> completableFuture)
             throws TransactionException {
+        createTaskAsync(done, data, completableFuture);
+        if (completableFuture != null) {
+            return futureGet(completableFuture);
+        }
+        return true;
+    }
+
+    public static boolean createTask(Closure done, CompletableFuture<Boolean> completableFuture)
+            throws TransactionException {
+        return createTask(done, null, completableFuture);
+    }
+
+    /**
+     * Apply the task to the raft node without waiting for it to be committed.
+     *
+     * @param done the closure called once the task is committed or failed
+     * @param data the sync message
+     * @param completableFuture the future completed by the closure
+     * @return the completableFuture, a completed one if it is null
+     * @throws TransactionException the task data can not be encoded
+     */
+    public static CompletableFuture<Boolean> createTaskAsync(
+            Closure done, Object data, CompletableFuture<Boolean> completableFuture) throws TransactionException {
         final Task task = new Task();
         if (data != null) {
             RaftSyncMessage raftSyncMessage = new RaftSyncMessage();
@@ -51,15 +81,62 @@ public class RaftTaskUtil {
         RaftServerManager.getRaftServer(SeataClusterContext.getGroup())
                 .getNode()
                 .apply(task);
-        if (completableFuture != null) {
-            return futureGet(completableFuture);
+        return completableFuture == null ? CompletableFuture.completedFuture(true) : completableFuture;
+    }
+
+    /**
+     * Hand the future over to the request being handled if it defers its response,
+     * otherwise wait for it like {@link #futureGet(CompletableFuture)}.
+     * Only one task is deferred per request, any further task is waited for.
+     *
+     * @param completableFuture the future of the task
+     * @return true if the task is deferred, otherwise the result of the task
+     * @throws TransactionException the task failed
+     */
+    public static boolean deferOrGet(CompletableFuture<Boolean> completableFuture) throws TransactionException {
+        if (SeataClusterContext.isTaskDeferrable() && SeataClusterContext.getDeferredTask() == null) {
+            SeataClusterContext.bindDeferredTask(completableFuture);
+            return true;
         }
-        return true;
+        return futureGet(completableFuture);
     }
 
-    public static boolean createTask(Closure done, CompletableFuture<Boolean> completableFuture)
-            throws TransactionException {
-        return createTask(done, null, completableFuture);
+    /**
+     * Wait until the local state machine has applied everything committed before this call,
+     * checked by a ReadIndex request to the leader, so a follower can serve a linearizable read.
+     * The wait is bounded by the raft rpc timeout, a follower without leader fails the read instead of blocking.
+     *
+     * @param group the raft group
+     * @throws TransactionException the read index failed or timed out, e.g. there is no leader
+     */
+    public static void readIndex(String group) throws TransactionException {
+        CompletableFuture<Boolean> completableFuture = new CompletableFuture<>();
+        Node node = RaftServerManager.getRaftServer(group).getNode();
+        node.readIndex(BytesUtil.EMPTY_BYTES, new ReadIndexClosure() {
+            @Override
+            public void run(Status status, long index, byte[] reqCtx) {
+                if (status.isOk()) {
+                    completableFuture.complete(true);
+                } else {
+                    completableFuture.completeExceptionally(new TransactionException(
+                            TransactionExceptionCode.NotRaftLeader,
+                            " The current TC fails to read index: " + status.getErrorMsg()));
+                }
+            }
+        });
+        int timeoutMillis = node.getOptions().getRpcDefaultTimeout();
+        try {
+            completableFuture.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransactionException(TransactionExceptionCode.NotRaftLeader, e);
+        } catch (ExecutionException e) {
+            throw toTransactionException(e);
+        } catch (TimeoutException e) {
+            throw new TransactionException(
+                    TransactionExceptionCode.NotRaftLeader,
+                    " The current TC fails to read index in " + timeoutMillis + " ms");
+        }
     }
 
     public static boolean futureGet(CompletableFuture<Boolean> completableFuture) throws TransactionException {
@@ -69,12 +146,26 @@ public class RaftTaskUtil {
             throw new GlobalTransactionException(
                     TransactionExceptionCode.FailedWriteSession, "Fail to store global session: " + e.getMessage());
         } catch (ExecutionException e) {
-            if (e.getCause() instanceof TransactionException) {
-                throw (TransactionException) e.getCause();
-            } else {
-                throw new GlobalTransactionException(
-                        TransactionExceptionCode.FailedWriteSession, "Fail to store global session: " + e.getMessage());
-            }
+            throw toTransactionException(e);
+        }
+    }
+
+    /**
+     * Unwrap the failure of a task future.
+     *
+     * @param throwable the failure, may be wrapped by an ExecutionException or CompletionException
+     * @return the transaction exception
+     */
+    public static TransactionException toTransactionException(Throwable throwable) {
+        Throwable cause = throwable;
+        if ((throwable instanceof ExecutionException || throwable instanceof CompletionException)
+                && throwable.getCause() != null) {
+            cause = throwable.getCause();
+        }
+        if (cause instanceof TransactionException) {
+            return (TransactionException) cause;
         }
+        return new GlobalTransactionException(
+                TransactionExceptionCode.FailedWriteSession, "Fail to store global session: " + throwable.getMessage());
     }
 }
@@ -29,6 +29,7 @@ import org.apache.seata.core.exception.TransactionExceptionCode;
 import org.apache.seata.core.model.BranchStatus;
 import org.apache.seata.core.model.BranchType;
 import org.apache.seata.core.model.GlobalStatus;
+import org.apache.seata.core.protocol.AbstractMessage;
 import org.apache.seata.core.protocol.transaction.BranchCommitRequest;
 import org.apache.seata.core.protocol.transaction.BranchCommitResponse;
 import org.apache.seata.core.protocol.transaction.BranchRollbackRequest;
@@ -70,6 +71,11 @@ public abstract class AbstractCore implements Core {
 
     protected RemotingServer remotingServer;
 
+    /**
+     * merges branch requests to the same RM channel, null if TC server batch send request is disabled
+     */
+    private BranchRequestBatcher branchRequestBatcher;
+
     public AbstractCore(RemotingServer remotingServer) {
         if (remotingServer == null) {
             throw new IllegalArgumentException("remotingServer must be not null");
@@ -83,6 +89,15 @@ public abstract class AbstractCore implements Core {
 
     public abstract BranchType getHandleBranchType();
 
+    /**
+     * Sets the batcher branch commit/rollback requests are sent through.
+     *
+     * @param branchRequestBatcher the branch request batcher, null to send every request on its own
+     */
+    public void setBranchRequestBatcher(BranchRequestBatcher branchRequestBatcher) {
+        this.branchRequestBatcher = branchRequestBatcher;
+    }
+
     @Override
     public Long branchRegister(
             BranchType branchType,
@@ -217,8 +232,7 @@ public abstract class AbstractCore implements Core {
             BranchCommitRequest request, GlobalSession globalSession, BranchSession branchSession)
             throws IOException, TimeoutException {
 
-        BranchCommitResponse response = (BranchCommitResponse) remotingServer.sendSyncRequest(
-                branchSession.getResourceId(), branchSession.getClientId(), request, branchSession.isAT());
+        BranchCommitResponse response = (BranchCommitResponse) sendBranchRequest(request, branchSession);
         return response.getBranchStatus();
     }
 
@@ -247,11 +261,20 @@ public abstract class AbstractCore implements Core {
             BranchRollbackRequest request, GlobalSession globalSession, BranchSession branchSession)
             throws IOException, TimeoutException {
 
-        BranchRollbackResponse response = (BranchRollbackResponse) remotingServer.sendSyncRequest(
-                branchSession.getResourceId(), branchSession.getClientId(), request, branchSession.isAT());
+        BranchRollbackResponse response = (BranchRollbackResponse) sendBranchRequest(request, branchSession);
         return response.getBranchStatus();
     }
 
+    private Object sendBranchRequest(AbstractMessage request, BranchSession branchSession)
+            throws IOException, TimeoutException {
+        if (branchRequestBatcher != null) {
+            return branchRequestBatcher.sendSyncRequest(
+                    branchSession.getResourceId(), branchSession.getClientId(), request, branchSession.isAT());
+        }
+        return remotingServer.sendSyncRequest(
+                branchSession.getResourceId(), branchSession.getClientId(), request, branchSession.isAT());
+    }
+
     @Override
     public String begin(String applicationId, String transactionServiceGroup, String name, int timeout)
             throws TransactionException {
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.coordinator;
+
+import org.apache.seata.common.thread.NamedThreadFactory;
+import org.apache.seata.core.context.RootContext;
+import org.apache.seata.metrics.registry.Registry;
+import org.apache.seata.server.cluster.raft.context.SeataClusterContext;
+import org.apache.seata.server.metrics.MeterIdConstants;
+import org.apache.seata.server.metrics.MetricsManager;
+import org.slf4j.MDC;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The executor sending the phase two requests of the branches of different resources concurrently.
+ * <p>
+ * The xid, the branch id and the cluster group of the submitting thread are carried to the task.
+ * When the queue is full the submitting thread runs the task itself. The queue depth and the latency
+ * from submit to completion are exposed as metrics.
+ *
+ */
+public class BranchPhaseTwoExecutor implements Executor {
+
+    private final ThreadPoolExecutor executor;
+
+    private volatile boolean gaugeRegistered;
+
+    /**
+     * Instantiates a new branch phase two executor.
+     *
+     * @param poolSize  the pool size
+     * @param queueSize the queue size
+     */
+    public BranchPhaseTwoExecutor(int poolSize, int queueSize) {
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                Integer.MAX_VALUE,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                new NamedThreadFactory("branchPhaseTwo", poolSize, true),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        Registry registry = MetricsManager.get().getRegistry();
+        if (registry != null && !gaugeRegistered) {
+            registry.getGauge(MeterIdConstants.GAUGE_BRANCH_PHASE_TWO_QUEUE, () -> (long) getQueueDepth());
+            gaugeRegistered = true;
+        }
+        long start = System.nanoTime();
+        String xid = MDC.get(RootContext.MDC_KEY_XID);
+        String group = SeataClusterContext.getGroup();
+        Thread submitter = Thread.currentThread();
+        executor.execute(() -> {
+            boolean inSubmitter = Thread.currentThread() == submitter;
+            if (!inSubmitter) {
+                if (xid != null) {
+                    MDC.put(RootContext.MDC_KEY_XID, xid);
+                }
+                if (group != null) {
+                    SeataClusterContext.bindGroup(group);
+                }
+            }
+            try {
+                command.run();
+            } finally {
+                if (!inSubmitter) {
+                    MDC.remove(RootContext.MDC_KEY_XID);
+                    SeataClusterContext.unbindGroup();
+                }
+                if (registry != null) {
+                    registry.getTimer(MeterIdConstants.TIMER_BRANCH_PHASE_TWO)
+                            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+        });
+    }
+
+    /**
+     * Number of tasks waiting in the queue.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
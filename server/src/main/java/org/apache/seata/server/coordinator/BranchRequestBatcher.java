@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.coordinator;
+
+import io.netty.channel.Channel;
+import org.apache.seata.common.util.StringUtils;
+import org.apache.seata.core.protocol.AbstractMessage;
+import org.apache.seata.core.protocol.AbstractResultMessage;
+import org.apache.seata.core.protocol.MergeResultMessage;
+import org.apache.seata.core.protocol.MergedWarpMessage;
+import org.apache.seata.core.protocol.Version;
+import org.apache.seata.core.rpc.RemotingServer;
+import org.apache.seata.core.rpc.RpcContext;
+import org.apache.seata.core.rpc.netty.ChannelManager;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coalesces branch phase two requests bound for the same RM channel into one {@link MergedWarpMessage}.
+ * <p>
+ * Batching is leader based: a caller that finds one of the maxInFlight send slots of a channel free takes
+ * whatever is queued for it (at most maxBatchSize requests) and sends it in a single round trip, while
+ * callers finding every slot taken queue up behind them. So a lone request goes out immediately, several
+ * batches can be in flight on a channel at once and batches only grow once all slots are busy. The RM
+ * answers with a {@link MergeResultMessage} whose msgs line up with the request msgs.
+ */
+public class BranchRequestBatcher {
+
+    private final RemotingServer remotingServer;
+
+    private final int maxBatchSize;
+
+    private final int maxInFlight;
+
+    private final ConcurrentMap<Channel, ChannelBasket> baskets = new ConcurrentHashMap<>();
+
+    private final AtomicInteger msgIdGenerator = new AtomicInteger();
+
+    public BranchRequestBatcher(RemotingServer remotingServer, int maxBatchSize, int maxInFlight) {
+        this.remotingServer = remotingServer;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxInFlight = Math.max(1, maxInFlight);
+    }
+
+    /**
+     * Send a branch request to the RM owning the resource, merged with concurrent requests for the same channel.
+     *
+     * @param resourceId  the resource id
+     * @param clientId    the client id
+     * @param request     the branch commit or rollback request
+     * @param tryOtherApp whether another app with the same resource may serve the request
+     * @return the RM response
+     * @throws IOException      the channel is not available or the RM response is malformed
+     * @throws TimeoutException the RM did not answer in time
+     */
+    public Object sendSyncRequest(String resourceId, String clientId, AbstractMessage request, boolean tryOtherApp)
+            throws IOException, TimeoutException {
+        Channel channel = ChannelManager.getChannel(resourceId, clientId, tryOtherApp);
+        if (channel == null) {
+            throw new IOException("rm client is not connected. dbkey:" + resourceId + ",clientId:" + clientId);
+        }
+        if (maxBatchSize == 1 || !supportsBatch(channel)) {
+            return remotingServer.sendSyncRequest(channel, request);
+        }
+        return sendBatched(channel, request);
+    }
+
+    Object sendBatched(Channel channel, AbstractMessage request) throws IOException, TimeoutException {
+        PendingRequest pending = new PendingRequest(request);
+        ChannelBasket basket = baskets.computeIfAbsent(channel, c -> new ChannelBasket());
+        basket.queue.offer(pending);
+        while (!pending.future.isDone()) {
+            if (!basket.queue.isEmpty() && basket.tryAcquire(maxInFlight)) {
+                try {
+                    flush(channel, basket);
+                } finally {
+                    basket.inFlight.decrementAndGet();
+                    if (basket.queue.isEmpty() && basket.inFlight.get() == 0) {
+                        baskets.remove(channel, basket);
+                    }
+                    synchronized (basket) {
+                        basket.notifyAll();
+                    }
+                }
+            } else {
+                awaitFlush(basket, pending);
+            }
+        }
+        return getResult(pending);
+    }
+
+    int basketCount() {
+        return baskets.size();
+    }
+
+    private void awaitFlush(ChannelBasket basket, PendingRequest pending) throws IOException {
+        synchronized (basket) {
+            // a free slot is of no use while the own request is already in flight with another leader
+            while (!pending.future.isDone() && (basket.inFlight.get() >= maxInFlight || basket.queue.isEmpty())) {
+                try {
+                    basket.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    basket.queue.remove(pending);
+                    throw new IOException("interrupted while waiting for the merged branch request", e);
+                }
+            }
+        }
+    }
+
+    private void flush(Channel channel, ChannelBasket basket) {
+        List<PendingRequest> batch = new ArrayList<>(maxBatchSize);
+        PendingRequest next;
+        while (batch.size() < maxBatchSize && (next = basket.queue.poll()) != null) {
+            batch.add(next);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            if (batch.size() == 1) {
+                PendingRequest single = batch.get(0);
+                single.future.complete(remotingServer.sendSyncRequest(channel, single.request));
+                return;
+            }
+            MergedWarpMessage mergedWarpMessage = new MergedWarpMessage();
+            for (PendingRequest pending : batch) {
+                mergedWarpMessage.msgs.add(pending.request);
+                mergedWarpMessage.msgIds.add(msgIdGenerator.incrementAndGet());
+            }
+            Object response = remotingServer.sendSyncRequest(channel, mergedWarpMessage);
+            AbstractResultMessage[] results =
+                    response instanceof MergeResultMessage ? ((MergeResultMessage) response).getMsgs() : null;
+            if (results == null || results.length != batch.size()) {
+                throw new IOException("unexpected response for merged branch request: " + response);
+            }
+            for (int i = 0; i < results.length; i++) {
+                batch.get(i).future.complete(results[i]);
+            }
+        } catch (Throwable t) {
+            for (PendingRequest pending : batch) {
+                pending.future.completeExceptionally(t);
+            }
+        }
+    }
+
+    private static boolean supportsBatch(Channel channel) {
+        RpcContext rpcContext = ChannelManager.getContextFromIdentified(channel);
+        return rpcContext != null
+                && StringUtils.isNotBlank(rpcContext.getVersion())
+                && Version.isAboveOrEqualVersion260(rpcContext.getVersion());
+    }
+
+    private static Object getResult(PendingRequest pending) throws IOException, TimeoutException {
+        try {
+            return pending.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TimeoutException) {
+                throw (TimeoutException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static final class ChannelBasket {
+
+        private final Queue<PendingRequest> queue = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private boolean tryAcquire(int maxInFlight) {
+            int current;
+            while ((current = inFlight.get()) < maxInFlight) {
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class PendingRequest {
+
+        private final AbstractMessage request;
+
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+
+        private PendingRequest(AbstractMessage request) {
+            this.request = request;
+        }
+    }
+}
@@ -62,6 +62,7 @@ import org.apache.seata.server.session.GlobalSession;
 import org.apache.seata.server.session.SessionCondition;
 import org.apache.seata.server.session.SessionHelper;
 import org.apache.seata.server.session.SessionHolder;
+import org.apache.seata.server.session.SessionTimeoutWheel;
 import org.apache.seata.server.store.StoreConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -93,6 +94,13 @@ import static org.apache.seata.common.DefaultValues.DEFAULT_ENABLE_BRANCH_ASYNC_
 import static org.apache.seata.common.DefaultValues.DEFAULT_END_STATUS_RETRY_PERIOD;
 import static org.apache.seata.common.DefaultValues.DEFAULT_MAX_COMMIT_RETRY_TIMEOUT;
 import static org.apache.seata.common.DefaultValues.DEFAULT_MAX_ROLLBACK_RETRY_TIMEOUT;
+import static org.apache.seata.common.DefaultValues.DEFAULT_RECOVERY_RESOURCE_MAX_BACKOFF;
+import static org.apache.seata.common.DefaultValues.DEFAULT_RECOVERY_RESOURCE_MAX_CONCURRENCY;
+import static org.apache.seata.common.DefaultValues.DEFAULT_RECOVERY_SHARD_COUNT;
+import static org.apache.seata.common.DefaultValues.DEFAULT_RECOVERY_SHARD_ENABLED;
+import static org.apache.seata.common.DefaultValues.DEFAULT_RECOVERY_SHARD_QUEUE_SIZE;
+import static org.apache.seata.common.DefaultValues.DEFAULT_RECOVERY_TIMEOUT_FULL_SCAN_PERIOD;
+import static org.apache.seata.common.DefaultValues.DEFAULT_RECOVERY_TIMEOUT_WHEEL_ENABLED;
 import static org.apache.seata.common.DefaultValues.DEFAULT_ROLLBACKING_RETRY_PERIOD;
 import static org.apache.seata.common.DefaultValues.DEFAULT_ROLLBACK_FAILED_UNLOCK_ENABLE;
 import static org.apache.seata.common.DefaultValues.DEFAULT_TIMEOUT_RETRY_PERIOD;
@@ -179,6 +187,20 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
                     org.apache.seata.common.ConfigurationKeys.RETRY_DEAD_THRESHOLD,
                     DefaultValues.DEFAULT_RETRY_DEAD_THRESHOLD);
 
+    private static final boolean TIMEOUT_WHEEL_ENABLED =
+            CONFIG.getBoolean(ConfigurationKeys.RECOVERY_TIMEOUT_WHEEL_ENABLED, DEFAULT_RECOVERY_TIMEOUT_WHEEL_ENABLED);
+
+    /**
+     * the period of the full scan still done with the timeout wheel, it finds the sessions not begun on this server
+     */
+    private static final long TIMEOUT_FULL_SCAN_PERIOD = CONFIG.getLong(
+            ConfigurationKeys.RECOVERY_TIMEOUT_FULL_SCAN_PERIOD, DEFAULT_RECOVERY_TIMEOUT_FULL_SCAN_PERIOD);
+
+    private static final int TIMEOUT_WHEEL_SIZE = 512;
+
+    private static final boolean RECOVERY_SHARD_ENABLED =
+            CONFIG.getBoolean(ConfigurationKeys.RECOVERY_SHARD_ENABLED, DEFAULT_RECOVERY_SHARD_ENABLED);
+
     private final ScheduledThreadPoolExecutor retryRollbacking =
             new ScheduledThreadPoolExecutor(1, new NamedThreadFactory(RETRY_ROLLBACKING, 1));
 
@@ -211,6 +233,18 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
 
     private final ThreadPoolExecutor branchRemoveExecutor;
 
+    /**
+     * the scheduler of retry rollbacking, retry committing and async committing, null if not enabled
+     */
+    private final ShardedSessionScheduler shardedScheduler;
+
+    /**
+     * the timeout wheel of the sessions begun on this server, null if not enabled
+     */
+    private final SessionTimeoutWheel timeoutWheel;
+
+    private long lastTimeoutFullScanTime;
+
     private RemotingServer remotingServer;
 
     private final DefaultCore core;
@@ -244,6 +278,30 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
         } else {
             branchRemoveExecutor = null;
         }
+        if (RECOVERY_SHARD_ENABLED) {
+            int shardCount = CONFIG.getInt(ConfigurationKeys.RECOVERY_SHARD_COUNT, DEFAULT_RECOVERY_SHARD_COUNT);
+            // db and redis sessions are shared by the TC nodes, a round must hold its distributed lock until it is
+            // handled, in file and raft mode only this node runs phase two, so the shards need not be awaited
+            SessionMode sessionMode = StoreConfig.getSessionMode();
+            shardedScheduler = new ShardedSessionScheduler(
+                    "phaseTwoShard",
+                    shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors(),
+                    CONFIG.getInt(ConfigurationKeys.RECOVERY_SHARD_QUEUE_SIZE, DEFAULT_RECOVERY_SHARD_QUEUE_SIZE),
+                    CONFIG.getInt(
+                            ConfigurationKeys.RECOVERY_RESOURCE_MAX_CONCURRENCY,
+                            DEFAULT_RECOVERY_RESOURCE_MAX_CONCURRENCY),
+                    CONFIG.getLong(
+                            ConfigurationKeys.RECOVERY_RESOURCE_MAX_BACKOFF, DEFAULT_RECOVERY_RESOURCE_MAX_BACKOFF),
+                    sessionMode == SessionMode.DB || sessionMode == SessionMode.REDIS);
+        } else {
+            shardedScheduler = null;
+        }
+        if (TIMEOUT_WHEEL_ENABLED) {
+            timeoutWheel = new SessionTimeoutWheel(TIMEOUT_RETRY_PERIOD, TIMEOUT_WHEEL_SIZE);
+            core.setTimeoutWheel(timeoutWheel);
+        } else {
+            timeoutWheel = null;
+        }
     }
 
     public static DefaultCoordinator getInstance(RemotingServer remotingServer) {
@@ -404,6 +462,16 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
      * Timeout check.
      */
     protected void timeoutCheck() {
+        if (timeoutWheel != null) {
+            long now = System.currentTimeMillis();
+            List<String> expiredXids = timeoutWheel.expire(now);
+            if (now - lastTimeoutFullScanTime < TIMEOUT_FULL_SCAN_PERIOD) {
+                timeoutCheck(expiredXids);
+                return;
+            }
+            // the full scan below covers the expired sessions too
+            lastTimeoutFullScanTime = now;
+        }
         SessionCondition sessionCondition = new SessionCondition(GlobalStatus.Begin);
         sessionCondition.setLazyLoadBranch(true);
         Collection<GlobalSession> beginGlobalSessions =
@@ -414,6 +482,39 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
         if (!beginGlobalSessions.isEmpty() && LOGGER.isDebugEnabled()) {
             LOGGER.debug("Global transaction timeout check begin, size: {}", beginGlobalSessions.size());
         }
+        timeoutSessions(beginGlobalSessions);
+        if (!beginGlobalSessions.isEmpty() && LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Global transaction timeout check end. ");
+        }
+    }
+
+    /**
+     * Timeout check of the sessions expired in the timeout wheel, every session is found again
+     * since its status may be changed by another server or another instance in db and redis mode.
+     *
+     * @param expiredXids the expired xids
+     */
+    private void timeoutCheck(List<String> expiredXids) {
+        if (expiredXids.isEmpty()) {
+            return;
+        }
+        List<GlobalSession> expiredSessions = new ArrayList<>(expiredXids.size());
+        for (String xid : expiredXids) {
+            GlobalSession globalSession = SessionHolder.findGlobalSession(xid, false);
+            if (globalSession != null && globalSession.getStatus() == GlobalStatus.Begin) {
+                expiredSessions.add(globalSession);
+            }
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug(
+                    "Global transaction timeout check by wheel, expired: {}, begin: {}",
+                    expiredXids.size(),
+                    expiredSessions.size());
+        }
+        timeoutSessions(expiredSessions);
+    }
+
+    private void timeoutSessions(Collection<GlobalSession> beginGlobalSessions) {
         SessionHelper.forEach(beginGlobalSessions, globalSession -> {
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug(globalSession.getXid() + " " + globalSession.getStatus() + " "
@@ -440,9 +541,6 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
                 return true;
             });
         });
-        if (!beginGlobalSessions.isEmpty() && LOGGER.isDebugEnabled()) {
-            LOGGER.debug("Global transaction timeout check end. ");
-        }
     }
 
     /**
@@ -457,28 +555,31 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
             return;
         }
         long now = System.currentTimeMillis();
-        SessionHelper.forEach(rollbackingSessions, rollbackingSession -> {
-            try {
-                if (isRetryTimeout(now, MAX_ROLLBACK_RETRY_TIMEOUT, rollbackingSession.getBeginTime())) {
+        forEachRetrySession(
+                rollbackingSessions,
+                rollbackingSession -> {
+                    if (!isRetryTimeout(now, MAX_ROLLBACK_RETRY_TIMEOUT, rollbackingSession.getBeginTime())) {
+                        return false;
+                    }
                     if (ROLLBACK_RETRY_TIMEOUT_UNLOCK_ENABLE || ROLLBACK_FAILED_UNLOCK_ENABLE) {
                         rollbackingSession.clean();
                     }
 
                     SessionHelper.endRollbackFailed(rollbackingSession, true, true);
-
-                    // The function of this 'return' is 'continue'.
-                    return;
-                }
-
-                core.doGlobalRollback(rollbackingSession, true);
-            } catch (TransactionException ex) {
-                LOGGER.error(
-                        "Failed to retry rollbacking [{}] {} {}",
-                        rollbackingSession.getXid(),
-                        ex.getCode(),
-                        ex.getMessage());
-            }
-        });
+                    return true;
+                },
+                rollbackingSession -> {
+                    try {
+                        return core.doGlobalRollback(rollbackingSession, true);
+                    } catch (TransactionException ex) {
+                        LOGGER.error(
+                                "Failed to retry rollbacking [{}] {} {}",
+                                rollbackingSession.getXid(),
+                                ex.getCode(),
+                                ex.getMessage());
+                        return false;
+                    }
+                });
     }
 
     /**
@@ -493,29 +594,32 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
             return;
         }
         long now = System.currentTimeMillis();
-        SessionHelper.forEach(committingSessions, committingSession -> {
-            try {
-                if (isRetryTimeout(now, MAX_COMMIT_RETRY_TIMEOUT, committingSession.getBeginTime())) {
-
+        forEachRetrySession(
+                committingSessions,
+                committingSession -> {
+                    if (!isRetryTimeout(now, MAX_COMMIT_RETRY_TIMEOUT, committingSession.getBeginTime())) {
+                        return false;
+                    }
                     // commit retry timeout event
                     SessionHelper.endCommitFailed(committingSession, true, true);
-
-                    // The function of this 'return' is 'continue'.
-                    return;
-                }
-                if (GlobalStatus.Committed.equals(committingSession.getStatus())
-                        && committingSession.getBranchSessions().isEmpty()) {
-                    SessionHelper.endCommitted(committingSession, true);
-                }
-                core.doGlobalCommit(committingSession, true);
-            } catch (TransactionException ex) {
-                LOGGER.error(
-                        "Failed to retry committing [{}] {} {}",
-                        committingSession.getXid(),
-                        ex.getCode(),
-                        ex.getMessage());
-            }
-        });
+                    return true;
+                },
+                committingSession -> {
+                    try {
+                        if (GlobalStatus.Committed.equals(committingSession.getStatus())
+                                && committingSession.getBranchSessions().isEmpty()) {
+                            SessionHelper.endCommitted(committingSession, true);
+                        }
+                        return core.doGlobalCommit(committingSession, true);
+                    } catch (TransactionException ex) {
+                        LOGGER.error(
+                                "Failed to retry committing [{}] {} {}",
+                                committingSession.getXid(),
+                                ex.getCode(),
+                                ex.getMessage());
+                        return false;
+                    }
+                });
     }
 
     /**
@@ -528,9 +632,9 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
         if (CollectionUtils.isEmpty(asyncCommittingSessions)) {
             return;
         }
-        SessionHelper.forEach(asyncCommittingSessions, asyncCommittingSession -> {
+        forEachRetrySession(asyncCommittingSessions, asyncCommittingSession -> {
             try {
-                core.doGlobalCommit(asyncCommittingSession, true);
+                return core.doGlobalCommit(asyncCommittingSession, true);
             } catch (TransactionException ex) {
                 LOGGER.error(
                         "Failed to async committing [{}] {} {}",
@@ -538,10 +642,43 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
                         ex.getCode(),
                         ex.getMessage(),
                         ex);
+                return false;
             }
         });
     }
 
+    /**
+     * Handle the sessions of a retry round, on the sharded scheduler if it is enabled.
+     *
+     * @param sessions the sessions
+     * @param task     the task, returns false if the session still needs retry
+     */
+    private void forEachRetrySession(Collection<GlobalSession> sessions, ShardedSessionScheduler.SessionTask task) {
+        forEachRetrySession(sessions, globalSession -> false, task);
+    }
+
+    /**
+     * Handle the sessions of a retry round, on the sharded scheduler if it is enabled.
+     *
+     * @param sessions    the sessions
+     * @param expiredTask ends the sessions past their retry timeout, returns true if it ended the session
+     * @param task        the task, returns false if the session still needs retry
+     */
+    private void forEachRetrySession(
+            Collection<GlobalSession> sessions,
+            ShardedSessionScheduler.SessionTask expiredTask,
+            ShardedSessionScheduler.SessionTask task) {
+        if (shardedScheduler != null) {
+            shardedScheduler.execute(sessions, expiredTask, task);
+        } else {
+            SessionHelper.forEach(sessions, globalSession -> {
+                if (!expiredTask.handle(globalSession)) {
+                    task.handle(globalSession);
+                }
+            });
+        }
+    }
+
     /**
      * Undo log delete.
      */
@@ -823,6 +960,9 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
         if (branchRemoveExecutor != null) {
             branchRemoveExecutor.shutdown();
         }
+        if (shardedScheduler != null) {
+            shardedScheduler.shutdown();
+        }
         try {
             retryRollbacking.awaitTermination(TIMED_TASK_SHUTDOWN_MAX_WAIT_MILLS, TimeUnit.MILLISECONDS);
             retryCommitting.awaitTermination(TIMED_TASK_SHUTDOWN_MAX_WAIT_MILLS, TimeUnit.MILLISECONDS);
@@ -832,9 +972,13 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
             if (branchRemoveExecutor != null) {
                 branchRemoveExecutor.awaitTermination(TIMED_TASK_SHUTDOWN_MAX_WAIT_MILLS, TimeUnit.MILLISECONDS);
             }
+            if (shardedScheduler != null) {
+                shardedScheduler.awaitTermination(TIMED_TASK_SHUTDOWN_MAX_WAIT_MILLS);
+            }
         } catch (InterruptedException ignore) {
 
         }
+        core.destroy();
         // 2. second close netty flow
         if (remotingServer instanceof NettyRemotingServer) {
             ((NettyRemotingServer) remotingServer).destroy();
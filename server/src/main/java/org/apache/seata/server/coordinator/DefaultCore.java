@@ -20,6 +20,7 @@ import org.apache.seata.common.DefaultValues;
 import org.apache.seata.common.exception.NotSupportYetException;
 import org.apache.seata.common.loader.EnhancedServiceLoader;
 import org.apache.seata.common.util.CollectionUtils;
+import org.apache.seata.config.Configuration;
 import org.apache.seata.config.ConfigurationFactory;
 import org.apache.seata.core.context.RootContext;
 import org.apache.seata.core.exception.TransactionException;
@@ -28,11 +29,13 @@ import org.apache.seata.core.model.BranchStatus;
 import org.apache.seata.core.model.BranchType;
 import org.apache.seata.core.model.GlobalStatus;
 import org.apache.seata.core.rpc.RemotingServer;
+import org.apache.seata.core.rpc.netty.NettyServerConfig;
 import org.apache.seata.server.metrics.MetricsPublisher;
 import org.apache.seata.server.session.BranchSession;
 import org.apache.seata.server.session.GlobalSession;
 import org.apache.seata.server.session.SessionHelper;
 import org.apache.seata.server.session.SessionHolder;
+import org.apache.seata.server.session.SessionTimeoutWheel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
@@ -42,7 +45,11 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import static org.apache.seata.common.ConfigurationKeys.ENABLE_PARALLEL_HANDLE_BRANCH_KEY;
+import static org.apache.seata.common.ConfigurationKeys.PARALLEL_HANDLE_BRANCH_POOL_SIZE_KEY;
+import static org.apache.seata.common.ConfigurationKeys.PARALLEL_HANDLE_BRANCH_QUEUE_SIZE_KEY;
 import static org.apache.seata.common.ConfigurationKeys.XAER_NOTA_RETRY_TIMEOUT;
+import static org.apache.seata.common.DefaultValues.DEFAULT_PARALLEL_HANDLE_BRANCH_POOL_SIZE;
+import static org.apache.seata.common.DefaultValues.DEFAULT_PARALLEL_HANDLE_BRANCH_QUEUE_SIZE;
 import static org.apache.seata.server.session.BranchSessionHandler.CONTINUE;
 
 /**
@@ -63,6 +70,13 @@ public class DefaultCore implements Core {
 
     private static volatile DefaultCore instance;
 
+    /**
+     * the executor of the branches of different resources, null if parallel handle branch is disabled
+     */
+    private final BranchPhaseTwoExecutor branchPhaseTwoExecutor;
+
+    private SessionTimeoutWheel timeoutWheel;
+
     /**
      * get the Default core.
      *
@@ -72,10 +86,28 @@ public class DefaultCore implements Core {
         List<AbstractCore> allCore = EnhancedServiceLoader.loadAll(
                 AbstractCore.class, new Class[] {RemotingServer.class}, new Object[] {remotingServer});
         if (CollectionUtils.isNotEmpty(allCore)) {
+            // one batcher for all branch types, so requests of any type to the same RM channel merge together
+            BranchRequestBatcher branchRequestBatcher = NettyServerConfig.isEnableTcServerBatchSendRequest()
+                    ? new BranchRequestBatcher(
+                            remotingServer,
+                            NettyServerConfig.getTcServerBatchSendRequestMaxSize(),
+                            NettyServerConfig.getTcServerBatchSendRequestMaxInFlight())
+                    : null;
             for (AbstractCore core : allCore) {
+                core.setBranchRequestBatcher(branchRequestBatcher);
                 CORE_MAP.put(core.getHandleBranchType(), core);
             }
         }
+        if (PARALLEL_HANDLE_BRANCH) {
+            Configuration config = ConfigurationFactory.getInstance();
+            int poolSize =
+                    config.getInt(PARALLEL_HANDLE_BRANCH_POOL_SIZE_KEY, DEFAULT_PARALLEL_HANDLE_BRANCH_POOL_SIZE);
+            branchPhaseTwoExecutor = new BranchPhaseTwoExecutor(
+                    poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors() * 2,
+                    config.getInt(PARALLEL_HANDLE_BRANCH_QUEUE_SIZE_KEY, DEFAULT_PARALLEL_HANDLE_BRANCH_QUEUE_SIZE));
+        } else {
+            branchPhaseTwoExecutor = null;
+        }
     }
     /**
      * get core
@@ -91,6 +123,24 @@ public class DefaultCore implements Core {
         return core;
     }
 
+    /**
+     * Sets the timeout wheel the begun sessions are added to.
+     *
+     * @param timeoutWheel the timeout wheel
+     */
+    public void setTimeoutWheel(SessionTimeoutWheel timeoutWheel) {
+        this.timeoutWheel = timeoutWheel;
+    }
+
+    /**
+     * Shutdown the branch phase two executor.
+     */
+    public void destroy() {
+        if (branchPhaseTwoExecutor != null) {
+            branchPhaseTwoExecutor.shutdown();
+        }
+    }
+
     /**
      * only for mock
      *
@@ -224,6 +274,9 @@ public class DefaultCore implements Core {
         GlobalSession session =
                 GlobalSession.createGlobalSession(applicationId, transactionServiceGroup, name, timeout);
         MDC.put(RootContext.MDC_KEY_XID, session.getXid());
+        if (timeoutWheel != null) {
+            session.addSessionLifecycleListener(timeoutWheel);
+        }
 
         session.begin();
 
@@ -375,7 +428,7 @@ public class DefaultCore implements Core {
                         }
                         return CONTINUE;
                     },
-                    PARALLEL_HANDLE_BRANCH && branchSessions.size() >= 2);
+                    branchSessions.size() >= 2 ? branchPhaseTwoExecutor : null);
             // Return if the result is not null
             if (result != null) {
                 return result;
@@ -492,7 +545,7 @@ public class DefaultCore implements Core {
                             throw new TransactionException(ex);
                         }
                     },
-                    PARALLEL_HANDLE_BRANCH && branchSessions.size() >= 2);
+                    branchSessions.size() >= 2 ? branchPhaseTwoExecutor : null);
             // Return if the result is not null
             if (result != null) {
                 return result;
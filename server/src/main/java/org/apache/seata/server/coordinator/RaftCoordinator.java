@@ -17,20 +17,34 @@
 package org.apache.seata.server.coordinator;
 
 import org.apache.seata.common.store.SessionMode;
+import org.apache.seata.config.ConfigurationFactory;
 import org.apache.seata.core.exception.TransactionException;
 import org.apache.seata.core.exception.TransactionExceptionCode;
+import org.apache.seata.core.protocol.AbstractMessage;
+import org.apache.seata.core.protocol.AbstractResultMessage;
 import org.apache.seata.core.protocol.transaction.AbstractTransactionRequest;
 import org.apache.seata.core.protocol.transaction.AbstractTransactionResponse;
+import org.apache.seata.core.protocol.transaction.BranchRegisterRequest;
+import org.apache.seata.core.protocol.transaction.BranchReportRequest;
+import org.apache.seata.core.protocol.transaction.GlobalBeginRequest;
+import org.apache.seata.core.protocol.transaction.GlobalLockQueryRequest;
+import org.apache.seata.core.protocol.transaction.GlobalStatusRequest;
 import org.apache.seata.core.rpc.RemotingServer;
+import org.apache.seata.core.rpc.RpcContext;
 import org.apache.seata.server.cluster.listener.ClusterChangeEvent;
 import org.apache.seata.server.cluster.raft.context.SeataClusterContext;
+import org.apache.seata.server.cluster.raft.util.RaftTaskUtil;
 import org.apache.seata.server.store.StoreConfig;
 import org.springframework.context.ApplicationListener;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
+import static org.apache.seata.common.ConfigurationKeys.SERVER_RAFT_FOLLOWER_READ;
+import static org.apache.seata.common.DefaultValues.DEFAULT_RAFT_FOLLOWER_READ;
+
 /**
  * The type raft tx coordinator.
  */
@@ -38,6 +52,9 @@ public class RaftCoordinator extends DefaultCoordinator implements ApplicationLi
 
     protected static final Map<String, Boolean> GROUP_PREVENT = new ConcurrentHashMap<>();
 
+    private final boolean followerRead =
+            ConfigurationFactory.getInstance().getBoolean(SERVER_RAFT_FOLLOWER_READ, DEFAULT_RAFT_FOLLOWER_READ);
+
     public RaftCoordinator(RemotingServer remotingServer) {
         super(remotingServer);
     }
@@ -48,11 +65,28 @@ public class RaftCoordinator extends DefaultCoordinator implements ApplicationLi
         String group = SeataClusterContext.bindGroup();
         try {
             if (!isPass(group)) {
+                if (isFollowerReadable(group, request)) {
+                    // the follower answers once it has applied everything the leader committed before the read
+                    RaftTaskUtil.readIndex(group);
+                    super.exceptionHandleTemplate(callback, request, response);
+                    return;
+                }
                 throw new TransactionException(
                         TransactionExceptionCode.NotRaftLeader,
                         " The current TC is not a leader node, interrupt processing !");
             }
             super.exceptionHandleTemplate(callback, request, response);
+            CompletableFuture<?> deferredTask = SeataClusterContext.getDeferredTask();
+            if (deferredTask != null) {
+                // the response is sent once the raft task is committed, a failed task turns it into a failure
+                SeataClusterContext.bindDeferredTask(deferredTask.whenComplete((result, throwable) -> {
+                    if (throwable != null) {
+                        TransactionException tex = RaftTaskUtil.toTransactionException(throwable);
+                        LOGGER.error("Catch TransactionException while do RPC, request: {}", request, tex);
+                        callback.onTransactionException(request, response, tex);
+                    }
+                }));
+            }
         } catch (TransactionException tex) {
             LOGGER.error("Catch TransactionException while do RPC, request: {}", request, tex);
             callback.onTransactionException(request, response, tex);
@@ -61,6 +95,42 @@ public class RaftCoordinator extends DefaultCoordinator implements ApplicationLi
         }
     }
 
+    /**
+     * Begin, branch register and branch report end with a single raft task,
+     * their response is completed by the task instead of blocking the request thread until it is committed.
+     */
+    @Override
+    public CompletableFuture<AbstractResultMessage> onRequestAsync(AbstractMessage request, RpcContext context) {
+        if (!(request instanceof GlobalBeginRequest
+                || request instanceof BranchRegisterRequest
+                || request instanceof BranchReportRequest)) {
+            return super.onRequestAsync(request, context);
+        }
+        AbstractResultMessage resultMessage;
+        CompletableFuture<?> deferredTask;
+        SeataClusterContext.enableTaskDeferral();
+        try {
+            resultMessage = onRequest(request, context);
+        } finally {
+            deferredTask = SeataClusterContext.disableTaskDeferral();
+        }
+        if (deferredTask == null) {
+            return CompletableFuture.completedFuture(resultMessage);
+        }
+        // a failed task is already turned into a failed response by the callback bound in exceptionHandleTemplate
+        return deferredTask.handle((result, throwable) -> resultMessage);
+    }
+
+    /**
+     * Global status and global lock queries only read the replicated sessions and locks,
+     * a follower may serve them after a read index check.
+     */
+    private boolean isFollowerReadable(String group, AbstractTransactionRequest request) {
+        return followerRead
+                && (request instanceof GlobalStatusRequest || request instanceof GlobalLockQueryRequest)
+                && GROUP_PREVENT.containsKey(group);
+    }
+
     private boolean isPass(String group) {
         // Non-raft mode always allows requests
         return Optional.ofNullable(GROUP_PREVENT.get(group)).orElse(false);
@@ -0,0 +1,379 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.coordinator;
+
+import org.apache.seata.common.thread.NamedThreadFactory;
+import org.apache.seata.common.util.CollectionUtils;
+import org.apache.seata.core.exception.TransactionException;
+import org.apache.seata.server.session.BranchSession;
+import org.apache.seata.server.session.GlobalSession;
+import org.apache.seata.server.session.SessionHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the phase two retries of the coordinator on shards.
+ * <p>
+ * A session is always handled by the shard of its transaction id, every shard is a single thread with a bounded
+ * queue. Before a session is handled, its resources are checked: a resource running too many sessions at once,
+ * or backing off after failures, makes the session be skipped until a later round, so a slow resource manager
+ * only delays its own sessions and not the rest of the round. A session still queued or running is skipped by
+ * later rounds. By default rounds do not wait for the shards, every shard works through its own queue, so a slow
+ * shard only delays the sessions on it. When the sessions are shared by several TC nodes, a round is run under a
+ * distributed lock and must wait until its sessions are handled, otherwise the lock is released while they are
+ * still queued and another node may run phase two on the same sessions at the same time.
+ *
+ */
+public class ShardedSessionScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardedSessionScheduler.class);
+
+    private static final long BASE_BACKOFF_MILLIS = 1000L;
+
+    private static final int MAX_BACKOFF_SHIFT = 16;
+
+    private final ThreadPoolExecutor[] shards;
+
+    private final Set<String> inFlightXids = ConcurrentHashMap.newKeySet();
+
+    private final ConcurrentMap<String, ResourceState> resourceStates = new ConcurrentHashMap<>();
+
+    private final int maxConcurrencyPerResource;
+
+    private final long maxBackoffMillis;
+
+    private final boolean awaitRound;
+
+    /**
+     * Instantiates a new sharded session scheduler whose rounds do not wait for the shards.
+     *
+     * @param name                      the thread name prefix
+     * @param shardCount                the shard count
+     * @param queueSize                 the queue size of every shard
+     * @param maxConcurrencyPerResource the max sessions of one resource handled at the same time
+     * @param maxBackoffMillis          the max backoff of a failing resource
+     */
+    public ShardedSessionScheduler(
+            String name, int shardCount, int queueSize, int maxConcurrencyPerResource, long maxBackoffMillis) {
+        this(name, shardCount, queueSize, maxConcurrencyPerResource, maxBackoffMillis, false);
+    }
+
+    /**
+     * Instantiates a new sharded session scheduler.
+     *
+     * @param name                      the thread name prefix
+     * @param shardCount                the shard count
+     * @param queueSize                 the queue size of every shard
+     * @param maxConcurrencyPerResource the max sessions of one resource handled at the same time
+     * @param maxBackoffMillis          the max backoff of a failing resource
+     * @param awaitRound                whether a round waits until its dispatched sessions are handled
+     */
+    public ShardedSessionScheduler(
+            String name,
+            int shardCount,
+            int queueSize,
+            int maxConcurrencyPerResource,
+            long maxBackoffMillis,
+            boolean awaitRound) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("shardCount must be positive: " + shardCount);
+        }
+        this.maxConcurrencyPerResource = Math.max(1, maxConcurrencyPerResource);
+        this.maxBackoffMillis = Math.max(0L, maxBackoffMillis);
+        this.awaitRound = awaitRound;
+        this.shards = new ThreadPoolExecutor[shardCount];
+        NamedThreadFactory threadFactory = new NamedThreadFactory(name, shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new ThreadPoolExecutor(
+                    1,
+                    1,
+                    Integer.MAX_VALUE,
+                    TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(Math.max(1, queueSize)),
+                    threadFactory,
+                    new ThreadPoolExecutor.AbortPolicy());
+        }
+    }
+
+    /**
+     * Dispatch the sessions to their shards, and wait until they are handled if rounds are awaited.
+     * Sessions still queued or running from a former round, or whose shard queue is full, are left to a later round.
+     *
+     * @param sessions the sessions
+     * @param task     the task
+     * @return the number of dispatched sessions
+     */
+    public int execute(Collection<GlobalSession> sessions, SessionTask task) {
+        return execute(sessions, globalSession -> false, task);
+    }
+
+    /**
+     * Dispatch the sessions to their shards, and wait until they are handled if rounds are awaited.
+     * Sessions still queued or running from a former round, or whose shard queue is full, are left to a later round.
+     *
+     * @param sessions    the sessions
+     * @param expiredTask run first, even for sessions of resources backing off, returns true if it ended the session
+     * @param task        the task
+     * @return the number of dispatched sessions
+     */
+    public int execute(Collection<GlobalSession> sessions, SessionTask expiredTask, SessionTask task) {
+        if (CollectionUtils.isEmpty(sessions)) {
+            return 0;
+        }
+        CountDownLatch latch = awaitRound ? new CountDownLatch(sessions.size()) : null;
+        int dispatched = 0;
+        for (GlobalSession session : sessions) {
+            if (!inFlightXids.add(session.getXid())) {
+                countDown(latch);
+                continue;
+            }
+            try {
+                shards[shardOf(session.getTransactionId())].execute(new ShardTask(session, expiredTask, task, latch));
+                dispatched++;
+            } catch (RejectedExecutionException e) {
+                inFlightXids.remove(session.getXid());
+                countDown(latch);
+            }
+        }
+        if (dispatched < sessions.size() && LOGGER.isDebugEnabled()) {
+            LOGGER.debug("{} of {} sessions are left to the next round", sessions.size() - dispatched, sessions.size());
+        }
+        if (latch != null) {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return dispatched;
+    }
+
+    /**
+     * Wait until no dispatched session is queued or running.
+     *
+     * @param timeoutMillis the timeout
+     * @return true if idle
+     * @throws InterruptedException the interrupted exception
+     */
+    boolean awaitIdle(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!inFlightXids.isEmpty()) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    private static void countDown(CountDownLatch latch) {
+        if (latch != null) {
+            latch.countDown();
+        }
+    }
+
+    private int shardOf(long transactionId) {
+        return (Long.hashCode(transactionId) & Integer.MAX_VALUE) % shards.length;
+    }
+
+    /**
+     * Whether the resource is backing off after failures.
+     *
+     * @param resourceId the resource id
+     * @return true if sessions of the resource are skipped now
+     */
+    boolean isBackingOff(String resourceId) {
+        ResourceState state = resourceStates.get(resourceId);
+        return state != null && state.backoffUntil > System.currentTimeMillis();
+    }
+
+    /**
+     * Shutdown the shards, the sessions not handled yet are left to the next start.
+     */
+    public void shutdown() {
+        for (ThreadPoolExecutor shard : shards) {
+            for (Runnable runnable : shard.shutdownNow()) {
+                if (runnable instanceof ShardTask) {
+                    ((ShardTask) runnable).cancel();
+                }
+            }
+        }
+    }
+
+    /**
+     * Await the shards to terminate.
+     *
+     * @param timeoutMillis the timeout of every shard
+     * @throws InterruptedException the interrupted exception
+     */
+    public void awaitTermination(long timeoutMillis) throws InterruptedException {
+        for (ThreadPoolExecutor shard : shards) {
+            shard.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static Set<String> resourceIdsOf(GlobalSession session) {
+        List<BranchSession> branchSessions = session.getBranchSessions();
+        if (CollectionUtils.isEmpty(branchSessions)) {
+            return Collections.emptySet();
+        }
+        Set<String> resourceIds = new HashSet<>(4);
+        for (BranchSession branchSession : branchSessions) {
+            if (branchSession.getResourceId() != null) {
+                resourceIds.add(branchSession.getResourceId());
+            }
+        }
+        return resourceIds;
+    }
+
+    private boolean tryAcquire(Set<String> resourceIds, long now) {
+        Set<String> acquired = new HashSet<>(resourceIds.size());
+        for (String resourceId : resourceIds) {
+            ResourceState state = CollectionUtils.computeIfAbsent(resourceStates, resourceId, key -> new ResourceState());
+            if (state.backoffUntil > now) {
+                release(acquired);
+                return false;
+            }
+            if (state.running.incrementAndGet() > maxConcurrencyPerResource) {
+                state.running.decrementAndGet();
+                release(acquired);
+                return false;
+            }
+            acquired.add(resourceId);
+        }
+        return true;
+    }
+
+    private void release(Set<String> resourceIds) {
+        for (String resourceId : resourceIds) {
+            ResourceState state = resourceStates.get(resourceId);
+            if (state != null) {
+                state.running.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * the resources of the branches still left after an unfinished round failed, the others succeeded
+     */
+    private void onHandled(Set<String> resourceIds, Set<String> failedResourceIds, long now) {
+        for (String resourceId : resourceIds) {
+            ResourceState state = resourceStates.get(resourceId);
+            if (state == null) {
+                continue;
+            }
+            if (failedResourceIds.contains(resourceId)) {
+                int failures = state.failures.incrementAndGet();
+                long backoff = BASE_BACKOFF_MILLIS << Math.min(failures - 1, MAX_BACKOFF_SHIFT);
+                state.backoffUntil = now + Math.min(backoff, maxBackoffMillis);
+            } else {
+                state.failures.set(0);
+                state.backoffUntil = 0L;
+            }
+        }
+    }
+
+    /**
+     * The task handling one session on its shard.
+     */
+    @FunctionalInterface
+    public interface SessionTask {
+
+        /**
+         * Handle the session.
+         *
+         * @param globalSession the global session
+         * @return true if the session needs no more retry, false if some branches failed
+         * @throws TransactionException the transaction exception
+         */
+        boolean handle(GlobalSession globalSession) throws TransactionException;
+    }
+
+    private static class ResourceState {
+        private final AtomicInteger running = new AtomicInteger();
+
+        private final AtomicInteger failures = new AtomicInteger();
+
+        private volatile long backoffUntil;
+    }
+
+    private class ShardTask implements Runnable {
+        private final GlobalSession session;
+
+        private final SessionTask expiredTask;
+
+        private final SessionTask task;
+
+        private final CountDownLatch latch;
+
+        ShardTask(GlobalSession session, SessionTask expiredTask, SessionTask task, CountDownLatch latch) {
+            this.session = session;
+            this.expiredTask = expiredTask;
+            this.task = task;
+            this.latch = latch;
+        }
+
+        @Override
+        public void run() {
+            try {
+                // the retry deadline is checked before the backoff, a backing off resource must not extend it
+                boolean[] expired = new boolean[1];
+                SessionHelper.handle(session, globalSession -> expired[0] = expiredTask.handle(globalSession));
+                if (expired[0]) {
+                    return;
+                }
+                Set<String> resourceIds = resourceIdsOf(session);
+                if (!tryAcquire(resourceIds, System.currentTimeMillis())) {
+                    return;
+                }
+                try {
+                    // stays false if the task throws
+                    boolean[] finished = new boolean[1];
+                    SessionHelper.handle(session, globalSession -> finished[0] = task.handle(globalSession));
+                    onHandled(
+                            resourceIds,
+                            finished[0] ? Collections.emptySet() : resourceIdsOf(session),
+                            System.currentTimeMillis());
+                } finally {
+                    release(resourceIds);
+                }
+            } finally {
+                inFlightXids.remove(session.getXid());
+                countDown(latch);
+            }
+        }
+
+        void cancel() {
+            inFlightXids.remove(session.getXid());
+            countDown(latch);
+        }
+    }
+}
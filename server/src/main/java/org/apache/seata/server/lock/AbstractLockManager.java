@@ -27,7 +27,6 @@ import org.apache.seata.server.session.BranchSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -124,13 +123,13 @@ public abstract class AbstractLockManager implements LockManager {
             return Collections.emptyList();
         }
 
-        String lockKey = branchSession.getLockKey();
-        String resourceId = branchSession.getResourceId();
-        String xid = branchSession.getXid();
-        long transactionId = branchSession.getTransactionId();
-        long branchId = branchSession.getBranchId();
-
-        return collectRowLocks(lockKey, resourceId, xid, transactionId, branchId);
+        return branchSession
+                .getParsedLockKey()
+                .toRowLocks(
+                        branchSession.getResourceId(),
+                        branchSession.getXid(),
+                        branchSession.getTransactionId(),
+                        branchSession.getBranchId());
     }
 
     /**
@@ -157,37 +156,7 @@ public abstract class AbstractLockManager implements LockManager {
      */
     protected List<RowLock> collectRowLocks(
             String lockKey, String resourceId, String xid, Long transactionId, Long branchID) {
-        List<RowLock> locks = new ArrayList<>();
-
-        String[] tableGroupedLockKeys = lockKey.split(";");
-        for (String tableGroupedLockKey : tableGroupedLockKeys) {
-            int idx = tableGroupedLockKey.indexOf(":");
-            if (idx < 0) {
-                return locks;
-            }
-            String tableName = tableGroupedLockKey.substring(0, idx);
-            String mergedPKs = tableGroupedLockKey.substring(idx + 1);
-            if (StringUtils.isBlank(mergedPKs)) {
-                return locks;
-            }
-            String[] pks = mergedPKs.split(",");
-            if (pks == null || pks.length == 0) {
-                return locks;
-            }
-            for (String pk : pks) {
-                if (StringUtils.isNotBlank(pk)) {
-                    RowLock rowLock = new RowLock();
-                    rowLock.setXid(xid);
-                    rowLock.setTransactionId(transactionId);
-                    rowLock.setBranchId(branchID);
-                    rowLock.setTableName(tableName);
-                    rowLock.setPk(pk);
-                    rowLock.setResourceId(resourceId);
-                    locks.add(rowLock);
-                }
-            }
-        }
-        return locks;
+        return ParsedLockKey.parse(lockKey).toRowLocks(resourceId, xid, transactionId, branchID);
     }
 
     @Override
@@ -103,4 +103,16 @@ public interface LockManager {
      *
      */
     void updateLockStatus(String xid, LockStatus lockStatus) throws TransactionException;
+
+    /**
+     * Register a waiter for the rows of a lock key, signalled when any of them is released by this server.
+     *
+     * @param xid        the xid
+     * @param resourceId the resource id
+     * @param lockKey    the lock key
+     * @return the waiter, null when this lock manager can not wait for rows or too many are waiting
+     */
+    default LockWaiter newLockWaiter(String xid, String resourceId, String lockKey) {
+        return null;
+    }
 }
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.lock;
+
+import org.apache.seata.core.lock.RowLock;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The type lock wait queue, parks branch registers that hit a lock conflict until rows they asked for are released.
+ * <p>
+ * Rows hash into a fixed number of slots. A release wakes every waiter in the slots of its rows, and a woken
+ * waiter simply tries to lock again, so two rows sharing a slot only cost a retry.
+ */
+public class LockWaitQueue {
+
+    private static final int SLOT_COUNT = 1024;
+
+    private final Set<LockWaiter>[] slots;
+
+    private final AtomicInteger waiterCount = new AtomicInteger();
+
+    private final int maxWaiters;
+
+    @SuppressWarnings("unchecked")
+    public LockWaitQueue(int maxWaiters) {
+        this.maxWaiters = maxWaiters;
+        this.slots = new Set[SLOT_COUNT];
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            slots[i] = ConcurrentHashMap.newKeySet();
+        }
+    }
+
+    /**
+     * Register a waiter for the rows. It is signalled by any release of them from now on, so a release between
+     * the failed lock attempt and the wait is not missed as long as the lock is tried again after this.
+     *
+     * @param rowLocks the rows to wait for
+     * @return the waiter, null when too many branch registers are waiting already
+     */
+    public LockWaiter newWaiter(List<RowLock> rowLocks) {
+        if (waiterCount.incrementAndGet() > maxWaiters) {
+            waiterCount.decrementAndGet();
+            return null;
+        }
+        int[] slotIndexes = rowLocks.stream().mapToInt(LockWaitQueue::slotOf).distinct().toArray();
+        LockWaiter waiter = new LockWaiter(this, slotIndexes);
+        for (int slotIndex : slotIndexes) {
+            slots[slotIndex].add(waiter);
+        }
+        return waiter;
+    }
+
+    /**
+     * Wake the waiters of the released rows.
+     *
+     * @param rowLocks the released rows
+     */
+    public void signal(List<RowLock> rowLocks) {
+        if (!hasWaiters()) {
+            return;
+        }
+        int[] slotIndexes = rowLocks.stream().mapToInt(LockWaitQueue::slotOf).distinct().toArray();
+        for (int slotIndex : slotIndexes) {
+            for (LockWaiter waiter : slots[slotIndex]) {
+                waiter.signal();
+            }
+        }
+    }
+
+    /**
+     * Whether any branch register is waiting, so releases can skip collecting their rows otherwise.
+     *
+     * @return the boolean
+     */
+    public boolean hasWaiters() {
+        return waiterCount.get() > 0;
+    }
+
+    void remove(LockWaiter waiter) {
+        for (int slotIndex : waiter.getSlotIndexes()) {
+            slots[slotIndex].remove(waiter);
+        }
+        waiterCount.decrementAndGet();
+    }
+
+    private static int slotOf(RowLock rowLock) {
+        int hash = Objects.hash(rowLock.getResourceId(), rowLock.getTableName(), rowLock.getPk());
+        return (hash ^ (hash >>> 16)) & (SLOT_COUNT - 1);
+    }
+}
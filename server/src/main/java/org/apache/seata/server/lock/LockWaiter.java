@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.lock;
+
+/**
+ * The type lock waiter, one branch register waiting in a {@link LockWaitQueue}.
+ */
+public class LockWaiter implements AutoCloseable {
+
+    private final LockWaitQueue queue;
+
+    private final int[] slotIndexes;
+
+    private boolean signalled;
+
+    private boolean closed;
+
+    LockWaiter(LockWaitQueue queue, int[] slotIndexes) {
+        this.queue = queue;
+        this.slotIndexes = slotIndexes;
+    }
+
+    /**
+     * Wait until some of the rows are released since the last wait, or until the deadline.
+     *
+     * @param deadline the deadline in epoch millis
+     * @return true when signalled, false on timeout or interrupt
+     */
+    public synchronized boolean await(long deadline) {
+        while (!signalled) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            try {
+                wait(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        signalled = false;
+        return true;
+    }
+
+    synchronized void signal() {
+        signalled = true;
+        notifyAll();
+    }
+
+    int[] getSlotIndexes() {
+        return slotIndexes;
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        queue.remove(this);
+    }
+}
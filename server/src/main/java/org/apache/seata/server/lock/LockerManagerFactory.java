@@ -16,15 +16,20 @@
  */
 package org.apache.seata.server.lock;
 
+import org.apache.seata.common.ConfigurationKeys;
 import org.apache.seata.common.loader.EnhancedServiceLoader;
 import org.apache.seata.common.store.LockMode;
 import org.apache.seata.common.store.StoreMode;
 import org.apache.seata.config.Configuration;
 import org.apache.seata.config.ConfigurationFactory;
+import org.apache.seata.server.storage.file.lock.StripedFileLockManager;
 import org.apache.seata.server.store.StoreConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static org.apache.seata.common.Constants.STORE_FILE_LOCK_TYPE_BUCKET;
+import static org.apache.seata.common.Constants.STORE_FILE_LOCK_TYPE_STRIPED;
+
 /**
  * The type Lock manager factory.
  *
@@ -67,10 +72,19 @@ public class LockerManagerFactory {
                     LOGGER.info("use lock store mode: {}", lockMode.getName());
                     // if not exist the lock mode, throw exception
                     if (null != StoreMode.get(lockMode.name())) {
-                        LOCK_MANAGER = EnhancedServiceLoader.load(LockManager.class, lockMode.getName());
+                        LOCK_MANAGER = EnhancedServiceLoader.load(LockManager.class, getLockManagerName(lockMode));
                     }
                 }
             }
         }
     }
+
+    private static String getLockManagerName(LockMode lockMode) {
+        if (lockMode == LockMode.FILE
+                && STORE_FILE_LOCK_TYPE_STRIPED.equals(
+                        CONFIG.getConfig(ConfigurationKeys.STORE_FILE_LOCK_TYPE, STORE_FILE_LOCK_TYPE_BUCKET))) {
+            return StripedFileLockManager.NAME;
+        }
+        return lockMode.getName();
+    }
 }
@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.lock;
+
+import org.apache.seata.core.lock.RowLock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A lock key of the form {@code table1:pk1,pk2;table2:pk3} parsed once into offsets of the source string.
+ * The table names are shared by all rows of a table and the pks are exposed as views of the source,
+ * so the lock key is neither split again nor copied per row until a locker needs a {@link RowLock}.
+ *
+ */
+public final class ParsedLockKey {
+
+    private static final ParsedLockKey EMPTY = new ParsedLockKey(null, new String[0], new int[0], 0);
+
+    private static final int ROW_SLOTS = 3;
+
+    private final String source;
+
+    private final String[] tableNames;
+
+    /**
+     * per row: table index, pk start, pk end
+     */
+    private final int[] rows;
+
+    private final int size;
+
+    private ParsedLockKey(String source, String[] tableNames, int[] rows, int size) {
+        this.source = source;
+        this.tableNames = tableNames;
+        this.rows = rows;
+        this.size = size;
+    }
+
+    /**
+     * Parse a lock key, parsing stops at the first malformed table group like the former split based parsing.
+     *
+     * @param lockKey the lock key
+     * @return the parsed lock key
+     */
+    public static ParsedLockKey parse(String lockKey) {
+        if (lockKey == null) {
+            return EMPTY;
+        }
+        List<String> tableNames = new ArrayList<>(2);
+        int[] rows = new int[ROW_SLOTS * 8];
+        int size = 0;
+        int length = lockKey.length();
+        int groupStart = 0;
+        while (groupStart < length) {
+            int groupEnd = lockKey.indexOf(';', groupStart);
+            if (groupEnd < 0) {
+                groupEnd = length;
+            }
+            int colon = lockKey.indexOf(':', groupStart);
+            if (colon < 0
+                    || colon >= groupEnd
+                    || isBlank(lockKey, colon + 1, groupEnd)
+                    || isSeparatorsOnly(lockKey, colon + 1, groupEnd)) {
+                break;
+            }
+            int tableIndex = tableNames.size();
+            tableNames.add(lockKey.substring(groupStart, colon));
+            int pkStart = colon + 1;
+            while (pkStart <= groupEnd) {
+                int pkEnd = lockKey.indexOf(',', pkStart);
+                if (pkEnd < 0 || pkEnd > groupEnd) {
+                    pkEnd = groupEnd;
+                }
+                if (!isBlank(lockKey, pkStart, pkEnd)) {
+                    if (rows.length < (size + 1) * ROW_SLOTS) {
+                        rows = Arrays.copyOf(rows, rows.length << 1);
+                    }
+                    int offset = size * ROW_SLOTS;
+                    rows[offset] = tableIndex;
+                    rows[offset + 1] = pkStart;
+                    rows[offset + 2] = pkEnd;
+                    size++;
+                }
+                pkStart = pkEnd + 1;
+            }
+            groupStart = groupEnd + 1;
+        }
+        return new ParsedLockKey(lockKey, tableNames.toArray(new String[0]), rows, size);
+    }
+
+    private static boolean isBlank(String source, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(source.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSeparatorsOnly(String source, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (source.charAt(i) != ',') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the lock key this was parsed from.
+     *
+     * @return the source lock key
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Number of rows.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the table name of a row, shared by all rows of the same table.
+     *
+     * @param row the row index
+     * @return the table name
+     */
+    public String getTableName(int row) {
+        return tableNames[rows[row * ROW_SLOTS]];
+    }
+
+    /**
+     * Gets a view of the pk of a row without copying it.
+     *
+     * @param row the row index
+     * @return the pk view
+     */
+    public CharSequence getPkView(int row) {
+        int offset = row * ROW_SLOTS;
+        return new SubSequence(source, rows[offset + 1], rows[offset + 2]);
+    }
+
+    /**
+     * Gets the pk of a row.
+     *
+     * @param row the row index
+     * @return the pk
+     */
+    public String getPk(int row) {
+        int offset = row * ROW_SLOTS;
+        return source.substring(rows[offset + 1], rows[offset + 2]);
+    }
+
+    /**
+     * Build the row locks of a branch.
+     *
+     * @param resourceId    the resource id
+     * @param xid           the xid
+     * @param transactionId the transaction id
+     * @param branchId      the branch id
+     * @return the row locks
+     */
+    public List<RowLock> toRowLocks(String resourceId, String xid, Long transactionId, Long branchId) {
+        if (size == 0) {
+            return Collections.emptyList();
+        }
+        List<RowLock> locks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            RowLock rowLock = new RowLock();
+            rowLock.setXid(xid);
+            rowLock.setTransactionId(transactionId);
+            rowLock.setBranchId(branchId);
+            rowLock.setTableName(getTableName(i));
+            rowLock.setPk(getPk(i));
+            rowLock.setResourceId(resourceId);
+            locks.add(rowLock);
+        }
+        return locks;
+    }
+
+    /**
+     * A zero-copy view of a part of the lock key.
+     */
+    static final class SubSequence implements CharSequence {
+        private final String source;
+
+        private final int start;
+
+        private final int end;
+
+        SubSequence(String source, int start, int end) {
+            this.source = source;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return source.charAt(start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return new SubSequence(source, start + from, start + to);
+        }
+
+        @Override
+        public String toString() {
+            return source.substring(start, end);
+        }
+    }
+}
@@ -126,4 +126,20 @@ public interface MeterIdConstants {
     Id SUMMARY_RATE_LIMIT = new Id(IdConstants.SEATA_RATE_LIMIT)
             .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
             .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_SUMMARY);
+
+    Id SUMMARY_FILE_GROUP_COMMIT_BATCH = new Id(IdConstants.SEATA_FILE_STORE_GROUP_COMMIT)
+            .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+            .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_SUMMARY);
+
+    Id TIMER_FILE_GROUP_COMMIT = new Id(IdConstants.SEATA_FILE_STORE_GROUP_COMMIT)
+            .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+            .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_TIMER);
+
+    Id GAUGE_BRANCH_PHASE_TWO_QUEUE = new Id(IdConstants.SEATA_BRANCH_PHASE_TWO)
+            .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+            .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_GAUGE);
+
+    Id TIMER_BRANCH_PHASE_TWO = new Id(IdConstants.SEATA_BRANCH_PHASE_TWO)
+            .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+            .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_TIMER);
 }
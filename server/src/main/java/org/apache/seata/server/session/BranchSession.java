@@ -25,6 +25,7 @@ import org.apache.seata.core.model.LockStatus;
 import org.apache.seata.server.cluster.raft.RaftServerManager;
 import org.apache.seata.server.lock.LockManager;
 import org.apache.seata.server.lock.LockerManagerFactory;
+import org.apache.seata.server.lock.ParsedLockKey;
 import org.apache.seata.server.storage.file.lock.FileLocker;
 import org.apache.seata.server.store.SessionStorable;
 import org.apache.seata.server.store.StoreConfig;
@@ -65,6 +66,8 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
 
     private String lockKey;
 
+    private volatile ParsedLockKey parsedLockKey;
+
     private BranchType branchType;
 
     private BranchStatus status = BranchStatus.Unknown;
@@ -178,6 +181,22 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
         this.lockKey = lockKey;
     }
 
+    /**
+     * Gets the lock key parsed once and shared by all lockers of this branch.
+     *
+     * @return the parsed lock key
+     */
+    public ParsedLockKey getParsedLockKey() {
+        String lockKey = this.lockKey;
+        ParsedLockKey parsed = this.parsedLockKey;
+        // the lock key may be replaced by setLockKey or decode, reparse only then
+        if (parsed == null || parsed.getSource() != lockKey) {
+            parsed = ParsedLockKey.parse(lockKey);
+            this.parsedLockKey = parsed;
+        }
+        return parsed;
+    }
+
     /**
      * Gets branch type.
      *
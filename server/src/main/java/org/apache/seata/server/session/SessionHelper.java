@@ -38,12 +38,15 @@ import org.slf4j.MDC;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -309,18 +312,26 @@ public class SessionHelper {
         }
 
         Stream<GlobalSession> stream = StreamSupport.stream(sessions.spliterator(), parallel);
-        stream.forEach(globalSession -> {
-            SeataClusterContext.bindGroup(GROUP);
-            try {
-                MDC.put(RootContext.MDC_KEY_XID, globalSession.getXid());
-                handler.handle(globalSession);
-            } catch (Throwable th) {
-                LOGGER.error("handle global session failed: {}", globalSession.getXid(), th);
-            } finally {
-                SeataClusterContext.unbindGroup();
-                MDC.remove(RootContext.MDC_KEY_XID);
-            }
-        });
+        stream.forEach(globalSession -> handle(globalSession, handler));
+    }
+
+    /**
+     * Handle a global session with the cluster group and the xid bound to the current thread.
+     *
+     * @param globalSession the global session
+     * @param handler       the handler
+     */
+    public static void handle(GlobalSession globalSession, GlobalSessionHandler handler) {
+        SeataClusterContext.bindGroup(GROUP);
+        try {
+            MDC.put(RootContext.MDC_KEY_XID, globalSession.getXid());
+            handler.handle(globalSession);
+        } catch (Throwable th) {
+            LOGGER.error("handle global session failed: {}", globalSession.getXid(), th);
+        } finally {
+            SeataClusterContext.unbindGroup();
+            MDC.remove(RootContext.MDC_KEY_XID);
+        }
     }
 
     /**
@@ -352,22 +363,51 @@ public class SessionHelper {
      */
     public static Boolean forEach(Collection<BranchSession> sessions, BranchSessionHandler handler, boolean parallel)
             throws TransactionException {
-        if (CollectionUtils.isNotEmpty(sessions)) {
-            Boolean result;
-            if (parallel) {
-                Map<String, List<BranchSession>> map = new HashMap<>(4);
-                for (BranchSession session : sessions) {
-                    map.computeIfAbsent(session.getResourceId(), k -> new ArrayList<>())
-                            .add(session);
+        return forEach(sessions, handler, parallel ? ForkJoinPool.commonPool() : null);
+    }
+
+    /**
+     * Foreach branch sessions, the branches of different resources are handled concurrently on the executor.
+     * The branches of the same resource are handled one by one in the given order, the branches of the first
+     * resource are handled by the calling thread.
+     *
+     * @param sessions the branch session
+     * @param handler  the handler
+     * @param executor the executor, null to handle all branches by the calling thread
+     * @return the first not null result in the order of the resources
+     * @throws TransactionException the transaction exception
+     */
+    public static Boolean forEach(Collection<BranchSession> sessions, BranchSessionHandler handler, Executor executor)
+            throws TransactionException {
+        if (CollectionUtils.isEmpty(sessions)) {
+            return null;
+        }
+        if (executor != null) {
+            Map<String, List<BranchSession>> map = new LinkedHashMap<>(4);
+            for (BranchSession session : sessions) {
+                map.computeIfAbsent(session.getResourceId(), k -> new ArrayList<>())
+                        .add(session);
+            }
+            if (map.size() > 1) {
+                Iterator<List<BranchSession>> iterator = map.values().iterator();
+                List<BranchSession> callerBranches = iterator.next();
+                List<CompletableFuture<Boolean>> completableFutures = new ArrayList<>(map.size() - 1);
+                while (iterator.hasNext()) {
+                    List<BranchSession> branches = iterator.next();
+                    completableFutures.add(CompletableFuture.supplyAsync(
+                            () -> {
+                                try {
+                                    return SessionHelper.forEach(branches, handler, (Executor) null);
+                                } catch (TransactionException e) {
+                                    throw new RuntimeException(e);
+                                }
+                            },
+                            executor));
+                }
+                Boolean result = SessionHelper.forEach(callerBranches, handler, (Executor) null);
+                if (result != null) {
+                    return result;
                 }
-                List<CompletableFuture<Boolean>> completableFutures = new ArrayList<>(map.size());
-                map.forEach((k, v) -> completableFutures.add(CompletableFuture.supplyAsync(() -> {
-                    try {
-                        return SessionHelper.forEach(v, handler, false);
-                    } catch (TransactionException e) {
-                        throw new RuntimeException(e);
-                    }
-                })));
                 try {
                     for (CompletableFuture<Boolean> completableFuture : completableFutures) {
                         result = completableFuture.get();
@@ -388,19 +428,19 @@ public class SessionHelper {
                     }
                     throw new TransactionException(e);
                 }
-            } else {
-                for (BranchSession branchSession : sessions) {
-                    try {
-                        MDC.put(RootContext.MDC_KEY_BRANCH_ID, String.valueOf(branchSession.getBranchId()));
-                        result = handler.handle(branchSession);
-                        if (result == null) {
-                            continue;
-                        }
-                        return result;
-                    } finally {
-                        MDC.remove(RootContext.MDC_KEY_BRANCH_ID);
-                    }
+                return null;
+            }
+        }
+        for (BranchSession branchSession : sessions) {
+            try {
+                MDC.put(RootContext.MDC_KEY_BRANCH_ID, String.valueOf(branchSession.getBranchId()));
+                Boolean result = handler.handle(branchSession);
+                if (result == null) {
+                    continue;
                 }
+                return result;
+            } finally {
+                MDC.remove(RootContext.MDC_KEY_BRANCH_ID);
             }
         }
         return null;
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.session;
+
+import org.apache.seata.core.model.BranchStatus;
+import org.apache.seata.core.model.GlobalStatus;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A hashed timing wheel of the xids of begun global sessions, keyed by their deadline {@code beginTime + timeout}.
+ * <p>
+ * It listens to the lifecycle of the sessions begun on this server: a session is added on begin and removed
+ * when it leaves the Begin status or ends, so the timeout check only visits the slots whose tick has passed
+ * instead of every session. Sessions of a later round stay in their slot, an entry which could not be removed
+ * is simply dropped when its slot is swept, the caller always checks the session again.
+ *
+ */
+public class SessionTimeoutWheel implements SessionLifecycleListener {
+
+    private final long tickMillis;
+
+    private final int mask;
+
+    private final ConcurrentMap<String /* xid */, Long /* deadline tick */>[] slots;
+
+    /**
+     * the tick of the slot every session was put into, it differs from the deadline tick of an already due session
+     */
+    private final ConcurrentMap<String /* xid */, Long /* slot tick */> slotTicks = new ConcurrentHashMap<>();
+
+    /**
+     * the last tick whose slot was swept, only advanced by {@link #expire(long)}
+     */
+    private volatile long sweptTick;
+
+    /**
+     * Instantiates a new session timeout wheel.
+     *
+     * @param tickMillis the tick
+     * @param wheelSize  the slots of one round, rounded up to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public SessionTimeoutWheel(long tickMillis, int wheelSize) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickMillis and wheelSize must be positive");
+        }
+        int size = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.slots = new ConcurrentMap[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new ConcurrentHashMap<>();
+        }
+        this.sweptTick = System.currentTimeMillis() / tickMillis - 1;
+    }
+
+    /**
+     * Add a begun session.
+     *
+     * @param globalSession the global session
+     */
+    public void add(GlobalSession globalSession) {
+        long deadlineTick = deadlineTick(globalSession);
+        // a deadline in an already swept tick goes to the next sweep
+        long tick = Math.max(deadlineTick, sweptTick + 1);
+        slotTicks.put(globalSession.getXid(), tick);
+        slots[(int) (tick & mask)].put(globalSession.getXid(), deadlineTick);
+    }
+
+    /**
+     * Remove a session which no longer needs the timeout check.
+     *
+     * @param globalSession the global session
+     */
+    public void remove(GlobalSession globalSession) {
+        Long tick = slotTicks.remove(globalSession.getXid());
+        if (tick != null) {
+            slots[(int) (tick & mask)].remove(globalSession.getXid());
+        }
+    }
+
+    /**
+     * Remove and return the xids whose deadline tick has passed.
+     *
+     * @param now the current time millis
+     * @return the expired xids
+     */
+    public synchronized List<String> expire(long now) {
+        long lastTick = now / tickMillis - 1;
+        long fromTick = sweptTick + 1;
+        if (lastTick < fromTick) {
+            return new ArrayList<>(0);
+        }
+        // one round visits every slot
+        fromTick = Math.max(fromTick, lastTick - mask);
+        List<String> expired = new ArrayList<>();
+        for (long tick = fromTick; tick <= lastTick; tick++) {
+            Iterator<Map.Entry<String, Long>> iterator = slots[(int) (tick & mask)].entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Long> entry = iterator.next();
+                if (entry.getValue() <= lastTick) {
+                    expired.add(entry.getKey());
+                    iterator.remove();
+                    slotTicks.remove(entry.getKey());
+                }
+            }
+        }
+        sweptTick = lastTick;
+        return expired;
+    }
+
+    /**
+     * Number of sessions in the wheel.
+     *
+     * @return the size
+     */
+    public int size() {
+        int size = 0;
+        for (ConcurrentMap<String, Long> slot : slots) {
+            size += slot.size();
+        }
+        return size;
+    }
+
+    private long deadlineTick(GlobalSession globalSession) {
+        return (globalSession.getBeginTime() + globalSession.getTimeout()) / tickMillis;
+    }
+
+    @Override
+    public void onBegin(GlobalSession globalSession) {
+        add(globalSession);
+    }
+
+    @Override
+    public void onStatusChange(GlobalSession globalSession, GlobalStatus status) {
+        if (status != GlobalStatus.Begin) {
+            remove(globalSession);
+        }
+    }
+
+    @Override
+    public void onBranchStatusChange(GlobalSession globalSession, BranchSession branchSession, BranchStatus status) {}
+
+    @Override
+    public void onAddBranch(GlobalSession globalSession, BranchSession branchSession) {}
+
+    @Override
+    public void onRemoveBranch(GlobalSession globalSession, BranchSession branchSession) {}
+
+    @Override
+    public void onClose(GlobalSession globalSession) {}
+
+    @Override
+    public void onSuccessEnd(GlobalSession globalSession) {
+        remove(globalSession);
+    }
+
+    @Override
+    public void onFailEnd(GlobalSession globalSession) {
+        remove(globalSession);
+    }
+}
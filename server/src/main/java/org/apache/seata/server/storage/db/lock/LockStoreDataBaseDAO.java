@@ -30,6 +30,7 @@ import org.apache.seata.core.exception.BranchTransactionException;
 import org.apache.seata.core.model.LockStatus;
 import org.apache.seata.core.store.LockDO;
 import org.apache.seata.core.store.LockStore;
+import org.apache.seata.core.store.db.sql.lock.LockStoreSql;
 import org.apache.seata.core.store.db.sql.lock.LockStoreSqlFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,6 +59,12 @@ public class LockStoreDataBaseDAO implements LockStore {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(LockStoreDataBaseDAO.class);
 
+    /**
+     * The max locks inserted by one insert ignore duplicate statement, keeps the bind parameters of
+     * the statement below the limit of the databases.
+     */
+    private static final int MAX_INSERT_IGNORE_DUPLICATE_SIZE = 1000;
+
     /**
      * The constant CONFIG.
      */
@@ -128,6 +135,14 @@ public class LockStoreDataBaseDAO implements LockStore {
             // check lock
             if (!skipCheckLock) {
 
+                // optimistic: the common case is that no row key is locked yet, one statement inserts them all.
+                // When some row keys exist, check them below in the same transaction, our own inserts are
+                // seen as locks of the current xid, and a conflict rolls them back.
+                if (doAcquireLocksIgnoreDuplicate(conn, lockDOs)) {
+                    conn.commit();
+                    return true;
+                }
+
                 boolean canLock = true;
                 // query
                 String checkLockSQL =
@@ -179,7 +194,7 @@ public class LockStoreDataBaseDAO implements LockStore {
                             .collect(Collectors.toList());
                 }
                 if (CollectionUtils.isEmpty(unrepeatedLockDOs)) {
-                    conn.rollback();
+                    conn.commit();
                     return true;
                 }
             }
@@ -366,6 +381,39 @@ public class LockStoreDataBaseDAO implements LockStore {
         }
     }
 
+    /**
+     * Insert the locks with one statement which skips the row keys already locked.
+     *
+     * @param conn    the conn
+     * @param lockDOs the lock do list
+     * @return true if every lock is inserted, false if some row keys may exist or the db type does not support it
+     * @throws SQLException the sql exception
+     */
+    protected boolean doAcquireLocksIgnoreDuplicate(Connection conn, List<LockDO> lockDOs) throws SQLException {
+        if (lockDOs.size() > MAX_INSERT_IGNORE_DUPLICATE_SIZE) {
+            return false;
+        }
+        LockStoreSql lockStoreSql = LockStoreSqlFactory.getLogStoreSql(dbType);
+        String insertIgnoreSQL = lockStoreSql.getInsertIgnoreDuplicateLockSql(lockTable, lockDOs.size());
+        if (insertIgnoreSQL == null) {
+            return false;
+        }
+        try (PreparedStatement ps = conn.prepareStatement(insertIgnoreSQL)) {
+            int index = 1;
+            for (LockDO lockDO : lockDOs) {
+                ps.setString(index++, lockDO.getXid());
+                ps.setLong(index++, lockDO.getTransactionId());
+                ps.setLong(index++, lockDO.getBranchId());
+                ps.setString(index++, lockDO.getResourceId());
+                ps.setString(index++, lockDO.getTableName());
+                ps.setString(index++, lockDO.getPk());
+                ps.setString(index++, lockDO.getRowKey());
+                ps.setInt(index++, lockDO.getStatus());
+            }
+            return ps.executeUpdate() == lockDOs.size();
+        }
+    }
+
     /**
      * Do acquire lock boolean.
      *
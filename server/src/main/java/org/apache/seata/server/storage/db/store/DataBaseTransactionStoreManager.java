@@ -44,6 +44,7 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.apache.seata.common.DefaultValues.DEFAULT_QUERY_LIMIT;
+import static org.apache.seata.common.DefaultValues.DEFAULT_STORE_DB_GROUP_COMMIT_ENABLE;
 
 /**
  * The type Database transaction store manager.
@@ -92,7 +93,11 @@ public class DataBaseTransactionStoreManager extends AbstractTransactionStoreMan
         // init dataSource
         DataSource logStoreDataSource = EnhancedServiceLoader.load(DataSourceProvider.class, datasourceType)
                 .provide();
-        logStore = new LogStoreDataBaseDAO(logStoreDataSource);
+        if (CONFIG.getBoolean(ConfigurationKeys.STORE_DB_GROUP_COMMIT_ENABLE, DEFAULT_STORE_DB_GROUP_COMMIT_ENABLE)) {
+            logStore = new GroupCommitLogStoreDataBaseDAO(logStoreDataSource);
+        } else {
+            logStore = new LogStoreDataBaseDAO(logStoreDataSource);
+        }
     }
 
     @Override
@@ -271,4 +276,11 @@ public class DataBaseTransactionStoreManager extends AbstractTransactionStoreMan
     public void setLogQueryLimit(int logQueryLimit) {
         this.logQueryLimit = logQueryLimit;
     }
+
+    @Override
+    public void shutdown() {
+        if (logStore instanceof GroupCommitLogStoreDataBaseDAO) {
+            ((GroupCommitLogStoreDataBaseDAO) logStore).shutdown();
+        }
+    }
 }
@@ -0,0 +1,390 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.storage.db.store;
+
+import org.apache.seata.common.exception.StoreException;
+import org.apache.seata.common.thread.NamedThreadFactory;
+import org.apache.seata.common.util.IOUtil;
+import org.apache.seata.core.constants.ConfigurationKeys;
+import org.apache.seata.core.store.BranchTransactionDO;
+import org.apache.seata.core.store.GlobalTransactionDO;
+import org.apache.seata.core.store.db.sql.log.LogStoreSqlsFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.seata.common.DefaultValues.DEFAULT_STORE_DB_GROUP_COMMIT_MAX_BATCH_SIZE;
+import static org.apache.seata.common.DefaultValues.DEFAULT_STORE_DB_GROUP_COMMIT_WINDOW_MILLIS;
+
+/**
+ * A log store dao that group commits session writes.
+ * Writes from the request threads are queued and a single flusher thread executes them
+ * in one jdbc transaction per flush window, consecutive writes with the same sql are sent
+ * with one {@link PreparedStatement#executeBatch()}. Each caller blocks until the transaction
+ * holding its write commits. Queries are not affected.
+ * <p>
+ * If a group fails, its writes are retried one by one. When it was the commit itself that failed,
+ * the group may have been committed anyway, so an insert whose retry hits a duplicate key counts as written.
+ */
+public class GroupCommitLogStoreDataBaseDAO extends LogStoreDataBaseDAO {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GroupCommitLogStoreDataBaseDAO.class);
+
+    private static final long POLL_TIMEOUT_MILLIS = 100L;
+
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+
+    private final int maxBatchSize;
+
+    private final long windowNanos;
+
+    private final Thread flusher;
+
+    private volatile boolean running = true;
+
+    /**
+     * Instantiates a new group commit log store dao with the configured batch size and window.
+     *
+     * @param logStoreDataSource the log store data source
+     */
+    public GroupCommitLogStoreDataBaseDAO(DataSource logStoreDataSource) {
+        this(
+                logStoreDataSource,
+                CONFIG.getInt(
+                        ConfigurationKeys.STORE_DB_GROUP_COMMIT_MAX_BATCH_SIZE,
+                        DEFAULT_STORE_DB_GROUP_COMMIT_MAX_BATCH_SIZE),
+                CONFIG.getLong(
+                        ConfigurationKeys.STORE_DB_GROUP_COMMIT_WINDOW_MILLIS,
+                        DEFAULT_STORE_DB_GROUP_COMMIT_WINDOW_MILLIS));
+    }
+
+    /**
+     * Instantiates a new group commit log store dao.
+     *
+     * @param logStoreDataSource the log store data source
+     * @param maxBatchSize the max writes in one transaction
+     * @param windowMillis how long the flusher waits for more writes once it got the first one, 0 means no wait
+     */
+    public GroupCommitLogStoreDataBaseDAO(DataSource logStoreDataSource, int maxBatchSize, long windowMillis) {
+        super(logStoreDataSource);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, windowMillis));
+        this.flusher = new NamedThreadFactory("GroupCommitLogStore", 1, true).newThread(this::flushLoop);
+        this.flusher.start();
+    }
+
+    @Override
+    public boolean insertGlobalTransactionDO(GlobalTransactionDO globalTransactionDO) {
+        String sql = LogStoreSqlsFactory.getLogStoreSqls(dbType).getInsertGlobalTransactionSQL(globalTable);
+        return write(new PendingWrite(
+                sql, ps -> setInsertGlobalTransactionParams(ps, globalTransactionDO), true, true));
+    }
+
+    @Override
+    public boolean updateGlobalTransactionDO(GlobalTransactionDO globalTransactionDO) {
+        String sql = LogStoreSqlsFactory.getLogStoreSqls(dbType).getUpdateGlobalTransactionStatusSQL(globalTable);
+        return write(
+                sql,
+                ps -> {
+                    ps.setInt(1, globalTransactionDO.getStatus());
+                    ps.setString(2, globalTransactionDO.getXid());
+                },
+                true);
+    }
+
+    @Override
+    public boolean updateGlobalTransactionDO(GlobalTransactionDO globalTransactionDO, Integer expectedStatus) {
+        String sql =
+                LogStoreSqlsFactory.getLogStoreSqls(dbType).getUpdateGlobalTransactionStatusByStatusSQL(globalTable);
+        // the result decides the status transition, so it is not batched: a batch may not report the row count
+        return write(
+                sql,
+                ps -> {
+                    ps.setInt(1, globalTransactionDO.getStatus());
+                    ps.setString(2, globalTransactionDO.getXid());
+                    ps.setInt(3, expectedStatus);
+                },
+                false);
+    }
+
+    @Override
+    public boolean deleteGlobalTransactionDO(GlobalTransactionDO globalTransactionDO) {
+        String sql = LogStoreSqlsFactory.getLogStoreSqls(dbType).getDeleteGlobalTransactionSQL(globalTable);
+        write(sql, ps -> ps.setString(1, globalTransactionDO.getXid()), true);
+        return true;
+    }
+
+    @Override
+    public boolean insertBranchTransactionDO(BranchTransactionDO branchTransactionDO) {
+        String sql = LogStoreSqlsFactory.getLogStoreSqls(dbType).getInsertBranchTransactionSQL(branchTable);
+        return write(new PendingWrite(
+                sql, ps -> setInsertBranchTransactionParams(ps, branchTransactionDO), true, true));
+    }
+
+    @Override
+    public boolean updateBranchTransactionDO(BranchTransactionDO branchTransactionDO) {
+        String sql = getUpdateBranchTransactionSQL(branchTransactionDO);
+        return write(sql, ps -> setUpdateBranchTransactionParams(ps, branchTransactionDO), true);
+    }
+
+    @Override
+    public boolean deleteBranchTransactionDO(BranchTransactionDO branchTransactionDO) {
+        String sql = LogStoreSqlsFactory.getLogStoreSqls(dbType).getDeleteBranchTransactionByBranchIdSQL(branchTable);
+        write(
+                sql,
+                ps -> {
+                    ps.setString(1, branchTransactionDO.getXid());
+                    ps.setLong(2, branchTransactionDO.getBranchId());
+                },
+                true);
+        return true;
+    }
+
+    /**
+     * Stop accepting writes, the flusher drains what is already queued before it exits.
+     */
+    public void shutdown() {
+        running = false;
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        PendingWrite left;
+        while ((left = queue.poll()) != null) {
+            left.future.completeExceptionally(new StoreException("group commit log store is shut down"));
+        }
+    }
+
+    private boolean write(String sql, ParamsSetter setter, boolean batchable) {
+        return write(new PendingWrite(sql, setter, batchable, false));
+    }
+
+    private boolean write(PendingWrite write) {
+        if (!running) {
+            throw new StoreException("group commit log store is shut down");
+        }
+        queue.offer(write);
+        try {
+            return write.future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof StoreException ? (StoreException) cause : new StoreException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StoreException(e);
+        }
+    }
+
+    private void flushLoop() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            collect(batch);
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void collect(List<PendingWrite> batch) {
+        try {
+            PendingWrite first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            if (first == null) {
+                return;
+            }
+            batch.add(first);
+            queue.drainTo(batch, maxBatchSize - 1);
+            long deadline = System.nanoTime() + windowNanos;
+            while (batch.size() < maxBatchSize) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    break;
+                }
+                batch.add(next);
+                queue.drainTo(batch, maxBatchSize - batch.size());
+            }
+        } catch (InterruptedException e) {
+            // flush what has been collected, the loop ends once shutdown is requested
+            LOGGER.warn("group commit flusher interrupted");
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        boolean[] results;
+        try {
+            results = executeInTransaction(batch);
+        } catch (SQLException | RuntimeException e) {
+            boolean mayBeCommitted = e instanceof CommitFailedException;
+            if (batch.size() == 1 && !mayBeCommitted) {
+                batch.get(0).future.completeExceptionally(new StoreException(e));
+                return;
+            }
+            // one failed write must not fail the others, and a failed commit may still have gone through,
+            // so retry them one by one
+            LOGGER.warn("group commit of {} writes failed, retry them one by one: {}", batch.size(), e.getMessage());
+            for (PendingWrite write : batch) {
+                executeAlone(write, mayBeCommitted);
+            }
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).future.complete(results[i]);
+        }
+    }
+
+    private boolean[] executeInTransaction(List<PendingWrite> batch) throws SQLException {
+        boolean[] results = new boolean[batch.size()];
+        Connection conn = null;
+        try {
+            conn = logStoreDataSource.getConnection();
+            conn.setAutoCommit(false);
+            int i = 0;
+            while (i < batch.size()) {
+                PendingWrite first = batch.get(i);
+                int end = i + 1;
+                if (first.batchable) {
+                    while (end < batch.size()
+                            && batch.get(end).batchable
+                            && batch.get(end).sql.equals(first.sql)) {
+                        end++;
+                    }
+                }
+                try (PreparedStatement ps = conn.prepareStatement(first.sql)) {
+                    if (end - i == 1) {
+                        first.setter.setParams(ps);
+                        results[i] = ps.executeUpdate() > 0;
+                    } else {
+                        for (int j = i; j < end; j++) {
+                            batch.get(j).setter.setParams(ps);
+                            ps.addBatch();
+                        }
+                        int[] counts = ps.executeBatch();
+                        for (int j = i; j < end; j++) {
+                            int count = counts[j - i];
+                            results[j] = count > 0 || count == Statement.SUCCESS_NO_INFO;
+                        }
+                    }
+                }
+                i = end;
+            }
+            try {
+                conn.commit();
+            } catch (SQLException e) {
+                throw new CommitFailedException(e);
+            }
+            return results;
+        } catch (SQLException | RuntimeException e) {
+            rollback(conn);
+            throw e;
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException e) {
+                    LOGGER.warn("reset auto commit failed: {}", e.getMessage());
+                }
+            }
+            IOUtil.close(conn);
+        }
+    }
+
+    private void executeAlone(PendingWrite write, boolean mayBeCommitted) {
+        Connection conn = null;
+        PreparedStatement ps = null;
+        try {
+            conn = logStoreDataSource.getConnection();
+            conn.setAutoCommit(true);
+            ps = conn.prepareStatement(write.sql);
+            write.setter.setParams(ps);
+            write.future.complete(ps.executeUpdate() > 0);
+        } catch (SQLException e) {
+            if (mayBeCommitted && write.insert && isDuplicateKey(e)) {
+                // every statement of the group succeeded before the commit failed, so the row is our own
+                LOGGER.info("insert already committed by the failed group commit: {}", e.getMessage());
+                write.future.complete(true);
+            } else {
+                write.future.completeExceptionally(new StoreException(e));
+            }
+        } catch (RuntimeException e) {
+            write.future.completeExceptionally(new StoreException(e));
+        } finally {
+            IOUtil.close(ps, conn);
+        }
+    }
+
+    private static boolean isDuplicateKey(SQLException e) {
+        return e instanceof SQLIntegrityConstraintViolationException || "23505".equals(e.getSQLState());
+    }
+
+    private static void rollback(Connection conn) {
+        if (conn == null) {
+            return;
+        }
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            LOGGER.warn("rollback group commit failed: {}", e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface ParamsSetter {
+        void setParams(PreparedStatement ps) throws SQLException;
+    }
+
+    private static class PendingWrite {
+        private final String sql;
+        private final ParamsSetter setter;
+        private final boolean batchable;
+        private final boolean insert;
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+        PendingWrite(String sql, ParamsSetter setter, boolean batchable, boolean insert) {
+            this.sql = sql;
+            this.setter = setter;
+            this.batchable = batchable;
+            this.insert = insert;
+        }
+    }
+
+    /**
+     * The commit of a group failed, whether the database committed it is unknown.
+     */
+    private static class CommitFailedException extends SQLException {
+        CommitFailedException(SQLException cause) {
+            super(cause.getMessage(), cause.getSQLState(), cause.getErrorCode(), cause);
+        }
+    }
+}
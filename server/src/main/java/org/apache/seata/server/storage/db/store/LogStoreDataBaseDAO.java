@@ -80,7 +80,10 @@ public class LogStoreDataBaseDAO implements LogStore {
      */
     protected String branchTable;
 
-    private String dbType;
+    /**
+     * The Db type.
+     */
+    protected String dbType;
 
     private int transactionNameColumnSize = TRANSACTION_NAME_DEFAULT_SIZE;
 
@@ -197,23 +200,10 @@ public class LogStoreDataBaseDAO implements LogStore {
         Connection conn = null;
         PreparedStatement ps = null;
         try {
-            int index = 1;
             conn = logStoreDataSource.getConnection();
             conn.setAutoCommit(true);
             ps = conn.prepareStatement(sql);
-            ps.setString(index++, globalTransactionDO.getXid());
-            ps.setLong(index++, globalTransactionDO.getTransactionId());
-            ps.setInt(index++, globalTransactionDO.getStatus());
-            ps.setString(index++, globalTransactionDO.getApplicationId());
-            ps.setString(index++, globalTransactionDO.getTransactionServiceGroup());
-            String transactionName = globalTransactionDO.getTransactionName();
-            transactionName = transactionName.length() > transactionNameColumnSize
-                    ? transactionName.substring(0, transactionNameColumnSize)
-                    : transactionName;
-            ps.setString(index++, transactionName);
-            ps.setInt(index++, globalTransactionDO.getTimeout());
-            ps.setLong(index++, globalTransactionDO.getBeginTime());
-            ps.setString(index++, globalTransactionDO.getApplicationData());
+            setInsertGlobalTransactionParams(ps, globalTransactionDO);
             return ps.executeUpdate() > 0;
         } catch (SQLException e) {
             throw new StoreException(e);
@@ -222,6 +212,31 @@ public class LogStoreDataBaseDAO implements LogStore {
         }
     }
 
+    /**
+     * Bind the parameters of the insert global transaction sql.
+     *
+     * @param ps the prepared statement
+     * @param globalTransactionDO the global transaction do
+     * @throws SQLException the sql exception
+     */
+    protected void setInsertGlobalTransactionParams(PreparedStatement ps, GlobalTransactionDO globalTransactionDO)
+            throws SQLException {
+        int index = 1;
+        ps.setString(index++, globalTransactionDO.getXid());
+        ps.setLong(index++, globalTransactionDO.getTransactionId());
+        ps.setInt(index++, globalTransactionDO.getStatus());
+        ps.setString(index++, globalTransactionDO.getApplicationId());
+        ps.setString(index++, globalTransactionDO.getTransactionServiceGroup());
+        String transactionName = globalTransactionDO.getTransactionName();
+        transactionName = transactionName.length() > transactionNameColumnSize
+                ? transactionName.substring(0, transactionNameColumnSize)
+                : transactionName;
+        ps.setString(index++, transactionName);
+        ps.setInt(index++, globalTransactionDO.getTimeout());
+        ps.setLong(index++, globalTransactionDO.getBeginTime());
+        ps.setString(index++, globalTransactionDO.getApplicationData());
+    }
+
     @Override
     public boolean updateGlobalTransactionDO(GlobalTransactionDO globalTransactionDO) {
         String sql = LogStoreSqlsFactory.getLogStoreSqls(dbType).getUpdateGlobalTransactionStatusSQL(globalTable);
@@ -343,19 +358,10 @@ public class LogStoreDataBaseDAO implements LogStore {
         Connection conn = null;
         PreparedStatement ps = null;
         try {
-            int index = 1;
             conn = logStoreDataSource.getConnection();
             conn.setAutoCommit(true);
             ps = conn.prepareStatement(sql);
-            ps.setString(index++, branchTransactionDO.getXid());
-            ps.setLong(index++, branchTransactionDO.getTransactionId());
-            ps.setLong(index++, branchTransactionDO.getBranchId());
-            ps.setString(index++, branchTransactionDO.getResourceGroupId());
-            ps.setString(index++, branchTransactionDO.getResourceId());
-            ps.setString(index++, branchTransactionDO.getBranchType());
-            ps.setInt(index++, branchTransactionDO.getStatus());
-            ps.setString(index++, branchTransactionDO.getClientId());
-            ps.setString(index++, branchTransactionDO.getApplicationData());
+            setInsertBranchTransactionParams(ps, branchTransactionDO);
             return ps.executeUpdate() > 0;
         } catch (SQLException e) {
             throw new StoreException(e);
@@ -364,25 +370,37 @@ public class LogStoreDataBaseDAO implements LogStore {
         }
     }
 
+    /**
+     * Bind the parameters of the insert branch transaction sql.
+     *
+     * @param ps the prepared statement
+     * @param branchTransactionDO the branch transaction do
+     * @throws SQLException the sql exception
+     */
+    protected void setInsertBranchTransactionParams(PreparedStatement ps, BranchTransactionDO branchTransactionDO)
+            throws SQLException {
+        int index = 1;
+        ps.setString(index++, branchTransactionDO.getXid());
+        ps.setLong(index++, branchTransactionDO.getTransactionId());
+        ps.setLong(index++, branchTransactionDO.getBranchId());
+        ps.setString(index++, branchTransactionDO.getResourceGroupId());
+        ps.setString(index++, branchTransactionDO.getResourceId());
+        ps.setString(index++, branchTransactionDO.getBranchType());
+        ps.setInt(index++, branchTransactionDO.getStatus());
+        ps.setString(index++, branchTransactionDO.getClientId());
+        ps.setString(index++, branchTransactionDO.getApplicationData());
+    }
+
     @Override
     public boolean updateBranchTransactionDO(BranchTransactionDO branchTransactionDO) {
-        boolean shouldUpdateAppData = StringUtils.isNotBlank(branchTransactionDO.getApplicationData());
-        String sql = shouldUpdateAppData
-                ? LogStoreSqlsFactory.getLogStoreSqls(dbType).getUpdateBranchTransactionStatusAppDataSQL(branchTable)
-                : LogStoreSqlsFactory.getLogStoreSqls(dbType).getUpdateBranchTransactionStatusSQL(branchTable);
+        String sql = getUpdateBranchTransactionSQL(branchTransactionDO);
         Connection conn = null;
         PreparedStatement ps = null;
         try {
-            int index = 1;
             conn = logStoreDataSource.getConnection();
             conn.setAutoCommit(true);
             ps = conn.prepareStatement(sql);
-            ps.setInt(index++, branchTransactionDO.getStatus());
-            if (shouldUpdateAppData) {
-                ps.setString(index++, branchTransactionDO.getApplicationData());
-            }
-            ps.setString(index++, branchTransactionDO.getXid());
-            ps.setLong(index++, branchTransactionDO.getBranchId());
+            setUpdateBranchTransactionParams(ps, branchTransactionDO);
             return ps.executeUpdate() > 0;
         } catch (SQLException e) {
             throw new StoreException(e);
@@ -391,6 +409,36 @@ public class LogStoreDataBaseDAO implements LogStore {
         }
     }
 
+    /**
+     * Get the update branch transaction sql, the application data is only updated when it is not blank.
+     *
+     * @param branchTransactionDO the branch transaction do
+     * @return the sql
+     */
+    protected String getUpdateBranchTransactionSQL(BranchTransactionDO branchTransactionDO) {
+        return StringUtils.isNotBlank(branchTransactionDO.getApplicationData())
+                ? LogStoreSqlsFactory.getLogStoreSqls(dbType).getUpdateBranchTransactionStatusAppDataSQL(branchTable)
+                : LogStoreSqlsFactory.getLogStoreSqls(dbType).getUpdateBranchTransactionStatusSQL(branchTable);
+    }
+
+    /**
+     * Bind the parameters of the sql returned by {@link #getUpdateBranchTransactionSQL(BranchTransactionDO)}.
+     *
+     * @param ps the prepared statement
+     * @param branchTransactionDO the branch transaction do
+     * @throws SQLException the sql exception
+     */
+    protected void setUpdateBranchTransactionParams(PreparedStatement ps, BranchTransactionDO branchTransactionDO)
+            throws SQLException {
+        int index = 1;
+        ps.setInt(index++, branchTransactionDO.getStatus());
+        if (StringUtils.isNotBlank(branchTransactionDO.getApplicationData())) {
+            ps.setString(index++, branchTransactionDO.getApplicationData());
+        }
+        ps.setString(index++, branchTransactionDO.getXid());
+        ps.setLong(index++, branchTransactionDO.getBranchId());
+    }
+
     @Override
     public boolean deleteBranchTransactionDO(BranchTransactionDO branchTransactionDO) {
         String sql = LogStoreSqlsFactory.getLogStoreSqls(dbType).getDeleteBranchTransactionByBranchIdSQL(branchTable);
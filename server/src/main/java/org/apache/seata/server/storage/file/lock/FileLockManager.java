@@ -17,9 +17,13 @@
 package org.apache.seata.server.storage.file.lock;
 
 import org.apache.seata.common.loader.LoadLevel;
+import org.apache.seata.common.util.StringUtils;
+import org.apache.seata.config.ConfigurationFactory;
 import org.apache.seata.core.exception.TransactionException;
 import org.apache.seata.core.lock.Locker;
 import org.apache.seata.server.lock.AbstractLockManager;
+import org.apache.seata.server.lock.LockWaitQueue;
+import org.apache.seata.server.lock.LockWaiter;
 import org.apache.seata.server.session.BranchSession;
 import org.apache.seata.server.session.GlobalSession;
 import org.apache.seata.server.storage.raft.lock.RaftLockManager;
@@ -27,6 +31,8 @@ import org.slf4j.MDC;
 
 import java.util.List;
 
+import static org.apache.seata.common.ConfigurationKeys.LOCK_WAIT_MAX_WAITERS;
+import static org.apache.seata.common.DefaultValues.DEFAULT_LOCK_WAIT_MAX_WAITERS;
 import static org.apache.seata.core.context.RootContext.MDC_KEY_BRANCH_ID;
 
 /**
@@ -36,11 +42,46 @@ import static org.apache.seata.core.context.RootContext.MDC_KEY_BRANCH_ID;
 @LoadLevel(name = "file")
 public class FileLockManager extends AbstractLockManager {
 
+    private final LockWaitQueue lockWaitQueue = new LockWaitQueue(
+            ConfigurationFactory.getInstance().getInt(LOCK_WAIT_MAX_WAITERS, DEFAULT_LOCK_WAIT_MAX_WAITERS));
+
     @Override
     public Locker getLocker(BranchSession branchSession) {
         return new FileLocker(branchSession);
     }
 
+    @Override
+    public boolean releaseLock(BranchSession branchSession) throws TransactionException {
+        return releaseLocalLock(branchSession);
+    }
+
+    @Override
+    public LockWaiter newLockWaiter(String xid, String resourceId, String lockKey) {
+        if (StringUtils.isBlank(lockKey)) {
+            return null;
+        }
+        return lockWaitQueue.newWaiter(collectRowLocks(lockKey, resourceId, xid));
+    }
+
+    /**
+     * Wake the branch registers waiting for the rows of a branch whose locks were released.
+     *
+     * @param branchSession the branch session
+     */
+    protected void signalLockWaiters(BranchSession branchSession) {
+        if (lockWaitQueue.hasWaiters()) {
+            lockWaitQueue.signal(collectRowLocks(branchSession));
+        }
+    }
+
+    private boolean releaseLocalLock(BranchSession branchSession) throws TransactionException {
+        try {
+            return super.releaseLock(branchSession);
+        } finally {
+            signalLockWaiters(branchSession);
+        }
+    }
+
     @Override
     public boolean releaseGlobalSessionLock(GlobalSession globalSession) throws TransactionException {
         List<BranchSession> branchSessions = globalSession.getBranchSessions();
@@ -49,7 +90,7 @@ public class FileLockManager extends AbstractLockManager {
             try {
                 MDC.put(MDC_KEY_BRANCH_ID, String.valueOf(branchSession.getBranchId()));
                 releaseLockResult = this instanceof RaftLockManager
-                        ? super.releaseLock(branchSession)
+                        ? releaseLocalLock(branchSession)
                         : this.releaseLock(branchSession);
             } finally {
                 MDC.remove(MDC_KEY_BRANCH_ID);
@@ -16,11 +16,9 @@
  */
 package org.apache.seata.server.storage.file.lock;
 
-import org.apache.seata.common.exception.FrameworkException;
 import org.apache.seata.common.exception.StoreException;
 import org.apache.seata.common.util.CollectionUtils;
 import org.apache.seata.core.exception.BranchTransactionException;
-import org.apache.seata.core.exception.TransactionException;
 import org.apache.seata.core.lock.AbstractLocker;
 import org.apache.seata.core.lock.RowLock;
 import org.apache.seata.core.model.LockStatus;
@@ -104,12 +102,9 @@ public class FileLocker extends AbstractLocker {
                         pk,
                         previousLockBranchSession.getXid(),
                         previousLockBranchSession.getBranchId());
-                try {
-                    // Release all acquired locks.
-                    branchSession.unlock();
-                } catch (TransactionException e) {
-                    throw new FrameworkException(e);
-                }
+                // Release all acquired locks, without the lock manager, as this rollback of a partial
+                // acquire is no real release and must not wake the branch registers waiting for the rows.
+                releaseLock(rowLocks);
                 if (!autoCommit && previousLockBranchSession.getLockStatus() == LockStatus.Rollbacking) {
                     failFast = true;
                     break;
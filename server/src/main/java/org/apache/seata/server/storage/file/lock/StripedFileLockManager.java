@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.storage.file.lock;
+
+import org.apache.seata.common.loader.LoadLevel;
+import org.apache.seata.common.util.StringUtils;
+import org.apache.seata.core.exception.TransactionException;
+import org.apache.seata.core.lock.Locker;
+import org.apache.seata.server.session.BranchSession;
+
+import java.util.Collections;
+
+/**
+ * The type striped file lock manager, keeps the row locks of file mode in a {@link StripedLockTable}.
+ *
+ */
+@LoadLevel(name = StripedFileLockManager.NAME)
+public class StripedFileLockManager extends FileLockManager {
+
+    /**
+     * The load level name, selected by store.file.lockType=striped in file lock mode.
+     */
+    public static final String NAME = "file-striped";
+
+    @Override
+    public Locker getLocker(BranchSession branchSession) {
+        return new StripedFileLocker(branchSession);
+    }
+
+    @Override
+    public boolean acquireLock(BranchSession branchSession, boolean autoCommit, boolean skipCheckLock)
+            throws TransactionException {
+        if (branchSession == null) {
+            throw new IllegalArgumentException("branchSession can't be null for memory/file locker.");
+        }
+        if (StringUtils.isNullOrEmpty(branchSession.getLockKey())) {
+            // no lock
+            return true;
+        }
+        return new StripedFileLocker(branchSession).acquireLock(branchSession.getParsedLockKey(), autoCommit);
+    }
+
+    @Override
+    public boolean releaseLock(BranchSession branchSession) throws TransactionException {
+        if (branchSession == null) {
+            throw new IllegalArgumentException("branchSession can't be null for memory/file locker.");
+        }
+        try {
+            return getLocker(branchSession).releaseLock(Collections.emptyList());
+        } catch (Exception t) {
+            LOGGER.error("unLock error, branchSession:{}", branchSession, t);
+            return false;
+        } finally {
+            signalLockWaiters(branchSession);
+        }
+    }
+}
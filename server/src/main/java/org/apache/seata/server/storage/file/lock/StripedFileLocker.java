@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.storage.file.lock;
+
+import org.apache.seata.common.exception.StoreException;
+import org.apache.seata.common.util.CollectionUtils;
+import org.apache.seata.core.exception.BranchTransactionException;
+import org.apache.seata.core.lock.AbstractLocker;
+import org.apache.seata.core.lock.RowLock;
+import org.apache.seata.core.model.LockStatus;
+import org.apache.seata.server.lock.ParsedLockKey;
+import org.apache.seata.server.session.BranchSession;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static org.apache.seata.core.exception.TransactionExceptionCode.LockKeyConflictFailFast;
+
+/**
+ * The type Striped file locker, a memory locker backed by {@link StripedLockTable}.
+ *
+ */
+public class StripedFileLocker extends AbstractLocker {
+
+    private static final StripedLockTable LOCK_TABLE = new StripedLockTable();
+
+    /**
+     * The Branch session.
+     */
+    protected BranchSession branchSession;
+
+    /**
+     * Instantiates a new Striped file locker.
+     *
+     * @param branchSession the branch session
+     */
+    public StripedFileLocker(BranchSession branchSession) {
+        this.branchSession = branchSession;
+    }
+
+    @Override
+    public boolean acquireLock(List<RowLock> rowLocks) {
+        return acquireLock(rowLocks, true, false);
+    }
+
+    @Override
+    public boolean acquireLock(List<RowLock> rowLocks, boolean autoCommit, boolean skipCheckLock) {
+        if (CollectionUtils.isEmpty(rowLocks)) {
+            // no lock
+            return true;
+        }
+        String resourceId = branchSession.getResourceId();
+        long[] keys = new long[rowLocks.size()];
+        String lastTableName = null;
+        int tableId = 0;
+        for (int i = 0; i < keys.length; i++) {
+            RowLock rowLock = rowLocks.get(i);
+            if (!Objects.equals(lastTableName, rowLock.getTableName())) {
+                lastTableName = rowLock.getTableName();
+                tableId = LOCK_TABLE.internTable(resourceId, lastTableName);
+            }
+            keys[i] = StripedLockTable.rowKey(tableId, rowLock.getPk());
+        }
+        return acquireLock(keys, autoCommit);
+    }
+
+    /**
+     * Acquire the locks of a parsed lock key, the pks are hashed from views of the lock key
+     * so no {@link RowLock} and no pk string is created.
+     *
+     * @param parsedLockKey the parsed lock key
+     * @param autoCommit    the auto commit
+     * @return true if all rows are locked
+     */
+    public boolean acquireLock(ParsedLockKey parsedLockKey, boolean autoCommit) {
+        if (parsedLockKey.isEmpty()) {
+            // no lock
+            return true;
+        }
+        String resourceId = branchSession.getResourceId();
+        long[] keys = new long[parsedLockKey.size()];
+        String lastTableName = null;
+        int tableId = 0;
+        for (int i = 0; i < keys.length; i++) {
+            // table names are shared by the rows of a table, identity is enough
+            String tableName = parsedLockKey.getTableName(i);
+            if (tableName != lastTableName) {
+                lastTableName = tableName;
+                tableId = LOCK_TABLE.internTable(resourceId, tableName);
+            }
+            keys[i] = StripedLockTable.rowKey(tableId, parsedLockKey.getPkView(i));
+        }
+        return acquireLock(keys, autoCommit);
+    }
+
+    private boolean acquireLock(long[] keys, boolean autoCommit) {
+        Arrays.sort(keys);
+        long holderBranchId = LOCK_TABLE.lock(keys, branchSession);
+        if (holderBranchId == StripedLockTable.ACQUIRED) {
+            return true;
+        }
+        BranchSession holder = LOCK_TABLE.getBranchSession(holderBranchId);
+        LOGGER.info(
+                "Global lock on [{}] is holding by xid {} branchId {}",
+                branchSession.getResourceId(),
+                holder != null ? holder.getXid() : null,
+                holderBranchId);
+        // Release all acquired locks.
+        LOCK_TABLE.unlock(branchSession.getBranchId());
+        if (!autoCommit && holder != null && holder.getLockStatus() == LockStatus.Rollbacking) {
+            throw new StoreException(new BranchTransactionException(LockKeyConflictFailFast));
+        }
+        return false;
+    }
+
+    @Override
+    public boolean releaseLock(List<RowLock> rowLock) {
+        // the keys held by the branch are tracked by the lock table, no need to parse the lock key again
+        LOCK_TABLE.unlock(branchSession.getBranchId());
+        return true;
+    }
+
+    @Override
+    public boolean isLockable(List<RowLock> rowLocks) {
+        if (CollectionUtils.isEmpty(rowLocks)) {
+            // no lock
+            return true;
+        }
+        long transactionId = rowLocks.get(0).getTransactionId();
+        String resourceId = rowLocks.get(0).getResourceId();
+        for (RowLock rowLock : rowLocks) {
+            int tableId = LOCK_TABLE.getTableId(resourceId, rowLock.getTableName());
+            if (tableId < 0) {
+                continue;
+            }
+            long key = StripedLockTable.rowKey(tableId, rowLock.getPk());
+            long lockingTransactionId = LOCK_TABLE.getHolderTransactionId(key);
+            if (lockingTransactionId != StripedLockTable.NO_HOLDER && lockingTransactionId != transactionId) {
+                LOGGER.info(
+                        "Global lock on [{}:{}] is holding by {}",
+                        rowLock.getTableName(),
+                        rowLock.getPk(),
+                        lockingTransactionId);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void updateLockStatus(String xid, LockStatus lockStatus) {}
+
+    @Override
+    public void cleanAllLocks() {
+        LOCK_TABLE.clear();
+    }
+
+    public static StripedLockTable getLockTable() {
+        return LOCK_TABLE;
+    }
+}
@@ -0,0 +1,401 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.storage.file.lock;
+
+import org.apache.seata.common.util.CollectionUtils;
+import org.apache.seata.server.session.BranchSession;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The in-memory row lock table of {@link StripedFileLocker}.
+ * <p>
+ * resourceId and tableName are interned into an int id, a row is identified by a 64 bit hash of the table id
+ * and the pk. The keys live in open-addressing tables of primitive longs, striped by the high bits of the key
+ * so unrelated rows do not contend. Every branch keeps a compact array of the keys it holds, releasing a branch
+ * is one pass over this array. Two different rows sharing the same 64 bit key only lead to a spurious lock
+ * conflict, never to a lost lock.
+ */
+public class StripedLockTable {
+
+    /**
+     * the lock result of a key newly locked by the branch
+     */
+    public static final long ACQUIRED = 0L;
+
+    /**
+     * the lock result of a key already locked by the same transaction
+     */
+    public static final long REENTERED = -1L;
+
+    /**
+     * the holder result of a free key
+     */
+    public static final long NO_HOLDER = 0L;
+
+    private static final int STRIPE_BITS = 6;
+
+    private static final int STRIPES = 1 << STRIPE_BITS;
+
+    private static final int INITIAL_STRIPE_CAPACITY = 64;
+
+    private static final long EMPTY = 0L;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final ConcurrentMap<String /* resourceId */, ConcurrentMap<String /* tableName */, Integer>> tableIds =
+            new ConcurrentHashMap<>();
+
+    private final AtomicInteger tableIdGenerator = new AtomicInteger();
+
+    private final ConcurrentMap<Long /* branchId */, BranchLocks> branchLocks = new ConcurrentHashMap<>();
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public StripedLockTable() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Intern the table of a resource into an int id.
+     *
+     * @param resourceId the resource id
+     * @param tableName  the table name
+     * @return the table id
+     */
+    public int internTable(String resourceId, String tableName) {
+        ConcurrentMap<String, Integer> resourceTables =
+                CollectionUtils.computeIfAbsent(tableIds, resourceId, key -> new ConcurrentHashMap<>(8));
+        return CollectionUtils.computeIfAbsent(resourceTables, tableName, key -> tableIdGenerator.incrementAndGet());
+    }
+
+    /**
+     * Get the id of a table without interning it.
+     *
+     * @param resourceId the resource id
+     * @param tableName  the table name
+     * @return the table id or -1 if the table was never locked
+     */
+    public int getTableId(String resourceId, String tableName) {
+        ConcurrentMap<String, Integer> resourceTables = tableIds.get(resourceId);
+        if (resourceTables == null) {
+            return -1;
+        }
+        Integer tableId = resourceTables.get(tableName);
+        return tableId == null ? -1 : tableId;
+    }
+
+    /**
+     * Build the row key of a pk in a table.
+     *
+     * @param tableId the table id
+     * @param pk      the pk
+     * @return the non zero row key
+     */
+    public static long rowKey(int tableId, CharSequence pk) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < pk.length(); i++) {
+            hash ^= pk.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        long key = mix(hash ^ ((long) tableId * 0x9e3779b97f4a7c15L));
+        return key == EMPTY ? 1L : key;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static int stripeOf(long key) {
+        return (int) (key >>> (Long.SIZE - STRIPE_BITS));
+    }
+
+    /**
+     * Lock the keys for a branch. Sorting the keys groups them by stripe, every stripe is locked once.
+     *
+     * @param keys          the row keys, sorted
+     * @param branchSession the branch session
+     * @return {@link #ACQUIRED} if all keys are locked by the transaction of the branch now,
+     * else the branch id holding the first conflicting key, the keys locked before the conflict stay locked
+     */
+    public long lock(long[] keys, BranchSession branchSession) {
+        long branchId = branchSession.getBranchId();
+        long transactionId = branchSession.getTransactionId();
+        BranchLocks holder =
+                CollectionUtils.computeIfAbsent(branchLocks, branchId, key -> new BranchLocks(branchSession));
+        int start = 0;
+        while (start < keys.length) {
+            int stripeIndex = stripeOf(keys[start]);
+            int end = start + 1;
+            while (end < keys.length && stripeOf(keys[end]) == stripeIndex) {
+                end++;
+            }
+            Stripe stripe = stripes[stripeIndex];
+            synchronized (stripe) {
+                for (int i = start; i < end; i++) {
+                    long result = stripe.lock(keys[i], branchId, transactionId);
+                    if (result == ACQUIRED) {
+                        holder.add(keys[i]);
+                    } else if (result != REENTERED) {
+                        return result;
+                    }
+                }
+            }
+            start = end;
+        }
+        return ACQUIRED;
+    }
+
+    /**
+     * Get the transaction holding the key.
+     *
+     * @param key the row key
+     * @return the transaction id or {@link #NO_HOLDER}
+     */
+    public long getHolderTransactionId(long key) {
+        Stripe stripe = stripes[stripeOf(key)];
+        synchronized (stripe) {
+            return stripe.getTransactionId(key);
+        }
+    }
+
+    /**
+     * Get the branch session which holds locks.
+     *
+     * @param branchId the branch id
+     * @return the branch session or null if the branch holds no lock
+     */
+    public BranchSession getBranchSession(long branchId) {
+        BranchLocks holder = branchLocks.get(branchId);
+        return holder == null ? null : holder.getBranchSession();
+    }
+
+    /**
+     * Release all locks of a branch.
+     *
+     * @param branchId the branch id
+     * @return the number of released keys
+     */
+    public int unlock(long branchId) {
+        BranchLocks holder = branchLocks.remove(branchId);
+        if (holder == null) {
+            return 0;
+        }
+        long[] keys = holder.sortedKeys();
+        int released = 0;
+        int start = 0;
+        while (start < keys.length) {
+            int stripeIndex = stripeOf(keys[start]);
+            int end = start + 1;
+            while (end < keys.length && stripeOf(keys[end]) == stripeIndex) {
+                end++;
+            }
+            Stripe stripe = stripes[stripeIndex];
+            synchronized (stripe) {
+                for (int i = start; i < end; i++) {
+                    if (stripe.unlock(keys[i], branchId)) {
+                        released++;
+                    }
+                }
+            }
+            start = end;
+        }
+        return released;
+    }
+
+    /**
+     * Number of locked rows, for monitoring and tests.
+     *
+     * @return the size
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+        branchLocks.clear();
+    }
+
+    /**
+     * The keys held by one branch.
+     */
+    static class BranchLocks {
+        private final BranchSession branchSession;
+
+        private long[] keys = new long[8];
+
+        private int size;
+
+        BranchLocks(BranchSession branchSession) {
+            this.branchSession = branchSession;
+        }
+
+        BranchSession getBranchSession() {
+            return branchSession;
+        }
+
+        synchronized void add(long key) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size << 1);
+            }
+            keys[size++] = key;
+        }
+
+        synchronized long[] sortedKeys() {
+            long[] sorted = Arrays.copyOf(keys, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+    /**
+     * A linear probing hash table of primitive keys, guarded by its own monitor.
+     */
+    static class Stripe {
+        private long[] keys;
+
+        private long[] branchIds;
+
+        private long[] transactionIds;
+
+        private int mask;
+
+        private int size;
+
+        Stripe() {
+            init(INITIAL_STRIPE_CAPACITY);
+        }
+
+        private void init(int capacity) {
+            keys = new long[capacity];
+            branchIds = new long[capacity];
+            transactionIds = new long[capacity];
+            mask = capacity - 1;
+            size = 0;
+        }
+
+        long lock(long key, long branchId, long transactionId) {
+            int i = (int) key & mask;
+            while (keys[i] != EMPTY) {
+                if (keys[i] == key) {
+                    return transactionIds[i] == transactionId ? REENTERED : branchIds[i];
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            branchIds[i] = branchId;
+            transactionIds[i] = transactionId;
+            if (++size << 1 > keys.length) {
+                resize();
+            }
+            return ACQUIRED;
+        }
+
+        long getTransactionId(long key) {
+            int i = (int) key & mask;
+            while (keys[i] != EMPTY) {
+                if (keys[i] == key) {
+                    return transactionIds[i];
+                }
+                i = (i + 1) & mask;
+            }
+            return NO_HOLDER;
+        }
+
+        boolean unlock(long key, long branchId) {
+            int i = (int) key & mask;
+            while (keys[i] != EMPTY) {
+                if (keys[i] == key) {
+                    // remove lock only if it locked by the branch
+                    if (branchIds[i] != branchId) {
+                        return false;
+                    }
+                    removeAt(i);
+                    return true;
+                }
+                i = (i + 1) & mask;
+            }
+            return false;
+        }
+
+        /**
+         * backward shift deletion, keeps the probe sequences intact without tombstones
+         */
+        private void removeAt(int hole) {
+            int i = hole;
+            int j = hole;
+            while (true) {
+                j = (j + 1) & mask;
+                if (keys[j] == EMPTY) {
+                    break;
+                }
+                int home = (int) keys[j] & mask;
+                boolean stay = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+                if (stay) {
+                    continue;
+                }
+                keys[i] = keys[j];
+                branchIds[i] = branchIds[j];
+                transactionIds[i] = transactionIds[j];
+                i = j;
+            }
+            keys[i] = EMPTY;
+            branchIds[i] = 0L;
+            transactionIds[i] = 0L;
+            size--;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            long[] oldBranchIds = branchIds;
+            long[] oldTransactionIds = transactionIds;
+            init(oldKeys.length << 1);
+            for (int k = 0; k < oldKeys.length; k++) {
+                if (oldKeys[k] != EMPTY) {
+                    lock(oldKeys[k], oldBranchIds[k], oldTransactionIds[k]);
+                }
+            }
+        }
+
+        void clear() {
+            init(INITIAL_STRIPE_CAPACITY);
+        }
+    }
+}
@@ -33,8 +33,10 @@ import org.apache.seata.server.session.SessionCondition;
 import org.apache.seata.server.storage.file.ReloadableStore;
 import org.apache.seata.server.storage.file.TransactionWriteStore;
 import org.apache.seata.server.storage.file.store.FileTransactionStoreManager;
+import org.apache.seata.server.storage.file.store.SegmentedFileTransactionStoreManager;
 import org.apache.seata.server.store.AbstractTransactionStoreManager;
 import org.apache.seata.server.store.SessionStorable;
+import org.apache.seata.server.store.StoreConfig;
 import org.apache.seata.server.store.TransactionStoreManager;
 
 import java.io.File;
@@ -92,8 +94,10 @@ public class FileSessionManager extends AbstractSessionManager implements Reload
     public FileSessionManager(String name, String sessionStoreFilePath) throws IOException {
         super(name);
         if (StringUtils.isNotBlank(sessionStoreFilePath)) {
-            transactionStoreManager =
-                    new FileTransactionStoreManager(sessionStoreFilePath + File.separator + name, this);
+            String fullFileName = sessionStoreFilePath + File.separator + name;
+            transactionStoreManager = StoreConfig.isFileSegmentEnabled()
+                    ? new SegmentedFileTransactionStoreManager(fullFileName, this)
+                    : new FileTransactionStoreManager(fullFileName, this);
         } else {
             transactionStoreManager = new AbstractTransactionStoreManager() {
                 @Override
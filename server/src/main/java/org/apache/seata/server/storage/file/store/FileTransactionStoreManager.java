@@ -20,6 +20,9 @@ import org.apache.seata.common.exception.StoreException;
 import org.apache.seata.common.thread.NamedThreadFactory;
 import org.apache.seata.common.util.BufferUtils;
 import org.apache.seata.common.util.CollectionUtils;
+import org.apache.seata.metrics.registry.Registry;
+import org.apache.seata.server.metrics.MeterIdConstants;
+import org.apache.seata.server.metrics.MetricsManager;
 import org.apache.seata.server.session.BranchSession;
 import org.apache.seata.server.session.GlobalSession;
 import org.apache.seata.server.session.SessionCondition;
@@ -28,6 +31,7 @@ import org.apache.seata.server.storage.file.FlushDiskMode;
 import org.apache.seata.server.storage.file.ReloadableStore;
 import org.apache.seata.server.storage.file.TransactionWriteStore;
 import org.apache.seata.server.store.AbstractTransactionStoreManager;
+import org.apache.seata.server.store.MpscRingBuffer;
 import org.apache.seata.server.store.SessionStorable;
 import org.apache.seata.server.store.StoreConfig;
 import org.apache.seata.server.store.TransactionStoreManager;
@@ -49,7 +53,9 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 
 import static org.apache.seata.core.context.RootContext.MDC_KEY_BRANCH_ID;
@@ -128,6 +134,14 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
 
     private static final int INT_BYTE_SIZE = 4;
 
+    private static final long GROUP_COMMIT_IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(MAX_WAIT_TIME_MILLS);
+
+    private static final long GROUP_COMMIT_FULL_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private ExecutorService groupCommitExecutor;
+
+    private GroupCommitRunnable groupCommitRunnable;
+
     /**
      * Instantiates a new File transaction store manager.
      *
@@ -146,6 +160,18 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
                 new NamedThreadFactory("fileTransactionStore", MAX_THREAD_WRITE, true));
         writeDataFileRunnable = new WriteDataFileRunnable();
         fileWriteExecutor.submit(writeDataFileRunnable);
+        if (StoreConfig.isFileGroupCommitEnabled()) {
+            groupCommitExecutor = new ThreadPoolExecutor(
+                    MAX_THREAD_WRITE,
+                    MAX_THREAD_WRITE,
+                    Integer.MAX_VALUE,
+                    TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<Runnable>(),
+                    new NamedThreadFactory("fileGroupCommit", MAX_THREAD_WRITE, true));
+            groupCommitRunnable = new GroupCommitRunnable(
+                    StoreConfig.getFileGroupCommitBufferSize(), StoreConfig.getFileGroupCommitMaxBatchSize());
+            groupCommitExecutor.submit(groupCommitRunnable);
+        }
         this.sessionManager = sessionManager;
     }
 
@@ -177,6 +203,9 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
 
     @Override
     public boolean writeSession(LogOperation logOperation, SessionStorable session) {
+        if (groupCommitRunnable != null) {
+            return writeSessionInGroup(logOperation, session);
+        }
         long curFileTrxNum;
         writeSessionLock.lock();
         try {
@@ -199,6 +228,29 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
         return true;
     }
 
+    /**
+     * encode on the caller thread, then hand the record to the group commit writer
+     * and wait until the batch containing it has been written and flushed
+     */
+    private boolean writeSessionInGroup(LogOperation logOperation, SessionStorable session) {
+        byte[] data;
+        try {
+            data = new TransactionWriteStore(session, logOperation).encode();
+        } catch (Exception exx) {
+            LOGGER.error("writeSession error, {}", exx.getMessage(), exx);
+            return false;
+        }
+        if (data == null || data.length >= Integer.MAX_VALUE - 3) {
+            return false;
+        }
+        GroupCommitRequest request = new GroupCommitRequest(data);
+        if (!groupCommitRunnable.putRequest(request)) {
+            LOGGER.error("group commit writer is stopped, session not written");
+            return false;
+        }
+        return request.waitForCommit(MAX_WAIT_FOR_FLUSH_TIME_MILLS);
+    }
+
     private void flushDisk(long curFileNum, FileChannel currFileChannel) {
 
         if (FLUSH_DISK_MODE == FlushDiskMode.SYNC_MODEL) {
@@ -325,20 +377,14 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
 
     @Override
     public void shutdown() {
+        stopping = true;
+        // the group commit writer still hands async flush requests to the file writer, stop it first
+        if (groupCommitExecutor != null) {
+            groupCommitRunnable.wakeup();
+            shutdownExecutor(groupCommitExecutor);
+        }
         if (fileWriteExecutor != null) {
-            fileWriteExecutor.shutdown();
-            stopping = true;
-            int retry = 0;
-            while (!fileWriteExecutor.isTerminated() && retry < MAX_SHUTDOWN_RETRY) {
-                ++retry;
-                try {
-                    Thread.sleep(SHUTDOWN_CHECK_INTERVAL);
-                } catch (InterruptedException ignore) {
-                }
-            }
-            if (retry >= MAX_SHUTDOWN_RETRY) {
-                fileWriteExecutor.shutdownNow();
-            }
+            shutdownExecutor(fileWriteExecutor);
         }
         try {
             if (currFileChannel.isOpen()) {
@@ -350,6 +396,21 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
         closeFile(currRaf);
     }
 
+    private void shutdownExecutor(ExecutorService executor) {
+        executor.shutdown();
+        int retry = 0;
+        while (!executor.isTerminated() && retry < MAX_SHUTDOWN_RETRY) {
+            ++retry;
+            try {
+                Thread.sleep(SHUTDOWN_CHECK_INTERVAL);
+            } catch (InterruptedException ignore) {
+            }
+        }
+        if (retry >= MAX_SHUTDOWN_RETRY) {
+            executor.shutdownNow();
+        }
+    }
+
     @Override
     public List<TransactionWriteStore> readWriteStore(int readSize, boolean isHistory) {
         File file = null;
@@ -564,6 +625,258 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
         }
     }
 
+    static class GroupCommitRequest {
+        private static final int STATE_QUEUED = 0;
+
+        private static final int STATE_TAKEN = 1;
+
+        private static final int STATE_CANCELLED = 2;
+
+        private final CountDownLatch countDownLatch = new CountDownLatch(1);
+
+        private final AtomicInteger state = new AtomicInteger(STATE_QUEUED);
+
+        private final byte[] data;
+
+        private final long enqueueNanos = System.nanoTime();
+
+        private volatile boolean success;
+
+        public GroupCommitRequest(byte[] data) {
+            this.data = data;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+
+        public long getEnqueueNanos() {
+            return enqueueNanos;
+        }
+
+        /**
+         * called by the writer before writing the request
+         *
+         * @return false if the caller gave up on it and it must not be written
+         */
+        public boolean take() {
+            return state.compareAndSet(STATE_QUEUED, STATE_TAKEN);
+        }
+
+        public void complete(boolean success) {
+            this.success = success;
+            this.countDownLatch.countDown();
+        }
+
+        /**
+         * wait for the batch of the request, on timeout the request is cancelled if the writer has not taken it yet,
+         * otherwise the outcome of its batch is waited for, so false always means it is not on disk
+         */
+        public boolean waitForCommit(long timeout) {
+            boolean interrupted = false;
+            try {
+                if (!this.countDownLatch.await(timeout, TimeUnit.MILLISECONDS)
+                        && state.compareAndSet(STATE_QUEUED, STATE_CANCELLED)) {
+                    LOGGER.error("wait for group commit timeout after {} ms", timeout);
+                    return false;
+                }
+            } catch (InterruptedException e) {
+                LOGGER.error("Interrupted", e);
+                interrupted = true;
+                if (state.compareAndSet(STATE_QUEUED, STATE_CANCELLED)) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            // the writer has taken the request, the outcome of its batch is what reaches disk
+            while (this.countDownLatch.getCount() > 0) {
+                try {
+                    this.countDownLatch.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return success;
+        }
+    }
+
+    /**
+     * Single writer of the group commit mode. Callers enqueue encoded records into a lock-free ring buffer,
+     * this thread drains them in batches, writes each batch through the write buffer and releases all
+     * callers of the batch after one flush covering the whole batch.
+     */
+    class GroupCommitRunnable implements Runnable {
+
+        private final MpscRingBuffer<GroupCommitRequest> ringBuffer;
+
+        private final int maxBatchSize;
+
+        private final List<GroupCommitRequest> batch;
+
+        private volatile Thread writerThread;
+
+        private volatile boolean waiting;
+
+        GroupCommitRunnable(int bufferSize, int maxBatchSize) {
+            this.ringBuffer = new MpscRingBuffer<>(bufferSize);
+            this.maxBatchSize = Math.max(1, maxBatchSize);
+            this.batch = new ArrayList<>(this.maxBatchSize);
+        }
+
+        /**
+         * enqueue a request, waiting for free slots while the writer is behind
+         *
+         * @return false if the store is stopping and the request was not enqueued
+         */
+        public boolean putRequest(GroupCommitRequest request) {
+            while (!stopping) {
+                if (ringBuffer.offer(request)) {
+                    if (waiting) {
+                        wakeup();
+                    }
+                    return true;
+                }
+                wakeup();
+                LockSupport.parkNanos(GROUP_COMMIT_FULL_WAIT_NANOS);
+            }
+            return false;
+        }
+
+        public void wakeup() {
+            Thread thread = writerThread;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        @Override
+        public void run() {
+            writerThread = Thread.currentThread();
+            while (!stopping || !ringBuffer.isEmpty()) {
+                try {
+                    ringBuffer.drain(this::addToBatch, maxBatchSize);
+                    if (batch.isEmpty()) {
+                        awaitRequest();
+                        continue;
+                    }
+                    commitBatch();
+                } catch (Exception exx) {
+                    LOGGER.error("group commit error: {}", exx.getMessage(), exx);
+                    completeBatch(false);
+                }
+            }
+        }
+
+        private void addToBatch(GroupCommitRequest request) {
+            // a request whose caller timed out is dropped, its caller already reported it as not written
+            if (request.take()) {
+                batch.add(request);
+            }
+        }
+
+        private void awaitRequest() {
+            waiting = true;
+            try {
+                if (ringBuffer.isEmpty() && !stopping) {
+                    LockSupport.parkNanos(this, GROUP_COMMIT_IDLE_WAIT_NANOS);
+                }
+            } finally {
+                waiting = false;
+            }
+        }
+
+        private void commitBatch() throws IOException {
+            boolean result;
+            writeSessionLock.lock();
+            try {
+                result = writeBatch();
+            } finally {
+                writeSessionLock.unlock();
+            }
+            long latencyNanos = System.nanoTime() - batch.get(0).getEnqueueNanos();
+            int batchSize = batch.size();
+            completeBatch(result);
+            Registry registry = MetricsManager.get().getRegistry();
+            if (registry != null) {
+                registry.getSummary(MeterIdConstants.SUMMARY_FILE_GROUP_COMMIT_BATCH)
+                        .increase(batchSize);
+                registry.getTimer(MeterIdConstants.TIMER_FILE_GROUP_COMMIT)
+                        .record(latencyNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        /**
+         * write the batch, a failed batch is cut off the file so none of its records is replayed
+         *
+         * @return true if the whole batch is written, false if none of it is
+         */
+        private boolean writeBatch() throws IOException {
+            // every batch flushes the write buffer, so the batch starts at the position of the file
+            long batchStartPosition = currFileChannel.position();
+            try {
+                for (GroupCommitRequest request : batch) {
+                    if (!writeDataFrame(request.getData())) {
+                        discardBatch(batchStartPosition);
+                        return false;
+                    }
+                }
+                if (!flushWriteBuffer(writeBuffer)) {
+                    discardBatch(batchStartPosition);
+                    return false;
+                }
+                if (FLUSH_DISK_MODE == FlushDiskMode.SYNC_MODEL) {
+                    currFileChannel.force(false);
+                }
+            } catch (IOException | RuntimeException e) {
+                discardBatch(batchStartPosition);
+                throw e;
+            }
+            lastModifiedTime = System.currentTimeMillis();
+            long curFileTrxNum = FILE_TRX_NUM.addAndGet(batch.size());
+            if (FLUSH_DISK_MODE == FlushDiskMode.SYNC_MODEL) {
+                long diff = curFileTrxNum - FILE_FLUSH_NUM.get();
+                FILE_FLUSH_NUM.addAndGet(diff);
+            } else {
+                writeDataFileRunnable.putRequest(new AsyncFlushRequest(curFileTrxNum, currFileChannel));
+            }
+            // the batch may cross the rotate boundary, it is written already even if the rotate fails
+            if (curFileTrxNum / PER_FILE_BLOCK_SIZE != (curFileTrxNum - batch.size()) / PER_FILE_BLOCK_SIZE
+                    && (System.currentTimeMillis() - trxStartTimeMills) > MAX_TRX_TIMEOUT_MILLS) {
+                try {
+                    if (!saveHistory()) {
+                        LOGGER.error("group commit save history failed after the batch was written");
+                    }
+                } catch (IOException e) {
+                    LOGGER.error("group commit save history error, {}", e.getMessage(), e);
+                }
+            }
+            return true;
+        }
+
+        /**
+         * drop what is left of a failed batch in the write buffer and cut the part already written off the file
+         */
+        private void discardBatch(long batchStartPosition) {
+            BufferUtils.clear(writeBuffer);
+            try {
+                currFileChannel.truncate(batchStartPosition);
+                currFileChannel.position(batchStartPosition);
+            } catch (IOException e) {
+                LOGGER.error("discard group commit batch error, {}", e.getMessage(), e);
+            }
+        }
+
+        private void completeBatch(boolean result) {
+            for (GroupCommitRequest request : batch) {
+                request.complete(result);
+            }
+            batch.clear();
+        }
+    }
+
     /**
      * The type Write data file runnable.
      */
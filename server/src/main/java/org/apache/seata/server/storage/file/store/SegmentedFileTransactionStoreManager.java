@@ -0,0 +1,771 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.storage.file.store;
+
+import org.apache.seata.common.exception.StoreException;
+import org.apache.seata.common.thread.NamedThreadFactory;
+import org.apache.seata.common.util.BufferUtils;
+import org.apache.seata.server.session.BranchSession;
+import org.apache.seata.server.session.GlobalSession;
+import org.apache.seata.server.session.SessionCondition;
+import org.apache.seata.server.session.SessionManager;
+import org.apache.seata.server.storage.file.FlushDiskMode;
+import org.apache.seata.server.storage.file.ReloadableStore;
+import org.apache.seata.server.storage.file.TransactionWriteStore;
+import org.apache.seata.server.store.AbstractTransactionStoreManager;
+import org.apache.seata.server.store.SessionStorable;
+import org.apache.seata.server.store.StoreConfig;
+import org.apache.seata.server.store.TransactionStoreManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The type Segmented file transaction store manager.
+ * <p>
+ * The log is split into fixed size, memory-mapped segment files. Every record is framed as
+ * {@code [int frameLength][short xidLength][xid][TransactionWriteStore]}, a zero frame length marks the end of
+ * the written part of a segment. When a segment is sealed, an index file with the xids still alive in it is
+ * written next to it, so recovery skips records of transactions that already ended. Segments are deleted from
+ * the head once no live transaction references them, and the live sessions of a pinned head segment are
+ * relocated into the active segment instead of rewriting the whole log.
+ * <p>
+ * Sessions left in the plain data files of {@link FileTransactionStoreManager} are replayed as the history once
+ * and copied into the segments, the plain files are deleted after that.
+ */
+public class SegmentedFileTransactionStoreManager extends AbstractTransactionStoreManager
+        implements TransactionStoreManager, ReloadableStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SegmentedFileTransactionStoreManager.class);
+
+    private static final String SEGMENT_DIR_POSTFIX = ".segments";
+
+    private static final String SEGMENT_FILE_POSTFIX = ".seg";
+
+    private static final String INDEX_FILE_POSTFIX = ".idx";
+
+    private static final String TMP_FILE_POSTFIX = ".tmp";
+
+    private static final String SEGMENT_FILE_NAME_FORMAT = "%020d";
+
+    private static final String LEGACY_HIS_FILE_POSTFIX = ".1";
+
+    /**
+     * present while the plain data files are copied into the segments
+     */
+    private static final String MIGRATING_FILE_NAME = "migrating";
+
+    private static final int INT_BYTE_SIZE = 4;
+
+    private static final int SHORT_BYTE_SIZE = 2;
+
+    private static final int MAX_FLUSH_TIME_MILLS = 1000;
+
+    /**
+     * sealed segments beyond this count get their head relocated, so one long-running
+     * transaction can not pin the whole log
+     */
+    private static final int MAX_SEALED_SEGMENTS = 8;
+
+    private static final FlushDiskMode FLUSH_DISK_MODE = StoreConfig.getFlushDiskMode();
+
+    private final File segmentDir;
+
+    private final int segmentSize;
+
+    private final SessionManager sessionManager;
+
+    private final ReentrantLock writeSessionLock = new ReentrantLock();
+
+    /**
+     * sealed segments ordered by id, guarded by writeSessionLock
+     */
+    private final TreeMap<Long, LogSegment> sealedSegments = new TreeMap<>();
+
+    /**
+     * the segments every live xid has records in, guarded by writeSessionLock
+     */
+    private final Map<String, Set<LogSegment>> xidSegments = new HashMap<>();
+
+    private volatile LogSegment activeSegment;
+
+    private volatile boolean dirty;
+
+    private boolean relocating = false;
+
+    private ScheduledExecutorService flushExecutor;
+
+    /**
+     * segments left by the previous run, replayed by reload, in id order
+     */
+    private final List<LogSegment> recoverSegments = new ArrayList<>();
+
+    private int recoverSegmentIndex = 0;
+
+    private boolean recovered = false;
+
+    /**
+     * plain data files of the file store still to be migrated, history file first
+     */
+    private final List<File> legacyFiles = new ArrayList<>();
+
+    private int legacyFileIndex = 0;
+
+    private DataInputStream legacyInput;
+
+    private final File migratingFile;
+
+    /**
+     * Instantiates a new Segmented file transaction store manager.
+     *
+     * @param fullFileName   the full file name, segments live in the directory of the same name with postfix
+     * @param sessionManager the session manager
+     * @throws IOException the io exception
+     */
+    public SegmentedFileTransactionStoreManager(String fullFileName, SessionManager sessionManager)
+            throws IOException {
+        this(fullFileName, sessionManager, StoreConfig.getFileSegmentSize());
+    }
+
+    SegmentedFileTransactionStoreManager(String fullFileName, SessionManager sessionManager, int segmentSize)
+            throws IOException {
+        this.sessionManager = sessionManager;
+        this.segmentSize = segmentSize;
+        this.segmentDir = new File(fullFileName + SEGMENT_DIR_POSTFIX);
+        if (!segmentDir.exists() && !segmentDir.mkdirs()) {
+            throw new IOException("create segment dir failed: " + segmentDir.getAbsolutePath());
+        }
+        this.migratingFile = new File(segmentDir, MIGRATING_FILE_NAME);
+        prepareLegacyMigration(fullFileName);
+        long nextSegmentId = loadSegments();
+        activeSegment = LogSegment.create(segmentDir, nextSegmentId, segmentSize);
+        if (FLUSH_DISK_MODE == FlushDiskMode.ASYNC_MODEL) {
+            flushExecutor =
+                    new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("segmentedFileTransactionStore", 1, true));
+            flushExecutor.scheduleAtFixedRate(
+                    this::flushActiveSegment, MAX_FLUSH_TIME_MILLS, MAX_FLUSH_TIME_MILLS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void prepareLegacyMigration(String fullFileName) throws IOException {
+        for (File file : new File[] {new File(fullFileName + LEGACY_HIS_FILE_POSTFIX), new File(fullFileName)}) {
+            if (file.isFile() && file.length() > 0) {
+                legacyFiles.add(file);
+            }
+        }
+        if (legacyFiles.isEmpty()) {
+            // a migration which deleted the plain files but not its marker
+            Files.deleteIfExists(migratingFile.toPath());
+            return;
+        }
+        File[] segmentFiles = segmentDir.listFiles(
+                (dir, name) -> name.endsWith(SEGMENT_FILE_POSTFIX) || name.endsWith(INDEX_FILE_POSTFIX));
+        if (segmentFiles != null && segmentFiles.length > 0) {
+            if (!migratingFile.exists()) {
+                throw new IOException("both the data file " + fullFileName + " and the segments in "
+                        + segmentDir.getAbsolutePath() + " hold sessions, keep only one of them");
+            }
+            // an interrupted migration, its segments hold only a part of the plain files
+            for (File file : segmentFiles) {
+                Files.delete(file.toPath());
+            }
+        }
+        if (!migratingFile.exists()) {
+            Files.createFile(migratingFile.toPath());
+        }
+        LOGGER.info("migrate the sessions of {} into segments", legacyFiles);
+    }
+
+    private long loadSegments() throws IOException {
+        File[] files = segmentDir.listFiles((dir, name) -> name.endsWith(SEGMENT_FILE_POSTFIX));
+        long maxSegmentId = -1;
+        TreeMap<Long, File> ordered = new TreeMap<>();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                try {
+                    long id = Long.parseLong(name.substring(0, name.length() - SEGMENT_FILE_POSTFIX.length()));
+                    ordered.put(id, file);
+                } catch (NumberFormatException e) {
+                    LOGGER.warn("ignore unknown file in segment dir: {}", name);
+                }
+            }
+        }
+        for (Map.Entry<Long, File> entry : ordered.entrySet()) {
+            recoverSegments.add(LogSegment.open(segmentDir, entry.getKey()));
+            maxSegmentId = entry.getKey();
+        }
+        return maxSegmentId + 1;
+    }
+
+    @Override
+    public boolean writeSession(LogOperation logOperation, SessionStorable session) {
+        String xid = getXid(session);
+        if (xid == null) {
+            return false;
+        }
+        byte[] data;
+        LogSegment segment;
+        writeSessionLock.lock();
+        try {
+            data = new TransactionWriteStore(session, logOperation).encode();
+            if (!appendRecord(xid, data)) {
+                return false;
+            }
+            if (logOperation == LogOperation.GLOBAL_REMOVE) {
+                markDead(xid);
+            }
+            segment = activeSegment;
+            dirty = true;
+        } catch (Exception exx) {
+            LOGGER.error("writeSession error, {}", exx.getMessage(), exx);
+            return false;
+        } finally {
+            writeSessionLock.unlock();
+        }
+        if (FLUSH_DISK_MODE == FlushDiskMode.SYNC_MODEL) {
+            segment.force();
+        }
+        return true;
+    }
+
+    private boolean appendRecord(String xid, byte[] data) throws IOException {
+        byte[] xidBytes = xid.getBytes(StandardCharsets.UTF_8);
+        int frameLength = SHORT_BYTE_SIZE + xidBytes.length + data.length;
+        if (INT_BYTE_SIZE + frameLength + INT_BYTE_SIZE > segmentSize) {
+            LOGGER.error("record of xid {} with {} bytes exceeds the segment size {}", xid, frameLength, segmentSize);
+            return false;
+        }
+        if (!activeSegment.hasRoom(frameLength)) {
+            rollSegment();
+        }
+        activeSegment.append(xidBytes, data);
+        track(xid, activeSegment);
+        return true;
+    }
+
+    private void rollSegment() throws IOException {
+        LogSegment sealed = activeSegment;
+        sealed.force();
+        sealed.writeIndex();
+        sealedSegments.put(sealed.getId(), sealed);
+        activeSegment = LogSegment.create(segmentDir, sealed.getId() + 1, segmentSize);
+        deleteDeadSegments();
+        if (relocating) {
+            return;
+        }
+        relocating = true;
+        try {
+            while (sealedSegments.size() > MAX_SEALED_SEGMENTS) {
+                relocateHeadSegment();
+            }
+        } finally {
+            relocating = false;
+        }
+    }
+
+    /**
+     * write the current state of every live session of the head segment into the active segment,
+     * after that their older records are no longer needed and the head segment can be deleted
+     */
+    private void relocateHeadSegment() throws IOException {
+        LogSegment head = sealedSegments.firstEntry().getValue();
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("relocate {} live sessions of segment {}", head.getLiveXids().size(), head.getId());
+        }
+        Set<LogSegment> changedSegments = new HashSet<>();
+        for (String xid : new ArrayList<>(head.getLiveXids())) {
+            Set<LogSegment> segments = xidSegments.remove(xid);
+            if (segments != null) {
+                for (LogSegment segment : segments) {
+                    segment.getLiveXids().remove(xid);
+                    changedSegments.add(segment);
+                }
+            }
+            GlobalSession globalSession = sessionManager != null ? sessionManager.findGlobalSession(xid) : null;
+            if (globalSession == null) {
+                continue;
+            }
+            appendRecord(xid, new TransactionWriteStore(globalSession, LogOperation.GLOBAL_ADD).encode());
+            for (BranchSession branchSession : globalSession.getSortedBranches()) {
+                appendRecord(xid, new TransactionWriteStore(branchSession, LogOperation.BRANCH_ADD).encode());
+            }
+        }
+        activeSegment.force();
+        // the relocated xids must be skipped in the sealed segments from now on
+        for (LogSegment segment : changedSegments) {
+            if (segment != activeSegment && sealedSegments.containsKey(segment.getId())) {
+                segment.writeIndex();
+            }
+        }
+        head.getLiveXids().clear();
+        deleteDeadSegments();
+    }
+
+    private void track(String xid, LogSegment segment) {
+        if (segment.getLiveXids().add(xid)) {
+            xidSegments.computeIfAbsent(xid, k -> new HashSet<>()).add(segment);
+        }
+    }
+
+    private void markDead(String xid) {
+        Set<LogSegment> segments = xidSegments.remove(xid);
+        if (segments == null) {
+            return;
+        }
+        for (LogSegment segment : segments) {
+            segment.getLiveXids().remove(xid);
+        }
+        if (!sealedSegments.isEmpty()
+                && sealedSegments.firstEntry().getValue().getLiveXids().isEmpty()) {
+            deleteDeadSegments();
+        }
+    }
+
+    /**
+     * only delete from the head: a dead segment may still hold the GLOBAL_REMOVE record
+     * of a transaction that has older records in an earlier segment
+     */
+    private void deleteDeadSegments() {
+        Iterator<LogSegment> iterator = sealedSegments.values().iterator();
+        while (iterator.hasNext()) {
+            LogSegment segment = iterator.next();
+            if (!segment.getLiveXids().isEmpty()) {
+                break;
+            }
+            iterator.remove();
+            segment.delete();
+        }
+    }
+
+    private void flushActiveSegment() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        try {
+            activeSegment.force();
+        } catch (Exception exx) {
+            LOGGER.error("flush segment error: {}", exx.getMessage(), exx);
+        }
+    }
+
+    private static String getXid(SessionStorable session) {
+        if (session instanceof GlobalSession) {
+            return ((GlobalSession) session).getXid();
+        }
+        if (session instanceof BranchSession) {
+            return ((BranchSession) session).getXid();
+        }
+        return null;
+    }
+
+    @Override
+    public List<TransactionWriteStore> readWriteStore(int readSize, boolean isHistory) {
+        List<TransactionWriteStore> transactionWriteStores = new ArrayList<>(readSize);
+        if (isHistory) {
+            return readLegacyStore(readSize, transactionWriteStores);
+        }
+        writeSessionLock.lock();
+        try {
+            while (recoverSegmentIndex < recoverSegments.size() && transactionWriteStores.size() < readSize) {
+                LogSegment segment = recoverSegments.get(recoverSegmentIndex);
+                RecoveredRecord record = segment.readNext();
+                if (record == null) {
+                    segment.finishRecover();
+                    recoverSegmentIndex++;
+                    continue;
+                }
+                TransactionWriteStore writeStore = new TransactionWriteStore();
+                try {
+                    writeStore.decode(record.getData());
+                } catch (Exception ex) {
+                    LOGGER.error("decode segment {} error:{}", segment.getId(), ex.getMessage(), ex);
+                    continue;
+                }
+                track(record.getXid(), segment);
+                if (writeStore.getOperate() == LogOperation.GLOBAL_REMOVE) {
+                    markDead(record.getXid());
+                }
+                transactionWriteStores.add(writeStore);
+            }
+            return transactionWriteStores;
+        } finally {
+            writeSessionLock.unlock();
+        }
+    }
+
+    /**
+     * replay the plain data files, every record is copied into the active segment as it is read
+     */
+    private List<TransactionWriteStore> readLegacyStore(int readSize, List<TransactionWriteStore> stores) {
+        writeSessionLock.lock();
+        try {
+            while (legacyFileIndex < legacyFiles.size() && stores.size() < readSize) {
+                byte[] data = readLegacyFrame();
+                if (data == null) {
+                    closeLegacyInput();
+                    legacyFileIndex++;
+                    continue;
+                }
+                TransactionWriteStore writeStore = new TransactionWriteStore();
+                try {
+                    writeStore.decode(data);
+                } catch (Exception ex) {
+                    LOGGER.error("decode data file error:{}", ex.getMessage(), ex);
+                    continue;
+                }
+                String xid = getXid(writeStore.getSessionRequest());
+                if (xid == null || !appendRecord(xid, data)) {
+                    continue;
+                }
+                if (writeStore.getOperate() == LogOperation.GLOBAL_REMOVE) {
+                    markDead(xid);
+                }
+                stores.add(writeStore);
+            }
+            return stores;
+        } catch (IOException exx) {
+            throw new StoreException(exx, "migrate data file error: " + exx.getMessage());
+        } finally {
+            writeSessionLock.unlock();
+        }
+    }
+
+    /**
+     * @return the next {@code [int bodySize][body]} frame of the current plain file, null at its end
+     */
+    private byte[] readLegacyFrame() throws IOException {
+        if (legacyInput == null) {
+            legacyInput = new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(legacyFiles.get(legacyFileIndex))));
+        }
+        try {
+            int bodySize = legacyInput.readInt();
+            if (bodySize <= 0) {
+                return null;
+            }
+            byte[] data = new byte[bodySize];
+            legacyInput.readFully(data);
+            return data;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private void closeLegacyInput() throws IOException {
+        if (legacyInput != null) {
+            legacyInput.close();
+            legacyInput = null;
+        }
+    }
+
+    /**
+     * the copied sessions are on disk in the segments, the plain files are no longer needed
+     */
+    private void finishLegacyMigration() {
+        try {
+            closeLegacyInput();
+            activeSegment.force();
+            for (File file : legacyFiles) {
+                Files.deleteIfExists(file.toPath());
+            }
+            Files.deleteIfExists(migratingFile.toPath());
+            legacyFiles.clear();
+        } catch (IOException exx) {
+            throw new StoreException(exx, "finish migrating data file error: " + exx.getMessage());
+        }
+    }
+
+    @Override
+    public boolean hasRemaining(boolean isHistory) {
+        if (isHistory) {
+            writeSessionLock.lock();
+            try {
+                if (legacyFileIndex < legacyFiles.size()) {
+                    return true;
+                }
+                if (!legacyFiles.isEmpty()) {
+                    finishLegacyMigration();
+                }
+                return false;
+            } finally {
+                writeSessionLock.unlock();
+            }
+        }
+        writeSessionLock.lock();
+        try {
+            if (recoverSegmentIndex < recoverSegments.size()) {
+                return true;
+            }
+            if (!recovered) {
+                finishRecover();
+            }
+            return false;
+        } finally {
+            writeSessionLock.unlock();
+        }
+    }
+
+    /**
+     * the replayed segments become sealed segments with a fresh index of their live xids
+     */
+    private void finishRecover() {
+        recovered = true;
+        for (LogSegment segment : recoverSegments) {
+            sealedSegments.put(segment.getId(), segment);
+            try {
+                segment.writeIndex();
+            } catch (IOException exx) {
+                LOGGER.error("write index of segment {} error: {}", segment.getId(), exx.getMessage(), exx);
+            }
+        }
+        recoverSegments.clear();
+        deleteDeadSegments();
+    }
+
+    @Override
+    public GlobalSession readSession(String xid) {
+        throw new StoreException("unsupport for read from file, xid:" + xid);
+    }
+
+    @Override
+    public List<GlobalSession> readSession(SessionCondition sessionCondition) {
+        throw new StoreException("unsupport for read from file");
+    }
+
+    @Override
+    public void shutdown() {
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+        }
+        writeSessionLock.lock();
+        try {
+            activeSegment.force();
+        } catch (Exception exx) {
+            LOGGER.error("segment force error: {}", exx.getMessage(), exx);
+        } finally {
+            writeSessionLock.unlock();
+        }
+    }
+
+    static class RecoveredRecord {
+        private final String xid;
+
+        private final byte[] data;
+
+        RecoveredRecord(String xid, byte[] data) {
+            this.xid = xid;
+            this.data = data;
+        }
+
+        public String getXid() {
+            return xid;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+    }
+
+    /**
+     * A fixed size, memory-mapped segment of the session log.
+     */
+    static class LogSegment {
+
+        private final long id;
+
+        private final File file;
+
+        private final File indexFile;
+
+        private final MappedByteBuffer buffer;
+
+        private final Set<String> liveXids = new HashSet<>();
+
+        /**
+         * xids of the index written when the segment was sealed, null means replay everything
+         */
+        private Set<String> indexedXids;
+
+        private LogSegment(long id, File file, File indexFile, MappedByteBuffer buffer) {
+            this.id = id;
+            this.file = file;
+            this.indexFile = indexFile;
+            this.buffer = buffer;
+        }
+
+        static LogSegment create(File dir, long id, int segmentSize) throws IOException {
+            String name = String.format(SEGMENT_FILE_NAME_FORMAT, id);
+            File file = new File(dir, name + SEGMENT_FILE_POSTFIX);
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(segmentSize);
+                MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+                return new LogSegment(id, file, new File(dir, name + INDEX_FILE_POSTFIX), buffer);
+            }
+        }
+
+        static LogSegment open(File dir, long id) throws IOException {
+            String name = String.format(SEGMENT_FILE_NAME_FORMAT, id);
+            File file = new File(dir, name + SEGMENT_FILE_POSTFIX);
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+                LogSegment segment = new LogSegment(id, file, new File(dir, name + INDEX_FILE_POSTFIX), buffer);
+                segment.readIndex();
+                return segment;
+            }
+        }
+
+        long getId() {
+            return id;
+        }
+
+        Set<String> getLiveXids() {
+            return liveXids;
+        }
+
+        boolean hasRoom(int frameLength) {
+            // keep room for the trailing zero frame length
+            return buffer.remaining() >= INT_BYTE_SIZE + frameLength + INT_BYTE_SIZE;
+        }
+
+        void append(byte[] xidBytes, byte[] data) {
+            buffer.putInt(SHORT_BYTE_SIZE + xidBytes.length + data.length);
+            buffer.putShort((short) xidBytes.length);
+            buffer.put(xidBytes);
+            buffer.put(data);
+        }
+
+        void force() {
+            buffer.force();
+        }
+
+        /**
+         * Read the next record which may still matter, records of xids missing in the index are skipped,
+         * except GLOBAL_REMOVE records which are always replayed.
+         *
+         * @return the record or null at the end of the segment
+         */
+        RecoveredRecord readNext() {
+            while (buffer.remaining() > INT_BYTE_SIZE) {
+                try {
+                    int frameLength = buffer.getInt();
+                    if (frameLength <= SHORT_BYTE_SIZE || frameLength > buffer.remaining()) {
+                        return null;
+                    }
+                    int frameEnd = buffer.position() + frameLength;
+                    byte[] xidBytes = new byte[buffer.getShort()];
+                    buffer.get(xidBytes);
+                    String xid = new String(xidBytes, StandardCharsets.UTF_8);
+                    byte opCode = buffer.get(frameEnd - 1);
+                    if (indexedXids != null
+                            && !indexedXids.contains(xid)
+                            && opCode != LogOperation.GLOBAL_REMOVE.getCode()) {
+                        BufferUtils.position(buffer, frameEnd);
+                        continue;
+                    }
+                    byte[] data = new byte[frameEnd - buffer.position()];
+                    buffer.get(data);
+                    return new RecoveredRecord(xid, data);
+                } catch (BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+                    LOGGER.error("segment {} is truncated at {}", id, buffer.position());
+                    return null;
+                }
+            }
+            return null;
+        }
+
+        void finishRecover() {
+            indexedXids = null;
+        }
+
+        private void readIndex() throws IOException {
+            if (!indexFile.exists()) {
+                return;
+            }
+            try (DataInputStream input = new DataInputStream(new FileInputStream(indexFile))) {
+                int count = input.readInt();
+                Set<String> xids = new HashSet<>(count * 2);
+                for (int i = 0; i < count; i++) {
+                    byte[] xidBytes = new byte[input.readShort()];
+                    input.readFully(xidBytes);
+                    xids.add(new String(xidBytes, StandardCharsets.UTF_8));
+                }
+                indexedXids = xids;
+            } catch (IOException e) {
+                LOGGER.warn("index of segment {} is broken, replay the whole segment: {}", id, e.getMessage());
+            }
+        }
+
+        void writeIndex() throws IOException {
+            File tmpFile = new File(indexFile.getPath() + TMP_FILE_POSTFIX);
+            try (FileOutputStream fileOutput = new FileOutputStream(tmpFile);
+                    DataOutputStream output = new DataOutputStream(fileOutput)) {
+                output.writeInt(liveXids.size());
+                for (String xid : liveXids) {
+                    byte[] xidBytes = xid.getBytes(StandardCharsets.UTF_8);
+                    output.writeShort(xidBytes.length);
+                    output.write(xidBytes);
+                }
+                output.flush();
+                fileOutput.getFD().sync();
+            }
+            Files.move(
+                    tmpFile.toPath(),
+                    indexFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        void delete() {
+            // unmap first, the space of a still mapped file is not reclaimed and it can not be deleted on windows
+            BufferUtils.unmap(buffer);
+            if (indexFile.exists() && !indexFile.delete()) {
+                LOGGER.warn("delete index file failed: {}", indexFile.getName());
+            }
+            if (!file.delete()) {
+                LOGGER.warn("delete segment file failed: {}", file.getName());
+            }
+        }
+    }
+}
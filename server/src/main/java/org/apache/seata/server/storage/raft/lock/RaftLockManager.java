@@ -41,6 +41,11 @@ public class RaftLockManager extends FileLockManager {
 
     @Override
     public boolean releaseGlobalSessionLock(GlobalSession globalSession) throws TransactionException {
+        return RaftTaskUtil.futureGet(releaseGlobalSessionLockAsync(globalSession));
+    }
+
+    public CompletableFuture<Boolean> releaseGlobalSessionLockAsync(GlobalSession globalSession)
+            throws TransactionException {
         GlobalTransactionDTO globalTransactionDTO = new GlobalTransactionDTO();
         globalTransactionDTO.setXid(globalSession.getXid());
         RaftGlobalSessionSyncMsg raftSyncMsg =
@@ -59,11 +64,15 @@ public class RaftLockManager extends FileLockManager {
                         "seata raft state machine exception: " + status.getErrorMsg()));
             }
         };
-        return RaftTaskUtil.createTask(closure, raftSyncMsg, completableFuture);
+        return RaftTaskUtil.createTaskAsync(closure, raftSyncMsg, completableFuture);
     }
 
     @Override
     public boolean releaseLock(BranchSession branchSession) throws TransactionException {
+        return RaftTaskUtil.futureGet(releaseLockAsync(branchSession));
+    }
+
+    public CompletableFuture<Boolean> releaseLockAsync(BranchSession branchSession) throws TransactionException {
         CompletableFuture<Boolean> completableFuture = new CompletableFuture<>();
         BranchTransactionDTO branchTransactionDTO = new BranchTransactionDTO();
         branchTransactionDTO.setBranchId(branchSession.getBranchId());
@@ -84,7 +93,7 @@ public class RaftLockManager extends FileLockManager {
                         "seata raft state machine exception: " + status.getErrorMsg()));
             }
         };
-        return RaftTaskUtil.createTask(closure, raftSyncMsg, completableFuture);
+        return RaftTaskUtil.createTaskAsync(closure, raftSyncMsg, completableFuture);
     }
 
     public boolean localReleaseGlobalSessionLock(GlobalSession globalSession) throws TransactionException {
@@ -30,10 +30,12 @@ import org.apache.seata.server.cluster.raft.sync.msg.RaftGlobalSessionSyncMsg;
 import org.apache.seata.server.cluster.raft.sync.msg.dto.BranchTransactionDTO;
 import org.apache.seata.server.cluster.raft.sync.msg.dto.GlobalTransactionDTO;
 import org.apache.seata.server.cluster.raft.util.RaftTaskUtil;
+import org.apache.seata.server.lock.LockerManagerFactory;
 import org.apache.seata.server.session.BranchSession;
 import org.apache.seata.server.session.GlobalSession;
 import org.apache.seata.server.storage.SessionConverter;
 import org.apache.seata.server.storage.file.session.FileSessionManager;
+import org.apache.seata.server.storage.raft.lock.RaftLockManager;
 
 import java.io.IOException;
 import java.util.List;
@@ -47,6 +49,12 @@ import static org.apache.seata.server.cluster.raft.sync.msg.RaftSyncMsgType.UPDA
 import static org.apache.seata.server.cluster.raft.sync.msg.RaftSyncMsgType.UPDATE_GLOBAL_SESSION_STATUS;
 
 /**
+ * The session manager of the raft mode, every change is applied as a raft task.
+ * The xxxAsync methods return once the task is submitted, the future completes after the state machine applied it.
+ * Begin, add branch and branch status change are the last write of their request,
+ * so they may be deferred to the response of the request, see {@link RaftTaskUtil#deferOrGet}.
+ * Add branch changes the memory before the task is applied, as later requests must see the branch at once,
+ * a failed add branch task releases the branch and its row locks again.
  */
 @LoadLevel(name = "raft", scope = Scope.PROTOTYPE)
 public class RaftSessionManager extends FileSessionManager {
@@ -67,6 +75,10 @@ public class RaftSessionManager extends FileSessionManager {
 
     @Override
     public void onBegin(GlobalSession globalSession) throws TransactionException {
+        RaftTaskUtil.deferOrGet(onBeginAsync(globalSession));
+    }
+
+    public CompletableFuture<Boolean> onBeginAsync(GlobalSession globalSession) throws TransactionException {
         globalSession.checkSize();
         CompletableFuture<Boolean> completableFuture = new CompletableFuture<>();
         Closure closure = status -> {
@@ -94,7 +106,7 @@ public class RaftSessionManager extends FileSessionManager {
         GlobalTransactionDTO globalTransactionDTO = new GlobalTransactionDTO();
         SessionConverter.convertGlobalTransactionDO(globalTransactionDTO, globalSession);
         RaftGlobalSessionSyncMsg raftSyncMsg = new RaftGlobalSessionSyncMsg(ADD_GLOBAL_SESSION, globalTransactionDTO);
-        RaftTaskUtil.createTask(closure, raftSyncMsg, completableFuture);
+        return RaftTaskUtil.createTaskAsync(closure, raftSyncMsg, completableFuture);
     }
 
     @Override
@@ -116,6 +128,11 @@ public class RaftSessionManager extends FileSessionManager {
 
     @Override
     public void onStatusChange(GlobalSession globalSession, GlobalStatus globalStatus) throws TransactionException {
+        RaftTaskUtil.futureGet(onStatusChangeAsync(globalSession, globalStatus));
+    }
+
+    public CompletableFuture<Boolean> onStatusChangeAsync(GlobalSession globalSession, GlobalStatus globalStatus)
+            throws TransactionException {
         CompletableFuture<Boolean> completableFuture = new CompletableFuture<>();
         Closure closure = closureStatus -> {
             if (closureStatus.isOk()) {
@@ -137,13 +154,19 @@ public class RaftSessionManager extends FileSessionManager {
         globalTransactionDO.setStatus(globalStatus.getCode());
         RaftGlobalSessionSyncMsg raftSyncMsg =
                 new RaftGlobalSessionSyncMsg(UPDATE_GLOBAL_SESSION_STATUS, globalTransactionDO);
-        RaftTaskUtil.createTask(closure, raftSyncMsg, completableFuture);
+        return RaftTaskUtil.createTaskAsync(closure, raftSyncMsg, completableFuture);
     }
 
     @Override
     public void onBranchStatusChange(
             GlobalSession globalSession, BranchSession branchSession, BranchStatus branchStatus)
             throws TransactionException {
+        RaftTaskUtil.deferOrGet(onBranchStatusChangeAsync(globalSession, branchSession, branchStatus));
+    }
+
+    public CompletableFuture<Boolean> onBranchStatusChangeAsync(
+            GlobalSession globalSession, BranchSession branchSession, BranchStatus branchStatus)
+            throws TransactionException {
         CompletableFuture<Boolean> completableFuture = new CompletableFuture<>();
         Closure closure = closureStatus -> {
             if (closureStatus.isOk()) {
@@ -160,39 +183,55 @@ public class RaftSessionManager extends FileSessionManager {
         branchTransactionDO.setStatus(branchStatus.getCode());
         RaftBranchSessionSyncMsg raftSyncMsg =
                 new RaftBranchSessionSyncMsg(UPDATE_BRANCH_SESSION_STATUS, branchTransactionDO);
-        RaftTaskUtil.createTask(closure, raftSyncMsg, completableFuture);
+        return RaftTaskUtil.createTaskAsync(closure, raftSyncMsg, completableFuture);
     }
 
     @Override
     public void onAddBranch(GlobalSession globalSession, BranchSession branchSession) throws TransactionException {
+        RaftTaskUtil.deferOrGet(onAddBranchAsync(globalSession, branchSession));
+    }
+
+    public CompletableFuture<Boolean> onAddBranchAsync(GlobalSession globalSession, BranchSession branchSession)
+            throws TransactionException {
         branchSession.checkSize();
         CompletableFuture<Boolean> completableFuture = new CompletableFuture<>();
         branchSession.setStatus(BranchStatus.Registered);
+        // added while the caller still holds the global session lock, so a commit or rollback of the global
+        // session can't miss the branch when the task is deferred to the response, a failed task takes it out again
+        globalSession.add(branchSession);
         Closure closure = status -> {
             if (status.isOk()) {
-                completableFuture.complete(globalSession.add(branchSession));
+                completableFuture.complete(true);
             } else {
+                // the branch never reached the state machine, so take back the add and the row locks branch
+                // register took on this node, both locally as another raft task would block the raft callback
+                globalSession.remove(branchSession);
+                TransactionException exception = new TransactionException(
+                        TransactionExceptionCode.NotRaftLeader,
+                        "seata raft state machine exception: " + status.getErrorMsg());
                 try {
-                    completableFuture.completeExceptionally(new TransactionException(
-                            TransactionExceptionCode.NotRaftLeader,
-                            "seata raft state machine exception: " + status.getErrorMsg()));
-                } finally {
-                    try {
-                        globalSession.removeBranch(branchSession);
-                    } catch (TransactionException e) {
-                        completableFuture.completeExceptionally(e);
+                    if (branchSession.isAT()) {
+                        ((RaftLockManager) LockerManagerFactory.getLockManager()).localReleaseLock(branchSession);
                     }
+                } catch (TransactionException e) {
+                    exception.addSuppressed(e);
                 }
+                completableFuture.completeExceptionally(exception);
             }
         };
         BranchTransactionDTO branchTransactionDTO = new BranchTransactionDTO();
         SessionConverter.convertBranchTransaction(branchTransactionDTO, branchSession);
         RaftBranchSessionSyncMsg raftSyncMsg = new RaftBranchSessionSyncMsg(ADD_BRANCH_SESSION, branchTransactionDTO);
-        RaftTaskUtil.createTask(closure, raftSyncMsg, completableFuture);
+        return RaftTaskUtil.createTaskAsync(closure, raftSyncMsg, completableFuture);
     }
 
     @Override
     public void onRemoveBranch(GlobalSession globalSession, BranchSession branchSession) throws TransactionException {
+        RaftTaskUtil.futureGet(onRemoveBranchAsync(globalSession, branchSession));
+    }
+
+    public CompletableFuture<Boolean> onRemoveBranchAsync(GlobalSession globalSession, BranchSession branchSession)
+            throws TransactionException {
         CompletableFuture<Boolean> completableFuture = new CompletableFuture<>();
         Closure closure = closureStatus -> {
             if (closureStatus.isOk()) {
@@ -206,7 +245,7 @@ public class RaftSessionManager extends FileSessionManager {
         BranchTransactionDTO branchTransactionDO =
                 new BranchTransactionDTO(globalSession.getXid(), branchSession.getBranchId());
         RaftBranchSessionSyncMsg raftSyncMsg = new RaftBranchSessionSyncMsg(REMOVE_BRANCH_SESSION, branchTransactionDO);
-        RaftTaskUtil.createTask(closure, raftSyncMsg, completableFuture);
+        return RaftTaskUtil.createTaskAsync(closure, raftSyncMsg, completableFuture);
     }
 
     @Override
@@ -215,6 +254,10 @@ public class RaftSessionManager extends FileSessionManager {
     }
 
     public void end(GlobalSession globalSession) throws TransactionException {
+        RaftTaskUtil.futureGet(endAsync(globalSession));
+    }
+
+    public CompletableFuture<Boolean> endAsync(GlobalSession globalSession) throws TransactionException {
         CompletableFuture<Boolean> completableFuture = new CompletableFuture<>();
         Closure closure = status -> {
             if (status.isOk()) {
@@ -232,7 +275,7 @@ public class RaftSessionManager extends FileSessionManager {
         };
         GlobalTransactionDTO globalTransactionDO = new GlobalTransactionDTO(globalSession.getXid());
         RaftGlobalSessionSyncMsg raftSyncMsg = new RaftGlobalSessionSyncMsg(REMOVE_GLOBAL_SESSION, globalTransactionDO);
-        RaftTaskUtil.createTask(closure, raftSyncMsg, completableFuture);
+        return RaftTaskUtil.createTaskAsync(closure, raftSyncMsg, completableFuture);
     }
 
     @Override
@@ -144,6 +144,14 @@ public class LuaParser {
         }
     }
 
+    public static String getJsonFromObject(Object object) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(object);
+        } catch (JsonProcessingException e) {
+            throw new StoreException(e.getMessage());
+        }
+    }
+
     public static <T> List<T> getListFromJson(String json, Class<T> classz) {
         ObjectMapper objectMapper = new ObjectMapper();
         try {
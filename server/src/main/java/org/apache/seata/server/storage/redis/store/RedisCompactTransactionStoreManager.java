@@ -0,0 +1,513 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.storage.redis.store;
+
+import org.apache.seata.common.XID;
+import org.apache.seata.common.exception.RedisException;
+import org.apache.seata.common.exception.StoreException;
+import org.apache.seata.common.util.BeanUtils;
+import org.apache.seata.common.util.CollectionUtils;
+import org.apache.seata.common.util.StringUtils;
+import org.apache.seata.core.model.GlobalStatus;
+import org.apache.seata.core.store.BranchTransactionDO;
+import org.apache.seata.core.store.GlobalTransactionDO;
+import org.apache.seata.server.console.entity.param.GlobalSessionParam;
+import org.apache.seata.server.session.GlobalSession;
+import org.apache.seata.server.session.SessionCondition;
+import org.apache.seata.server.storage.SessionConverter;
+import org.apache.seata.server.storage.redis.JedisPooledFactory;
+import org.apache.seata.server.storage.redis.LuaParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The redis transaction store manager keeping a global session and its branches in one hash.
+ * The hash field "global" holds the global transaction, every branch is held by the field
+ * "branch_{branchId}", both serialized as json, so a session with all its branches is loaded by one HGETALL.
+ * The lua scripts keep a lexicographically ordered status index for every global status, the status queries
+ * page through it with a cursor, loading the sessions in the same script call.
+ * The data layout is not compatible with the pipeline and lua mode, so lua support is required.
+ */
+public class RedisCompactTransactionStoreManager extends RedisTransactionStoreManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisCompactTransactionStoreManager.class);
+
+    private static final String LUA_PREFIX = "lua/redisCompactStore/";
+
+    private static final String INSERT_GLOBAL_SESSION_LUA_FILE_NAME = LUA_PREFIX + "insertGlobalSession.lua";
+
+    private static final String UPDATE_GLOBAL_SESSION_LUA_FILE_NAME = LUA_PREFIX + "updateGlobalSession.lua";
+
+    private static final String REMOVE_GLOBAL_SESSION_LUA_FILE_NAME = LUA_PREFIX + "removeGlobalSession.lua";
+
+    private static final String INSERT_BRANCH_SESSION_LUA_FILE_NAME = LUA_PREFIX + "insertBranchSession.lua";
+
+    private static final String UPDATE_BRANCH_SESSION_LUA_FILE_NAME = LUA_PREFIX + "updateBranchSession.lua";
+
+    private static final String LOAD_GLOBAL_SESSIONS_LUA_FILE_NAME = LUA_PREFIX + "loadGlobalSessions.lua";
+
+    /**
+     * the prefix of the session hash
+     */
+    private static final String REDIS_SEATA_SESSION_PREFIX = "SEATA_SESSION_";
+
+    /**
+     * the prefix of the status index, a sorted set of transaction ids
+     */
+    private static final String REDIS_SEATA_STATUS_INDEX_PREFIX = "SEATA_STATUS_INDEX_";
+
+    /**
+     * the key of the begin sessions sorted by beginTime+timeout
+     */
+    private static final String REDIS_SEATA_TIMEOUT_INDEX_KEY = "SEATA_TIMEOUT_INDEX";
+
+    private static final String GLOBAL_FIELD = "global";
+
+    private static final String BRANCH_FIELD_PREFIX = "branch_";
+
+    /**
+     * key filename
+     * value SHA_SCRIPT_ID
+     */
+    private final Map<String, String> shaMap = new HashMap<>();
+
+    public RedisCompactTransactionStoreManager() {
+        LOGGER.info("init redisCompactTransactionStoreManager");
+        for (String fileName : Arrays.asList(
+                INSERT_GLOBAL_SESSION_LUA_FILE_NAME,
+                UPDATE_GLOBAL_SESSION_LUA_FILE_NAME,
+                REMOVE_GLOBAL_SESSION_LUA_FILE_NAME,
+                INSERT_BRANCH_SESSION_LUA_FILE_NAME,
+                UPDATE_BRANCH_SESSION_LUA_FILE_NAME,
+                LOAD_GLOBAL_SESSIONS_LUA_FILE_NAME)) {
+            try {
+                shaMap.putAll(LuaParser.getEvalShaMapFromFile(fileName));
+            } catch (IOException e) {
+                // no fallback to the pipeline mode, it keeps the sessions in another layout
+                throw new StoreException(e, "redis compact session store requires lua script: " + fileName);
+            }
+        }
+    }
+
+    @Override
+    protected boolean insertGlobalTransactionDO(GlobalTransactionDO globalTransactionDO) {
+        Date now = new Date();
+        globalTransactionDO.setGmtCreate(now);
+        globalTransactionDO.setGmtModified(now);
+        String transactionId = String.valueOf(globalTransactionDO.getTransactionId());
+        evalSha(
+                INSERT_GLOBAL_SESSION_LUA_FILE_NAME,
+                Arrays.asList(
+                        buildSessionKey(transactionId),
+                        buildStatusIndexKey(globalTransactionDO.getStatus()),
+                        REDIS_SEATA_TIMEOUT_INDEX_KEY),
+                Arrays.asList(
+                        toJson(globalTransactionDO),
+                        transactionId,
+                        String.valueOf(globalTransactionDO.getBeginTime() + globalTransactionDO.getTimeout())));
+        return true;
+    }
+
+    @Override
+    protected boolean updateGlobalTransactionDO(GlobalTransactionDO globalTransactionDO) {
+        String transactionId = String.valueOf(globalTransactionDO.getTransactionId());
+        Integer status = globalTransactionDO.getStatus();
+        String result = (String) evalSha(
+                UPDATE_GLOBAL_SESSION_LUA_FILE_NAME,
+                Arrays.asList(buildSessionKey(transactionId), REDIS_SEATA_TIMEOUT_INDEX_KEY),
+                Arrays.asList(
+                        String.valueOf(status),
+                        String.valueOf(System.currentTimeMillis()),
+                        transactionId,
+                        REDIS_SEATA_STATUS_INDEX_PREFIX));
+        LuaParser.LuaResult luaResult = LuaParser.getObjectFromJson(result, LuaParser.LuaResult.class);
+        if (!luaResult.getSuccess()) {
+            String type = luaResult.getStatus();
+            if (LuaParser.LuaErrorStatus.XID_NOT_EXISTED.equals(type)) {
+                throw new StoreException("Global transaction is not exist, update global transaction failed.");
+            } else if (LuaParser.LuaErrorStatus.ILLEGAL_CHANGE_STATUS.equals(type)) {
+                GlobalStatus before = GlobalStatus.get(Integer.parseInt(luaResult.getData()));
+                GlobalStatus after = GlobalStatus.get(status);
+                throw new StoreException(
+                        "Illegal changing of global status, update global transaction failed." + " beforeStatus["
+                                + before.name() + "] cannot be changed to afterStatus[" + after.name() + "]");
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected boolean deleteGlobalTransactionDO(GlobalTransactionDO globalTransactionDO) {
+        String transactionId = String.valueOf(globalTransactionDO.getTransactionId());
+        evalSha(
+                REMOVE_GLOBAL_SESSION_LUA_FILE_NAME,
+                Arrays.asList(buildSessionKey(transactionId), REDIS_SEATA_TIMEOUT_INDEX_KEY),
+                Arrays.asList(transactionId, REDIS_SEATA_STATUS_INDEX_PREFIX));
+        return true;
+    }
+
+    @Override
+    protected boolean insertBranchTransactionDO(BranchTransactionDO branchTransactionDO) {
+        Date now = new Date();
+        branchTransactionDO.setGmtCreate(now);
+        branchTransactionDO.setGmtModified(now);
+        String result = (String) evalSha(
+                INSERT_BRANCH_SESSION_LUA_FILE_NAME,
+                Collections.singletonList(buildSessionKey(branchTransactionDO.getTransactionId())),
+                Arrays.asList(buildBranchField(branchTransactionDO.getBranchId()), toJson(branchTransactionDO)));
+        return Boolean.parseBoolean(result);
+    }
+
+    @Override
+    protected boolean updateBranchTransactionDO(BranchTransactionDO branchTransactionDO) {
+        String applicationData = branchTransactionDO.getApplicationData();
+        String result = (String) evalSha(
+                UPDATE_BRANCH_SESSION_LUA_FILE_NAME,
+                Collections.singletonList(buildSessionKey(branchTransactionDO.getTransactionId())),
+                Arrays.asList(
+                        buildBranchField(branchTransactionDO.getBranchId()),
+                        String.valueOf(branchTransactionDO.getStatus()),
+                        String.valueOf(System.currentTimeMillis()),
+                        StringUtils.isBlank(applicationData) ? "" : applicationData));
+        LuaParser.LuaResult luaResult = LuaParser.getObjectFromJson(result, LuaParser.LuaResult.class);
+        if (!luaResult.getSuccess()) {
+            throw new StoreException("Branch transaction is not exist, update branch transaction failed.");
+        }
+        return true;
+    }
+
+    @Override
+    protected boolean deleteBranchTransactionDO(BranchTransactionDO branchTransactionDO) {
+        try (Jedis jedis = JedisPooledFactory.getJedisInstance()) {
+            jedis.hdel(
+                    buildSessionKey(branchTransactionDO.getTransactionId()),
+                    buildBranchField(branchTransactionDO.getBranchId()));
+            return true;
+        } catch (Exception ex) {
+            throw new RedisException(ex);
+        }
+    }
+
+    @Override
+    public GlobalSession readSession(String xid, boolean withBranchSessions) {
+        return readSessionByTransactionId(String.valueOf(XID.getTransactionId(xid)), withBranchSessions);
+    }
+
+    /**
+     * Read the sessions of the statuses, at most logQueryLimit sessions.
+     * Every status first gets an equal share of the limit, what is left is filled up by the statuses
+     * having more sessions, continuing from their cursors.
+     *
+     * @param statuses the statuses
+     * @param withBranchSessions the withBranchSessions
+     * @return the list
+     */
+    @Override
+    public List<GlobalSession> readSession(GlobalStatus[] statuses, boolean withBranchSessions) {
+        List<GlobalSession> globalSessions = new ArrayList<>();
+        if (statuses.length == 0 || logQueryLimit <= 0) {
+            return globalSessions;
+        }
+        int perStatusLimit = Math.max(1, logQueryLimit / statuses.length);
+        String[] cursors = new String[statuses.length];
+        try (Jedis jedis = JedisPooledFactory.getJedisInstance()) {
+            for (int i = 0; i < statuses.length && globalSessions.size() < logQueryLimit; i++) {
+                int count = Math.min(perStatusLimit, logQueryLimit - globalSessions.size());
+                cursors[i] = loadGlobalSessions(jedis, statuses[i], "", count, withBranchSessions, globalSessions);
+            }
+            for (int i = 0; i < statuses.length && globalSessions.size() < logQueryLimit; i++) {
+                if (cursors[i] != null) {
+                    loadGlobalSessions(
+                            jedis,
+                            statuses[i],
+                            cursors[i],
+                            logQueryLimit - globalSessions.size(),
+                            withBranchSessions,
+                            globalSessions);
+                }
+            }
+        } catch (StoreException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new RedisException(ex);
+        }
+        return globalSessions;
+    }
+
+    @Override
+    public List<GlobalSession> readSortByTimeoutBeginSessions(boolean withBranchSessions) {
+        if (logQueryLimit <= 0) {
+            return Collections.emptyList();
+        }
+        try (Jedis jedis = JedisPooledFactory.getJedisInstance()) {
+            Collection<String> transactionIds = jedis.zrangeByScore(
+                    REDIS_SEATA_TIMEOUT_INDEX_KEY, 0, System.currentTimeMillis(), 0, logQueryLimit);
+            return readSessions(jedis, transactionIds, withBranchSessions);
+        }
+    }
+
+    @Override
+    public List<GlobalSession> readSession(SessionCondition sessionCondition) {
+        List<GlobalSession> globalSessions = new ArrayList<>();
+        if (StringUtils.isNotEmpty(sessionCondition.getXid())) {
+            GlobalSession globalSession =
+                    this.readSession(sessionCondition.getXid(), !sessionCondition.isLazyLoadBranch());
+            if (globalSession != null) {
+                globalSessions.add(globalSession);
+            }
+            return globalSessions;
+        } else if (sessionCondition.getTransactionId() != null) {
+            GlobalSession globalSession = this.readSessionByTransactionId(
+                    sessionCondition.getTransactionId().toString(), !sessionCondition.isLazyLoadBranch());
+            if (globalSession != null) {
+                globalSessions.add(globalSession);
+            }
+            return globalSessions;
+        } else if (CollectionUtils.isNotEmpty(sessionCondition.getStatuses())) {
+            if (sessionCondition.getStatuses().length == 1 && sessionCondition.getStatuses()[0] == GlobalStatus.Begin) {
+                return this.readSortByTimeoutBeginSessions(!sessionCondition.isLazyLoadBranch());
+            } else {
+                return readSession(sessionCondition.getStatuses(), !sessionCondition.isLazyLoadBranch());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<GlobalSession> readSessionStatusByPage(GlobalSessionParam param) {
+        if (param.getStatus() == null) {
+            return new ArrayList<>();
+        }
+        int start = Math.max((param.getPageNum() - 1) * param.getPageSize(), 0);
+        int end = param.getPageNum() * param.getPageSize() - 1;
+        String statusIndexKey =
+                buildStatusIndexKey(GlobalStatus.get(param.getStatus()).getCode());
+        try (Jedis jedis = JedisPooledFactory.getJedisInstance()) {
+            return readSessions(jedis, jedis.zrange(statusIndexKey, start, end), param.isWithBranch());
+        }
+    }
+
+    @Override
+    public List<BranchTransactionDO> findBranchSessionByXid(String xid) {
+        try (Jedis jedis = JedisPooledFactory.getJedisInstance()) {
+            return toBranchTransactionDOs(jedis.hgetAll(buildSessionKey(XID.getTransactionId(xid))));
+        }
+    }
+
+    @Override
+    public List<GlobalSession> findGlobalSessionByPage(int pageNum, int pageSize, boolean withBranchSessions) {
+        long skip = Math.max((pageNum - 1) * pageSize, 0);
+        List<String> transactionIds = new ArrayList<>(pageSize);
+        try (Jedis jedis = JedisPooledFactory.getJedisInstance()) {
+            for (GlobalStatus status : GlobalStatus.values()) {
+                if (transactionIds.size() >= pageSize) {
+                    break;
+                }
+                String statusIndexKey = buildStatusIndexKey(status.getCode());
+                long size = jedis.zcard(statusIndexKey);
+                if (skip >= size) {
+                    skip -= size;
+                    continue;
+                }
+                transactionIds.addAll(
+                        jedis.zrange(statusIndexKey, skip, skip + pageSize - transactionIds.size() - 1));
+                skip = 0;
+            }
+            return readSessions(jedis, transactionIds, withBranchSessions);
+        }
+    }
+
+    @Override
+    public Long countByGlobalSessions(GlobalStatus[] values) {
+        try (Jedis jedis = JedisPooledFactory.getJedisInstance();
+                Pipeline pipelined = jedis.pipelined()) {
+            for (GlobalStatus status : values) {
+                pipelined.zcard(buildStatusIndexKey(status.getCode()));
+            }
+            long total = 0;
+            for (Object count : pipelined.syncAndReturnAll()) {
+                total += (Long) count;
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Load the sessions of the status after the cursor with one script call.
+     *
+     * @return the cursor to continue from, null if the status has no more sessions
+     */
+    @SuppressWarnings("unchecked")
+    private String loadGlobalSessions(
+            Jedis jedis,
+            GlobalStatus status,
+            String cursor,
+            int count,
+            boolean withBranchSessions,
+            List<GlobalSession> globalSessions) {
+        List<Object> result = (List<Object>) LuaParser.jedisEvalSha(
+                jedis,
+                shaMap.get(LOAD_GLOBAL_SESSIONS_LUA_FILE_NAME),
+                LOAD_GLOBAL_SESSIONS_LUA_FILE_NAME,
+                Collections.singletonList(buildStatusIndexKey(status.getCode())),
+                Arrays.asList(
+                        REDIS_SEATA_SESSION_PREFIX, cursor, String.valueOf(count), String.valueOf(withBranchSessions)));
+        List<String> transactionIds = (List<String>) result.get(0);
+        List<Object> sessions = (List<Object>) result.get(1);
+        for (Object session : sessions) {
+            GlobalSession globalSession = toGlobalSession(toFieldMap((List<String>) session), withBranchSessions);
+            if (globalSession != null) {
+                globalSessions.add(globalSession);
+            }
+        }
+        return transactionIds.size() < count ? null : transactionIds.get(transactionIds.size() - 1);
+    }
+
+    private GlobalSession readSessionByTransactionId(String transactionId, boolean withBranchSessions) {
+        String sessionKey = buildSessionKey(transactionId);
+        try (Jedis jedis = JedisPooledFactory.getJedisInstance()) {
+            if (withBranchSessions) {
+                return toGlobalSession(jedis.hgetAll(sessionKey), true);
+            }
+            String globalJson = jedis.hget(sessionKey, GLOBAL_FIELD);
+            return globalJson == null
+                    ? null
+                    : toGlobalSession(Collections.singletonMap(GLOBAL_FIELD, globalJson), false);
+        }
+    }
+
+    /**
+     * Read the sessions with one pipeline.
+     */
+    @SuppressWarnings("unchecked")
+    private List<GlobalSession> readSessions(
+            Jedis jedis, Collection<String> transactionIds, boolean withBranchSessions) {
+        List<GlobalSession> globalSessions = new ArrayList<>(transactionIds.size());
+        if (transactionIds.isEmpty()) {
+            return globalSessions;
+        }
+        List<Object> replies;
+        try (Pipeline pipeline = jedis.pipelined()) {
+            for (String transactionId : transactionIds) {
+                if (withBranchSessions) {
+                    pipeline.hgetAll(buildSessionKey(transactionId));
+                } else {
+                    pipeline.hget(buildSessionKey(transactionId), GLOBAL_FIELD);
+                }
+            }
+            replies = pipeline.syncAndReturnAll();
+        }
+        for (Object reply : replies) {
+            Map<String, String> fields;
+            if (withBranchSessions) {
+                fields = (Map<String, String>) reply;
+            } else {
+                fields = reply == null ? null : Collections.singletonMap(GLOBAL_FIELD, (String) reply);
+            }
+            GlobalSession globalSession = toGlobalSession(fields, withBranchSessions);
+            if (globalSession != null) {
+                globalSessions.add(globalSession);
+            }
+        }
+        return globalSessions;
+    }
+
+    private GlobalSession toGlobalSession(Map<String, String> fields, boolean withBranchSessions) {
+        if (CollectionUtils.isEmpty(fields) || fields.get(GLOBAL_FIELD) == null) {
+            return null;
+        }
+        GlobalTransactionDO globalTransactionDO = (GlobalTransactionDO)
+                BeanUtils.mapToObject(fromJson(fields.get(GLOBAL_FIELD)), GlobalTransactionDO.class);
+        GlobalSession globalSession = SessionConverter.convertGlobalSession(globalTransactionDO, !withBranchSessions);
+        if (withBranchSessions) {
+            for (BranchTransactionDO branchTransactionDO : toBranchTransactionDOs(fields)) {
+                globalSession.add(SessionConverter.convertBranchSession(branchTransactionDO));
+            }
+        }
+        return globalSession;
+    }
+
+    private List<BranchTransactionDO> toBranchTransactionDOs(Map<String, String> fields) {
+        List<BranchTransactionDO> branchTransactionDOs = new ArrayList<>();
+        if (CollectionUtils.isEmpty(fields)) {
+            return branchTransactionDOs;
+        }
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            if (field.getKey().startsWith(BRANCH_FIELD_PREFIX)) {
+                BranchTransactionDO branchTransactionDO = (BranchTransactionDO)
+                        BeanUtils.mapToObject(fromJson(field.getValue()), BranchTransactionDO.class);
+                if (branchTransactionDO != null) {
+                    branchTransactionDOs.add(branchTransactionDO);
+                }
+            }
+        }
+        Collections.sort(branchTransactionDOs);
+        return branchTransactionDOs;
+    }
+
+    private static Map<String, String> toFieldMap(List<String> flatFields) {
+        Map<String, String> fields = new HashMap<>(flatFields.size());
+        for (int i = 0; i + 1 < flatFields.size(); i += 2) {
+            fields.put(flatFields.get(i), flatFields.get(i + 1));
+        }
+        return fields;
+    }
+
+    private Object evalSha(String fileName, List<String> keys, List<String> args) {
+        try (Jedis jedis = JedisPooledFactory.getJedisInstance()) {
+            return LuaParser.jedisEvalSha(jedis, shaMap.get(fileName), fileName, keys, args);
+        } catch (Exception ex) {
+            throw new RedisException(ex);
+        }
+    }
+
+    /**
+     * The values are kept as strings, so the lua cjson does not round the long ids.
+     */
+    private static String toJson(Object transactionDO) {
+        return LuaParser.getJsonFromObject(BeanUtils.objectToMap(transactionDO));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> fromJson(String json) {
+        return LuaParser.getObjectFromJson(json, Map.class);
+    }
+
+    private String buildSessionKey(Object transactionId) {
+        return REDIS_SEATA_SESSION_PREFIX + transactionId;
+    }
+
+    private String buildStatusIndexKey(Integer status) {
+        return REDIS_SEATA_STATUS_INDEX_PREFIX + status;
+    }
+
+    private String buildBranchField(Long branchId) {
+        return BRANCH_FIELD_PREFIX + branchId;
+    }
+}
@@ -20,6 +20,7 @@ import org.apache.seata.common.ConfigurationKeys;
 import org.apache.seata.config.Configuration;
 import org.apache.seata.config.ConfigurationFactory;
 
+import static org.apache.seata.common.Constants.STORE_REDIS_TYPE_COMPACT;
 import static org.apache.seata.common.Constants.STORE_REDIS_TYPE_PIPELINE;
 
 /**
@@ -39,9 +40,13 @@ public class RedisTransactionStoreManagerFactory {
                 if (instance == null) {
                     String storeRedisType =
                             CONFIG.getConfig(ConfigurationKeys.STORE_REDIS_TYPE, STORE_REDIS_TYPE_PIPELINE);
-                    instance = STORE_REDIS_TYPE_PIPELINE.equals(storeRedisType)
-                            ? new RedisTransactionStoreManager()
-                            : new RedisLuaTransactionStoreManager();
+                    if (STORE_REDIS_TYPE_PIPELINE.equals(storeRedisType)) {
+                        instance = new RedisTransactionStoreManager();
+                    } else if (STORE_REDIS_TYPE_COMPACT.equals(storeRedisType)) {
+                        instance = new RedisCompactTransactionStoreManager();
+                    } else {
+                        instance = new RedisLuaTransactionStoreManager();
+                    }
                 }
             }
         }
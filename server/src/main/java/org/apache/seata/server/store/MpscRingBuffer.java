@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.store;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A bounded, lock-free ring buffer for many producers and a single consumer.
+ * Every slot carries a sequence number, producers claim a slot with a CAS on the
+ * producer index and publish it by advancing the slot sequence, so the consumer
+ * never observes a half written element.
+ *
+ * @param <E> the element type
+ */
+public class MpscRingBuffer<E> {
+
+    private final int capacity;
+
+    private final int mask;
+
+    private final AtomicReferenceArray<E> elements;
+
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong producerIndex = new AtomicLong();
+
+    /**
+     * only written by the consumer thread
+     */
+    private volatile long consumerIndex;
+
+    /**
+     * Instantiates a new ring buffer, the capacity is rounded up to a power of two.
+     *
+     * @param capacity the minimum capacity
+     */
+    public MpscRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.elements = new AtomicReferenceArray<>(this.capacity);
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Offer an element, may be called by any thread.
+     *
+     * @param element the element
+     * @return false if the buffer is full
+     */
+    public boolean offer(E element) {
+        Objects.requireNonNull(element, "element");
+        while (true) {
+            long index = producerIndex.get();
+            int offset = (int) (index & mask);
+            long diff = sequences.get(offset) - index;
+            if (diff == 0) {
+                if (producerIndex.compareAndSet(index, index + 1)) {
+                    elements.lazySet(offset, element);
+                    sequences.set(offset, index + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Poll an element, must only be called by the consumer thread.
+     *
+     * @return the element or null if no published element is available
+     */
+    public E poll() {
+        long index = consumerIndex;
+        int offset = (int) (index & mask);
+        if (sequences.get(offset) != index + 1) {
+            return null;
+        }
+        E element = elements.get(offset);
+        elements.lazySet(offset, null);
+        sequences.set(offset, index + capacity);
+        consumerIndex = index + 1;
+        return element;
+    }
+
+    /**
+     * Drain up to limit elements to the consumer, must only be called by the consumer thread.
+     *
+     * @param consumer the consumer
+     * @param limit    the max elements to drain
+     * @return the number of drained elements
+     */
+    public int drain(Consumer<E> consumer, int limit) {
+        int drained = 0;
+        E element;
+        while (drained < limit && (element = poll()) != null) {
+            consumer.accept(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Approximate number of elements, exact when called by the consumer thread with no concurrent offer.
+     *
+     * @return the size
+     */
+    public int size() {
+        long size = producerIndex.get() - consumerIndex;
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
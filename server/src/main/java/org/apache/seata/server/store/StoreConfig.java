@@ -72,6 +72,21 @@ public class StoreConfig {
      */
     private static final int DEFAULT_WRITE_BUFFER_SIZE = 1024 * 16;
 
+    /**
+     * Default 4096 pending records.
+     */
+    private static final int DEFAULT_GROUP_COMMIT_BUFFER_SIZE = 4096;
+
+    /**
+     * Default 256 records per batch.
+     */
+    private static final int DEFAULT_GROUP_COMMIT_MAX_BATCH_SIZE = 256;
+
+    /**
+     * Default 64mb.
+     */
+    private static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024 * 64;
+
     public static int getMaxBranchSessionSize() {
         return CONFIGURATION.getInt(STORE_FILE_PREFIX + "maxBranchSessionSize", DEFAULT_MAX_BRANCH_SESSION_SIZE);
     }
@@ -84,6 +99,27 @@ public class StoreConfig {
         return CONFIGURATION.getInt(STORE_FILE_PREFIX + "fileWriteBufferCacheSize", DEFAULT_WRITE_BUFFER_SIZE);
     }
 
+    public static boolean isFileGroupCommitEnabled() {
+        return CONFIGURATION.getBoolean(STORE_FILE_PREFIX + "groupCommitEnabled", false);
+    }
+
+    public static int getFileGroupCommitBufferSize() {
+        return CONFIGURATION.getInt(STORE_FILE_PREFIX + "groupCommitBufferSize", DEFAULT_GROUP_COMMIT_BUFFER_SIZE);
+    }
+
+    public static int getFileGroupCommitMaxBatchSize() {
+        return CONFIGURATION.getInt(
+                STORE_FILE_PREFIX + "groupCommitMaxBatchSize", DEFAULT_GROUP_COMMIT_MAX_BATCH_SIZE);
+    }
+
+    public static boolean isFileSegmentEnabled() {
+        return CONFIGURATION.getBoolean(STORE_FILE_PREFIX + "segmentEnabled", false);
+    }
+
+    public static int getFileSegmentSize() {
+        return CONFIGURATION.getInt(STORE_FILE_PREFIX + "segmentSize", DEFAULT_SEGMENT_SIZE);
+    }
+
     public static FlushDiskMode getFlushDiskMode() {
         return FlushDiskMode.findDiskMode(CONFIGURATION.getConfig(STORE_FILE_PREFIX + "flushDiskMode"));
     }
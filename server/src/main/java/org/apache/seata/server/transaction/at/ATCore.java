@@ -19,12 +19,14 @@ package org.apache.seata.server.transaction.at;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.seata.common.exception.StoreException;
 import org.apache.seata.common.util.StringUtils;
+import org.apache.seata.config.ConfigurationFactory;
 import org.apache.seata.core.exception.BranchTransactionException;
 import org.apache.seata.core.exception.TransactionException;
 import org.apache.seata.core.model.BranchStatus;
 import org.apache.seata.core.model.BranchType;
 import org.apache.seata.core.rpc.RemotingServer;
 import org.apache.seata.server.coordinator.AbstractCore;
+import org.apache.seata.server.lock.LockWaiter;
 import org.apache.seata.server.session.BranchSession;
 import org.apache.seata.server.session.GlobalSession;
 
@@ -32,8 +34,10 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
+import static org.apache.seata.common.ConfigurationKeys.LOCK_WAIT_TIMEOUT;
 import static org.apache.seata.common.Constants.AUTO_COMMIT;
 import static org.apache.seata.common.Constants.SKIP_CHECK_LOCK;
+import static org.apache.seata.common.DefaultValues.DEFAULT_LOCK_WAIT_TIMEOUT;
 import static org.apache.seata.core.exception.TransactionExceptionCode.LockKeyConflict;
 
 /**
@@ -44,6 +48,9 @@ public class ATCore extends AbstractCore {
 
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    private final long lockWaitTimeout =
+            ConfigurationFactory.getInstance().getLong(LOCK_WAIT_TIMEOUT, DEFAULT_LOCK_WAIT_TIMEOUT);
+
     public ATCore(RemotingServer remotingServer) {
         super(remotingServer);
     }
@@ -53,6 +60,50 @@ public class ATCore extends AbstractCore {
         return BranchType.AT;
     }
 
+    /**
+     * Branch register. With server.lockWaitTimeout set, a lock conflict does not go back to the client at once:
+     * the register waits until rows it asked for are released, then tries again, until the timeout.
+     */
+    @Override
+    public Long branchRegister(
+            BranchType branchType,
+            String resourceId,
+            String clientId,
+            String xid,
+            String applicationData,
+            String lockKeys)
+            throws TransactionException {
+        if (lockWaitTimeout <= 0) {
+            return super.branchRegister(branchType, resourceId, clientId, xid, applicationData, lockKeys);
+        }
+        long deadline = System.currentTimeMillis() + lockWaitTimeout;
+        try {
+            return super.branchRegister(branchType, resourceId, clientId, xid, applicationData, lockKeys);
+        } catch (BranchTransactionException e) {
+            if (e.getCode() != LockKeyConflict) {
+                throw e;
+            }
+        }
+        // the waiter is registered before the next attempt, so a release in between is not missed
+        LockWaiter lockWaiter = lockManager.newLockWaiter(xid, resourceId, lockKeys);
+        if (lockWaiter == null) {
+            return super.branchRegister(branchType, resourceId, clientId, xid, applicationData, lockKeys);
+        }
+        try {
+            for (; ; ) {
+                try {
+                    return super.branchRegister(branchType, resourceId, clientId, xid, applicationData, lockKeys);
+                } catch (BranchTransactionException e) {
+                    if (e.getCode() != LockKeyConflict || !lockWaiter.await(deadline)) {
+                        throw e;
+                    }
+                }
+            }
+        } finally {
+            lockWaiter.close();
+        }
+    }
+
     @Override
     protected void branchSessionLock(GlobalSession globalSession, BranchSession branchSession)
             throws TransactionException {
@@ -0,0 +1,35 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one or more
+-- contributor license agreements.  See the NOTICE file distributed with
+-- this work for additional information regarding copyright ownership.
+-- The ASF licenses this file to You under the Apache License, Version 2.0
+-- (the "License"); you may not use this file except in compliance with
+-- the License.  You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+-- param description
+-- KEYS[1] sessionKey
+-- ARGV[1] branch field
+-- ARGV[2] branchTransactionDO json
+
+-- init data
+local sessionKey = KEYS[1];
+local branchField = ARGV[1];
+local branchJson = ARGV[2];
+
+-- do not leave a branch behind a removed global session
+if redis.call('HEXISTS', sessionKey, 'global') == 0 then
+    return 'false';
+end
+
+redis.call('HSET', sessionKey, branchField, branchJson);
+
+return 'true';
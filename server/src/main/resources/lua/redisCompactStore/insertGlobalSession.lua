@@ -0,0 +1,39 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one or more
+-- contributor license agreements.  See the NOTICE file distributed with
+-- this work for additional information regarding copyright ownership.
+-- The ASF licenses this file to You under the Apache License, Version 2.0
+-- (the "License"); you may not use this file except in compliance with
+-- the License.  You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+-- param description
+-- KEYS[1] sessionKey
+-- KEYS[2] statusIndexKey
+-- KEYS[3] REDIS_SEATA_TIMEOUT_INDEX_KEY
+-- ARGV[1] globalTransactionDO json
+-- ARGV[2] transactionId
+-- ARGV[3] beginTime+timeout
+
+-- init data
+local sessionKey = KEYS[1];
+local statusIndexKey = KEYS[2];
+local timeoutIndexKey = KEYS[3];
+local globalJson = ARGV[1];
+local transactionId = ARGV[2];
+local timeoutTime = ARGV[3];
+
+redis.call('HSET', sessionKey, 'global', globalJson);
+-- all members share the score 0, so the status index is ordered and paged by ZRANGEBYLEX
+redis.call('ZADD', statusIndexKey, 0, transactionId);
+redis.call('ZADD', timeoutIndexKey, timeoutTime, transactionId);
+
+return 'true';
@@ -0,0 +1,55 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one or more
+-- contributor license agreements.  See the NOTICE file distributed with
+-- this work for additional information regarding copyright ownership.
+-- The ASF licenses this file to You under the Apache License, Version 2.0
+-- (the "License"); you may not use this file except in compliance with
+-- the License.  You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+-- param description
+-- KEYS[1] statusIndexKey
+-- ARGV[1] session key prefix
+-- ARGV[2] cursor: the last transactionId returned by the previous call, empty to start from the head
+-- ARGV[3] count
+-- ARGV[4] withBranchSessions: true or false
+-- return {transactionIds, sessions}, a session is the flat field/value list of its hash,
+-- empty if it was removed meanwhile
+
+-- init data
+local statusIndexKey = KEYS[1];
+local sessionPrefix = ARGV[1];
+local cursor = ARGV[2];
+local count = tonumber(ARGV[3]);
+local withBranchSessions = ARGV[4] == 'true';
+
+local min = '-';
+if (string.len(cursor) ~= 0) then
+    min = '(' .. cursor;
+end
+
+local transactionIds = redis.call('ZRANGEBYLEX', statusIndexKey, min, '+', 'LIMIT', 0, count);
+local sessions = {};
+for i, transactionId in ipairs(transactionIds) do
+    local sessionKey = sessionPrefix .. transactionId;
+    if withBranchSessions then
+        sessions[i] = redis.call('HGETALL', sessionKey);
+    else
+        local globalJson = redis.call('HGET', sessionKey, 'global');
+        if (globalJson) then
+            sessions[i] = {'global', globalJson};
+        else
+            sessions[i] = {};
+        end
+    end
+end
+
+return {transactionIds, sessions};
@@ -0,0 +1,39 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one or more
+-- contributor license agreements.  See the NOTICE file distributed with
+-- this work for additional information regarding copyright ownership.
+-- The ASF licenses this file to You under the Apache License, Version 2.0
+-- (the "License"); you may not use this file except in compliance with
+-- the License.  You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+-- param description
+-- KEYS[1] sessionKey
+-- KEYS[2] REDIS_SEATA_TIMEOUT_INDEX_KEY
+-- ARGV[1] transactionId
+-- ARGV[2] status index key prefix
+
+-- init data
+local sessionKey = KEYS[1];
+local timeoutIndexKey = KEYS[2];
+local transactionId = ARGV[1];
+local statusIndexPrefix = ARGV[2];
+
+local globalJson = redis.call('HGET', sessionKey, 'global');
+if (globalJson) then
+    local global = cjson.decode(globalJson);
+    redis.call('ZREM', statusIndexPrefix .. global['status'], transactionId);
+end
+redis.call('ZREM', timeoutIndexKey, transactionId);
+-- the branches are fields of the session, they go with it
+redis.call('DEL', sessionKey);
+
+return 'true';
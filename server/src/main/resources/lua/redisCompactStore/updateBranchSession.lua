@@ -0,0 +1,52 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one or more
+-- contributor license agreements.  See the NOTICE file distributed with
+-- this work for additional information regarding copyright ownership.
+-- The ASF licenses this file to You under the Apache License, Version 2.0
+-- (the "License"); you may not use this file except in compliance with
+-- the License.  You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+-- param description
+-- KEYS[1] sessionKey
+-- ARGV[1] branch field
+-- ARGV[2] branchStatus
+-- ARGV[3] nowTime
+-- ARGV[4] applicationData, empty keeps the stored one
+
+-- init data
+local sessionKey = KEYS[1];
+local branchField = ARGV[1];
+local branchStatus = ARGV[2];
+local nowTime = ARGV[3];
+local applicationData = ARGV[4];
+local result = {};
+
+local branchJson = redis.call('HGET', sessionKey, branchField);
+if (not branchJson) then
+    result['success'] = false;
+    result['status'] = '';
+    result['data'] = '';
+    return cjson.encode(result);
+end
+
+local branch = cjson.decode(branchJson);
+branch['status'] = branchStatus;
+branch['gmtModified'] = nowTime;
+if (applicationData and string.len(applicationData) ~= 0) then
+    branch['applicationData'] = applicationData;
+end
+redis.call('HSET', sessionKey, branchField, cjson.encode(branch));
+
+result['success'] = true;
+result['status'] = '';
+result['data'] = '';
+return cjson.encode(result);
@@ -0,0 +1,106 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one or more
+-- contributor license agreements.  See the NOTICE file distributed with
+-- this work for additional information regarding copyright ownership.
+-- The ASF licenses this file to You under the Apache License, Version 2.0
+-- (the "License"); you may not use this file except in compliance with
+-- the License.  You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+-- param description
+-- KEYS[1] sessionKey
+-- KEYS[2] REDIS_SEATA_TIMEOUT_INDEX_KEY
+-- ARGV[1] status
+-- ARGV[2] nowTime
+-- ARGV[3] transactionId
+-- ARGV[4] status index key prefix
+
+-- init data
+local sessionKey = KEYS[1];
+local timeoutIndexKey = KEYS[2];
+
+local status = ARGV[1];
+local nowTime = ARGV[2];
+local transactionId = ARGV[3];
+local statusIndexPrefix = ARGV[4];
+
+local result = {};
+
+-- is timeout global status
+local function isTimeoutGlobalStatus(s)
+    local globalStatus = tonumber(s);
+    return globalStatus == 13 or globalStatus == 14 or globalStatus == 6 or globalStatus == 7;
+end
+
+-- is rollback global status
+local function isRollbackGlobalStatus(s)
+    local globalStatus = tonumber(s);
+    return globalStatus == 4 or globalStatus == 5 or globalStatus == 11 or globalStatus == 12 or globalStatus == 17;
+end
+
+local function isCommitGlobalStatus(s)
+    local globalStatus = tonumber(s);
+    return globalStatus == 2 or globalStatus == 8 or globalStatus == 3 or globalStatus == 9 or globalStatus == 10 or globalStatus == 16;
+end
+
+-- check the relation of before status and after status
+local function validateUpdateStatus(before, after)
+    if isTimeoutGlobalStatus(before) and isCommitGlobalStatus(after) then
+        return false;
+    end
+    if isCommitGlobalStatus(before) and isTimeoutGlobalStatus(after) then
+        return false;
+    end
+    if isRollbackGlobalStatus(before) and isCommitGlobalStatus(after) then
+        return false;
+    end
+    if isCommitGlobalStatus(before) and isRollbackGlobalStatus(after) then
+        return false;
+    end
+    return true;
+end
+
+local globalJson = redis.call('HGET', sessionKey, 'global');
+if (not globalJson) then
+    result['success'] = false;
+    result['status'] = 'NotExisted';
+    result['data'] = '';
+    return cjson.encode(result);
+end
+
+local global = cjson.decode(globalJson);
+local previousStatus = global['status'];
+
+if previousStatus == status then
+    result['success'] = true;
+    result['status'] = '';
+    result['data'] = '';
+    return cjson.encode(result);
+end
+
+if not validateUpdateStatus(previousStatus, status) then
+    result['success'] = false;
+    result['status'] = 'ChangeStatusFail';
+    result['data'] = previousStatus;
+    return cjson.encode(result);
+end
+
+global['status'] = status;
+global['gmtModified'] = nowTime;
+redis.call('HSET', sessionKey, 'global', cjson.encode(global));
+redis.call('ZREM', statusIndexPrefix .. previousStatus, transactionId);
+redis.call('ZADD', statusIndexPrefix .. status, 0, transactionId);
+redis.call('ZREM', timeoutIndexKey, transactionId);
+
+result['success'] = true;
+result['status'] = '';
+result['data'] = previousStatus;
+return cjson.encode(result);
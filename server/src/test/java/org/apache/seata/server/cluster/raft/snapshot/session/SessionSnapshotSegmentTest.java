@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.cluster.raft.snapshot.session;
+
+import org.apache.seata.core.compressor.CompressorType;
+import org.apache.seata.core.model.BranchType;
+import org.apache.seata.server.session.BranchSession;
+import org.apache.seata.server.session.GlobalSession;
+import org.apache.seata.server.session.SessionHelper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Write and read the session snapshot segments, a base followed by a delta.
+ */
+public class SessionSnapshotSegmentTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    public void testBaseAndDelta() throws IOException {
+        GlobalSession kept = newGlobalSession(2);
+        GlobalSession removed = newGlobalSession(1);
+        GlobalSession added = newGlobalSession(0);
+
+        File base = new File(tempDir, "session.base.1");
+        try (SessionSnapshotSegment.Writer writer =
+                new SessionSnapshotSegment.Writer(base, CompressorType.NONE.getCode())) {
+            writer.writeSession(kept);
+            writer.writeSession(removed);
+            Assertions.assertEquals(2, writer.getRecords());
+        }
+        kept.add(SessionHelper.newBranchByGlobal(kept, BranchType.AT, "resource", "t:3", "client"));
+        File delta = new File(tempDir, "session.delta.2");
+        try (SessionSnapshotSegment.Writer writer =
+                new SessionSnapshotSegment.Writer(delta, CompressorType.NONE.getCode())) {
+            writer.writeSession(kept);
+            writer.writeTombstone(removed.getXid());
+            writer.writeSession(added);
+        }
+
+        Map<String, SessionSnapshotSegment.EncodedSession> sessions = new HashMap<>();
+        SessionSnapshotSegment.read(base, sessions);
+        Assertions.assertEquals(2, sessions.size());
+        Assertions.assertEquals(2, sessions.get(kept.getXid()).getBranchSessions().size());
+        SessionSnapshotSegment.read(delta, sessions);
+        Assertions.assertEquals(2, sessions.size());
+        Assertions.assertFalse(sessions.containsKey(removed.getXid()));
+        Assertions.assertEquals(0, sessions.get(added.getXid()).getBranchSessions().size());
+
+        SessionSnapshotSegment.EncodedSession encoded = sessions.get(kept.getXid());
+        GlobalSession decoded = new GlobalSession();
+        decoded.decode(encoded.getGlobalSession());
+        Assertions.assertEquals(kept.getXid(), decoded.getXid());
+        Assertions.assertEquals(kept.getTransactionId(), decoded.getTransactionId());
+        Assertions.assertEquals(3, encoded.getBranchSessions().size());
+        BranchSession branchSession = new BranchSession();
+        branchSession.decode(encoded.getBranchSessions().get(2));
+        Assertions.assertEquals("t:3", branchSession.getLockKey());
+    }
+
+    @Test
+    public void testManyChunks() throws IOException {
+        File segment = new File(tempDir, "session.base.1");
+        // enough sessions to fill more than one chunk
+        int size = 5000;
+        try (SessionSnapshotSegment.Writer writer =
+                new SessionSnapshotSegment.Writer(segment, CompressorType.GZIP.getCode())) {
+            for (int i = 0; i < size; i++) {
+                writer.writeSession(newGlobalSession(5));
+            }
+        }
+        Map<String, SessionSnapshotSegment.EncodedSession> sessions = new HashMap<>();
+        SessionSnapshotSegment.read(segment, sessions);
+        Assertions.assertEquals(size, sessions.size());
+    }
+
+    @Test
+    public void testBrokenSegment() {
+        File segment = new File(tempDir, "session.base.1");
+        Assertions.assertThrows(IOException.class, () -> {
+            Files.write(segment.toPath(), new byte[] {1, 2, 3, 4, 5, 6});
+            SessionSnapshotSegment.read(segment, new HashMap<>());
+        });
+    }
+
+    private static GlobalSession newGlobalSession(int branches) {
+        GlobalSession globalSession = GlobalSession.createGlobalSession("app", "group", "tx", 60000);
+        for (int i = 0; i < branches; i++) {
+            globalSession.add(
+                    SessionHelper.newBranchByGlobal(globalSession, BranchType.AT, "resource", "t:" + i, "client"));
+        }
+        return globalSession;
+    }
+}
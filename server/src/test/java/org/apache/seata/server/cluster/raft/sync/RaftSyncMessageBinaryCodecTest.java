@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.cluster.raft.sync;
+
+import org.apache.seata.core.model.BranchStatus;
+import org.apache.seata.core.model.BranchType;
+import org.apache.seata.core.model.GlobalStatus;
+import org.apache.seata.server.cluster.raft.sync.msg.RaftBranchSessionSyncMsg;
+import org.apache.seata.server.cluster.raft.sync.msg.RaftGlobalSessionSyncMsg;
+import org.apache.seata.server.cluster.raft.sync.msg.RaftSyncMessage;
+import org.apache.seata.server.cluster.raft.sync.msg.RaftSyncMsgType;
+import org.apache.seata.server.cluster.raft.sync.msg.dto.BranchTransactionDTO;
+import org.apache.seata.server.cluster.raft.sync.msg.dto.GlobalTransactionDTO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Date;
+
+/**
+ * Round trips of the binary raft sync codec, the decoding of java serialized logs,
+ * and the size and throughput of both codecs on session sync messages.
+ * <p>
+ * The numbers are logged as a table and are indicative only, the benchmark runs with -DbenchmarkCaseEnabled=true.
+ */
+public class RaftSyncMessageBinaryCodecTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RaftSyncMessageBinaryCodecTest.class);
+
+    private static final long WARM_UP_MILLIS = 100;
+
+    private static final long MEASURE_MILLIS = 300;
+
+    @Test
+    public void testGlobalSessionRoundTrip() throws IOException {
+        RaftGlobalSessionSyncMsg msg =
+                new RaftGlobalSessionSyncMsg(RaftSyncMsgType.ADD_GLOBAL_SESSION, globalSession());
+        msg.setGroup("group");
+        byte[] bytes = RaftSyncMessageBinaryCodec.encode(newMessage(msg));
+        Assertions.assertTrue(RaftSyncMessageBinaryCodec.isBinary(bytes));
+
+        RaftGlobalSessionSyncMsg decoded = (RaftGlobalSessionSyncMsg)
+                RaftSyncMessageSerializer.decode(bytes).getBody();
+        Assertions.assertEquals(RaftSyncMsgType.ADD_GLOBAL_SESSION, decoded.getMsgType());
+        Assertions.assertEquals("group", decoded.getGroup());
+        assertGlobalSession(globalSession(), decoded.getGlobalSession());
+    }
+
+    @Test
+    public void testBranchSessionRoundTrip() throws IOException {
+        RaftBranchSessionSyncMsg msg =
+                new RaftBranchSessionSyncMsg(RaftSyncMsgType.ADD_BRANCH_SESSION, branchSession());
+        msg.setGroup("group");
+        RaftBranchSessionSyncMsg decoded = (RaftBranchSessionSyncMsg) RaftSyncMessageSerializer.decode(
+                        RaftSyncMessageBinaryCodec.encode(newMessage(msg)))
+                .getBody();
+        Assertions.assertEquals(RaftSyncMsgType.ADD_BRANCH_SESSION, decoded.getMsgType());
+        Assertions.assertEquals("group", decoded.getGroup());
+        assertBranchSession(branchSession(), decoded.getBranchSession());
+    }
+
+    @Test
+    public void testReleaseLockRoundTrip() throws IOException {
+        GlobalTransactionDTO globalTransactionDTO = new GlobalTransactionDTO();
+        globalTransactionDTO.setXid("127.0.0.1:8091:123");
+        RaftGlobalSessionSyncMsg globalMsg =
+                new RaftGlobalSessionSyncMsg(RaftSyncMsgType.RELEASE_GLOBAL_SESSION_LOCK, globalTransactionDTO);
+        RaftGlobalSessionSyncMsg decodedGlobal = (RaftGlobalSessionSyncMsg) RaftSyncMessageSerializer.decode(
+                        RaftSyncMessageBinaryCodec.encode(newMessage(globalMsg)))
+                .getBody();
+        Assertions.assertEquals(RaftSyncMsgType.RELEASE_GLOBAL_SESSION_LOCK, decodedGlobal.getMsgType());
+        assertGlobalSession(globalTransactionDTO, decodedGlobal.getGlobalSession());
+
+        BranchTransactionDTO branchTransactionDTO = new BranchTransactionDTO("127.0.0.1:8091:123", 456L);
+        RaftBranchSessionSyncMsg branchMsg =
+                new RaftBranchSessionSyncMsg(RaftSyncMsgType.RELEASE_BRANCH_SESSION_LOCK, branchTransactionDTO);
+        RaftBranchSessionSyncMsg decodedBranch = (RaftBranchSessionSyncMsg) RaftSyncMessageSerializer.decode(
+                        RaftSyncMessageBinaryCodec.encode(newMessage(branchMsg)))
+                .getBody();
+        Assertions.assertEquals(RaftSyncMsgType.RELEASE_BRANCH_SESSION_LOCK, decodedBranch.getMsgType());
+        assertBranchSession(branchTransactionDTO, decodedBranch.getBranchSession());
+    }
+
+    @Test
+    public void testDecodeJavaSerializedLog() throws IOException {
+        byte[] bytes = RaftSyncMessageSerializer.encodeWithJavaSerialization(newMessage(
+                new RaftBranchSessionSyncMsg(RaftSyncMsgType.ADD_BRANCH_SESSION, branchSession())));
+        Assertions.assertFalse(RaftSyncMessageBinaryCodec.isBinary(bytes));
+        RaftBranchSessionSyncMsg decoded =
+                (RaftBranchSessionSyncMsg) RaftSyncMessageSerializer.decode(bytes).getBody();
+        assertBranchSession(branchSession(), decoded.getBranchSession());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarkCaseEnabled", matches = "true")
+    public void benchmark() throws IOException {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(
+                "%n%-8s %-8s %10s %14s %14s%n", "message", "codec", "size", "encode ops/s", "decode ops/s"));
+        benchmark(report, "global", new RaftGlobalSessionSyncMsg(RaftSyncMsgType.ADD_GLOBAL_SESSION, globalSession()));
+        benchmark(report, "branch", new RaftBranchSessionSyncMsg(RaftSyncMsgType.ADD_BRANCH_SESSION, branchSession()));
+        LOGGER.info("{}", report);
+    }
+
+    private static void benchmark(StringBuilder report, String name, Object body) throws IOException {
+        byte[] javaBytes = RaftSyncMessageSerializer.encodeWithJavaSerialization(newMessage(body));
+        byte[] binaryBytes = RaftSyncMessageBinaryCodec.encode(newMessage(body));
+        Assertions.assertTrue(binaryBytes.length < javaBytes.length);
+
+        IoRunnable javaEncode = () -> RaftSyncMessageSerializer.encodeWithJavaSerialization(newMessage(body));
+        IoRunnable binaryEncode = () -> RaftSyncMessageBinaryCodec.encode(newMessage(body));
+        IoRunnable javaDecode = () -> RaftSyncMessageSerializer.decode(javaBytes);
+        IoRunnable binaryDecode = () -> RaftSyncMessageSerializer.decode(binaryBytes);
+        report.append(String.format(
+                "%-8s %-8s %10d %14.0f %14.0f%n",
+                name, "java", javaBytes.length, measure(javaEncode), measure(javaDecode)));
+        report.append(String.format(
+                "%-8s %-8s %10d %14.0f %14.0f%n",
+                name, "binary", binaryBytes.length, measure(binaryEncode), measure(binaryDecode)));
+    }
+
+    /**
+     * @return operations per second
+     */
+    private static double measure(IoRunnable operation) throws IOException {
+        run(WARM_UP_MILLIS, operation);
+        return run(MEASURE_MILLIS, operation);
+    }
+
+    private static double run(long millis, IoRunnable operation) throws IOException {
+        long start = System.nanoTime();
+        long deadline = start + millis * 1_000_000L;
+        long ops = 0;
+        long now;
+        do {
+            operation.run();
+            ops++;
+        } while ((now = System.nanoTime()) < deadline);
+        return ops * 1_000_000_000D / (now - start);
+    }
+
+    private interface IoRunnable {
+        void run() throws IOException;
+    }
+
+    private static RaftSyncMessage newMessage(Object body) {
+        RaftSyncMessage raftSyncMessage = new RaftSyncMessage();
+        raftSyncMessage.setBody(body);
+        return raftSyncMessage;
+    }
+
+    private static GlobalTransactionDTO globalSession() {
+        GlobalTransactionDTO globalTransactionDTO = new GlobalTransactionDTO("127.0.0.1:8091:641789252");
+        globalTransactionDTO.setTransactionId(641789252L);
+        globalTransactionDTO.setStatus(GlobalStatus.Begin.getCode());
+        globalTransactionDTO.setApplicationId("order-service");
+        globalTransactionDTO.setTransactionServiceGroup("default_tx_group");
+        globalTransactionDTO.setTransactionName("createOrder(java.lang.String, int)");
+        globalTransactionDTO.setTimeout(60000);
+        globalTransactionDTO.setBeginTime(1700000000000L);
+        globalTransactionDTO.setGmtCreate(new Date(1700000000000L));
+        return globalTransactionDTO;
+    }
+
+    private static BranchTransactionDTO branchSession() {
+        BranchTransactionDTO branchTransactionDTO = new BranchTransactionDTO("127.0.0.1:8091:641789252", 641789253L);
+        branchTransactionDTO.setTransactionId(641789252L);
+        branchTransactionDTO.setResourceId("jdbc:mysql://127.0.0.1:3306/seata_order");
+        branchTransactionDTO.setBranchType(BranchType.AT.name());
+        branchTransactionDTO.setStatus(BranchStatus.Registered.getCode());
+        branchTransactionDTO.setClientId("order-service:127.0.0.1:52134");
+        branchTransactionDTO.setApplicationData("{\"autoCommit\":false,\"skipCheckLock\":true}");
+        branchTransactionDTO.setLockKey("order_tbl:1,2,3;order_item_tbl:11,12");
+        return branchTransactionDTO;
+    }
+
+    private static void assertGlobalSession(GlobalTransactionDTO expected, GlobalTransactionDTO actual) {
+        Assertions.assertEquals(expected.getXid(), actual.getXid());
+        Assertions.assertEquals(expected.getTransactionId(), actual.getTransactionId());
+        Assertions.assertEquals(expected.getStatus(), actual.getStatus());
+        Assertions.assertEquals(expected.getApplicationId(), actual.getApplicationId());
+        Assertions.assertEquals(expected.getTransactionServiceGroup(), actual.getTransactionServiceGroup());
+        Assertions.assertEquals(expected.getTransactionName(), actual.getTransactionName());
+        Assertions.assertEquals(expected.getTimeout(), actual.getTimeout());
+        Assertions.assertEquals(expected.getBeginTime(), actual.getBeginTime());
+        Assertions.assertEquals(expected.getApplicationData(), actual.getApplicationData());
+        Assertions.assertEquals(expected.getGmtCreate(), actual.getGmtCreate());
+        Assertions.assertEquals(expected.getGmtModified(), actual.getGmtModified());
+    }
+
+    private static void assertBranchSession(BranchTransactionDTO expected, BranchTransactionDTO actual) {
+        Assertions.assertEquals(expected.getXid(), actual.getXid());
+        Assertions.assertEquals(expected.getTransactionId(), actual.getTransactionId());
+        Assertions.assertEquals(expected.getBranchId(), actual.getBranchId());
+        Assertions.assertEquals(expected.getResourceId(), actual.getResourceId());
+        Assertions.assertEquals(expected.getBranchType(), actual.getBranchType());
+        Assertions.assertEquals(expected.getStatus(), actual.getStatus());
+        Assertions.assertEquals(expected.getClientId(), actual.getClientId());
+        Assertions.assertEquals(expected.getApplicationData(), actual.getApplicationData());
+        Assertions.assertEquals(expected.getLockKey(), actual.getLockKey());
+    }
+}
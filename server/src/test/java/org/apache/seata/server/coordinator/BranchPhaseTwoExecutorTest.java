@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.coordinator;
+
+import org.apache.seata.core.exception.TransactionException;
+import org.apache.seata.core.model.BranchType;
+import org.apache.seata.server.DynamicPortTestConfig;
+import org.apache.seata.server.session.BranchSession;
+import org.apache.seata.server.session.SessionHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.seata.server.session.BranchSessionHandler.CONTINUE;
+
+/**
+ * The type Branch phase two executor test.
+ */
+@SpringBootTest
+@Import(DynamicPortTestConfig.class)
+public class BranchPhaseTwoExecutorTest {
+
+    private BranchPhaseTwoExecutor executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = new BranchPhaseTwoExecutor(4, 16);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testResourcesHandledConcurrently() throws TransactionException {
+        List<BranchSession> branchSessions = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            branchSessions.add(newBranch(i, "jdbc:mysql://db" + i));
+        }
+        // every branch waits for all the others, it only passes if the four resources run at the same time
+        CountDownLatch latch = new CountDownLatch(4);
+        Boolean result = SessionHelper.forEach(
+                branchSessions,
+                branchSession -> {
+                    latch.countDown();
+                    try {
+                        return latch.await(5, TimeUnit.SECONDS) ? CONTINUE : Boolean.FALSE;
+                    } catch (InterruptedException e) {
+                        throw new TransactionException(e);
+                    }
+                },
+                executor);
+        Assertions.assertNull(result);
+    }
+
+    @Test
+    public void testOrderWithinResource() throws TransactionException {
+        List<BranchSession> branchSessions = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            branchSessions.add(newBranch(i, "jdbc:mysql://db" + (i % 2)));
+        }
+        Map<String, List<Long>> handled = new ConcurrentHashMap<>();
+        SessionHelper.forEach(
+                branchSessions,
+                branchSession -> {
+                    handled.computeIfAbsent(branchSession.getResourceId(), k -> new ArrayList<>())
+                            .add(branchSession.getBranchId());
+                    return CONTINUE;
+                },
+                executor);
+        Assertions.assertEquals(2, handled.size());
+        handled.values().forEach(branchIds -> {
+            Assertions.assertEquals(10, branchIds.size());
+            for (int i = 1; i < branchIds.size(); i++) {
+                Assertions.assertTrue(branchIds.get(i - 1) < branchIds.get(i));
+            }
+        });
+    }
+
+    @Test
+    public void testFailedResourceResult() throws TransactionException {
+        List<BranchSession> branchSessions = new ArrayList<>();
+        branchSessions.add(newBranch(1, "jdbc:mysql://db0"));
+        branchSessions.add(newBranch(2, "jdbc:mysql://db1"));
+        Boolean result = SessionHelper.forEach(
+                branchSessions,
+                branchSession -> branchSession.getBranchId() == 2 ? Boolean.FALSE : CONTINUE,
+                executor);
+        Assertions.assertEquals(Boolean.FALSE, result);
+        Assertions.assertEquals(0, executor.getQueueDepth());
+    }
+
+    private static BranchSession newBranch(long branchId, String resourceId) {
+        BranchSession branchSession = new BranchSession(BranchType.AT);
+        branchSession.setBranchId(branchId);
+        branchSession.setResourceId(resourceId);
+        return branchSession;
+    }
+}
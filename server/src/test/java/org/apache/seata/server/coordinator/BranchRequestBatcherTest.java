@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.coordinator;
+
+import io.netty.channel.Channel;
+import org.apache.seata.core.protocol.AbstractResultMessage;
+import org.apache.seata.core.protocol.MergeResultMessage;
+import org.apache.seata.core.protocol.MergedWarpMessage;
+import org.apache.seata.core.protocol.transaction.BranchCommitRequest;
+import org.apache.seata.core.protocol.transaction.BranchCommitResponse;
+import org.apache.seata.core.rpc.RemotingServer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The type Branch request batcher test.
+ */
+public class BranchRequestBatcherTest {
+
+    private RemotingServer remotingServer;
+
+    private Channel channel;
+
+    private final List<Object> sentMessages = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        remotingServer = mock(RemotingServer.class);
+        channel = mock(Channel.class);
+        sentMessages.clear();
+    }
+
+    @Test
+    public void testSingleRequestSentUnmerged() throws Exception {
+        when(remotingServer.sendSyncRequest(eq(channel), any())).thenAnswer(invocation -> {
+            Object message = invocation.getArgument(1);
+            sentMessages.add(message);
+            return response((BranchCommitRequest) message);
+        });
+        BranchRequestBatcher batcher = new BranchRequestBatcher(remotingServer, 16, 1);
+
+        BranchCommitResponse response = (BranchCommitResponse) batcher.sendBatched(channel, request(1L));
+
+        Assertions.assertEquals(1L, response.getBranchId());
+        Assertions.assertEquals(1, sentMessages.size());
+        Assertions.assertTrue(sentMessages.get(0) instanceof BranchCommitRequest);
+        Assertions.assertEquals(0, batcher.basketCount());
+    }
+
+    @Test
+    public void testConcurrentRequestsMerged() throws Exception {
+        CountDownLatch firstSent = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        when(remotingServer.sendSyncRequest(eq(channel), any())).thenAnswer(invocation -> {
+            Object message = invocation.getArgument(1);
+            synchronized (sentMessages) {
+                sentMessages.add(message);
+            }
+            if (message instanceof MergedWarpMessage) {
+                MergedWarpMessage merged = (MergedWarpMessage) message;
+                AbstractResultMessage[] results = new AbstractResultMessage[merged.msgs.size()];
+                for (int i = 0; i < results.length; i++) {
+                    results[i] = response((BranchCommitRequest) merged.msgs.get(i));
+                }
+                MergeResultMessage result = new MergeResultMessage();
+                result.setMsgs(results);
+                return result;
+            }
+            firstSent.countDown();
+            Assertions.assertTrue(releaseFirst.await(10, TimeUnit.SECONDS));
+            return response((BranchCommitRequest) message);
+        });
+        BranchRequestBatcher batcher = new BranchRequestBatcher(remotingServer, 16, 1);
+        Map<Long, Long> answered = new ConcurrentHashMap<>();
+
+        Thread leader = sender(batcher, 0L, answered);
+        leader.start();
+        Assertions.assertTrue(firstSent.await(10, TimeUnit.SECONDS));
+        List<Thread> followers = new ArrayList<>();
+        for (long branchId = 1; branchId <= 3; branchId++) {
+            Thread follower = sender(batcher, branchId, answered);
+            followers.add(follower);
+            follower.start();
+        }
+        for (Thread follower : followers) {
+            awaitWaiting(follower);
+        }
+        releaseFirst.countDown();
+        leader.join(10000);
+        for (Thread follower : followers) {
+            follower.join(10000);
+        }
+
+        Assertions.assertEquals(2, sentMessages.size());
+        Assertions.assertEquals(3, ((MergedWarpMessage) sentMessages.get(1)).msgs.size());
+        for (long branchId = 0; branchId <= 3; branchId++) {
+            Assertions.assertEquals(branchId, answered.get(branchId));
+        }
+        Assertions.assertEquals(0, batcher.basketCount());
+    }
+
+    @Test
+    public void testSeveralBatchesInFlightPerChannel() throws Exception {
+        CountDownLatch bothSent = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        when(remotingServer.sendSyncRequest(eq(channel), any())).thenAnswer(invocation -> {
+            Object message = invocation.getArgument(1);
+            synchronized (sentMessages) {
+                sentMessages.add(message);
+            }
+            if (message instanceof MergedWarpMessage) {
+                MergedWarpMessage merged = (MergedWarpMessage) message;
+                AbstractResultMessage[] results = new AbstractResultMessage[merged.msgs.size()];
+                for (int i = 0; i < results.length; i++) {
+                    results[i] = response((BranchCommitRequest) merged.msgs.get(i));
+                }
+                MergeResultMessage result = new MergeResultMessage();
+                result.setMsgs(results);
+                return result;
+            }
+            bothSent.countDown();
+            Assertions.assertTrue(release.await(10, TimeUnit.SECONDS));
+            return response((BranchCommitRequest) message);
+        });
+        BranchRequestBatcher batcher = new BranchRequestBatcher(remotingServer, 16, 2);
+        Map<Long, Long> answered = new ConcurrentHashMap<>();
+
+        Thread first = sender(batcher, 0L, answered);
+        Thread second = sender(batcher, 1L, answered);
+        first.start();
+        second.start();
+        // the second request does not wait for the round trip of the first one
+        Assertions.assertTrue(bothSent.await(10, TimeUnit.SECONDS));
+        List<Thread> followers = new ArrayList<>();
+        for (long branchId = 2; branchId <= 4; branchId++) {
+            Thread follower = sender(batcher, branchId, answered);
+            followers.add(follower);
+            follower.start();
+        }
+        for (Thread follower : followers) {
+            awaitWaiting(follower);
+        }
+        release.countDown();
+        first.join(10000);
+        second.join(10000);
+        for (Thread follower : followers) {
+            follower.join(10000);
+        }
+
+        for (long branchId = 0; branchId <= 4; branchId++) {
+            Assertions.assertEquals(branchId, answered.get(branchId));
+        }
+        Assertions.assertEquals(0, batcher.basketCount());
+    }
+
+    @Test
+    public void testMalformedMergedResponseFailsBatch() throws Exception {
+        MergeResultMessage malformed = new MergeResultMessage();
+        malformed.setMsgs(new AbstractResultMessage[0]);
+        BranchRequestBatcher batcher = new BranchRequestBatcher(remotingServer, 16, 1);
+        CountDownLatch firstSent = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        when(remotingServer.sendSyncRequest(eq(channel), any())).thenAnswer(invocation -> {
+            if (invocation.getArgument(1) instanceof MergedWarpMessage) {
+                return malformed;
+            }
+            firstSent.countDown();
+            Assertions.assertTrue(releaseFirst.await(10, TimeUnit.SECONDS));
+            return response(invocation.getArgument(1));
+        });
+        Map<Long, Long> answered = new ConcurrentHashMap<>();
+        Thread leader = sender(batcher, 0L, answered);
+        leader.start();
+        Assertions.assertTrue(firstSent.await(10, TimeUnit.SECONDS));
+        List<Throwable> errors = new ArrayList<>();
+        List<Thread> followers = new ArrayList<>();
+        for (long branchId = 1; branchId <= 2; branchId++) {
+            long id = branchId;
+            Thread follower = new Thread(() -> {
+                try {
+                    batcher.sendBatched(channel, request(id));
+                } catch (Exception e) {
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                }
+            });
+            followers.add(follower);
+            follower.start();
+        }
+        for (Thread follower : followers) {
+            awaitWaiting(follower);
+        }
+        releaseFirst.countDown();
+        leader.join(10000);
+        for (Thread follower : followers) {
+            follower.join(10000);
+        }
+
+        Assertions.assertEquals(0L, answered.get(0L));
+        Assertions.assertEquals(2, errors.size());
+        for (Throwable error : errors) {
+            Assertions.assertTrue(error instanceof IOException);
+        }
+    }
+
+    private Thread sender(BranchRequestBatcher batcher, long branchId, Map<Long, Long> answered) {
+        return new Thread(() -> {
+            try {
+                BranchCommitResponse response = (BranchCommitResponse) batcher.sendBatched(channel, request(branchId));
+                answered.put(branchId, response.getBranchId());
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (thread.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        Assertions.assertEquals(Thread.State.WAITING, thread.getState());
+    }
+
+    private static BranchCommitRequest request(long branchId) {
+        BranchCommitRequest request = new BranchCommitRequest();
+        request.setXid("127.0.0.1:8091:" + branchId);
+        request.setBranchId(branchId);
+        return request;
+    }
+
+    private static BranchCommitResponse response(BranchCommitRequest request) {
+        BranchCommitResponse response = new BranchCommitResponse();
+        response.setXid(request.getXid());
+        response.setBranchId(request.getBranchId());
+        return response;
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.coordinator;
+
+import org.apache.seata.core.model.BranchType;
+import org.apache.seata.server.DynamicPortTestConfig;
+import org.apache.seata.server.session.BranchSession;
+import org.apache.seata.server.session.GlobalSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The type Sharded session scheduler test.
+ */
+@SpringBootTest
+@Import(DynamicPortTestConfig.class)
+public class ShardedSessionSchedulerTest {
+
+    private ShardedSessionScheduler scheduler;
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = new ShardedSessionScheduler("shardTest", 4, 1024, 2, 60000L);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(1000L);
+    }
+
+    @Test
+    public void testSessionStaysOnItsShard() throws InterruptedException {
+        List<GlobalSession> sessions = newSessions(64, "jdbc:mysql://fast");
+        Map<String, Set<String>> threads = new ConcurrentHashMap<>();
+        for (int round = 0; round < 3; round++) {
+            Assertions.assertEquals(64, scheduler.execute(sessions, session -> {
+                threads.computeIfAbsent(session.getXid(), key -> ConcurrentHashMap.newKeySet())
+                        .add(Thread.currentThread().getName());
+                return true;
+            }));
+            Assertions.assertTrue(scheduler.awaitIdle(5000L));
+        }
+        Assertions.assertEquals(64, threads.size());
+        threads.values().forEach(names -> Assertions.assertEquals(1, names.size()));
+    }
+
+    @Test
+    public void testResourceConcurrencyLimit() throws InterruptedException {
+        List<GlobalSession> sessions = newSessions(64, "jdbc:mysql://shared");
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger handled = new AtomicInteger();
+        scheduler.execute(sessions, session -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException ignore) {
+            }
+            running.decrementAndGet();
+            handled.incrementAndGet();
+            return true;
+        });
+        Assertions.assertTrue(scheduler.awaitIdle(5000L));
+        Assertions.assertTrue(maxRunning.get() <= 2);
+        Assertions.assertTrue(handled.get() > 0);
+    }
+
+    @Test
+    public void testFailingResourceBacksOff() throws InterruptedException {
+        List<GlobalSession> slowSessions = newSessions(8, "jdbc:mysql://slow");
+        List<GlobalSession> fastSessions = newSessions(8, "jdbc:mysql://fast");
+        List<GlobalSession> sessions = new ArrayList<>(slowSessions);
+        sessions.addAll(fastSessions);
+        AtomicInteger slowHandled = new AtomicInteger();
+        AtomicInteger fastHandled = new AtomicInteger();
+        ShardedSessionScheduler.SessionTask task = session -> {
+            if (slowSessions.contains(session)) {
+                slowHandled.incrementAndGet();
+                // the branch is left, the resource failed
+                return false;
+            }
+            fastHandled.incrementAndGet();
+            return true;
+        };
+        scheduler.execute(sessions, task);
+        Assertions.assertTrue(scheduler.awaitIdle(5000L));
+        Assertions.assertTrue(slowHandled.get() > 0);
+        Assertions.assertTrue(scheduler.isBackingOff("jdbc:mysql://slow"));
+        Assertions.assertFalse(scheduler.isBackingOff("jdbc:mysql://fast"));
+
+        int slowBefore = slowHandled.get();
+        int fastBefore = fastHandled.get();
+        scheduler.execute(sessions, task);
+        Assertions.assertTrue(scheduler.awaitIdle(5000L));
+        Assertions.assertEquals(slowBefore, slowHandled.get());
+        Assertions.assertTrue(fastHandled.get() > fastBefore);
+    }
+
+    @Test
+    public void testExpiredSessionOfBackingOffResource() throws InterruptedException {
+        List<GlobalSession> sessions = newSessions(8, "jdbc:mysql://slow");
+        scheduler.execute(sessions, session -> false);
+        Assertions.assertTrue(scheduler.awaitIdle(5000L));
+        Assertions.assertTrue(scheduler.isBackingOff("jdbc:mysql://slow"));
+
+        AtomicInteger expired = new AtomicInteger();
+        AtomicInteger handled = new AtomicInteger();
+        scheduler.execute(
+                sessions,
+                session -> {
+                    expired.incrementAndGet();
+                    return true;
+                },
+                session -> {
+                    handled.incrementAndGet();
+                    return true;
+                });
+        Assertions.assertTrue(scheduler.awaitIdle(5000L));
+        Assertions.assertEquals(sessions.size(), expired.get());
+        Assertions.assertEquals(0, handled.get());
+    }
+
+    @Test
+    public void testSlowShardDoesNotBlockOthers() throws InterruptedException {
+        List<GlobalSession> sessions = newSessions(64, "jdbc:mysql://fast");
+        GlobalSession slowSession = sessions.get(0);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger handled = new AtomicInteger();
+        ShardedSessionScheduler.SessionTask task = session -> {
+            if (session == slowSession) {
+                try {
+                    release.await();
+                } catch (InterruptedException ignore) {
+                }
+            }
+            handled.incrementAndGet();
+            return true;
+        };
+        try {
+            Assertions.assertTimeout(Duration.ofMillis(1000L), () -> {
+                Assertions.assertEquals(sessions.size(), scheduler.execute(sessions, task));
+                // the slow session is still in flight, so it is not dispatched again
+                Assertions.assertEquals(0, scheduler.execute(Collections.singletonList(slowSession), task));
+            });
+            long deadline = System.currentTimeMillis() + 5000L;
+            while (handled.get() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            // the other shards go on while the slow one is blocked
+            Assertions.assertTrue(handled.get() > 0);
+        } finally {
+            release.countDown();
+        }
+        Assertions.assertTrue(scheduler.awaitIdle(5000L));
+    }
+
+    @Test
+    public void testAwaitedRoundWaitsForShards() throws InterruptedException {
+        ShardedSessionScheduler awaitingScheduler =
+                new ShardedSessionScheduler("shardAwaitTest", 4, 1024, 2, 60000L, true);
+        try {
+            List<GlobalSession> sessions = newSessions(64, "jdbc:mysql://fast");
+            AtomicInteger handled = new AtomicInteger();
+            Assertions.assertEquals(sessions.size(), awaitingScheduler.execute(sessions, session -> {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException ignore) {
+                }
+                handled.incrementAndGet();
+                return true;
+            }));
+            // the round returns only after every dispatched session is handled
+            Assertions.assertEquals(sessions.size(), handled.get());
+            Assertions.assertTrue(awaitingScheduler.awaitIdle(0L));
+        } finally {
+            awaitingScheduler.shutdown();
+            awaitingScheduler.awaitTermination(1000L);
+        }
+    }
+
+    private static List<GlobalSession> newSessions(int count, String resourceId) {
+        List<GlobalSession> sessions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            GlobalSession globalSession = new GlobalSession("demo-app", "default_tx_group", "test", 6000);
+            BranchSession branchSession = new BranchSession(BranchType.AT);
+            branchSession.setXid(globalSession.getXid());
+            branchSession.setTransactionId(globalSession.getTransactionId());
+            branchSession.setBranchId(globalSession.getTransactionId() + 1);
+            branchSession.setResourceId(resourceId);
+            globalSession.getBranchSessions().add(branchSession);
+            sessions.add(globalSession);
+        }
+        return sessions;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.lock;
+
+import org.apache.seata.core.lock.RowLock;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class LockWaitQueueTest {
+
+    @Test
+    public void testSignalWakesWaiter() throws Exception {
+        LockWaitQueue lockWaitQueue = new LockWaitQueue(8);
+        try (LockWaiter lockWaiter = lockWaitQueue.newWaiter(rows("1"))) {
+            Assertions.assertTrue(lockWaitQueue.hasWaiters());
+            CompletableFuture<Boolean> woken =
+                    CompletableFuture.supplyAsync(() -> lockWaiter.await(System.currentTimeMillis() + 5000));
+            lockWaitQueue.signal(rows("1"));
+            Assertions.assertTrue(woken.get(5, TimeUnit.SECONDS));
+        }
+        Assertions.assertFalse(lockWaitQueue.hasWaiters());
+    }
+
+    @Test
+    public void testSignalBeforeAwaitIsKept() {
+        LockWaitQueue lockWaitQueue = new LockWaitQueue(8);
+        try (LockWaiter lockWaiter = lockWaitQueue.newWaiter(rows("1"))) {
+            lockWaitQueue.signal(rows("1"));
+            Assertions.assertTrue(lockWaiter.await(System.currentTimeMillis() + 1000));
+            // the signal is used up by the first wait
+            Assertions.assertFalse(lockWaiter.await(System.currentTimeMillis() + 50));
+        }
+    }
+
+    @Test
+    public void testMaxWaiters() {
+        LockWaitQueue lockWaitQueue = new LockWaitQueue(1);
+        LockWaiter first = lockWaitQueue.newWaiter(rows("1"));
+        Assertions.assertNotNull(first);
+        Assertions.assertNull(lockWaitQueue.newWaiter(rows("2")));
+        first.close();
+        first.close();
+        LockWaiter second = lockWaitQueue.newWaiter(rows("2"));
+        Assertions.assertNotNull(second);
+        second.close();
+        Assertions.assertFalse(lockWaitQueue.hasWaiters());
+    }
+
+    private static List<RowLock> rows(String pk) {
+        RowLock rowLock = new RowLock();
+        rowLock.setResourceId("jdbc:mysql://127.0.0.1:3306/seata");
+        rowLock.setTableName("t_order");
+        rowLock.setPk(pk);
+        return Collections.singletonList(rowLock);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.lock;
+
+import org.apache.seata.core.lock.RowLock;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * The type Parsed lock key test.
+ */
+public class ParsedLockKeyTest {
+
+    @Test
+    public void testParse() {
+        ParsedLockKey parsed = ParsedLockKey.parse("t1:1,2;t2:3");
+        Assertions.assertEquals(3, parsed.size());
+        Assertions.assertEquals("t1", parsed.getTableName(0));
+        Assertions.assertEquals("1", parsed.getPk(0));
+        Assertions.assertEquals("2", parsed.getPkView(1).toString());
+        Assertions.assertEquals("t2", parsed.getTableName(2));
+        Assertions.assertEquals("3", parsed.getPk(2));
+        // the table name is shared by the rows of a table
+        Assertions.assertSame(parsed.getTableName(0), parsed.getTableName(1));
+    }
+
+    @Test
+    public void testParseLikeSplit() {
+        Assertions.assertEquals(2, ParsedLockKey.parse("t1:1,2;").size());
+        Assertions.assertEquals(2, ParsedLockKey.parse("t1:1, ,2,").size());
+        // parsing stops at the first malformed group
+        Assertions.assertEquals(1, ParsedLockKey.parse("t1:1;t2;t3:3").size());
+        Assertions.assertEquals(1, ParsedLockKey.parse("t1:1;;t3:3").size());
+        Assertions.assertEquals(1, ParsedLockKey.parse("t1:1;t2: ;t3:3").size());
+        Assertions.assertEquals(1, ParsedLockKey.parse("t1:1;t2:,,;t3:3").size());
+        Assertions.assertTrue(ParsedLockKey.parse("").isEmpty());
+        Assertions.assertTrue(ParsedLockKey.parse(null).isEmpty());
+    }
+
+    @Test
+    public void testToRowLocks() {
+        List<RowLock> rowLocks = ParsedLockKey.parse("t1:1,2;t2:3").toRowLocks("res", "xid", 1L, 2L);
+        Assertions.assertEquals(3, rowLocks.size());
+        RowLock rowLock = rowLocks.get(2);
+        Assertions.assertEquals("res", rowLock.getResourceId());
+        Assertions.assertEquals("xid", rowLock.getXid());
+        Assertions.assertEquals(1L, rowLock.getTransactionId());
+        Assertions.assertEquals(2L, rowLock.getBranchId());
+        Assertions.assertEquals("t2", rowLock.getTableName());
+        Assertions.assertEquals("3", rowLock.getPk());
+    }
+
+    @Test
+    public void testPkView() {
+        CharSequence view = ParsedLockKey.parse("t1:abc").getPkView(0);
+        Assertions.assertEquals(3, view.length());
+        Assertions.assertEquals('b', view.charAt(1));
+        Assertions.assertEquals("bc", view.subSequence(1, 3).toString());
+    }
+}
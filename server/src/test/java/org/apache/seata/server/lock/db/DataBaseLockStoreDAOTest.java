@@ -32,6 +32,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Import;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -39,6 +40,12 @@ import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
 /**
  */
 @SpringBootTest
@@ -332,6 +339,120 @@ public class DataBaseLockStoreDAOTest {
         Assertions.assertFalse(ret2);
     }
 
+    @Test
+    public void test_acquireLocksIgnoreDuplicate() throws SQLException {
+        BasicDataSource mysqlDataSource = newMysqlDataSource();
+        LockStoreDataBaseDAO optimisticDAO = new LockStoreDataBaseDAO(mysqlDataSource);
+        optimisticDAO.setDbType("mysql");
+
+        try {
+            Assertions.assertTrue(optimisticDAO.acquireLock(newLocks("abc-123:444", 444L, "optimistic-", 0, 1)));
+
+            // conflicts with the lock of another xid, none of the new row keys is locked
+            Assertions.assertFalse(optimisticDAO.acquireLock(newLocks("abc-123:555", 555L, "optimistic-", 0, 3)));
+            Assertions.assertEquals(1, countLocks(mysqlDataSource, "optimistic-"));
+            Assertions.assertEquals("abc-123:444", lockOwner(mysqlDataSource, "optimistic-0"));
+
+            // re-acquire the own lock together with new ones
+            Assertions.assertTrue(optimisticDAO.acquireLock(newLocks("abc-123:444", 444L, "optimistic-", 0, 3)));
+            Assertions.assertEquals(3, countLocks(mysqlDataSource, "optimistic-"));
+
+            Assertions.assertTrue(optimisticDAO.unLock("abc-123:444"));
+            Assertions.assertEquals(0, countLocks(mysqlDataSource, "optimistic-"));
+        } finally {
+            mysqlDataSource.close();
+        }
+    }
+
+    @Test
+    public void test_mysqlAcquireLocksWithoutConflict() throws SQLException {
+        BasicDataSource mysqlDataSource = newMysqlDataSource();
+        List<String> statements = new ArrayList<>();
+        DataSource recordingDataSource = mock(DataSource.class);
+        when(recordingDataSource.getConnection()).thenAnswer(invocation -> {
+            Connection conn = spy(mysqlDataSource.getConnection());
+            doAnswer(prepare -> {
+                        statements.add(prepare.getArgument(0));
+                        return prepare.callRealMethod();
+                    })
+                    .when(conn)
+                    .prepareStatement(anyString());
+            return conn;
+        });
+        LockStoreDataBaseDAO mysqlDAO = new LockStoreDataBaseDAO(recordingDataSource);
+        mysqlDAO.setDbType("mysql");
+
+        try {
+            Assertions.assertTrue(mysqlDAO.acquireLock(newLocks("abc-123:666", 666L, "mysql-", 0, 3)));
+            // mysql has no optimistic insert, the lock check and the batch insert run as before
+            Assertions.assertEquals(2, statements.size());
+            Assertions.assertTrue(statements.get(0).startsWith("select"));
+            Assertions.assertTrue(statements.get(1).startsWith("insert"));
+            statements.forEach(sql -> Assertions.assertFalse(sql.contains("on duplicate key")));
+            Assertions.assertEquals(3, countLocks(mysqlDataSource, "mysql-"));
+
+            Assertions.assertTrue(mysqlDAO.unLock("abc-123:666"));
+            Assertions.assertEquals(0, countLocks(mysqlDataSource, "mysql-"));
+        } finally {
+            mysqlDataSource.close();
+        }
+    }
+
+    /**
+     * run the mysql dialect sql on h2 in mysql mode
+     */
+    private static BasicDataSource newMysqlDataSource() {
+        BasicDataSource mysqlDataSource = new BasicDataSource();
+        mysqlDataSource.setDriverClassName("org.h2.Driver");
+        mysqlDataSource.setUrl("jdbc:h2:./db_store/lock_mysql;MODE=MySQL");
+        mysqlDataSource.setUsername("sa");
+        mysqlDataSource.setPassword("");
+        prepareTable(mysqlDataSource);
+        return mysqlDataSource;
+    }
+
+    private static List<LockDO> newLocks(String xid, long transactionId, String rowKeyPrefix, int from, int to) {
+        List<LockDO> lockDOs = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            LockDO lock = new LockDO();
+            lock.setResourceId("abc");
+            lock.setXid(xid);
+            lock.setTransactionId(transactionId);
+            lock.setBranchId(1L);
+            lock.setRowKey(rowKeyPrefix + i);
+            lock.setPk(String.valueOf(i));
+            lock.setTableName("t");
+            lockDOs.add(lock);
+        }
+        return lockDOs;
+    }
+
+    private static String lockOwner(BasicDataSource dataSource, String rowKey) throws SQLException {
+        Connection conn = null;
+        ResultSet rs = null;
+        try {
+            conn = dataSource.getConnection();
+            rs = conn.createStatement().executeQuery("select xid from lock_table where row_key = '" + rowKey + "'");
+            return rs.next() ? rs.getString(1) : null;
+        } finally {
+            IOUtil.close(rs, conn);
+        }
+    }
+
+    private static int countLocks(BasicDataSource dataSource, String rowKeyPrefix) throws SQLException {
+        Connection conn = null;
+        ResultSet rs = null;
+        try {
+            conn = dataSource.getConnection();
+            rs = conn.createStatement()
+                    .executeQuery("select count(1) from lock_table where row_key like '" + rowKeyPrefix + "%'");
+            rs.next();
+            return rs.getInt(1);
+        } finally {
+            IOUtil.close(rs, conn);
+        }
+    }
+
     @AfterAll
     public static void clearStoreDB() {
         FileUtils.deleteRecursive("db_store", true);
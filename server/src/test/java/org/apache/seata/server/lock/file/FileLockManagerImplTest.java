@@ -21,6 +21,7 @@ import org.apache.seata.common.util.UUIDGenerator;
 import org.apache.seata.core.model.BranchType;
 import org.apache.seata.server.DynamicPortTestConfig;
 import org.apache.seata.server.lock.LockManager;
+import org.apache.seata.server.lock.LockWaiter;
 import org.apache.seata.server.session.BranchSession;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
@@ -82,15 +83,60 @@ public class FileLockManagerImplTest {
         Assertions.assertTrue(resultOne);
     }
 
+    @Test
+    public void releaseLockSignalsWaiterTest() throws Exception {
+        BranchSession branchSession = branchSessionProvider().findFirst().get();
+        Assertions.assertTrue(lockManager.acquireLock(branchSession));
+        String otherXid = XID.generateXID(UUIDGenerator.generateUUID());
+        try (LockWaiter lockWaiter = lockManager.newLockWaiter(otherXid, resourceId, lockKey)) {
+            Assertions.assertNotNull(lockWaiter);
+            Assertions.assertFalse(lockWaiter.await(System.currentTimeMillis() + 50));
+            lockManager.releaseLock(branchSession);
+            Assertions.assertTrue(lockWaiter.await(System.currentTimeMillis() + 1000));
+        }
+    }
+
+    @Test
+    public void partialAcquireDoesNotWakeWaiterTest() throws Exception {
+        BranchSession holder = newBranchSession(UUIDGenerator.generateUUID(), 2L, "tb_1:21");
+        Assertions.assertTrue(lockManager.acquireLock(holder));
+        // locks tb_1:20 before it hits the conflict on tb_1:21 and rolls the partial acquire back
+        BranchSession waiting = newBranchSession(UUIDGenerator.generateUUID(), 3L, "tb_1:20,21");
+        try (LockWaiter lockWaiter =
+                lockManager.newLockWaiter(waiting.getXid(), resourceId, waiting.getLockKey())) {
+            Assertions.assertNotNull(lockWaiter);
+            long deadline = System.currentTimeMillis() + 300;
+            int attempts = 0;
+            boolean locked;
+            do {
+                attempts++;
+                locked = lockManager.acquireLock(waiting);
+            } while (!locked && lockWaiter.await(deadline));
+            Assertions.assertFalse(locked);
+            Assertions.assertEquals(1, attempts);
+
+            lockManager.releaseLock(holder);
+            Assertions.assertTrue(lockWaiter.await(System.currentTimeMillis() + 1000));
+            Assertions.assertTrue(lockManager.acquireLock(waiting));
+        } finally {
+            lockManager.releaseLock(holder);
+            lockManager.releaseLock(waiting);
+        }
+    }
+
     /**
      * Branch session provider object [ ] [ ].
      *
      * @return Stream<BranchSession>
      */
     static Stream<BranchSession> branchSessionProvider() {
+        return Stream.of(newBranchSession(transactionId, 1L, lockKey));
+    }
+
+    private static BranchSession newBranchSession(long transactionId, long branchId, String lockKey) {
         BranchSession branchSession = new BranchSession();
         branchSession.setXid(XID.generateXID(transactionId));
-        branchSession.setBranchId(1L);
+        branchSession.setBranchId(branchId);
         branchSession.setTransactionId(transactionId);
         branchSession.setClientId("c1");
         branchSession.setResourceGroupId(DEFAULT_TX_GROUP);
@@ -98,6 +144,6 @@ public class FileLockManagerImplTest {
         branchSession.setLockKey(lockKey);
         branchSession.setBranchType(BranchType.AT);
         branchSession.setApplicationData("{\"data\":\"test\"}");
-        return Stream.of(branchSession);
+        return branchSession;
     }
 }
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.lock.file;
+
+import org.apache.seata.common.XID;
+import org.apache.seata.common.util.UUIDGenerator;
+import org.apache.seata.core.model.BranchType;
+import org.apache.seata.server.DynamicPortTestConfig;
+import org.apache.seata.server.lock.LockManager;
+import org.apache.seata.server.session.BranchSession;
+import org.apache.seata.server.storage.file.lock.StripedFileLockManager;
+import org.apache.seata.server.storage.file.lock.StripedFileLocker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.seata.common.DefaultValues.DEFAULT_TX_GROUP;
+
+@SpringBootTest
+@Import(DynamicPortTestConfig.class)
+public class StripedFileLockManagerTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StripedFileLockManagerTest.class);
+
+    private static final String RESOURCE_ID = "jdbc:mysql://127.0.0.1:3306/seata";
+
+    private final LockManager lockManager = new StripedFileLockManager();
+
+    @BeforeAll
+    public static void setup(ApplicationContext context) {}
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        lockManager.cleanAllLocks();
+    }
+
+    @Test
+    public void acquireAndReleaseTest() throws Exception {
+        long transactionId = UUIDGenerator.generateUUID();
+        BranchSession branchSession = newBranchSession(transactionId, "t1:1,2,3;t2:1");
+        Assertions.assertTrue(lockManager.acquireLock(branchSession));
+        Assertions.assertEquals(4, StripedFileLocker.getLockTable().size());
+        // reentrant for the same transaction
+        BranchSession sameTransaction = newBranchSession(transactionId, "t1:1,4");
+        Assertions.assertTrue(lockManager.acquireLock(sameTransaction));
+        Assertions.assertEquals(5, StripedFileLocker.getLockTable().size());
+
+        String otherXid = XID.generateXID(UUIDGenerator.generateUUID());
+        Assertions.assertFalse(lockManager.isLockable(otherXid, RESOURCE_ID, "t1:2"));
+        Assertions.assertTrue(lockManager.isLockable(otherXid, RESOURCE_ID, "t1:5;t3:1"));
+        Assertions.assertTrue(lockManager.isLockable(branchSession.getXid(), RESOURCE_ID, "t1:2"));
+
+        Assertions.assertTrue(lockManager.releaseLock(branchSession));
+        Assertions.assertEquals(1, StripedFileLocker.getLockTable().size());
+        Assertions.assertTrue(lockManager.releaseLock(sameTransaction));
+        Assertions.assertEquals(0, StripedFileLocker.getLockTable().size());
+        Assertions.assertTrue(lockManager.isLockable(otherXid, RESOURCE_ID, "t1:2"));
+    }
+
+    @Test
+    public void conflictReleasesPartialLocksTest() throws Exception {
+        BranchSession holder = newBranchSession(UUIDGenerator.generateUUID(), "t1:5");
+        Assertions.assertTrue(lockManager.acquireLock(holder));
+        BranchSession conflicting = newBranchSession(UUIDGenerator.generateUUID(), "t1:1,2,3,4,5,6,7,8");
+        Assertions.assertFalse(lockManager.acquireLock(conflicting));
+        Assertions.assertEquals(1, StripedFileLocker.getLockTable().size());
+        Assertions.assertTrue(lockManager.releaseLock(holder));
+        Assertions.assertTrue(lockManager.acquireLock(conflicting));
+        Assertions.assertEquals(8, StripedFileLocker.getLockTable().size());
+    }
+
+    @Test
+    public void manyRowsTest() throws Exception {
+        List<BranchSession> branchSessions = new ArrayList<>();
+        for (int b = 0; b < 20; b++) {
+            BranchSession branchSession = newBranchSession(UUIDGenerator.generateUUID(), buildLockKey(b, 1000));
+            Assertions.assertTrue(lockManager.acquireLock(branchSession));
+            branchSessions.add(branchSession);
+        }
+        Assertions.assertEquals(20000, StripedFileLocker.getLockTable().size());
+        for (BranchSession branchSession : branchSessions) {
+            Assertions.assertTrue(lockManager.releaseLock(branchSession));
+        }
+        Assertions.assertEquals(0, StripedFileLocker.getLockTable().size());
+    }
+
+    /**
+     * Only the timings are of interest, run with -DbenchmarkCaseEnabled=true.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarkCaseEnabled", matches = "true")
+    public void compareWithBucketLockManagerTest() throws Exception {
+        int branches = 200;
+        int rowsPerBranch = 1000;
+        List<String> lockKeys = new ArrayList<>(branches);
+        for (int b = 0; b < branches; b++) {
+            lockKeys.add(buildLockKey(b, rowsPerBranch));
+        }
+        LockManager bucketLockManager = new FileLockManagerForTest();
+        long bucketElapsed = acquireAndRelease(bucketLockManager, lockKeys);
+        long stripedElapsed = acquireAndRelease(lockManager, lockKeys);
+        LOGGER.info(
+                "lock and release {} rows, bucket lock manager elapsed time {} ms, striped lock manager {} ms.",
+                branches * rowsPerBranch,
+                bucketElapsed,
+                stripedElapsed);
+    }
+
+    private long acquireAndRelease(LockManager manager, List<String> lockKeys) throws Exception {
+        List<BranchSession> branchSessions = new ArrayList<>(lockKeys.size());
+        for (String lockKey : lockKeys) {
+            branchSessions.add(newBranchSession(UUIDGenerator.generateUUID(), lockKey));
+        }
+        long start = System.currentTimeMillis();
+        for (BranchSession branchSession : branchSessions) {
+            Assertions.assertTrue(manager.acquireLock(branchSession));
+        }
+        for (BranchSession branchSession : branchSessions) {
+            Assertions.assertTrue(manager.releaseLock(branchSession));
+        }
+        return System.currentTimeMillis() - start;
+    }
+
+    private static String buildLockKey(int branchIndex, int rows) {
+        StringBuilder lockKey = new StringBuilder("t_order:");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                lockKey.append(',');
+            }
+            lockKey.append(branchIndex * rows + i);
+        }
+        return lockKey.toString();
+    }
+
+    private static BranchSession newBranchSession(long transactionId, String lockKey) {
+        BranchSession branchSession = new BranchSession(BranchType.AT);
+        branchSession.setXid(XID.generateXID(transactionId));
+        branchSession.setBranchId(UUIDGenerator.generateUUID());
+        branchSession.setTransactionId(transactionId);
+        branchSession.setClientId("c1");
+        branchSession.setResourceGroupId(DEFAULT_TX_GROUP);
+        branchSession.setResourceId(RESOURCE_ID);
+        branchSession.setLockKey(lockKey);
+        branchSession.setBranchType(BranchType.AT);
+        return branchSession;
+    }
+}
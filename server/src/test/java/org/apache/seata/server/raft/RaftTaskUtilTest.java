@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.raft;
+
+import com.alipay.sofa.jraft.Node;
+import com.alipay.sofa.jraft.option.NodeOptions;
+import org.apache.seata.core.exception.TransactionException;
+import org.apache.seata.core.exception.TransactionExceptionCode;
+import org.apache.seata.server.cluster.raft.RaftServer;
+import org.apache.seata.server.cluster.raft.RaftServerManager;
+import org.apache.seata.server.cluster.raft.context.SeataClusterContext;
+import org.apache.seata.server.cluster.raft.util.RaftTaskUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ */
+public class RaftTaskUtilTest {
+
+    @AfterEach
+    public void clear() {
+        SeataClusterContext.disableTaskDeferral();
+    }
+
+    @Test
+    public void testDeferOrGetWithoutDeferral() throws TransactionException {
+        CompletableFuture<Boolean> completableFuture = new CompletableFuture<>();
+        completableFuture.complete(false);
+        Assertions.assertFalse(RaftTaskUtil.deferOrGet(completableFuture));
+        Assertions.assertNull(SeataClusterContext.getDeferredTask());
+
+        CompletableFuture<Boolean> failedFuture = new CompletableFuture<>();
+        failedFuture.completeExceptionally(new TransactionException(TransactionExceptionCode.NotRaftLeader));
+        TransactionException tex =
+                Assertions.assertThrows(TransactionException.class, () -> RaftTaskUtil.deferOrGet(failedFuture));
+        Assertions.assertEquals(TransactionExceptionCode.NotRaftLeader, tex.getCode());
+    }
+
+    @Test
+    public void testDeferOrGetWithDeferral() throws TransactionException {
+        SeataClusterContext.enableTaskDeferral();
+        CompletableFuture<Boolean> deferred = new CompletableFuture<>();
+        // the first task is handed over to the response without waiting
+        Assertions.assertTrue(RaftTaskUtil.deferOrGet(deferred));
+        Assertions.assertSame(deferred, SeataClusterContext.getDeferredTask());
+
+        // any further task of the same request is waited for
+        CompletableFuture<Boolean> completableFuture = new CompletableFuture<>();
+        completableFuture.complete(false);
+        Assertions.assertFalse(RaftTaskUtil.deferOrGet(completableFuture));
+
+        Assertions.assertSame(deferred, SeataClusterContext.disableTaskDeferral());
+        Assertions.assertFalse(SeataClusterContext.isTaskDeferrable());
+        Assertions.assertNull(SeataClusterContext.getDeferredTask());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testReadIndexTimeout() throws Exception {
+        // the read index of a follower without leader never completes
+        NodeOptions nodeOptions = new NodeOptions();
+        nodeOptions.setRpcDefaultTimeout(100);
+        Node node = mock(Node.class);
+        when(node.getOptions()).thenReturn(nodeOptions);
+        RaftServer raftServer = mock(RaftServer.class);
+        when(raftServer.getNode()).thenReturn(node);
+        Field field = RaftServerManager.class.getDeclaredField("RAFT_SERVER_MAP");
+        field.setAccessible(true);
+        Map<String, RaftServer> raftServerMap = (Map<String, RaftServer>) field.get(null);
+        raftServerMap.put("readIndexTest", raftServer);
+        try {
+            TransactionException tex = Assertions.assertThrows(
+                    TransactionException.class, () -> RaftTaskUtil.readIndex("readIndexTest"));
+            Assertions.assertEquals(TransactionExceptionCode.NotRaftLeader, tex.getCode());
+        } finally {
+            raftServerMap.remove("readIndexTest");
+        }
+    }
+
+    @Test
+    public void testToTransactionException() {
+        TransactionException cause = new TransactionException(TransactionExceptionCode.NotRaftLeader);
+        Assertions.assertSame(cause, RaftTaskUtil.toTransactionException(new CompletionException(cause)));
+        Assertions.assertEquals(
+                TransactionExceptionCode.FailedWriteSession,
+                RaftTaskUtil.toTransactionException(new CompletionException(new IllegalStateException()))
+                        .getCode());
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.session;
+
+import org.apache.seata.core.model.GlobalStatus;
+import org.apache.seata.server.DynamicPortTestConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+/**
+ * The type Session timeout wheel test.
+ */
+@SpringBootTest
+@Import(DynamicPortTestConfig.class)
+public class SessionTimeoutWheelTest {
+
+    private static final long TICK = 100L;
+
+    @Test
+    public void testExpire() {
+        SessionTimeoutWheel wheel = new SessionTimeoutWheel(TICK, 8);
+        long now = System.currentTimeMillis();
+        GlobalSession shortSession = newSession(now, 200);
+        GlobalSession longSession = newSession(now, 5000);
+        wheel.onBegin(shortSession);
+        wheel.onBegin(longSession);
+        Assertions.assertEquals(2, wheel.size());
+
+        Assertions.assertTrue(wheel.expire(now).isEmpty());
+        List<String> expired = wheel.expire(now + 400);
+        Assertions.assertEquals(1, expired.size());
+        Assertions.assertEquals(shortSession.getXid(), expired.get(0));
+        // a later round stays in its slot while the whole wheel is swept
+        Assertions.assertTrue(wheel.expire(now + 2000).isEmpty());
+        Assertions.assertEquals(1, wheel.size());
+
+        expired = wheel.expire(now + 5200);
+        Assertions.assertEquals(1, expired.size());
+        Assertions.assertEquals(longSession.getXid(), expired.get(0));
+        Assertions.assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testRemoveOnStatusChange() {
+        SessionTimeoutWheel wheel = new SessionTimeoutWheel(TICK, 8);
+        long now = System.currentTimeMillis();
+        GlobalSession committed = newSession(now, 200);
+        GlobalSession ended = newSession(now, 200);
+        GlobalSession begun = newSession(now, 200);
+        wheel.onBegin(committed);
+        wheel.onBegin(ended);
+        wheel.onBegin(begun);
+
+        wheel.onStatusChange(committed, GlobalStatus.Committing);
+        wheel.onStatusChange(begun, GlobalStatus.Begin);
+        wheel.onSuccessEnd(ended);
+        Assertions.assertEquals(1, wheel.size());
+        List<String> expired = wheel.expire(now + 400);
+        Assertions.assertEquals(1, expired.size());
+        Assertions.assertEquals(begun.getXid(), expired.get(0));
+    }
+
+    @Test
+    public void testDeadlineAlreadySwept() {
+        SessionTimeoutWheel wheel = new SessionTimeoutWheel(TICK, 8);
+        long now = System.currentTimeMillis();
+        wheel.expire(now + 1000);
+        GlobalSession late = newSession(now, 100);
+        wheel.onBegin(late);
+        List<String> expired = wheel.expire(now + 1200);
+        Assertions.assertEquals(1, expired.size());
+    }
+
+    @Test
+    public void testRemoveDeadlineAlreadySwept() {
+        SessionTimeoutWheel wheel = new SessionTimeoutWheel(TICK, 8);
+        long now = System.currentTimeMillis();
+        wheel.expire(now + 1000);
+        // put into the slot of the next sweep instead of the slot of its deadline
+        GlobalSession late = newSession(now, 100);
+        wheel.onBegin(late);
+        Assertions.assertEquals(1, wheel.size());
+
+        wheel.onSuccessEnd(late);
+        Assertions.assertEquals(0, wheel.size());
+        Assertions.assertTrue(wheel.expire(now + 1200).isEmpty());
+    }
+
+    private static GlobalSession newSession(long beginTime, int timeout) {
+        GlobalSession globalSession = new GlobalSession("demo-app", "default_tx_group", "test", timeout);
+        globalSession.setBeginTime(beginTime);
+        return globalSession;
+    }
+}
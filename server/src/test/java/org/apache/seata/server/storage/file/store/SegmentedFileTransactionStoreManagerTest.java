@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.storage.file.store;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.seata.server.DynamicPortTestConfig;
+import org.apache.seata.server.session.GlobalSession;
+import org.apache.seata.server.storage.file.TransactionWriteStore;
+import org.apache.seata.server.store.TransactionStoreManager.LogOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@SpringBootTest
+@Import(DynamicPortTestConfig.class)
+public class SegmentedFileTransactionStoreManagerTest {
+
+    private static final String STORE_PATH = "sessionStore/segment_test/root.data";
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(new File("sessionStore/segment_test"));
+    }
+
+    @Test
+    public void testRecoverLiveSessionsAndDeleteDeadSegments() throws IOException {
+        SegmentedFileTransactionStoreManager storeManager =
+                new SegmentedFileTransactionStoreManager(STORE_PATH, null, SEGMENT_SIZE);
+        List<GlobalSession> sessions = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            GlobalSession globalSession = new GlobalSession("demo-app", "default_tx_group", "test", 60000);
+            sessions.add(globalSession);
+            Assertions.assertTrue(storeManager.writeSession(LogOperation.GLOBAL_ADD, globalSession));
+        }
+        Set<String> liveXids = new HashSet<>();
+        for (int i = 0; i < sessions.size(); i++) {
+            if (i < 40) {
+                Assertions.assertTrue(storeManager.writeSession(LogOperation.GLOBAL_REMOVE, sessions.get(i)));
+            } else {
+                liveXids.add(sessions.get(i).getXid());
+            }
+        }
+        storeManager.shutdown();
+
+        File segmentDir = new File(STORE_PATH + ".segments");
+        Assertions.assertFalse(new File(segmentDir, String.format("%020d.seg", 0)).exists());
+
+        SegmentedFileTransactionStoreManager recoverManager =
+                new SegmentedFileTransactionStoreManager(STORE_PATH, null, SEGMENT_SIZE);
+        Set<String> recoveredXids = new HashSet<>();
+        Assertions.assertFalse(recoverManager.hasRemaining(true));
+        while (recoverManager.hasRemaining(false)) {
+            for (TransactionWriteStore store : recoverManager.readWriteStore(10, false)) {
+                GlobalSession globalSession = (GlobalSession) store.getSessionRequest();
+                if (store.getOperate() == LogOperation.GLOBAL_REMOVE) {
+                    recoveredXids.remove(globalSession.getXid());
+                } else {
+                    recoveredXids.add(globalSession.getXid());
+                }
+            }
+        }
+        recoverManager.shutdown();
+        Assertions.assertEquals(liveXids, recoveredXids);
+    }
+
+    @Test
+    public void testMigrateLegacyDataFile() throws IOException {
+        FileTransactionStoreManager legacyManager = new FileTransactionStoreManager(STORE_PATH, null);
+        Set<String> liveXids = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            GlobalSession globalSession = new GlobalSession("demo-app", "default_tx_group", "test", 60000);
+            Assertions.assertTrue(legacyManager.writeSession(LogOperation.GLOBAL_ADD, globalSession));
+            if (i < 2) {
+                Assertions.assertTrue(legacyManager.writeSession(LogOperation.GLOBAL_REMOVE, globalSession));
+            } else {
+                liveXids.add(globalSession.getXid());
+            }
+        }
+        legacyManager.shutdown();
+
+        SegmentedFileTransactionStoreManager storeManager =
+                new SegmentedFileTransactionStoreManager(STORE_PATH, null, SEGMENT_SIZE);
+        int replayed = 0;
+        while (storeManager.hasRemaining(true)) {
+            replayed += storeManager.readWriteStore(3, true).size();
+        }
+        Assertions.assertEquals(7, replayed);
+        Assertions.assertFalse(new File(STORE_PATH).exists());
+        Assertions.assertFalse(storeManager.hasRemaining(false));
+        storeManager.shutdown();
+
+        SegmentedFileTransactionStoreManager recoverManager =
+                new SegmentedFileTransactionStoreManager(STORE_PATH, null, SEGMENT_SIZE);
+        Assertions.assertFalse(recoverManager.hasRemaining(true));
+        Set<String> recoveredXids = new HashSet<>();
+        while (recoverManager.hasRemaining(false)) {
+            for (TransactionWriteStore store : recoverManager.readWriteStore(10, false)) {
+                GlobalSession globalSession = (GlobalSession) store.getSessionRequest();
+                if (store.getOperate() == LogOperation.GLOBAL_REMOVE) {
+                    recoveredXids.remove(globalSession.getXid());
+                } else {
+                    recoveredXids.add(globalSession.getXid());
+                }
+            }
+        }
+        recoverManager.shutdown();
+        Assertions.assertEquals(liveXids, recoveredXids);
+    }
+
+    @Test
+    public void testRejectRecordLargerThanSegment() throws IOException {
+        SegmentedFileTransactionStoreManager storeManager =
+                new SegmentedFileTransactionStoreManager(STORE_PATH, null, 64);
+        GlobalSession globalSession = new GlobalSession("demo-app", "default_tx_group", "test", 60000);
+        Assertions.assertFalse(storeManager.writeSession(LogOperation.GLOBAL_ADD, globalSession));
+        storeManager.shutdown();
+    }
+}
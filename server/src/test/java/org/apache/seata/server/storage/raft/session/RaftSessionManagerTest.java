@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.storage.raft.session;
+
+import com.alipay.sofa.jraft.Node;
+import com.alipay.sofa.jraft.Status;
+import com.alipay.sofa.jraft.entity.Task;
+import com.alipay.sofa.jraft.error.RaftError;
+import org.apache.seata.common.store.LockMode;
+import org.apache.seata.common.util.UUIDGenerator;
+import org.apache.seata.core.exception.TransactionException;
+import org.apache.seata.core.exception.TransactionExceptionCode;
+import org.apache.seata.core.model.BranchType;
+import org.apache.seata.server.DynamicPortTestConfig;
+import org.apache.seata.server.cluster.raft.RaftServer;
+import org.apache.seata.server.cluster.raft.RaftServerManager;
+import org.apache.seata.server.cluster.raft.context.SeataClusterContext;
+import org.apache.seata.server.lock.LockManager;
+import org.apache.seata.server.lock.LockerManagerFactory;
+import org.apache.seata.server.session.BranchSession;
+import org.apache.seata.server.session.GlobalSession;
+import org.apache.seata.server.storage.raft.lock.RaftLockManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.apache.seata.common.DefaultValues.DEFAULT_TX_GROUP;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ */
+@SpringBootTest
+@Import(DynamicPortTestConfig.class)
+class RaftSessionManagerTest {
+
+    private static final String GROUP = "raftSessionManagerTest";
+
+    private Map<String, RaftServer> raftServerMap;
+
+    private Node node;
+
+    @BeforeAll
+    public static void setUp(ApplicationContext context) {
+        LockerManagerFactory.destroy();
+        LockerManagerFactory.init(LockMode.RAFT);
+    }
+
+    @AfterAll
+    public static void destroy() {
+        LockerManagerFactory.destroy();
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void mockRaftServer() throws Exception {
+        // every task fails as if the node lost its leadership before the task is committed
+        node = mock(Node.class);
+        doAnswer(invocation -> {
+                    Task task = invocation.getArgument(0);
+                    task.getDone().run(new Status(RaftError.EPERM, "not leader"));
+                    return null;
+                })
+                .when(node)
+                .apply(any(Task.class));
+        RaftServer raftServer = mock(RaftServer.class);
+        when(raftServer.getNode()).thenReturn(node);
+        Field field = RaftServerManager.class.getDeclaredField("RAFT_SERVER_MAP");
+        field.setAccessible(true);
+        raftServerMap = (Map<String, RaftServer>) field.get(null);
+        raftServerMap.put(GROUP, raftServer);
+        SeataClusterContext.bindGroup(GROUP);
+    }
+
+    @AfterEach
+    public void removeRaftServer() {
+        SeataClusterContext.unbindGroup();
+        raftServerMap.remove(GROUP);
+    }
+
+    @Test
+    public void testFailedAddBranchReleasesLocks() throws Exception {
+        GlobalSession globalSession = newGlobalSession("123:123", 123);
+        BranchSession branchSession = newBranchSession(globalSession, "t1:1");
+        LockManager lockManager = LockerManagerFactory.getLockManager();
+        // branch register takes the row locks before the branch is added
+        Assertions.assertTrue(lockManager.acquireLock(branchSession));
+
+        RaftSessionManager sessionManager = new RaftSessionManager("test");
+        CompletableFuture<Boolean> completableFuture = sessionManager.onAddBranchAsync(globalSession, branchSession);
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class, completableFuture::get);
+        Assertions.assertEquals(
+                TransactionExceptionCode.NotRaftLeader, ((TransactionException) e.getCause()).getCode());
+
+        Assertions.assertNull(globalSession.getBranch(branchSession.getBranchId()));
+        Assertions.assertTrue(branchSession.getLockHolder().isEmpty());
+        // the locks are released locally, no further raft task is applied
+        verify(node, times(1)).apply(any(Task.class));
+
+        BranchSession other = newBranchSession(newGlobalSession("123:124", 124), "t1:1");
+        Assertions.assertTrue(lockManager.acquireLock(other));
+        Assertions.assertTrue(((RaftLockManager) lockManager).localReleaseLock(other));
+    }
+
+    private static GlobalSession newGlobalSession(String xid, long transactionId) {
+        GlobalSession session = new GlobalSession("test", "test", "test", 5000);
+        session.setXid(xid);
+        session.setTransactionId(transactionId);
+        session.setBeginTime(System.currentTimeMillis());
+        return session;
+    }
+
+    private static BranchSession newBranchSession(GlobalSession globalSession, String lockKey) {
+        BranchSession session = new BranchSession();
+        session.setXid(globalSession.getXid());
+        session.setTransactionId(globalSession.getTransactionId());
+        session.setBranchId(UUIDGenerator.generateUUID());
+        session.setClientId("client");
+        session.setResourceGroupId(DEFAULT_TX_GROUP);
+        session.setResourceId("resource");
+        session.setLockKey(lockKey);
+        session.setBranchType(BranchType.AT);
+        session.setApplicationData("hello, world");
+        return session;
+    }
+}
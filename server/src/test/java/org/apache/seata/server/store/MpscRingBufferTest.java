@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.store;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class MpscRingBufferTest {
+
+    @Test
+    public void testCapacityRoundUp() {
+        Assertions.assertEquals(1, new MpscRingBuffer<Integer>(1).capacity());
+        Assertions.assertEquals(8, new MpscRingBuffer<Integer>(5).capacity());
+        Assertions.assertEquals(16, new MpscRingBuffer<Integer>(16).capacity());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new MpscRingBuffer<Integer>(0));
+    }
+
+    @Test
+    public void testOfferAndPoll() {
+        MpscRingBuffer<Integer> ringBuffer = new MpscRingBuffer<>(4);
+        Assertions.assertTrue(ringBuffer.isEmpty());
+        Assertions.assertNull(ringBuffer.poll());
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(ringBuffer.offer(i));
+        }
+        Assertions.assertFalse(ringBuffer.offer(4));
+        Assertions.assertEquals(4, ringBuffer.size());
+        Assertions.assertEquals(0, ringBuffer.poll());
+        Assertions.assertTrue(ringBuffer.offer(4));
+        List<Integer> drained = new ArrayList<>();
+        Assertions.assertEquals(3, ringBuffer.drain(drained::add, 3));
+        Assertions.assertEquals(4, ringBuffer.poll());
+        Assertions.assertTrue(ringBuffer.isEmpty());
+        Assertions.assertEquals(3, drained.get(2));
+    }
+
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 10000;
+        MpscRingBuffer<Integer> ringBuffer = new MpscRingBuffer<>(64);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch latch = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            executor.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!ringBuffer.offer(base + i)) {
+                        Thread.yield();
+                    }
+                }
+                latch.countDown();
+            });
+        }
+        Set<Integer> received = new HashSet<>();
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        while (received.size() < producers * perProducer && System.currentTimeMillis() < deadline) {
+            if (ringBuffer.drain(received::add, 32) == 0) {
+                Thread.yield();
+            }
+        }
+        Assertions.assertTrue(latch.await(1, TimeUnit.SECONDS));
+        executor.shutdown();
+        Assertions.assertEquals(producers * perProducer, received.size());
+        Assertions.assertTrue(ringBuffer.isEmpty());
+    }
+}
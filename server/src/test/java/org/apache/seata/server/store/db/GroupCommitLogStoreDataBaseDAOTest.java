@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.seata.server.store.db;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.apache.seata.common.exception.StoreException;
+import org.apache.seata.common.util.IOUtil;
+import org.apache.seata.core.store.BranchTransactionDO;
+import org.apache.seata.core.store.GlobalTransactionDO;
+import org.apache.seata.server.DynamicPortTestConfig;
+import org.apache.seata.server.storage.db.store.GroupCommitLogStoreDataBaseDAO;
+import org.h2.store.fs.FileUtils;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ */
+@SpringBootTest
+@Import(DynamicPortTestConfig.class)
+public class GroupCommitLogStoreDataBaseDAOTest {
+
+    static GroupCommitLogStoreDataBaseDAO logStore = null;
+
+    static BasicDataSource dataSource = null;
+
+    @BeforeAll
+    public static void start(ApplicationContext context) throws SQLException {
+        dataSource = new BasicDataSource();
+        dataSource.setDriverClassName("org.h2.Driver");
+        dataSource.setUrl("jdbc:h2:./db_store/group_commit");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+
+        logStore = new GroupCommitLogStoreDataBaseDAO(dataSource, 32, 5);
+        logStore.setDbType("h2");
+        logStore.setGlobalTable("gc_global_table");
+        logStore.setBranchTable("gc_branch_table");
+
+        Connection conn = null;
+        Statement s = null;
+        try {
+            conn = dataSource.getConnection();
+            s = conn.createStatement();
+            s.execute("drop table if exists gc_global_table");
+            s.execute(
+                    "CREATE TABLE gc_global_table ( xid varchar(96) primary key,  transaction_id long , STATUS int,  application_id varchar(32), transaction_service_group varchar(32) ,transaction_name varchar(128) ,timeout int,  begin_time long, application_data varchar(500), gmt_create TIMESTAMP(6) ,gmt_modified TIMESTAMP(6) ) ");
+            s.execute("drop table if exists gc_branch_table");
+            s.execute(
+                    "CREATE TABLE gc_branch_table ( xid varchar(96),  transaction_id long , branch_id long primary key, resource_group_id varchar(32), resource_id varchar(32) ,lock_key varchar(64) ,branch_type varchar(32) ,  status int , client_id varchar(128),  application_data varchar(500),  gmt_create TIMESTAMP(6) ,gmt_modified TIMESTAMP(6) ) ");
+        } finally {
+            IOUtil.close(s, conn);
+        }
+    }
+
+    @AfterAll
+    public static void clearStoreDB() throws SQLException {
+        logStore.shutdown();
+        dataSource.close();
+        FileUtils.deleteRecursive("db_store", true);
+    }
+
+    @Test
+    public void testConcurrentWritesAreCommitted() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                final int n = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    String xid = "gc-concurrent:" + n;
+                    boolean ret = logStore.insertGlobalTransactionDO(newGlobal(xid, 1000L + n, 1));
+                    ret &= logStore.insertBranchTransactionDO(newBranch(xid, 1000L + n, 2000L + n));
+                    BranchTransactionDO branch = newBranch(xid, 1000L + n, 2000L + n);
+                    branch.setStatus(2);
+                    ret &= logStore.updateBranchTransactionDO(branch);
+                    ret &= logStore.updateGlobalTransactionDO(newGlobal(xid, 1000L + n, 2));
+                    return ret;
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> future : futures) {
+                Assertions.assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = 0; i < threads; i++) {
+            String xid = "gc-concurrent:" + i;
+            GlobalTransactionDO global = logStore.queryGlobalTransactionDO(xid);
+            Assertions.assertNotNull(global);
+            Assertions.assertEquals(2, global.getStatus());
+            List<BranchTransactionDO> branches = logStore.queryBranchTransactionDO(xid);
+            Assertions.assertEquals(1, branches.size());
+            Assertions.assertEquals(2, branches.get(0).getStatus());
+
+            Assertions.assertTrue(logStore.deleteBranchTransactionDO(branches.get(0)));
+            Assertions.assertTrue(logStore.deleteGlobalTransactionDO(global));
+            Assertions.assertNull(logStore.queryGlobalTransactionDO(xid));
+        }
+    }
+
+    @Test
+    public void testUpdateByExpectedStatus() {
+        String xid = "gc-expected:1";
+        Assertions.assertTrue(logStore.insertGlobalTransactionDO(newGlobal(xid, 3000L, 1)));
+        Assertions.assertFalse(logStore.updateGlobalTransactionDO(newGlobal(xid, 3000L, 3), 2));
+        Assertions.assertTrue(logStore.updateGlobalTransactionDO(newGlobal(xid, 3000L, 3), 1));
+        Assertions.assertEquals(3, logStore.queryGlobalTransactionDO(xid).getStatus());
+        Assertions.assertFalse(logStore.updateBranchTransactionDO(newBranch(xid, 3000L, 3001L)));
+        logStore.deleteGlobalTransactionDO(newGlobal(xid, 3000L, 3));
+    }
+
+    @Test
+    public void testFailedWriteDoesNotFailOthers() throws Exception {
+        String xid = "gc-duplicate:1";
+        Assertions.assertTrue(logStore.insertGlobalTransactionDO(newGlobal(xid, 4000L, 1)));
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                final int n = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    // thread 0 inserts a duplicate key
+                    String id = n == 0 ? xid : "gc-duplicate:other-" + n;
+                    return logStore.insertGlobalTransactionDO(newGlobal(id, 4000L + n, 1));
+                }));
+            }
+            start.countDown();
+            for (int i = 0; i < threads; i++) {
+                if (i == 0) {
+                    Future<Boolean> failed = futures.get(i);
+                    Exception e = Assertions.assertThrows(Exception.class, failed::get);
+                    Assertions.assertTrue(e.getCause() instanceof StoreException);
+                } else {
+                    Assertions.assertTrue(futures.get(i).get());
+                    Assertions.assertNotNull(logStore.queryGlobalTransactionDO("gc-duplicate:other-" + i));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testInsertsCommittedByFailedCommitSucceed() throws Exception {
+        AtomicBoolean failCommit = new AtomicBoolean(true);
+        // the first group commit reaches the database, but the driver reports it as failed
+        DataSource commitFailing = (DataSource) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[] {DataSource.class}, (proxy, method, args) -> {
+                    Object result = invoke(dataSource, method, args);
+                    if (!"getConnection".equals(method.getName())) {
+                        return result;
+                    }
+                    Connection conn = (Connection) result;
+                    return Proxy.newProxyInstance(
+                            getClass().getClassLoader(), new Class<?>[] {Connection.class}, (p, m, a) -> {
+                                Object ret = invoke(conn, m, a);
+                                if ("commit".equals(m.getName()) && failCommit.compareAndSet(true, false)) {
+                                    throw new SQLException("connection reset after commit");
+                                }
+                                return ret;
+                            });
+                });
+        GroupCommitLogStoreDataBaseDAO store = new GroupCommitLogStoreDataBaseDAO(commitFailing, 32, 200);
+        store.setDbType("h2");
+        store.setGlobalTable("gc_global_table");
+        store.setBranchTable("gc_branch_table");
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                final int n = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return store.insertGlobalTransactionDO(newGlobal("gc-commit-failed:" + n, 5000L + n, 1));
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> future : futures) {
+                Assertions.assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+            store.shutdown();
+        }
+        Assertions.assertFalse(failCommit.get());
+        for (int i = 0; i < threads; i++) {
+            Assertions.assertNotNull(logStore.queryGlobalTransactionDO("gc-commit-failed:" + i));
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static GlobalTransactionDO newGlobal(String xid, long transactionId, int status) {
+        GlobalTransactionDO globalTransactionDO = new GlobalTransactionDO();
+        globalTransactionDO.setXid(xid);
+        globalTransactionDO.setTransactionId(transactionId);
+        globalTransactionDO.setStatus(status);
+        globalTransactionDO.setApplicationId("test");
+        globalTransactionDO.setTransactionServiceGroup("test");
+        globalTransactionDO.setTransactionName("test");
+        globalTransactionDO.setTimeout(60000);
+        globalTransactionDO.setBeginTime(System.currentTimeMillis());
+        return globalTransactionDO;
+    }
+
+    private static BranchTransactionDO newBranch(String xid, long transactionId, long branchId) {
+        BranchTransactionDO branchTransactionDO = new BranchTransactionDO();
+        branchTransactionDO.setXid(xid);
+        branchTransactionDO.setTransactionId(transactionId);
+        branchTransactionDO.setBranchId(branchId);
+        branchTransactionDO.setResourceId("res");
+        branchTransactionDO.setBranchType("AT");
+        branchTransactionDO.setStatus(1);
+        branchTransactionDO.setClientId("client");
+        return branchTransactionDO;
+    }
+}
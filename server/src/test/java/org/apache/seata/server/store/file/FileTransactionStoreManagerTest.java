@@ -41,9 +41,13 @@ import org.springframework.context.annotation.Import;
 import java.io.File;
 import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  */
@@ -95,6 +99,56 @@ public class FileTransactionStoreManagerTest {
         }
     }
 
+    @Test
+    public void testGroupCommitWrite() throws Exception {
+        File seataFile = Files.newTemporaryFile();
+        FileTransactionStoreManager fileTransactionStoreManager = null;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        System.setProperty("store.file.groupCommitEnabled", "true");
+        try {
+            fileTransactionStoreManager = new FileTransactionStoreManager(seataFile.getAbsolutePath(), null);
+            FileTransactionStoreManager storeManager = fileTransactionStoreManager;
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                GlobalSession globalSession = new GlobalSession("demo-app", "default_tx_group", "test", 60000);
+                futures.add(executor.submit(() ->
+                        storeManager.writeSession(TransactionStoreManager.LogOperation.GLOBAL_ADD, globalSession)));
+            }
+            for (Future<Boolean> future : futures) {
+                Assertions.assertTrue(future.get());
+            }
+            List<TransactionWriteStore> list = fileTransactionStoreManager.readWriteStore(2000, false);
+            Assertions.assertNotNull(list);
+            Assertions.assertEquals(200, list.size());
+        } finally {
+            System.clearProperty("store.file.groupCommitEnabled");
+            executor.shutdown();
+            if (fileTransactionStoreManager != null) {
+                fileTransactionStoreManager.shutdown();
+            }
+            Assertions.assertTrue(seataFile.delete());
+        }
+    }
+
+    @Test
+    public void testGroupCommitWriteAfterShutdown() throws Exception {
+        File seataFile = Files.newTemporaryFile();
+        System.setProperty("store.file.groupCommitEnabled", "true");
+        try {
+            FileTransactionStoreManager fileTransactionStoreManager =
+                    new FileTransactionStoreManager(seataFile.getAbsolutePath(), null);
+            fileTransactionStoreManager.shutdown();
+            GlobalSession globalSession = new GlobalSession("demo-app", "default_tx_group", "test", 60000);
+            Assertions.assertFalse(Assertions.assertTimeout(
+                    Duration.ofMillis(500),
+                    () -> fileTransactionStoreManager.writeSession(
+                            TransactionStoreManager.LogOperation.GLOBAL_ADD, globalSession)));
+        } finally {
+            System.clearProperty("store.file.groupCommitEnabled");
+            Assertions.assertTrue(seataFile.delete());
+        }
+    }
+
     @Test
     public void testFindTimeoutAndSave() throws Exception {
         File seataFile = Files.newTemporaryFile();